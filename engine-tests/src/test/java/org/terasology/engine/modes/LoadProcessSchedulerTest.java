@@ -0,0 +1,169 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.core.modes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadProcessSchedulerTest {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testMainThreadProcessesRunInOrder() {
+        LoadProcessScheduler scheduler = new LoadProcessScheduler(ImmutableList.of(
+                new MainProcess("first"), new MainProcess("second"), new MainProcess("third")));
+
+        runToCompletion(scheduler);
+
+        assertEquals(ImmutableList.of("first", "second", "third"), events);
+        assertEquals(1f, scheduler.getProgress());
+        assertEquals(3, scheduler.getTimeline().size());
+        String thread = Thread.currentThread().getName();
+        assertTrue(scheduler.getTimeline().stream().allMatch(entry -> entry.getThread().equals(thread)));
+    }
+
+    @Test
+    public void testWorkerProcessRunsAlongsideLaterProcesses() {
+        CountDownLatch released = new CountDownLatch(1);
+        LoadProcessScheduler scheduler = new LoadProcessScheduler(ImmutableList.of(
+                new MainProcess("first"),
+                new WorkerProcess(released),
+                new ReleasingProcess(released),
+                new ConsumerProcess()));
+
+        runToCompletion(scheduler);
+
+        assertEquals(ImmutableList.of("first", "release", "worker", "consumer"), events);
+        List<String> threads = scheduler.getTimeline().stream()
+                .filter(entry -> entry.getProcess().equals(WorkerProcess.class.getSimpleName()))
+                .map(LoadProcessScheduler.TimelineEntry::getThread)
+                .collect(Collectors.toList());
+        assertEquals(1, threads.size());
+        assertNotEquals(Thread.currentThread().getName(), threads.get(0));
+    }
+
+    @Test
+    public void testWorkerFailureIsRethrown() {
+        LoadProcessScheduler scheduler = new LoadProcessScheduler(ImmutableList.of(
+                new FailingWorkerProcess(), new ConsumerProcess()));
+
+        assertThrows(RuntimeException.class, () -> runToCompletion(scheduler));
+    }
+
+    private void runToCompletion(LoadProcessScheduler scheduler) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!scheduler.isFinished()) {
+            scheduler.step();
+            if (System.currentTimeMillis() > deadline) {
+                scheduler.shutdown();
+                throw new AssertionError("Loading did not finish in time");
+            }
+        }
+    }
+
+    private class MainProcess extends SingleStepLoadProcess {
+        private final String name;
+
+        MainProcess(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getMessage() {
+            return name;
+        }
+
+        @Override
+        public boolean step() {
+            events.add(name);
+            return true;
+        }
+
+        @Override
+        public int getExpectedCost() {
+            return 1;
+        }
+    }
+
+    private class WorkerProcess extends MainProcess {
+        private final CountDownLatch released;
+
+        WorkerProcess(CountDownLatch released) {
+            super("worker");
+            this.released = released;
+        }
+
+        @Override
+        public boolean step() {
+            try {
+                // only finishes once the process queued after it ran
+                assertTrue(released.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.step();
+        }
+
+        @Override
+        public boolean isMainThreadOnly() {
+            return false;
+        }
+    }
+
+    private class ReleasingProcess extends MainProcess {
+        private final CountDownLatch released;
+
+        ReleasingProcess(CountDownLatch released) {
+            super("release");
+            this.released = released;
+        }
+
+        @Override
+        public boolean step() {
+            super.step();
+            released.countDown();
+            return true;
+        }
+    }
+
+    private class ConsumerProcess extends MainProcess {
+        ConsumerProcess() {
+            super("consumer");
+        }
+
+        @Override
+        public Set<Class<? extends LoadProcess>> getDependencies() {
+            return ImmutableSet.of(WorkerProcess.class, FailingWorkerProcess.class);
+        }
+    }
+
+    private class FailingWorkerProcess extends MainProcess {
+        FailingWorkerProcess() {
+            super("failing");
+        }
+
+        @Override
+        public boolean step() {
+            throw new IllegalStateException("failed");
+        }
+
+        @Override
+        public boolean isMainThreadOnly() {
+            return false;
+        }
+    }
+}
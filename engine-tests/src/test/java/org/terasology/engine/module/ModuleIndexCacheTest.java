@@ -0,0 +1,84 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.core.module;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModuleIndexCacheTest {
+    @TempDir
+    Path tempDir;
+
+    private Path archive;
+    private ModuleIndexCache cache;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        archive = tempDir.resolve("testdummy-1.0.0-SNAPSHOT.jar");
+        Files.copy(getClass().getResourceAsStream("testdummy-1.0.0-SNAPSHOT.jar"), archive);
+        cache = new ModuleIndexCache(tempDir.resolve("index"));
+    }
+
+    @Test
+    public void testStoredIndexIsRead() throws IOException {
+        Path indexPath = cache.getIndexPath(ModuleIndexCache.hash(archive));
+        cache.write(indexPath, scan());
+
+        Optional<Reflections> index = cache.read(indexPath);
+
+        assertTrue(index.isPresent());
+        assertEquals(1, index.get().getSubTypesOf(Base.class).size());
+        assertTrue(index.get().getSubTypesOf(Base.class).contains(Derived.class));
+    }
+
+    @Test
+    public void testChangedArchiveHasOtherIndex() throws IOException {
+        Path indexPath = cache.getIndexPath(ModuleIndexCache.hash(archive));
+        cache.write(indexPath, scan());
+
+        Files.write(archive, new byte[] {0}, StandardOpenOption.APPEND);
+        Path changedIndexPath = cache.getIndexPath(ModuleIndexCache.hash(archive));
+
+        assertNotEquals(indexPath, changedIndexPath);
+        assertFalse(cache.read(changedIndexPath).isPresent());
+    }
+
+    @Test
+    public void testCorruptIndexIsIgnored() throws IOException {
+        Path indexPath = cache.getIndexPath(ModuleIndexCache.hash(archive));
+        Files.createDirectories(indexPath.getParent());
+        Files.write(indexPath, new byte[] {'<', 'x'});
+
+        assertFalse(cache.read(indexPath).isPresent());
+    }
+
+    private Reflections scan() {
+        String prefix = FilterBuilder.prefix(ModuleIndexCacheTest.class.getName());
+        return new Reflections(new ConfigurationBuilder()
+                .addUrls(ClasspathHelper.forClass(ModuleIndexCacheTest.class))
+                .filterInputsBy(new FilterBuilder().include(prefix)));
+    }
+
+    public static class Base {
+    }
+
+    public static class Derived extends Base {
+    }
+}
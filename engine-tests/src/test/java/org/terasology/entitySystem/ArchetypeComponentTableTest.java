@@ -0,0 +1,139 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem;
+
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.ComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.MapComponentTable;
+import org.terasology.engine.entitySystem.stubs.ForceBlockActiveComponent;
+import org.terasology.engine.entitySystem.stubs.IntegerComponent;
+import org.terasology.engine.entitySystem.stubs.StringComponent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArchetypeComponentTableTest {
+
+    private static final Class<? extends Component>[] TYPES =
+            new Class[]{StringComponent.class, IntegerComponent.class, ForceBlockActiveComponent.class};
+
+    private final ArchetypeComponentTable table = new ArchetypeComponentTable();
+
+    @Test
+    public void testEntitiesWithSameComponentsShareArchetype() {
+        table.put(1, new StringComponent("a"));
+        table.put(1, new IntegerComponent(1));
+        table.put(2, new IntegerComponent(2));
+        table.put(2, new StringComponent("b"));
+        assertEquals(3, table.getArchetypeCount()); // {String}, {Integer}, {String, Integer}
+        assertEquals(new StringComponent("b"), table.get(2, StringComponent.class));
+        assertEquals(new IntegerComponent(1), table.get(1, IntegerComponent.class));
+    }
+
+    @Test
+    public void testReplaceReturnsOldComponent() {
+        StringComponent first = new StringComponent("a");
+        table.put(1, first);
+        assertSame(first, table.put(1, new StringComponent("b")));
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+    }
+
+    @Test
+    public void testRemovingLastComponentRemovesEntity() {
+        table.put(1, new StringComponent("a"));
+        table.put(2, new StringComponent("b"));
+        assertEquals(new StringComponent("a"), table.remove(1, StringComponent.class));
+        assertNull(table.get(1, StringComponent.class));
+        assertEquals(new StringComponent("b"), table.get(2, StringComponent.class));
+        assertEquals(1, table.numEntities());
+    }
+
+    @Test
+    public void testComponentIteratorOfUnknownTypeIsNull() {
+        assertNull(table.componentIterator(StringComponent.class));
+    }
+
+    @Test
+    public void testBehavesLikeMapComponentTable() {
+        ComponentTable expected = new MapComponentTable();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long entityId = 1 + random.nextInt(300);
+            Class<? extends Component> type = TYPES[random.nextInt(TYPES.length)];
+            switch (random.nextInt(5)) {
+                case 0:
+                    assertEquals(expected.remove(entityId, type), table.remove(entityId, type));
+                    break;
+                case 1:
+                    if (random.nextInt(10) == 0) {
+                        assertEquals(Sets.newHashSet(expected.removeAndReturnComponentsOf(entityId)),
+                                Sets.newHashSet(table.removeAndReturnComponentsOf(entityId)));
+                    }
+                    break;
+                default:
+                    Component component = createComponent(type, random.nextInt(10));
+                    assertEquals(expected.put(entityId, component), table.put(entityId, component));
+            }
+        }
+
+        assertEquals(expected.numEntities(), table.numEntities());
+        for (long entityId = 1; entityId <= 300; entityId++) {
+            assertEquals(Sets.newHashSet(expected.getComponentsInNewList(entityId)),
+                    Sets.newHashSet(table.getComponentsInNewList(entityId)));
+        }
+        for (Class<? extends Component> type : TYPES) {
+            assertEquals(expected.getComponentCount(type), table.getComponentCount(type));
+            assertEquals(toMap(expected.componentIterator(type)), toMap(table.componentIterator(type)));
+        }
+        Class<? extends Component>[] query = new Class[]{IntegerComponent.class, StringComponent.class};
+        assertEquals(toSet(expected.entityIdIterator(query)), toSet(table.entityIdIterator(query)));
+        assertEquals(toSet(expected.entityIdIterator()), toSet(table.entityIdIterator()));
+
+        Map<Long, List<Component>> rows = new HashMap<>();
+        table.forEachWith(query, (entityId, components) -> {
+            assertTrue(components[0] instanceof IntegerComponent);
+            assertTrue(components[1] instanceof StringComponent);
+            rows.put(entityId, List.of(components));
+        });
+        expected.forEachWith(query, (entityId, components) -> assertEquals(List.of(components), rows.remove(entityId)));
+        assertTrue(rows.isEmpty());
+    }
+
+    private static Component createComponent(Class<? extends Component> type, int value) {
+        if (type == StringComponent.class) {
+            return new StringComponent(Integer.toString(value));
+        } else if (type == IntegerComponent.class) {
+            return new IntegerComponent(value);
+        }
+        return new ForceBlockActiveComponent();
+    }
+
+    private static Map<Long, Component> toMap(TLongObjectIterator<? extends Component> iterator) {
+        Map<Long, Component> result = new HashMap<>();
+        while (iterator != null && iterator.hasNext()) {
+            iterator.advance();
+            result.put(iterator.key(), iterator.value());
+        }
+        return result;
+    }
+
+    private static Set<Long> toSet(TLongIterator iterator) {
+        Set<Long> result = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+}
@@ -273,6 +273,20 @@ public void testIterateEntitiesFindsEntityWithTwoComponents() {
         assertEquals(Lists.newArrayList(entity1), results);
     }
 
+    @Test
+    public void testForEachWithVisitsEntitiesWithAllComponents() {
+        EntityRef entity1 = entityManager.create(new StringComponent("a"), new IntegerComponent(1));
+        entityManager.create(new StringComponent("b"));
+
+        List<EntityRef> results = Lists.newArrayList();
+        entityManager.forEachWith(new Class[]{IntegerComponent.class, StringComponent.class}, (entity, components) -> {
+            results.add(entity);
+            assertEquals(new IntegerComponent(1), components[0]);
+            assertEquals(new StringComponent("a"), components[1]);
+        });
+        assertEquals(Lists.newArrayList(entity1), results);
+    }
+
     @Test
     public void testIterateWithNoComponents() {
         List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class));
@@ -3,6 +3,8 @@
 package org.terasology.engine.entitySystem;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.reflections.Reflections;
@@ -10,7 +12,9 @@
 import org.terasology.assets.ResourceUrn;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.event.AbstractConsumableEvent;
+import org.terasology.engine.entitySystem.event.ComponentAccess;
 import org.terasology.engine.entitySystem.event.Event;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.ReceiveEvent;
@@ -26,7 +30,12 @@
 import org.terasology.engine.registry.CoreRegistry;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -53,7 +62,7 @@ public void setup() {
         entityManager = new PojoEntityManager();
         entityManager.setComponentLibrary(entitySystemLibrary.getComponentLibrary());
         entityManager.setPrefabManager(new PojoPrefabManager(context));
-        eventSystem = new EventSystemImpl(true);
+        eventSystem = new EventSystemImpl(true, compLibrary);
         entityManager.setEventSystem(eventSystem);
         entity = entityManager.create();
     }
@@ -192,6 +201,232 @@ public void testEventReceiverRegistration() {
         assertEquals(1, receiver.eventList.size());
     }
 
+    @Test
+    public void testHandlerSelectionFollowsComponentChanges() {
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new StringComponent());
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+        assertEquals(3, handler.unfilteredEvents.size());
+    }
+
+    @Test
+    public void testHandlerRegisteredAfterSendReceivesEvents() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        entity.send(new TestEvent());
+
+        TestHighPriorityEventHandler handlerHigh = new TestHighPriorityEventHandler();
+        eventSystem.registerEventHandler(handlerHigh);
+        entity.send(new TestEvent());
+        assertEquals(1, handlerHigh.receivedList.size());
+        assertEquals(2, handler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(2, handlerHigh.receivedList.size());
+        assertEquals(2, handler.receivedList.size());
+    }
+
+    @Test
+    public void testSendToAllSelectsHandlersPerEntity() {
+        entity.addComponent(new StringComponent());
+        EntityRef integerEntity = entityManager.create(new IntegerComponent());
+        EntityRef bothEntity = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityRef plainEntity = entityManager.create();
+
+        TestStandardEventHandler handler = new TestStandardEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        eventSystem.sendToAll(Lists.newArrayList(entity, integerEntity, bothEntity, plainEntity),
+                new TestStandardEvent());
+
+        assertEquals(Sets.newHashSet(entity, bothEntity), Sets.newHashSet(handler.stringReceivers));
+        assertEquals(Sets.newHashSet(integerEntity, bothEntity), Sets.newHashSet(handler.integerReceivers));
+        assertEquals(2, handler.stringReceivers.size());
+        assertEquals(2, handler.integerReceivers.size());
+    }
+
+    @Test
+    public void testSendToAllStopsWhenConsumed() {
+        entity.addComponent(new StringComponent());
+        EntityRef other = entityManager.create(new StringComponent());
+
+        TestEventHandler handlerNormal = new TestEventHandler();
+        TestHighPriorityEventHandler handlerHigh = new TestHighPriorityEventHandler();
+        handlerHigh.cancel = true;
+        eventSystem.registerEventHandler(handlerNormal);
+        eventSystem.registerEventHandler(handlerHigh);
+
+        eventSystem.sendToAll(Lists.newArrayList(entity, other), new TestEvent());
+        assertEquals(1, handlerHigh.receivedList.size());
+        assertEquals(0, handlerNormal.receivedList.size());
+    }
+
+    @Test
+    public void testQueuedEventsWithDeclaredAccessKeepOrderPerEntity() throws InterruptedException {
+        entity.addComponent(new IntegerComponent());
+        EntityRef other = entityManager.create(new IntegerComponent());
+
+        TestParallelEventHandler handler = new TestParallelEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                entity.send(new TestParallelEvent(i));
+                other.send(new TestParallelEvent(i));
+            }
+        });
+        sender.start();
+        sender.join();
+        assertEquals(0, entity.getComponent(IntegerComponent.class).value);
+
+        eventSystem.process();
+
+        List<Integer> expectedOrder = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        assertEquals(100, entity.getComponent(IntegerComponent.class).value);
+        assertEquals(100, other.getComponent(IntegerComponent.class).value);
+        assertEquals(expectedOrder, handler.received.get(entity));
+        assertEquals(expectedOrder, handler.received.get(other));
+    }
+
+    @Test
+    public void testParallelDispatchSavesOnlyChangedComponents() throws InterruptedException {
+        compLibrary.register(new ResourceUrn("test", "integer"), IntegerComponent.class);
+        entity.addComponent(new IntegerComponent());
+        EntityRef other = entityManager.create(new IntegerComponent());
+
+        TestWritingEventHandler handler = new TestWritingEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> {
+            entity.send(new TestWriteEvent(true));
+            other.send(new TestWriteEvent(false));
+        });
+        sender.start();
+        sender.join();
+        eventSystem.process();
+
+        assertEquals(1, entity.getComponent(IntegerComponent.class).value);
+        assertEquals(0, other.getComponent(IntegerComponent.class).value);
+        assertEquals(Lists.newArrayList(entity), handler.changed);
+    }
+
+    @Test
+    public void testParallelDispatchMayNotSaveComponents() throws InterruptedException {
+        compLibrary.register(new ResourceUrn("test", "integer"), IntegerComponent.class);
+        entity.addComponent(new IntegerComponent());
+        EntityRef other = entityManager.create(new IntegerComponent());
+
+        TestSavingEventHandler handler = new TestSavingEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        Thread sender = new Thread(() -> {
+            entity.send(new TestWriteEvent(true));
+            other.send(new TestWriteEvent(true));
+        });
+        sender.start();
+        sender.join();
+        eventSystem.process();
+
+        assertEquals(2, handler.rejected.get());
+        assertEquals(1, entity.getComponent(IntegerComponent.class).value);
+        assertEquals(1, other.getComponent(IntegerComponent.class).value);
+    }
+
+    public static class TestParallelEvent implements Event {
+        final int index;
+
+        TestParallelEvent(int index) {
+            this.index = index;
+        }
+    }
+
+    public static class TestParallelEventHandler extends BaseComponentSystem {
+
+        Map<EntityRef, List<Integer>> received = Maps.newConcurrentMap();
+
+        @ReceiveEvent
+        @ComponentAccess(writes = IntegerComponent.class)
+        public void handleParallelEvent(TestParallelEvent event, EntityRef entity, IntegerComponent component) {
+            component.value++;
+            received.computeIfAbsent(entity, key -> Collections.synchronizedList(Lists.newArrayList()))
+                    .add(event.index);
+        }
+    }
+
+    public static class TestWriteEvent implements Event {
+        final boolean change;
+
+        TestWriteEvent(boolean change) {
+            this.change = change;
+        }
+    }
+
+    public static class TestWritingEventHandler extends BaseComponentSystem {
+
+        List<EntityRef> changed = Lists.newArrayList();
+
+        @ReceiveEvent
+        @ComponentAccess(writes = IntegerComponent.class)
+        public void handleWrite(TestWriteEvent event, EntityRef entity, IntegerComponent component) {
+            if (event.change) {
+                component.value++;
+            }
+        }
+
+        @ReceiveEvent(components = IntegerComponent.class)
+        public void onChanged(OnChangedComponent event, EntityRef entity) {
+            changed.add(entity);
+        }
+    }
+
+    public static class TestSavingEventHandler extends BaseComponentSystem {
+
+        AtomicInteger rejected = new AtomicInteger();
+
+        @ReceiveEvent
+        @ComponentAccess(writes = IntegerComponent.class)
+        public void handleWrite(TestWriteEvent event, EntityRef entity, IntegerComponent component) {
+            component.value++;
+            try {
+                entity.saveComponent(component);
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        }
+    }
+
+    public static class TestStandardEvent implements Event {
+
+    }
+
+    public static class TestStandardEventHandler extends BaseComponentSystem {
+
+        List<EntityRef> stringReceivers = Lists.newArrayList();
+        List<EntityRef> integerReceivers = Lists.newArrayList();
+
+        @ReceiveEvent(components = StringComponent.class)
+        public void handleString(TestStandardEvent event, EntityRef entity) {
+            stringReceivers.add(entity);
+        }
+
+        @ReceiveEvent(components = IntegerComponent.class)
+        public void handleInteger(TestStandardEvent event, EntityRef entity) {
+            integerReceivers.add(entity);
+        }
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
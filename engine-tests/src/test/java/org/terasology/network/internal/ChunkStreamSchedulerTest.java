@@ -0,0 +1,124 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.chunks.Chunk;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChunkStreamSchedulerTest {
+    private static final int CHUNK_SIZE = 1000;
+    private static final long HIGH_WATER_MARK = 64 * CHUNK_SIZE;
+
+    private ChunkStreamScheduler scheduler;
+    private List<Vector3i> sent;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = new ChunkStreamScheduler(100);
+        sent = Lists.newArrayList();
+    }
+
+    @Test
+    public void testClosestChunksAreSentFirst() {
+        scheduler.add(new Vector3i(3, 0, 0), mock(Chunk.class));
+        scheduler.add(new Vector3i(0, 0, 1), mock(Chunk.class));
+        scheduler.add(new Vector3i(0, -2, 0), mock(Chunk.class));
+        scheduler.setFocus(new Vector3i(), new Vector3f());
+
+        scheduler.updateBudget(3 * CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        assertEquals(3, scheduler.stream(this::send));
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 1), new Vector3i(0, -2, 0), new Vector3i(3, 0, 0)), sent);
+    }
+
+    @Test
+    public void testChunksInFrontArePreferred() {
+        scheduler.add(new Vector3i(-2, 0, 0), mock(Chunk.class));
+        scheduler.add(new Vector3i(2, 0, 0), mock(Chunk.class));
+        scheduler.setFocus(new Vector3i(), new Vector3f(-1, 0, 0));
+
+        scheduler.updateBudget(CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        scheduler.stream(this::send);
+
+        assertEquals(Lists.newArrayList(new Vector3i(-2, 0, 0)), sent);
+    }
+
+    @Test
+    public void testRemovedChunkIsNotSent() {
+        scheduler.add(new Vector3i(1, 0, 0), mock(Chunk.class));
+        scheduler.add(new Vector3i(2, 0, 0), mock(Chunk.class));
+        scheduler.remove(new Vector3i(1, 0, 0));
+
+        scheduler.updateBudget(10 * CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        scheduler.stream(this::send);
+
+        assertEquals(Lists.newArrayList(new Vector3i(2, 0, 0)), sent);
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    public void testBudgetGrowsWhileConnectionKeepsUpAndHalvesWhenItDoesNot() {
+        for (int i = 0; i < 100; i++) {
+            scheduler.add(new Vector3i(i, 0, 0), mock(Chunk.class));
+        }
+
+        scheduler.updateBudget(CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        assertEquals(1, scheduler.stream(this::send));
+        scheduler.updateBudget(CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        assertEquals(2, scheduler.stream(this::send));
+        scheduler.updateBudget(CHUNK_SIZE, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+        assertEquals(3, scheduler.stream(this::send));
+
+        scheduler.updateBudget(CHUNK_SIZE, false, 0, HIGH_WATER_MARK);
+        assertEquals(0, scheduler.stream(this::send));
+        assertEquals(3 * CHUNK_SIZE / 2, scheduler.getBudget());
+    }
+
+    @Test
+    public void testAtLeastOneChunkIsSentWhenWritable() {
+        scheduler.add(new Vector3i(), mock(Chunk.class));
+
+        scheduler.updateBudget(0, true, HIGH_WATER_MARK, HIGH_WATER_MARK);
+
+        assertEquals(1, scheduler.stream(this::send));
+    }
+
+    @Test
+    public void testTimeToPlayableAreaIsRecordedOnce() {
+        Set<Vector3i> area = Sets.newHashSet();
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    area.add(new Vector3i(x, y, z));
+                }
+            }
+        }
+        area.remove(new Vector3i());
+        assertFalse(scheduler.checkPlayableArea(area, 200));
+        assertEquals(-1, scheduler.getTimeToPlayableArea());
+
+        area.add(new Vector3i());
+        assertTrue(scheduler.checkPlayableArea(area, 300));
+        assertFalse(scheduler.checkPlayableArea(area, 400));
+        assertEquals(200, scheduler.getTimeToPlayableArea());
+    }
+
+    private int send(Vector3ic pos, Chunk chunk) {
+        sent.add(new Vector3i(pos));
+        return CHUNK_SIZE;
+    }
+}
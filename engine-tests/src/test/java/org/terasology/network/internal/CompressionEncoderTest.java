@@ -0,0 +1,91 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressionEncoderTest {
+    private static final int MAX_FRAME_LENGTH = 8388608;
+
+    private CompressionEncoder encoder;
+    private MetricRecordingHandler metrics;
+    private EmbeddedChannel sender;
+    private EmbeddedChannel receiver;
+
+    @BeforeEach
+    public void setup() {
+        encoder = new CompressionEncoder();
+        metrics = new MetricRecordingHandler();
+        sender = new EmbeddedChannel();
+        sender.pipeline().addLast(MetricRecordingHandler.NAME, metrics);
+        sender.pipeline().addLast(encoder);
+        receiver = new EmbeddedChannel(new CompressionDecoder(MAX_FRAME_LENGTH));
+    }
+
+    @Test
+    public void testSmallFrameIsSentUncompressed() {
+        encoder.setCodec(FrameCodec.DEFLATE);
+        byte[] data = new byte[CompressionEncoder.MIN_COMPRESSED_SIZE - 1];
+
+        ByteBuf frame = send(data);
+
+        assertEquals(FrameCodec.NONE.getId(), frame.getByte(0));
+        assertEquals(data.length + 1, frame.readableBytes());
+        assertArrayEquals(data, receive(frame));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = FrameCodec.class, names = {"DEFLATE", "SNAPPY"})
+    public void testLargeFrameIsCompressed(FrameCodec codec) {
+        encoder.setCodec(codec);
+        byte[] data = new byte[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i / 100);
+        }
+
+        ByteBuf frame = send(data);
+
+        assertEquals(codec.getId(), frame.getByte(0));
+        assertTrue(frame.readableBytes() < data.length / 4);
+        assertArrayEquals(data, receive(frame));
+        assertTrue(metrics.getCompressedBytesSinceLastCall() * 4 < metrics.getUncompressedBytesSinceLastCall());
+    }
+
+    @Test
+    public void testIncompressibleFrameIsSentUncompressed() {
+        encoder.setCodec(FrameCodec.DEFLATE);
+        byte[] data = new byte[10000];
+        new Random(7).nextBytes(data);
+
+        ByteBuf frame = send(data);
+
+        assertEquals(FrameCodec.NONE.getId(), frame.getByte(0));
+        assertArrayEquals(data, receive(frame));
+    }
+
+    private ByteBuf send(byte[] data) {
+        sender.writeOutbound(Unpooled.wrappedBuffer(data));
+        return sender.readOutbound();
+    }
+
+    private byte[] receive(ByteBuf frame) {
+        receiver.writeInbound(frame.retainedDuplicate());
+        ByteBuf decoded = receiver.readInbound();
+        byte[] result = new byte[decoded.readableBytes()];
+        decoded.readBytes(result);
+        decoded.release();
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntityInterestGridTest {
+
+    private final EntityInterestGrid grid = new EntityInterestGrid(32);
+
+    @Test
+    public void testFindsEntitiesWithinDistance() {
+        grid.update(1, new Vector3f(10, 0, 10));
+        grid.update(2, new Vector3f(-40, 5, 0));
+        grid.update(3, new Vector3f(60, 0, 0));
+        grid.update(4, new Vector3f(0, -100, 0));
+
+        assertEquals(new TIntHashSet(new int[]{1, 2}), within(new Vector3f(), 50));
+        assertEquals(new TIntHashSet(new int[]{1, 2, 3, 4}), within(new Vector3f(), 101));
+    }
+
+    @Test
+    public void testMovedEntityIsFoundAtItsNewPosition() {
+        grid.update(1, new Vector3f(0, 0, 0));
+        grid.update(1, new Vector3f(1000, 0, -1000));
+
+        assertTrue(within(new Vector3f(), 100).isEmpty());
+        assertEquals(new TIntHashSet(new int[]{1}), within(new Vector3f(1000, 0, -1000), 1));
+        assertEquals(1, grid.size());
+    }
+
+    @Test
+    public void testRemovedEntityIsNotFound() {
+        grid.update(1, new Vector3f(-5, -5, -5));
+
+        assertTrue(grid.remove(1));
+
+        assertFalse(grid.remove(1));
+        assertFalse(grid.contains(1));
+        assertNull(grid.getPosition(1));
+        assertTrue(within(new Vector3f(), 100).isEmpty());
+    }
+
+    private TIntSet within(Vector3fc center, float distance) {
+        TIntSet result = new TIntHashSet();
+        grid.forEachWithin(center, distance, result::add);
+        return result;
+    }
+}
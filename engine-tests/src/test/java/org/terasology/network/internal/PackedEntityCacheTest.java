@@ -0,0 +1,87 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PackedEntityCacheTest {
+    private static final Set<Class<? extends Component>> NONE = ImmutableSet.of();
+    private static final Set<Class<? extends Component>> LOCATION = ImmutableSet.of(LocationComponent.class);
+
+    private PackedEntityCache cache;
+    private AtomicInteger serializations;
+
+    @BeforeEach
+    public void setup() {
+        cache = new PackedEntityCache();
+        serializations = new AtomicInteger();
+    }
+
+    @Test
+    public void testSameChangesAreSerializedOnce() {
+        EntityData.PackedEntity first = cache.getUpdate(1, false, NONE, LOCATION, NONE, this::serialize);
+        EntityData.PackedEntity second = cache.getUpdate(1, false, NONE, LOCATION, NONE, this::serialize);
+
+        assertSame(first, second);
+        assertEquals(1, serializations.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testOwnerAndComponentsAreDistinguished() {
+        cache.getUpdate(1, false, NONE, LOCATION, NONE, this::serialize);
+        cache.getUpdate(1, true, NONE, LOCATION, NONE, this::serialize);
+        cache.getUpdate(1, false, LOCATION, NONE, NONE, this::serialize);
+        cache.getUpdate(1, false, NONE, ImmutableSet.of(LocationComponent.class, NetworkComponent.class), NONE,
+                this::serialize);
+        cache.getUpdate(2, false, NONE, LOCATION, NONE, this::serialize);
+        cache.getInitial(1, false, this::serialize);
+
+        assertEquals(6, serializations.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testEmptyUpdateIsShared() {
+        Supplier<EntityData.PackedEntity> nothingToSend = () -> {
+            serializations.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.getUpdate(1, false, NONE, LOCATION, NONE, nothingToSend));
+        assertNull(cache.getUpdate(1, false, NONE, LOCATION, NONE, nothingToSend));
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    public void testChangedEntityIsSerializedAgain() {
+        EntityData.PackedEntity first = cache.getInitial(1, false, this::serialize);
+        cache.invalidate(1);
+        EntityData.PackedEntity second = cache.getInitial(1, false, this::serialize);
+        cache.clear();
+        EntityData.PackedEntity third = cache.getInitial(1, false, this::serialize);
+
+        assertNotSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(3, serializations.get());
+    }
+
+    private EntityData.PackedEntity serialize() {
+        return EntityData.PackedEntity.newBuilder().setId(serializations.incrementAndGet()).build();
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.protobuf.NetData;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RemoteChunkCacheTest {
+    private static final Vector3i POSITION = new Vector3i(1, 0, -2);
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+    private Block stone;
+    private RemoteChunkCache cache;
+    private List<NetData.BlockChangeMessage> blockChanges;
+    private List<NetData.ExtraDataChangeMessage> extraDataChanges;
+
+    @BeforeEach
+    public void setup() {
+        Block air = new Block();
+        air.setId((short) 0);
+        stone = new Block();
+        stone.setId((short) 1);
+        blockManager = new TestBlockManager(air, stone);
+        extraDataManager = new ExtraBlockDataManager();
+        cache = new RemoteChunkCache(extraDataManager.getSlotCount());
+        blockChanges = Lists.newArrayList();
+        extraDataChanges = Lists.newArrayList();
+    }
+
+    @Test
+    public void testUnchangedChunkNeedsNoChanges() {
+        Chunk chunk = new ChunkImpl(POSITION, blockManager, extraDataManager);
+        cache.store(chunk);
+
+        assertTrue(cache.take(chunk, blockChanges, extraDataChanges));
+
+        assertTrue(blockChanges.isEmpty());
+        assertFalse(cache.contains(POSITION));
+    }
+
+    @Test
+    public void testChangedBlocksAreCollected() {
+        Chunk chunk = new ChunkImpl(POSITION, blockManager, extraDataManager);
+        cache.store(chunk);
+        chunk.setBlock(3, 4, 5, stone);
+
+        assertTrue(cache.take(chunk, blockChanges, extraDataChanges));
+
+        assertEquals(1, blockChanges.size());
+        assertEquals(chunk.chunkToWorldPosition(3, 4, 5, new Vector3i()),
+                NetMessageUtil.convert(blockChanges.get(0).getPos()));
+        assertEquals(stone.getId(), blockChanges.get(0).getNewBlock());
+    }
+
+    @Test
+    public void testReloadedChunkIsCompared() {
+        cache.store(new ChunkImpl(POSITION, blockManager, extraDataManager));
+
+        assertTrue(cache.take(new ChunkImpl(POSITION, blockManager, extraDataManager), blockChanges, extraDataChanges));
+
+        assertTrue(blockChanges.isEmpty());
+    }
+
+    @Test
+    public void testChunkWhichWasNotCachedIsSentWhole() {
+        Chunk chunk = new ChunkImpl(POSITION, blockManager, extraDataManager);
+        cache.store(chunk);
+        cache.remove(POSITION);
+
+        assertFalse(cache.take(chunk, blockChanges, extraDataChanges));
+    }
+
+    @Test
+    public void testHeavilyChangedChunkIsSentWhole() {
+        Chunk chunk = new ChunkImpl(POSITION, blockManager, extraDataManager);
+        cache.store(chunk);
+        for (int x = 0; x < Chunks.SIZE_X; x++) {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                chunk.setBlock(x, 0, z, stone);
+                chunk.setBlock(x, 1, z, stone);
+            }
+        }
+
+        assertFalse(cache.take(chunk, blockChanges, extraDataChanges));
+
+        assertTrue(blockChanges.isEmpty());
+    }
+}
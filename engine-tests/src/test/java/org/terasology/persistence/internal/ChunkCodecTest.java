@@ -0,0 +1,94 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkCodecTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {GzipChunkCodec.NAME, UncompressedChunkCodec.NAME, DictionaryChunkCodec.NAME})
+    public void testRoundTrip(String codecName) throws IOException {
+        ChunkCodecRegistry registry = new ChunkCodecRegistry(tempDir);
+        ChunkCodec codec = registry.getCodec(codecName);
+        for (byte[] data : createSamples(5)) {
+            assertArrayEquals(data, registry.decode(ChunkCodecRegistry.encode(codec, data)));
+        }
+        assertArrayEquals(new byte[0], registry.decode(ChunkCodecRegistry.encode(codec, new byte[0])));
+    }
+
+    @Test
+    public void testChunksWithoutHeaderAreReadAsGzip() throws IOException {
+        byte[] data = createSamples(1).get(0);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(data);
+        }
+        assertArrayEquals(data, new ChunkCodecRegistry(tempDir).decode(baos.toByteArray()));
+    }
+
+    @Test
+    public void testTrainedDictionaryGetsStoredAndReloaded() throws IOException {
+        ChunkCodecRegistry registry = new ChunkCodecRegistry(tempDir);
+        ChunkCodec codec = registry.getCodec(DictionaryChunkCodec.NAME);
+        List<byte[]> samples = createSamples(DictionaryChunkCodec.SAMPLE_COUNT + 1);
+        List<byte[]> encoded = Lists.newArrayList();
+        for (byte[] sample : samples) {
+            encoded.add(ChunkCodecRegistry.encode(codec, sample));
+        }
+        try (Stream<Path> dictionaries = Files.list(tempDir)) {
+            assertTrue(dictionaries.findAny().isPresent());
+        }
+
+        ChunkCodecRegistry reloaded = new ChunkCodecRegistry(tempDir);
+        for (int i = 0; i < samples.size(); i++) {
+            assertArrayEquals(samples.get(i), reloaded.decode(encoded.get(i)));
+        }
+    }
+
+    @Test
+    public void testUnknownDictionaryFails() {
+        ChunkCodecRegistry registry = new ChunkCodecRegistry(null);
+        DictionaryChunkCodec codec = (DictionaryChunkCodec) registry.getCodec(DictionaryChunkCodec.NAME);
+        codec.useDictionary(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        byte[] encoded = ChunkCodecRegistry.encode(codec, createSamples(1).get(0));
+
+        assertThrows(IOException.class, () -> new ChunkCodecRegistry(null).decode(encoded));
+    }
+
+    /**
+     * Creates data that resembles run length encoded chunks: a shared structure with varying values.
+     */
+    private static List<byte[]> createSamples(int count) {
+        Random random = new Random(42);
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            byte[] sample = new byte[2000 + random.nextInt(2000)];
+            for (int j = 0; j < sample.length; j++) {
+                sample[j] = random.nextInt(10) == 0 ? (byte) random.nextInt(256) : (byte) (j % 24);
+            }
+            samples.add(sample);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,102 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RegionFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testNewRegionFileIsPreallocated() throws IOException {
+        Path path = tempDir.resolve("0.0.0.region");
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            assertNull(regionFile.read(0));
+        }
+        assertEquals((long) (RegionFile.HEADER_SECTORS + RegionFile.GROWTH_SECTORS) * RegionFile.SECTOR_SIZE,
+                Files.size(path));
+    }
+
+    @Test
+    public void testWrittenChunksSurviveReopening() throws IOException {
+        Path path = tempDir.resolve("0.0.0.region");
+        byte[] first = createData(100, 1);
+        byte[] second = createData(3 * RegionFile.SECTOR_SIZE + 7, 2);
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            regionFile.write(0, first);
+            regionFile.write(RegionFile.CHUNKS_PER_REGION - 1, second);
+            assertArrayEquals(first, regionFile.read(0));
+        }
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            assertArrayEquals(first, regionFile.read(0));
+            assertArrayEquals(second, regionFile.read(RegionFile.CHUNKS_PER_REGION - 1));
+            assertNull(regionFile.read(1));
+        }
+    }
+
+    @Test
+    public void testChunksGetRewrittenInPlaceOrMoved() throws IOException {
+        Path path = tempDir.resolve("0.0.0.region");
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            regionFile.write(0, createData(2 * RegionFile.SECTOR_SIZE, 1));
+            regionFile.write(1, createData(RegionFile.SECTOR_SIZE, 2));
+
+            byte[] smaller = createData(10, 3);
+            regionFile.write(0, smaller);
+            byte[] larger = createData(5 * RegionFile.SECTOR_SIZE, 4);
+            regionFile.write(1, larger);
+
+            assertArrayEquals(smaller, regionFile.read(0));
+            assertArrayEquals(larger, regionFile.read(1));
+        }
+    }
+
+    @Test
+    public void testFileGrowsWhenFull() throws IOException {
+        Path path = tempDir.resolve("0.0.0.region");
+        byte[] data = createData(RegionFile.SECTOR_SIZE, 5);
+        int chunkCount = RegionFile.GROWTH_SECTORS + 10;
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            for (int i = 0; i < chunkCount; i++) {
+                regionFile.write(i, data);
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                assertArrayEquals(data, regionFile.read(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRegionFileStoreMapsNegativeChunkPositions() throws IOException {
+        StoragePathProvider storagePathProvider = new StoragePathProvider(tempDir);
+        RegionFileStore store = new RegionFileStore(storagePathProvider);
+        byte[] data = createData(50, 6);
+        store.write(new Vector3i(-1, -17, 16), data);
+        store.close();
+
+        assertArrayEquals(data, store.read(new Vector3i(-1, -17, 16)));
+        assertNull(store.read(new Vector3i(-1, -16, 16)));
+        assertNull(store.read(new Vector3i(100, 100, 100)));
+        store.close();
+    }
+
+    private static byte[] createData(int length, int seed) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) seed);
+        data[length - 1] = (byte) (seed + 1);
+        return data;
+    }
+}
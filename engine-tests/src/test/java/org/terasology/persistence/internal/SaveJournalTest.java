@@ -0,0 +1,129 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.ImmutableSet;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SaveJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testJournaledStoresSurviveReopening() throws IOException {
+        Path path = tempDir.resolve("save-journal.wal");
+        byte[] chunk = createData(100, 1);
+        byte[] player = createData(20, 2);
+        byte[] globalStore = createData(50, 3);
+        try (SaveJournal journal = new SaveJournal(path)) {
+            SaveJournal.Batch batch = new SaveJournal.Batch();
+            batch.addChunk(new Vector3i(1, -2, 3), chunk);
+            batch.addPlayer("player", player);
+            batch.setGlobalStore(globalStore);
+            journal.append(batch);
+            assertArrayEquals(chunk, journal.readChunk(new Vector3i(1, -2, 3)));
+        }
+        try (SaveJournal journal = new SaveJournal(path)) {
+            assertArrayEquals(chunk, journal.readChunk(new Vector3i(1, -2, 3)));
+            assertArrayEquals(player, journal.readPlayer("player"));
+            assertArrayEquals(globalStore, journal.readGlobalStore());
+            assertNull(journal.readChunk(new Vector3i()));
+            assertEquals(ImmutableSet.of(new Vector3i(1, -2, 3)), journal.getChunkPositions());
+            assertEquals(ImmutableSet.of("player"), journal.getPlayerIds());
+        }
+    }
+
+    @Test
+    public void testNewestEntryWins() throws IOException {
+        Path path = tempDir.resolve("save-journal.wal");
+        byte[] newer = createData(30, 2);
+        try (SaveJournal journal = new SaveJournal(path)) {
+            SaveJournal.Batch first = new SaveJournal.Batch();
+            first.addChunk(new Vector3i(), createData(10, 1));
+            journal.append(first);
+            SaveJournal.Batch second = new SaveJournal.Batch();
+            second.addChunk(new Vector3i(), newer);
+            journal.append(second);
+            assertArrayEquals(newer, journal.readChunk(new Vector3i()));
+        }
+        try (SaveJournal journal = new SaveJournal(path)) {
+            assertArrayEquals(newer, journal.readChunk(new Vector3i()));
+        }
+    }
+
+    @Test
+    public void testIncompleteBatchGetsDropped() throws IOException {
+        Path path = tempDir.resolve("save-journal.wal");
+        byte[] complete = createData(10, 1);
+        long completeSize;
+        try (SaveJournal journal = new SaveJournal(path)) {
+            SaveJournal.Batch first = new SaveJournal.Batch();
+            first.addChunk(new Vector3i(), complete);
+            journal.append(first);
+            completeSize = journal.size();
+            SaveJournal.Batch second = new SaveJournal.Batch();
+            second.addChunk(new Vector3i(), createData(100, 2));
+            second.addPlayer("player", createData(10, 3));
+            journal.append(second);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 5);
+        }
+        try (SaveJournal journal = new SaveJournal(path)) {
+            assertArrayEquals(complete, journal.readChunk(new Vector3i()));
+            assertNull(journal.readPlayer("player"));
+            assertEquals(completeSize, journal.size());
+        }
+        assertEquals(completeSize, Files.size(path));
+    }
+
+    @Test
+    public void testClearDropsAllEntries() throws IOException {
+        Path path = tempDir.resolve("save-journal.wal");
+        try (SaveJournal journal = new SaveJournal(path)) {
+            SaveJournal.Batch batch = new SaveJournal.Batch();
+            batch.addChunk(new Vector3i(), createData(10, 1));
+            batch.setGlobalStore(createData(10, 2));
+            journal.append(batch);
+            journal.clear();
+            assertNull(journal.readChunk(new Vector3i()));
+            assertNull(journal.readGlobalStore());
+            assertTrue(journal.getChunkPositions().isEmpty());
+        }
+        try (SaveJournal journal = new SaveJournal(path)) {
+            assertEquals(0, journal.size());
+        }
+    }
+
+    @Test
+    public void testEmptyBatchDoesNotCreateJournal() throws IOException {
+        Path path = tempDir.resolve("save-journal.wal");
+        try (SaveJournal journal = new SaveJournal(path)) {
+            journal.append(new SaveJournal.Batch());
+            assertNull(journal.readGlobalStore());
+        }
+        assertFalse(Files.exists(path));
+    }
+
+    private static byte[] createData(int length, int value) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+}
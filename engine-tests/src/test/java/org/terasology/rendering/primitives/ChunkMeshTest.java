@@ -0,0 +1,62 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ChunkMeshTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testVerticesOfDeprecatedListsAreCopiedInOrder() {
+        ChunkMesh legacyMesh = new ChunkMesh(null);
+        ChunkMesh.VertexElements legacy = legacyMesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        addVertex(legacy, 0);
+        legacy.addIndex(0);
+        int nextIndex = legacy.vertexCount;
+        appendToLists(legacy, 1);
+        legacy.vertexCount++;
+        legacy.indices.add(nextIndex);
+        addVertex(legacy, 2);
+        legacy.addIndex(2);
+        legacyMesh.finishVertexElements();
+
+        ChunkMesh mesh = new ChunkMesh(null);
+        ChunkMesh.VertexElements expected = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        for (int i = 0; i < 3; i++) {
+            addVertex(expected, i);
+            expected.addIndex(i);
+        }
+        mesh.finishVertexElements();
+
+        assertEquals(3, legacy.vertexCount);
+        assertEquals(expected.finalVertices, legacy.finalVertices);
+        assertEquals(expected.finalIndices, legacy.finalIndices);
+        legacyMesh.discardData();
+        mesh.discardData();
+    }
+
+    private static void addVertex(ChunkMesh.VertexElements elements, int i) {
+        elements.addVertex(i, i + 1, i + 2)
+                .setTexCoord(0.25f * i, 0.5f)
+                .setFlags(i, 1)
+                .setLight(1, 0.5f, 0.25f)
+                .setColor(1, 1, 1, 1)
+                .setNormal(0, 1, 0);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void appendToLists(ChunkMesh.VertexElements elements, int i) {
+        elements.vertices.add(new float[]{i, i + 1, i + 2});
+        elements.tex.add(new float[]{0.25f * i, 0.5f});
+        elements.flags.add(i);
+        elements.frames.add(1);
+        elements.sunlight.add(1);
+        elements.blocklight.add(0.5f);
+        elements.ambientOcclusion.add(0.25f);
+        elements.color.add(new float[]{1, 1, 1, 1});
+        elements.normals.add(new float[]{0, 1, 0});
+    }
+}
@@ -0,0 +1,56 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+
+        ByteBuffer small = pool.acquire(1);
+        ByteBuffer large = pool.acquire(100_000);
+
+        assertEquals(1 << 14, small.capacity());
+        assertEquals(1 << 17, large.capacity());
+        assertEquals(ByteOrder.nativeOrder(), large.order());
+    }
+
+    @Test
+    public void testReleasedBufferIsReused() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        ByteBuffer buffer = pool.acquire(50_000);
+        buffer.position(100);
+
+        pool.release(buffer);
+        assertEquals(buffer.capacity(), pool.getPooledBytes());
+
+        ByteBuffer reused = pool.acquire(40_000);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testBuffersBeyondLimitAreNotKept() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 15);
+        ByteBuffer first = pool.acquire(1 << 15);
+        ByteBuffer second = pool.acquire(1 << 15);
+
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1 << 15, pool.getPooledBytes());
+        pool.acquire(1 << 15);
+        assertNotSame(second, pool.acquire(1 << 15));
+    }
+}
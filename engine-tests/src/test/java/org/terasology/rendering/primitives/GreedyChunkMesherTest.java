@@ -0,0 +1,298 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.shapes.BlockMeshPart;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.math.TeraMath;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GreedyChunkMesherTest {
+    private static final float TILE_SIZE = 1 / 16f;
+
+    private Block air;
+    private Block stone;
+
+    @BeforeEach
+    public void setup() {
+        air = new Block();
+        air.setUri(new BlockUri(new ResourceUrn("engine:air")));
+        air.setTranslucent(true);
+        air.setShadowCasting(false);
+        air.setMeshGenerator(null);
+        stone = createCube("engine:stone", 3);
+    }
+
+    @Test
+    public void testFlatSurfaceBecomesOneQuad() {
+        TerrainView view = new TerrainView((x, z) -> 8);
+
+        ChunkMesh.VertexElements separate = generate(view, false);
+        ChunkMesh.VertexElements merged = generate(view, true);
+
+        assertEquals(Chunks.SIZE_X * Chunks.SIZE_Z * 4, separate.vertexCount);
+        assertEquals(4, merged.vertexCount);
+        for (int i = 0; i < 4; i++) {
+            // the integer part is the number of repeats, the fractional part the corner of the tile
+            float u = getFloat(merged, i, ChunkMesh.OFFSET_TEX_0);
+            float v = getFloat(merged, i, ChunkMesh.OFFSET_TEX_0 + 4);
+            assertTrue((int) u == 0 || (int) u == Chunks.SIZE_X, "u = " + u);
+            assertTrue((int) v == 0 || (int) v == Chunks.SIZE_Z, "v = " + v);
+            assertEquals(3 * TILE_SIZE + TILE_SIZE / 128, u - (int) u, 0.00001f);
+            assertEquals(TILE_SIZE / 128, v - (int) v, 0.00001f);
+        }
+    }
+
+    @Test
+    public void testMergedQuadsCoverTheSameArea() {
+        TerrainView view = new TerrainView((x, z) -> 20 + (int) Math.floor(6 * Math.sin(x * 0.3) * Math.cos(z * 0.2)));
+        view.lightSource = new Vector3i(10, 30, 12);
+
+        ChunkMesh.VertexElements separate = generate(view, false);
+        ChunkMesh.VertexElements merged = generate(view, true);
+
+        assertTrue(merged.vertexCount < separate.vertexCount,
+                merged.vertexCount + " vertices are not less than " + separate.vertexCount);
+        assertEquals(area(separate), area(merged), 0.001);
+    }
+
+    @Test
+    public void testSidesWithDifferentLightingAtTheCornersAreNotMerged() {
+        TerrainView view = new TerrainView((x, z) -> 8);
+        view.lightSource = new Vector3i(16, 9, 16);
+
+        ChunkMesh.VertexElements merged = generate(view, true);
+
+        // every lit side next to the light source keeps its own quad
+        int unmergedQuads = 0;
+        for (int quad = 0; quad < merged.vertexCount / 4; quad++) {
+            boolean separateSide = true;
+            for (int i = 0; i < 4; i++) {
+                float u = getFloat(merged, quad * 4 + i, ChunkMesh.OFFSET_TEX_0);
+                float v = getFloat(merged, quad * 4 + i, ChunkMesh.OFFSET_TEX_0 + 4);
+                separateSide &= u < 1 && v < 1;
+            }
+            if (separateSide) {
+                unmergedQuads++;
+            }
+        }
+        assertTrue(unmergedQuads > 0);
+        assertEquals(Chunks.SIZE_X * Chunks.SIZE_Z, area(merged), 0.001);
+    }
+
+    private ChunkMesh.VertexElements generate(ChunkView view, boolean greedyMeshing) {
+        ChunkTessellator tessellator = new ChunkTessellator(null);
+        tessellator.setGreedyMeshing(greedyMeshing);
+        return tessellator.generateMesh(view).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+    }
+
+    /**
+     * @return the total area of the quads, each made of four consecutive vertices
+     */
+    private static double area(ChunkMesh.VertexElements elements) {
+        double area = 0;
+        for (int quad = 0; quad < elements.vertexCount / 4; quad++) {
+            Vector3f[] corners = new Vector3f[4];
+            for (int i = 0; i < 4; i++) {
+                int vertex = quad * 4 + i;
+                corners[i] = new Vector3f(getFloat(elements, vertex, ChunkMesh.OFFSET_VERTEX),
+                        getFloat(elements, vertex, ChunkMesh.OFFSET_VERTEX + 4),
+                        getFloat(elements, vertex, ChunkMesh.OFFSET_VERTEX + 8));
+            }
+            Vector3f first = corners[1].sub(corners[0], new Vector3f());
+            Vector3f second = corners[3].sub(corners[0], new Vector3f());
+            area += first.cross(second).length();
+        }
+        return area;
+    }
+
+    /**
+     * @return the float at the given byte offset within the data of the given vertex
+     */
+    private static float getFloat(ChunkMesh.VertexElements elements, int vertex, int offset) {
+        return Float.intBitsToFloat(elements.finalVertices.get((vertex * ChunkMesh.STRIDE + offset) / 4));
+    }
+
+    /**
+     * Creates a full block using the given tile of a 16 by 16 texture atlas on all sides.
+     */
+    private static Block createCube(String uri, int tile) {
+        Block block = new Block();
+        block.setUri(new BlockUri(new ResourceUrn(uri)));
+        Map<BlockPart, BlockMeshPart> parts = new EnumMap<>(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = new EnumMap<>(BlockPart.class);
+        Vector2f atlasPos = new Vector2f(tile * TILE_SIZE, 0);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, atlasPos);
+        }
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createSide(side).mapTexCoords(atlasPos, TILE_SIZE, 1));
+            block.setFullSide(side, true);
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        return block;
+    }
+
+    private static BlockMeshPart createSide(Side side) {
+        Vector3ic normal = side.direction();
+        int n = normal.x() != 0 ? 0 : (normal.y() != 0 ? 1 : 2);
+        int a = n == 0 ? 1 : 0;
+        int b = n == 2 ? 1 : 2;
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        int[][] corners = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+        for (int i = 0; i < 4; i++) {
+            float[] vertex = new float[3];
+            vertex[n] = 0.5f * (normal.x() + normal.y() + normal.z());
+            vertex[a] = corners[i][0] - 0.5f;
+            vertex[b] = corners[i][1] - 0.5f;
+            vertices[i] = new Vector3f(vertex[0], vertex[1], vertex[2]);
+            normals[i] = new Vector3f(normal.x(), normal.y(), normal.z());
+            texCoords[i] = new Vector2f(corners[i][0], 1 - corners[i][1]);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    /**
+     * Stone up to the given height and air above, with full sunlight in the air.
+     */
+    private class TerrainView implements ChunkView {
+        private final IntBinaryOperator height;
+        private Vector3i lightSource;
+
+        TerrainView(IntBinaryOperator height) {
+            this.height = height;
+        }
+
+        @Override
+        public Block getBlock(float x, float y, float z) {
+            return getBlock(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f),
+                    TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public Block getBlock(Vector3ic pos) {
+            return getBlock(pos.x(), pos.y(), pos.z());
+        }
+
+        @Override
+        public Block getBlock(int x, int y, int z) {
+            return y < height.applyAsInt(x, z) ? stone : air;
+        }
+
+        @Override
+        public byte getSunlight(float x, float y, float z) {
+            return getSunlight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f),
+                    TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public byte getSunlight(Vector3i pos) {
+            return getSunlight(pos.x(), pos.y(), pos.z());
+        }
+
+        @Override
+        public byte getSunlight(int x, int y, int z) {
+            return getBlock(x, y, z) == air ? Chunks.MAX_SUNLIGHT : 0;
+        }
+
+        @Override
+        public byte getLight(float x, float y, float z) {
+            return getLight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f),
+                    TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public byte getLight(Vector3i pos) {
+            return getLight(pos.x(), pos.y(), pos.z());
+        }
+
+        @Override
+        public byte getLight(int x, int y, int z) {
+            if (lightSource == null || getBlock(x, y, z) != air) {
+                return 0;
+            }
+            int distance = Math.abs(x - lightSource.x) + Math.abs(y - lightSource.y) + Math.abs(z - lightSource.z);
+            return (byte) Math.max(0, Chunks.MAX_LIGHT - distance);
+        }
+
+        @Override
+        public void setBlock(Vector3ic pos, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBlock(int x, int y, int z, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getExtraData(int index, int x, int y, int z) {
+            return 0;
+        }
+
+        @Override
+        public int getExtraData(int index, Vector3ic pos) {
+            return 0;
+        }
+
+        @Override
+        public void setExtraData(int index, int x, int y, int z, int value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setExtraData(int index, Vector3ic pos, int value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Vector3i toWorldPos(Vector3ic localPos) {
+            return new Vector3i(localPos);
+        }
+
+        @Override
+        public BlockRegionc getWorldRegion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BlockRegionc getChunkRegion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setDirtyAround(Vector3ic blockPos) {
+        }
+
+        @Override
+        public void setDirtyAround(BlockRegionc blockRegion) {
+        }
+
+        @Override
+        public boolean isValidView() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.rendering.primitives.ChunkMesh;
+import org.terasology.engine.world.chunks.Chunk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChunkMeshCacheTest {
+    private static final int MESH_SIZE = 1000;
+    private static final Vector3i ORIGIN = new Vector3i();
+
+    private ChunkMeshCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new ChunkMeshCache();
+        cache.setBudget(2 * MESH_SIZE);
+    }
+
+    @Test
+    public void testLeastRecentlyVisibleMeshIsEvicted() {
+        Chunk first = createChunk(1);
+        Chunk second = createChunk(2);
+        Chunk third = createChunk(3);
+        cache.add(first);
+        cache.add(second);
+        cache.nextFrame();
+        cache.markVisible(first);
+        cache.nextFrame();
+        cache.add(third);
+
+        cache.evict(ORIGIN);
+
+        verify(second).disposeMesh();
+        verify(first, never()).disposeMesh();
+        assertEquals(2 * MESH_SIZE, cache.getUsedBytes());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testFurtherMeshIsEvictedAmongEquallyRecentOnes() {
+        Chunk near = createChunk(1);
+        Chunk far = createChunk(5);
+        Chunk middle = createChunk(3);
+        cache.add(near);
+        cache.add(far);
+        cache.add(middle);
+        cache.nextFrame();
+
+        cache.evict(ORIGIN);
+
+        verify(far).disposeMesh();
+        verify(near, never()).disposeMesh();
+        verify(middle, never()).disposeMesh();
+    }
+
+    @Test
+    public void testMeshesVisibleInCurrentFrameAreKept() {
+        Chunk first = createChunk(1);
+        Chunk second = createChunk(2);
+        Chunk third = createChunk(3);
+        cache.add(first);
+        cache.add(second);
+        cache.add(third);
+        cache.nextFrame();
+        cache.markVisible(first);
+        cache.markVisible(second);
+        cache.markVisible(third);
+
+        cache.evict(ORIGIN);
+
+        assertEquals(0, cache.getEvictions());
+        assertEquals(3 * MESH_SIZE, cache.getUsedBytes());
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    public void testEvictedChunkIsMissedWhenVisibleAgain() {
+        Chunk first = createChunk(1);
+        Chunk second = createChunk(2);
+        Chunk third = createChunk(3);
+        cache.add(first);
+        cache.add(second);
+        cache.add(third);
+        cache.nextFrame();
+        cache.evict(ORIGIN);
+        assertTrue(cache.isEvicted(third));
+
+        cache.nextFrame();
+        assertFalse(cache.markVisible(third));
+
+        assertFalse(cache.isEvicted(third));
+        assertEquals(1, cache.getMisses());
+    }
+
+    private static Chunk createChunk(int x) {
+        Chunk chunk = mock(Chunk.class);
+        ChunkMesh mesh = mock(ChunkMesh.class);
+        when(mesh.getMemoryUsage()).thenReturn(MESH_SIZE);
+        when(chunk.getMesh()).thenReturn(mesh);
+        when(chunk.getPosition()).thenReturn(new Vector3i(x, 0, 0));
+        return chunk;
+    }
+}
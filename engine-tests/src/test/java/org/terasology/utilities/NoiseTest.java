@@ -17,6 +17,7 @@
 package org.terasology.utilities;
 
 import com.google.common.collect.Lists;
+import org.joml.Vector3f;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.terasology.engine.utilities.procedural.BrownianNoise;
@@ -24,9 +25,11 @@
 import org.terasology.engine.utilities.procedural.Noise;
 import org.terasology.engine.utilities.procedural.PerlinNoise;
 import org.terasology.engine.utilities.procedural.SimplexNoise;
+import org.terasology.engine.utilities.procedural.SubSampledNoise;
 import org.terasology.engine.utilities.procedural.WhiteNoise;
 import org.terasology.engine.utilities.random.FastRandom;
 import org.terasology.engine.utilities.random.Random;
+import org.terasology.engine.world.block.BlockRegion;
 
 import java.util.List;
 
@@ -55,6 +58,16 @@ public static List<Noise> data() {
             );
     }
 
+    public static List<Noise> gridData() {
+        return Lists.newArrayList(
+                new WhiteNoise(0xCAFE),
+                new SimplexNoise(0xCAFE),
+                new PerlinNoise(0xCAFE),
+                new BrownianNoise(new SimplexNoise(0xCAFE), 3),
+                new BrownianNoise(new PerlinNoise(0xCAFE), 3)
+            );
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     public void testMinMax(Noise noiseGen) {
@@ -101,4 +114,93 @@ public void testResolution(Noise noiseGen) {
 
         fail();
     }
+
+    @ParameterizedTest
+    @MethodSource("gridData")
+    public void testGrid2DMatchesPoints(Noise noiseGen) {
+        float[] xs = axis(-3.7f, 0.31f, 13);
+        float[] ys = axis(5.2f, 0.45f, 7);
+        float[] grid = new float[xs.length * ys.length];
+        noiseGen.noiseGrid(xs, ys, grid);
+
+        for (int j = 0; j < ys.length; j++) {
+            for (int i = 0; i < xs.length; i++) {
+                assertEquals(noiseGen.noise(xs[i], ys[j]), grid[i + xs.length * j]);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gridData")
+    public void testGrid3DMatchesPoints(Noise noiseGen) {
+        float[] xs = axis(-3.7f, 0.31f, 9);
+        float[] ys = axis(5.2f, 0.45f, 6);
+        float[] zs = axis(1.9f, 0.27f, 5);
+        float[] grid = new float[xs.length * ys.length * zs.length];
+        noiseGen.noiseGrid(xs, ys, zs, grid);
+
+        for (int k = 0; k < zs.length; k++) {
+            for (int j = 0; j < ys.length; j++) {
+                for (int i = 0; i < xs.length; i++) {
+                    assertEquals(noiseGen.noise(xs[i], ys[j], zs[k]), grid[i + xs.length * (j + ys.length * k)]);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gridData")
+    public void testSubSampledNoiseDoesNotDependOnRegion(Noise noiseGen) {
+        Vector3f zoom = new Vector3f(0.0137f, 0.021f, 0.0093f);
+        SubSampledNoise subSampled = new SubSampledNoise(noiseGen, zoom, 4);
+        BlockRegion first = new BlockRegion(1000, -37, 5).setSize(32, 32, 16);
+        BlockRegion second = new BlockRegion(1011, -21, 3).setSize(32, 32, 16);
+        float[] firstValues = new float[first.volume()];
+        float[] secondValues = new float[second.volume()];
+        subSampled.noise(first, firstValues);
+        subSampled.noise(second, secondValues);
+
+        BlockRegion overlap = new BlockRegion(first).intersect(second).get();
+        for (int z = overlap.minZ(); z <= overlap.maxZ(); z++) {
+            for (int y = overlap.minY(); y <= overlap.maxY(); y++) {
+                for (int x = overlap.minX(); x <= overlap.maxX(); x++) {
+                    float value = firstValues[index(first, x, y, z)];
+                    assertEquals(value, secondValues[index(second, x, y, z)]);
+                    if (x % 4 == 0 && y % 4 == 0 && z % 4 == 0) {
+                        // the key positions are sampled where point sampling of the source puts them
+                        assertEquals(noiseGen.noise(zoom.x * x, zoom.y * y, zoom.z * z), value);
+                    }
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gridData")
+    public void testRegionMatchesPoints(Noise noiseGen) {
+        BlockRegion region = new BlockRegion(-5, 3, 10).setSize(8, 4, 3);
+        float[] values = new float[region.volume()];
+        noiseGen.noise(region, values);
+
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    assertEquals(noiseGen.noise(x, y, z), values[index++]);
+                }
+            }
+        }
+    }
+
+    private static float[] axis(float min, float step, int count) {
+        float[] axis = new float[count];
+        for (int i = 0; i < count; i++) {
+            axis[i] = min + i * step;
+        }
+        return axis;
+    }
+
+    private static int index(BlockRegion region, int x, int y, int z) {
+        return x - region.minX() + region.getSizeX() * (y - region.minY() + region.getSizeY() * (z - region.minZ()));
+    }
 }
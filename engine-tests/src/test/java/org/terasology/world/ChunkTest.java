@@ -35,11 +35,14 @@
 import org.terasology.engine.world.block.shapes.BlockShape;
 import org.terasology.engine.world.block.tiles.NullWorldAtlas;
 import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @Tag("TteTest")
 public class ChunkTest extends TerasologyTestingEnvironment {
@@ -74,6 +77,35 @@ public void testChangeBlock() {
         assertEquals(solid, chunk.getBlock(new Vector3i(1, 2, 3)));
     }
 
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        chunk.setBlock(1, 2, 3, solid);
+        chunk.setLight(1, 2, 3, (byte) 5);
+        ChunkSnapshot snapshot = chunk.createSnapshot();
+
+        chunk.setBlock(1, 2, 3, blockManager.getBlock(BlockManager.AIR_ID));
+        chunk.setBlock(4, 5, 6, solid);
+        chunk.setLight(1, 2, 3, (byte) 7);
+
+        assertEquals(solid, snapshot.getBlock(1, 2, 3));
+        assertEquals(blockManager.getBlock(BlockManager.AIR_ID), snapshot.getBlock(4, 5, 6));
+        assertEquals(5, snapshot.getLight(1, 2, 3));
+        assertEquals(solid, chunk.getBlock(4, 5, 6));
+        assertEquals(7, chunk.getLight(1, 2, 3));
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilChunkChanges() {
+        ChunkSnapshot snapshot = chunk.createSnapshot();
+        assertSame(snapshot, chunk.createSnapshot());
+
+        chunk.setBlock(1, 2, 3, solid);
+        ChunkSnapshot changedSnapshot = chunk.createSnapshot();
+        assertNotEquals(snapshot.getVersion(), changedSnapshot.getVersion());
+        assertEquals(chunk.getVersion(), changedSnapshot.getVersion());
+        assertEquals(solid, changedSnapshot.getBlock(1, 2, 3));
+    }
+
     @Test
     public void testGetAabb() {
         AABBfc aabb = chunk.getAABB();
@@ -0,0 +1,143 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.terasology.engine.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraPaletteArrayTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    @Test
+    public void testUniformArrayNeedsNoElementData() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.getElementSizeInBits());
+        assertEquals(0, array.get(5, 6, 7));
+        assertTrue(array.getEstimatedMemoryConsumptionInBytes() < 256);
+    }
+
+    @Test
+    public void testBitWidthGrowsWithPalette() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        int[] expectedBits = {1, 2, 4, 4, 8, 8, 16};
+        int[] distinctValues = {2, 3, 5, 16, 17, 256, 257};
+        int value = 0;
+        for (int i = 0; i < distinctValues.length; i++) {
+            while (value < distinctValues[i] - 1) {
+                value++;
+                array.set(value % SIZE_X, value / SIZE_X, 0, value);
+            }
+            assertEquals(expectedBits[i], array.getElementSizeInBits(), "bits for " + distinctValues[i] + " values");
+        }
+        for (int i = 1; i <= value; i++) {
+            assertEquals(i, array.get(i % SIZE_X, i / SIZE_X, 0));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 12, 200, 1000})
+    public void testBehavesLikeDenseArray(int distinctValues) {
+        Random random = new Random(distinctValues);
+        TeraArray expected = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        TeraArray actual = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 0; i < 50000; i++) {
+            int x = random.nextInt(SIZE_X);
+            int y = random.nextInt(SIZE_Y);
+            int z = random.nextInt(SIZE_Z);
+            short value = (short) (random.nextInt(distinctValues) * 31 - 7);
+            assertEquals(expected.set(x, y, z, value), actual.set(x, y, z, value));
+        }
+        assertSameContent(expected, actual);
+        assertSameContent(expected, actual.copy());
+        assertSameContent(expected, new TeraPaletteArray(expected));
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertFalse(array.set(1, 2, 3, 4, 5));
+        assertEquals(0, array.get(1, 2, 3));
+        assertTrue(array.set(1, 2, 3, 4, 0));
+        assertEquals(4, array.get(1, 2, 3));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(0, 0, 0, 3);
+        TeraArray copy = array.copy();
+        for (int i = 0; i < 20; i++) {
+            array.set(i, 1, 0, i + 10);
+        }
+        assertEquals(3, copy.get(0, 0, 0));
+        assertEquals(0, copy.get(5, 1, 0));
+
+        copy.set(0, SIZE_Y - 1, 0, 3);
+        copy.set(0, 0, 0, 4);
+        assertEquals(0, array.get(0, SIZE_Y - 1, 0));
+        assertEquals(3, array.get(0, 0, 0));
+    }
+
+    @Test
+    public void testFillRun() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.fillRun(0, SIZE_X * SIZE_Z + 1, 2);
+        array.fillRun(SIZE_X * SIZE_Z + 1, 3, 9);
+        assertEquals(2, array.get(SIZE_X - 1, 0, SIZE_Z - 1));
+        assertEquals(2, array.get(0, 1, 0));
+        assertEquals(9, array.get(1, 1, 0));
+        assertEquals(9, array.get(3, 1, 0));
+        assertEquals(0, array.get(4, 1, 0));
+    }
+
+    @Test
+    public void testDeflateRemovesUnusedPaletteEntries() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 0; i < 100; i++) {
+            array.set(i % SIZE_X, i / SIZE_X, 0, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            array.set(i % SIZE_X, i / SIZE_X, 0, i % 2);
+        }
+        assertEquals(8, array.getElementSizeInBits());
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertEquals(1, deflated.getElementSizeInBits());
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() < array.getEstimatedMemoryConsumptionInBytes());
+        assertSameContent(array, deflated);
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 0; i < 40; i++) {
+            array.set(i % SIZE_X, i, i % SIZE_Z, i * 3);
+        }
+        TeraPaletteArray.SerializationHandler handler = new TeraPaletteArray.SerializationHandler();
+        ByteBuffer buffer = handler.serialize(array);
+        buffer.rewind();
+        assertSameContent(array, handler.deserialize(buffer));
+    }
+
+    private static void assertSameContent(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
@@ -89,6 +90,51 @@ void simpleStopProcessingSuccess() {
         );
     }
 
+    @Test
+    void irrelevantChunkIsCancelled() throws ExecutionException, InterruptedException, TimeoutException {
+        pipeline = new ChunkProcessingPipeline((p) -> null, (o1, o2) -> 0);
+        Vector3i relevantPosition = new Vector3i(0, 0, 0);
+        Vector3i irrelevantPosition = new Vector3i(5, 0, 0);
+        pipeline.setRelevanceFilter(relevantPosition::equals);
+        pipeline.addStage(ChunkTaskProvider.create("dummy task", (c) -> c));
+
+        Future<Chunk> irrelevantFuture = pipeline.invokeGeneratorTask(irrelevantPosition, () -> {
+            try {
+                Thread.sleep(200); // let the queue become due for re-scoring.
+            } catch (InterruptedException e) {
+            }
+            return createChunkAt(irrelevantPosition);
+        });
+        Future<Chunk> relevantFuture = pipeline.invokeGeneratorTask(relevantPosition,
+                () -> createChunkAt(relevantPosition));
+
+        Assertions.assertEquals(relevantPosition, relevantFuture.get(1, TimeUnit.SECONDS).getPosition());
+        Assertions.assertThrows(
+                CancellationException.class,
+                () -> irrelevantFuture.get(1, TimeUnit.SECONDS),
+                "chunkFuture must be cancelled, when the chunk is no longer relevant"
+        );
+        Assertions.assertFalse(pipeline.isPositionProcessing(irrelevantPosition));
+    }
+
+    @Test
+    void stageStatisticsAreReported() throws ExecutionException, InterruptedException, TimeoutException {
+        pipeline = new ChunkProcessingPipeline((p) -> null, (o1, o2) -> 0);
+        pipeline.addStage(ChunkTaskProvider.create("dummy task", (c) -> c));
+
+        Vector3i position = new Vector3i(0, 0, 0);
+        pipeline.invokeGeneratorTask(position, () -> createChunkAt(position)).get(1, TimeUnit.SECONDS);
+
+        List<StageStatistics> statistics = pipeline.getStageStatistics();
+        Assertions.assertEquals(2, statistics.size(), "Generation and the dummy stage must be reported");
+        Assertions.assertEquals("dummy task", statistics.get(1).getStageName());
+        for (StageStatistics stage : statistics) {
+            Assertions.assertEquals(1, stage.getCompleted());
+            Assertions.assertEquals(0, stage.getQueueDepth());
+            Assertions.assertEquals(0, stage.getRunning());
+        }
+    }
+
     /**
      * Imagine that we have task, which requires neighbors with same Z level. neighbors chunk already in chunk cache.
      */
@@ -0,0 +1,162 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.generation.facets.base.BaseFacet2D;
+import org.terasology.engine.world.generation.facets.base.BaseFacet3D;
+import org.terasology.engine.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FacetCacheTest {
+
+    private Context context = new ContextImpl();
+
+    @Test
+    public void testColumnFacetsAreSharedBetweenStackedRegions() {
+        HeightProvider heightProvider = new HeightProvider();
+        DensityProvider densityProvider = new DensityProvider();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(heightProvider).addProvider(densityProvider);
+        WorldImpl world = (WorldImpl) worldBuilder.build();
+
+        Region lower = world.getWorldData(chunkRegion(0, 0, 0));
+        Region upper = world.getWorldData(chunkRegion(0, 1, 0));
+
+        assertSame(lower.getFacet(HeightFacet.class), upper.getFacet(HeightFacet.class));
+        assertNotSame(lower.getFacet(DensityFacet.class), upper.getFacet(DensityFacet.class));
+        assertEquals(1, heightProvider.processed);
+        assertEquals(2, densityProvider.processed);
+        assertEquals(1, world.getFacetCache().size());
+        assertEquals(0.5f, world.getFacetCache().getHitRate());
+    }
+
+    @Test
+    public void testNeighbouringColumnsAreNotShared() {
+        HeightProvider heightProvider = new HeightProvider();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(heightProvider);
+        WorldImpl world = (WorldImpl) worldBuilder.build();
+
+        HeightFacet first = world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        HeightFacet second = world.getWorldData(chunkRegion(1, 0, 0)).getFacet(HeightFacet.class);
+
+        assertNotSame(first, second);
+        assertEquals(2, heightProvider.processed);
+    }
+
+    @Test
+    public void testFacetUpdatedFromVolumeIsNotShared() {
+        HeightProvider heightProvider = new HeightProvider();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(heightProvider)
+                .addProvider(new VolumeProvider())
+                .addProvider(new HeightFromVolumeUpdater());
+        WorldImpl world = (WorldImpl) worldBuilder.build();
+
+        world.getWorldData(chunkRegion(0, 0, 0)).getFacet(HeightFacet.class);
+        world.getWorldData(chunkRegion(0, 1, 0)).getFacet(HeightFacet.class);
+
+        assertEquals(2, heightProvider.processed);
+        assertEquals(0, world.getFacetCache().size());
+    }
+
+    @Test
+    public void testColumnsFarthestFromFocusAreEvicted() {
+        FacetCache cache = new FacetCache(4);
+        cache.setFocus(() -> ImmutableList.of(new Vector3i(0, 0, 0)));
+        RegionImpl[] columns = new RegionImpl[5];
+        for (int x = 0; x < columns.length; x++) {
+            columns[x] = getColumn(cache, x);
+        }
+
+        assertEquals(3, cache.size());
+        for (int x = 0; x < 3; x++) {
+            assertSame(columns[x], getColumn(cache, x));
+        }
+        assertNotSame(columns[4], getColumn(cache, 4));
+    }
+
+    private static RegionImpl getColumn(FacetCache cache, int chunkX) {
+        BlockRegion region = chunkRegion(chunkX, 0, 0);
+        return cache.getColumn(region, 1, () -> new RegionImpl(region, ImmutableListMultimap.of(), null, 1));
+    }
+
+    private static BlockRegion chunkRegion(int x, int y, int z) {
+        return new BlockRegion(x * Chunks.SIZE_X, y * Chunks.SIZE_Y, z * Chunks.SIZE_Z)
+                .setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+    }
+
+    public static class HeightFacet extends BaseFacet2D {
+        public HeightFacet(BlockRegion targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public DensityFacet(BlockRegion targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class VolumeFacet extends BaseFacet3D {
+        public VolumeFacet(BlockRegion targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        private int processed;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(HeightFacet.class,
+                    new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(value = HeightFacet.class, border = @FacetBorder(sides = 1)))
+    public static class DensityProvider implements FacetProvider {
+        private int processed;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(DensityFacet.class,
+                    new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class)));
+        }
+    }
+
+    @Produces(VolumeFacet.class)
+    public static class VolumeProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(VolumeFacet.class,
+                    new VolumeFacet(region.getRegion(), region.getBorderForFacet(VolumeFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(HeightFacet.class))
+    @Requires(@Facet(VolumeFacet.class))
+    public static class HeightFromVolumeUpdater implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.generation.facets.base.BaseFacet3D;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FacetProviderGraphTest {
+    private final BaseProvider baseProvider = new BaseProvider();
+    private final LeftProvider leftProvider = new LeftProvider();
+    private final RightProvider rightProvider = new RightProvider();
+    private final LeftUpdater leftUpdater = new LeftUpdater();
+    private final CombinedProvider combinedProvider = new CombinedProvider();
+
+    @Test
+    public void testIndependentProvidersShareStage() {
+        FacetProviderGraph graph = new FacetProviderGraph(createChains());
+
+        assertEquals(ImmutableList.of(
+                ImmutableList.of(baseProvider),
+                ImmutableList.of(leftProvider, rightProvider),
+                ImmutableList.of(leftUpdater),
+                ImmutableList.of(combinedProvider)), graph.getStages(CombinedFacet.class));
+    }
+
+    @Test
+    public void testUnknownFacetHasNoStages() {
+        FacetProviderGraph graph = new FacetProviderGraph(createChains());
+
+        assertEquals(Collections.emptyList(), graph.getStages(UnknownFacet.class));
+    }
+
+    @Test
+    public void testStagesRunInOrder() {
+        RegionImpl region = new RegionImpl(new BlockRegion(0, 0, 0).expand(4, 4, 4), createChains(),
+                Collections.emptyMap(), 1);
+
+        CombinedFacet facet = new ForkJoinPool(4)
+                .invoke(ForkJoinTask.adapt(() -> region.getFacet(CombinedFacet.class)));
+
+        assertEquals(ImmutableList.of("base", "left", "updated"), facet.left.steps);
+        assertEquals(ImmutableList.of("base", "right"), facet.right.steps);
+    }
+
+    private ListMultimap<Class<? extends WorldFacet>, FacetProvider> createChains() {
+        ListMultimap<Class<? extends WorldFacet>, FacetProvider> chains =
+                MultimapBuilder.linkedHashKeys().arrayListValues().build();
+        chains.putAll(BaseFacet.class, ImmutableList.of(baseProvider));
+        chains.putAll(LeftFacet.class, ImmutableList.of(baseProvider, leftProvider, leftUpdater));
+        chains.putAll(RightFacet.class, ImmutableList.of(baseProvider, rightProvider));
+        chains.putAll(CombinedFacet.class,
+                ImmutableList.of(baseProvider, leftProvider, rightProvider, leftUpdater, combinedProvider));
+        return chains;
+    }
+
+    public static class StepFacet extends BaseFacet3D {
+        final List<String> steps;
+
+        public StepFacet(BlockRegion targetRegion, Border3D border, List<String> steps) {
+            super(targetRegion, border);
+            this.steps = steps;
+        }
+    }
+
+    public static class BaseFacet extends StepFacet {
+        public BaseFacet(BlockRegion targetRegion, Border3D border) {
+            super(targetRegion, border, ImmutableList.of("base"));
+        }
+    }
+
+    public static class LeftFacet extends StepFacet {
+        public LeftFacet(BlockRegion targetRegion, Border3D border, List<String> steps) {
+            super(targetRegion, border, steps);
+        }
+    }
+
+    public static class RightFacet extends StepFacet {
+        public RightFacet(BlockRegion targetRegion, Border3D border, List<String> steps) {
+            super(targetRegion, border, steps);
+        }
+    }
+
+    public static class CombinedFacet extends BaseFacet3D {
+        final StepFacet left;
+        final StepFacet right;
+
+        public CombinedFacet(BlockRegion targetRegion, Border3D border, StepFacet left, StepFacet right) {
+            super(targetRegion, border);
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    public static class UnknownFacet extends BaseFacet3D {
+        public UnknownFacet(BlockRegion targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(BaseFacet.class)
+    public static class BaseProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(BaseFacet.class, new BaseFacet(region.getRegion(), new Border3D(0, 0, 0)));
+        }
+    }
+
+    @Produces(LeftFacet.class)
+    @Requires(@Facet(BaseFacet.class))
+    public static class LeftProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(LeftFacet.class, new LeftFacet(region.getRegion(), new Border3D(0, 0, 0),
+                    append(region.getRegionFacet(BaseFacet.class), "left")));
+        }
+    }
+
+    @Produces(RightFacet.class)
+    @Requires(@Facet(BaseFacet.class))
+    public static class RightProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(RightFacet.class, new RightFacet(region.getRegion(), new Border3D(0, 0, 0),
+                    append(region.getRegionFacet(BaseFacet.class), "right")));
+        }
+    }
+
+    @Updates(@Facet(LeftFacet.class))
+    public static class LeftUpdater implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            LeftFacet facet = region.getRegionFacet(LeftFacet.class);
+            region.setRegionFacet(LeftFacet.class, new LeftFacet(region.getRegion(), new Border3D(0, 0, 0),
+                    append(facet, "updated")));
+        }
+    }
+
+    @Produces(CombinedFacet.class)
+    @Requires({@Facet(LeftFacet.class), @Facet(RightFacet.class)})
+    public static class CombinedProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(CombinedFacet.class, new CombinedFacet(region.getRegion(), new Border3D(0, 0, 0),
+                    region.getRegionFacet(LeftFacet.class), region.getRegionFacet(RightFacet.class)));
+        }
+    }
+
+    private static List<String> append(StepFacet facet, String step) {
+        return ImmutableList.<String>builder().addAll(facet.steps).add(step).build();
+    }
+}
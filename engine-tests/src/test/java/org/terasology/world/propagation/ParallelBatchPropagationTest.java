@@ -0,0 +1,198 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelBatchPropagationTest {
+
+    private static final int SIZE_X = 16 * Chunks.SIZE_X;
+    private static final int SIZE_Y = 16;
+    private static final int SIZE_Z = 2 * Chunks.SIZE_Z;
+    private static final int REACH = Chunks.MAX_LIGHT + 1;
+
+    private final LightPropagationRules lightRules = new LightPropagationRules();
+    private Block air;
+    private Block stone;
+    private Block torch;
+
+    @BeforeEach
+    public void setup() {
+        air = new Block();
+        air.setTranslucent(true);
+        stone = new Block();
+        for (Side side : Side.values()) {
+            stone.setFullSide(side, true);
+        }
+        torch = new Block();
+        torch.setTranslucent(true);
+        torch.setLuminance(Chunks.MAX_LIGHT);
+    }
+
+    @Test
+    public void testChangesInDistantChunkColumnsAreSeparated() {
+        ParallelBatchPropagation propagation = new ParallelBatchPropagation(Collections::emptyList, REACH);
+        BlockChange first = new BlockChange(new Vector3i(0, 0, 0), air, torch);
+        BlockChange distant = new BlockChange(new Vector3i(5 * Chunks.SIZE_X, 0, 0), air, torch);
+        BlockChange near = new BlockChange(new Vector3i(Chunks.SIZE_X, 0, 0), air, torch);
+
+        List<ParallelBatchPropagation.Partition> partitions = propagation.partition(Arrays.asList(first, distant,
+                near));
+
+        assertEquals(2, partitions.size());
+        assertEquals(Arrays.asList(first, near), partitions.get(0).getChanges());
+        assertEquals(Collections.singletonList(distant), partitions.get(1).getChanges());
+    }
+
+    @Test
+    public void testPartitionsBridgedByLaterChangesGetMerged() {
+        ParallelBatchPropagation propagation = new ParallelBatchPropagation(Collections::emptyList, REACH);
+        BlockChange left = new BlockChange(new Vector3i(0, 0, 0), air, torch);
+        BlockChange right = new BlockChange(new Vector3i(3 * Chunks.SIZE_X, 0, 0), air, torch);
+        BlockChange bridge = new BlockChange(new Vector3i(3 * Chunks.SIZE_X / 2, 0, 0), air, torch);
+
+        List<ParallelBatchPropagation.Partition> partitions = propagation.partition(Arrays.asList(left, right,
+                bridge));
+
+        assertEquals(1, partitions.size());
+        assertEquals(Arrays.asList(left, right, bridge), partitions.get(0).getChanges());
+    }
+
+    @Test
+    public void testParallelResultEqualsSerialResult() {
+        ArrayWorldView serialWorld = createLitWorld();
+        ArrayWorldView parallelWorld = createLitWorld();
+        assertArrayEquals(serialWorld.values, parallelWorld.values);
+
+        List<BlockChange> changes = createChanges(serialWorld);
+        serialWorld.apply(changes);
+        parallelWorld.apply(changes);
+
+        new StandardBatchPropagator(lightRules, serialWorld).process(changes);
+        ParallelBatchPropagation propagation = new ParallelBatchPropagation(
+                () -> Collections.singletonList(new StandardBatchPropagator(lightRules, parallelWorld)), REACH);
+        try {
+            assertEquals(3, propagation.partition(changes).size());
+            propagation.process(changes, Collections.emptyList());
+        } finally {
+            propagation.shutdown();
+        }
+
+        assertArrayEquals(serialWorld.values, parallelWorld.values);
+    }
+
+    /**
+     * Creates a world of stone with three lit caves, which are several chunks apart.
+     */
+    private ArrayWorldView createLitWorld() {
+        ArrayWorldView world = new ArrayWorldView(stone);
+        BatchPropagator propagator = new StandardBatchPropagator(lightRules, world);
+        Vector3i pos = new Vector3i();
+        for (int cave = 0; cave < 3; cave++) {
+            for (int x = 0; x < Chunks.SIZE_X; x++) {
+                for (int y = 4; y < 12; y++) {
+                    for (int z = 8; z < SIZE_Z - 8; z++) {
+                        pos.set(cave * 5 * Chunks.SIZE_X + x, y, z);
+                        boolean lit = x % 8 == 0 && y == 4 && z % 8 == 0;
+                        world.setBlockAt(pos, lit ? torch : air);
+                        if (lit) {
+                            world.setValueAt(pos, Chunks.MAX_LIGHT);
+                            propagator.propagateFrom(pos, Chunks.MAX_LIGHT);
+                        }
+                    }
+                }
+            }
+        }
+        propagator.process();
+        return world;
+    }
+
+    /**
+     * Removes torches and places new torches and stone in each cave.
+     */
+    private List<BlockChange> createChanges(ArrayWorldView world) {
+        FastRandom random = new FastRandom(7);
+        List<BlockChange> changes = Lists.newArrayList();
+        Vector3i pos = new Vector3i();
+        for (int i = 0; i < 3 * ParallelBatchPropagation.MIN_PARALLEL_CHANGES; i++) {
+            int cave = i % 3;
+            pos.set(cave * 5 * Chunks.SIZE_X + random.nextInt(Chunks.SIZE_X), 4 + random.nextInt(8),
+                    8 + random.nextInt(SIZE_Z - 16));
+            Block from = world.getBlockAt(pos);
+            Block to;
+            if (from == torch) {
+                to = air;
+            } else {
+                to = random.nextBoolean() ? torch : stone;
+            }
+            if (changes.stream().noneMatch(change -> change.getPosition().equals(pos))) {
+                changes.add(new BlockChange(pos, from, to));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * A world of {@link #SIZE_X} by {@link #SIZE_Y} by {@link #SIZE_Z} blocks starting at the origin, which can be
+     * changed by several threads as long as they change different positions.
+     */
+    private static class ArrayWorldView implements PropagatorWorldView {
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final byte[] values = new byte[blocks.length];
+
+        ArrayWorldView(Block fill) {
+            Arrays.fill(blocks, fill);
+        }
+
+        void apply(List<BlockChange> changes) {
+            for (BlockChange change : changes) {
+                setBlockAt(change.getPosition(), change.getTo());
+            }
+        }
+
+        @Override
+        public byte getValueAt(Vector3ic pos) {
+            int index = index(pos);
+            return index < 0 ? UNAVAILABLE : values[index];
+        }
+
+        @Override
+        public void setValueAt(Vector3ic pos, byte value) {
+            values[index(pos)] = value;
+        }
+
+        @Override
+        public Block getBlockAt(Vector3ic pos) {
+            int index = index(pos);
+            return index < 0 ? null : blocks[index];
+        }
+
+        void setBlockAt(Vector3ic pos, Block block) {
+            blocks[index(pos)] = block;
+        }
+
+        private static int index(Vector3ic pos) {
+            if (pos.x() < 0 || pos.y() < 0 || pos.z() < 0 || pos.x() >= SIZE_X || pos.y() >= SIZE_Y
+                    || pos.z() >= SIZE_Z) {
+                return -1;
+            }
+            return pos.x() + SIZE_X * (pos.y() + SIZE_Y * pos.z());
+        }
+    }
+}
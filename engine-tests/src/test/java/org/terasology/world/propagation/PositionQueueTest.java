@@ -0,0 +1,111 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PositionQueueTest {
+
+    @Test
+    public void testPackedPositionsRoundTrip() {
+        int max = (1 << 20) - 1;
+        for (Vector3i pos : new Vector3i[]{new Vector3i(), new Vector3i(-1, -1, -1), new Vector3i(max, -max, 7),
+                new Vector3i(-max, max, -123456)}) {
+            assertEquals(pos, PositionQueue.unpack(PositionQueue.pack(pos), new Vector3i()));
+        }
+    }
+
+    @Test
+    public void testKeepsInsertionOrderWithoutDuplicates() {
+        PositionQueue queue = new PositionQueue();
+        assertTrue(queue.add(PositionQueue.pack(3, 0, 0)));
+        assertTrue(queue.add(PositionQueue.pack(1, 0, 0)));
+        assertFalse(queue.add(PositionQueue.pack(3, 0, 0)));
+        assertTrue(queue.add(PositionQueue.pack(2, 0, 0)));
+
+        assertEquals(3, queue.size());
+        assertEquals(Lists.newArrayList(3, 1, 2), xCoordinates(queue));
+    }
+
+    @Test
+    public void testRemovedPositionsAreSkippedAndCanBeAddedAgain() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(PositionQueue.pack(1, 0, 0));
+        queue.add(PositionQueue.pack(2, 0, 0));
+        queue.add(PositionQueue.pack(3, 0, 0));
+
+        assertTrue(queue.remove(PositionQueue.pack(1, 0, 0)));
+        assertFalse(queue.remove(PositionQueue.pack(1, 0, 0)));
+        assertEquals(Lists.newArrayList(2, 3), xCoordinates(queue));
+
+        assertTrue(queue.add(PositionQueue.pack(1, 0, 0)));
+        assertEquals(Lists.newArrayList(2, 3, 1), xCoordinates(queue));
+    }
+
+    @Test
+    public void testGrowsAndClears() {
+        PositionQueue queue = new PositionQueue();
+        for (int i = 0; i < 10000; i++) {
+            queue.add(PositionQueue.pack(i, -i, i % 7));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            queue.remove(PositionQueue.pack(i, -i, i % 7));
+        }
+        assertEquals(5000, queue.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 0, queue.add(PositionQueue.pack(i, -i, i % 7)));
+        }
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.end());
+        assertTrue(queue.add(PositionQueue.pack(1, 2, 3)));
+    }
+
+    @Test
+    public void testShrinksAfterSmallBatch() {
+        PositionQueue queue = new PositionQueue();
+        for (int i = 0; i < 10000; i++) {
+            queue.add(PositionQueue.pack(i, 0, 0));
+        }
+        queue.clear();
+        int grownCapacity = queue.capacity();
+
+        // a batch using a share of the arrays too large to shrink them, but small enough to clear only its slots
+        int batchSize = grownCapacity / 12;
+        for (int i = 0; i < batchSize; i++) {
+            queue.add(PositionQueue.pack(i, 1, 0));
+        }
+        queue.remove(PositionQueue.pack(0, 1, 0));
+        queue.clear();
+        assertEquals(grownCapacity, queue.capacity());
+        for (int i = 0; i < batchSize; i++) {
+            assertTrue(queue.add(PositionQueue.pack(i, 1, 0)));
+        }
+        queue.clear();
+
+        queue.add(PositionQueue.pack(1, 2, 3));
+        queue.clear();
+        assertTrue(queue.capacity() < grownCapacity);
+        assertTrue(queue.add(PositionQueue.pack(1, 2, 3)));
+        assertEquals(Lists.newArrayList(1), xCoordinates(queue));
+    }
+
+    private static List<Integer> xCoordinates(PositionQueue queue) {
+        List<Integer> result = Lists.newArrayList();
+        for (int i = 0; i < queue.end(); i++) {
+            if (!PositionQueue.isRemoved(queue.get(i))) {
+                result.add(PositionQueue.unpackX(queue.get(i)));
+            }
+        }
+        return result;
+    }
+}
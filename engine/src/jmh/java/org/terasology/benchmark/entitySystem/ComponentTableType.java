@@ -0,0 +1,29 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.engine.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.ComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.MapComponentTable;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+
+import java.util.function.Supplier;
+
+/**
+ * The component storage backends of {@link PojoEntityManager} compared by the entity system benchmarks.
+ */
+public enum ComponentTableType {
+    MAP(MapComponentTable::new),
+    ARCHETYPE(ArchetypeComponentTable::new);
+
+    private final Supplier<ComponentTable> factory;
+
+    ComponentTableType(Supplier<ComponentTable> factory) {
+        this.factory = factory;
+    }
+
+    public PojoEntityManager createEntityManager() {
+        return new PojoEntityManager(factory);
+    }
+}
@@ -10,6 +10,7 @@
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -38,6 +39,8 @@ public EntityRef createEntity(StateObject state) {
 
     @State(Scope.Thread)
     public static class StateObject {
+        @Param({"MAP", "ARCHETYPE"})
+        private ComponentTableType componentTableType;
 
         private List<Component> entityData;
         private PojoEntityManager entityManager;
@@ -45,7 +48,7 @@ public static class StateObject {
         @Setup(Level.Invocation)
         public void setup() {
             entityData = Lists.newArrayList();
-            entityManager = new PojoEntityManager();
+            entityManager = componentTableType.createEntityManager();
             FastRandom rand = new FastRandom(0L);
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
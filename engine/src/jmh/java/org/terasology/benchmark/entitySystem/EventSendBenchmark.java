@@ -0,0 +1,139 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.entitySystem.event.AbstractConsumableEvent;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.event.internal.EventSystem;
+import org.terasology.engine.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.rendering.logic.MeshComponent;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.block.BlockComponent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of sending events to entities with differing component sets, with handlers filtering on
+ * several components.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+public class EventSendBenchmark {
+
+    @Benchmark
+    public void sendEvent(StateObject state) {
+        for (EntityRef entity : state.entities) {
+            state.eventSystem.send(entity, new MoveEvent());
+        }
+    }
+
+    @Benchmark
+    public void sendConsumableEvent(StateObject state) {
+        for (EntityRef entity : state.entities) {
+            state.eventSystem.send(entity, new DamageEvent());
+        }
+    }
+
+    @Benchmark
+    public void sendEventToComponent(StateObject state) {
+        for (EntityRef entity : state.entities) {
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            if (location != null) {
+                state.eventSystem.send(entity, new MoveEvent(), location);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class StateObject {
+        private final List<EntityRef> entities = Lists.newArrayList();
+        private EventSystem eventSystem;
+
+        @Setup
+        public void setup() {
+            PojoEntityManager entityManager = new PojoEntityManager();
+            eventSystem = new EventSystemImpl(true);
+            eventSystem.registerEventHandler(new MovementSystem());
+            eventSystem.registerEventHandler(new DamageSystem());
+
+            FastRandom rand = new FastRandom(0L);
+            for (int i = 0; i < 1000; ++i) {
+                List<Component> entityData = Lists.newArrayList();
+                if (rand.nextFloat() < 0.75f) {
+                    entityData.add(new LocationComponent());
+                }
+                if (rand.nextFloat() < 0.5f) {
+                    entityData.add(new MeshComponent());
+                }
+                if (rand.nextFloat() < 0.25f) {
+                    entityData.add(new BlockComponent());
+                }
+                entities.add(entityManager.create(entityData));
+            }
+        }
+    }
+
+    public static class MoveEvent implements Event {
+    }
+
+    public static class DamageEvent extends AbstractConsumableEvent {
+    }
+
+    public static class MovementSystem extends BaseComponentSystem {
+        private int received;
+
+        @ReceiveEvent
+        public void onAnyMove(MoveEvent event, EntityRef entity) {
+            received++;
+        }
+
+        @ReceiveEvent
+        public void onMove(MoveEvent event, EntityRef entity, LocationComponent location) {
+            received++;
+        }
+
+        @ReceiveEvent(components = MeshComponent.class)
+        public void onMeshMove(MoveEvent event, EntityRef entity, LocationComponent location) {
+            received++;
+        }
+
+        @ReceiveEvent(components = {BlockComponent.class, MeshComponent.class})
+        public void onBlockMove(MoveEvent event, EntityRef entity) {
+            received++;
+        }
+    }
+
+    public static class DamageSystem extends BaseComponentSystem {
+        private int received;
+
+        @ReceiveEvent
+        public void onDamage(DamageEvent event, EntityRef entity, LocationComponent location) {
+            received++;
+        }
+
+        @ReceiveEvent(components = MeshComponent.class)
+        public void onMeshDamage(DamageEvent event, EntityRef entity) {
+            received++;
+        }
+    }
+}
@@ -9,7 +9,9 @@
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.terasology.engine.entitySystem.Component;
@@ -28,12 +30,19 @@
 @Warmup(iterations = 1)
 @Measurement(iterations = 1)
 public class IterateComponentsBenchmark {
+    private static final Class<? extends Component>[] MULTIPLE_COMPONENTS =
+            new Class[]{MeshComponent.class, LocationComponent.class};
 
     @State(Scope.Benchmark)
     public static class StateObject {
-        private final PojoEntityManager entityManager = new PojoEntityManager();
+        @Param({"MAP", "ARCHETYPE"})
+        private ComponentTableType componentTableType;
 
+        private PojoEntityManager entityManager;
+
+        @Setup
         public void setup() {
+            entityManager = componentTableType.createEntityManager();
             FastRandom rand = new FastRandom(0L);
             for (int i = 0; i < 1000; ++i) {
                 List<Component> entityData = Lists.newArrayList();
@@ -60,6 +69,15 @@ public void iterateMultipleComponent(StateObject state) {
         }
     }
 
+    @Benchmark
+    public void iterateMultipleComponentRows(StateObject state) {
+        state.entityManager.forEachWith(MULTIPLE_COMPONENTS, (entity, components) -> {
+            MeshComponent meshComp = (MeshComponent) components[0];
+            LocationComponent loc = (LocationComponent) components[1];
+            loc.getLocalPosition();
+        });
+    }
+
     @Benchmark
     public void iterateSingleComponent(StateObject state) {
         for (EntityRef entity : state.entityManager.getEntitiesWith(LocationComponent.class)) {
@@ -0,0 +1,164 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.persistence.internal.ChunkCodec;
+import org.terasology.engine.persistence.internal.ChunkCodecRegistry;
+import org.terasology.engine.persistence.internal.ChunkDictionaryTrainer;
+import org.terasology.engine.persistence.internal.DictionaryChunkCodec;
+import org.terasology.engine.persistence.internal.LzDictionaryCompression;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.TeraArray;
+import org.terasology.engine.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.engine.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.engine.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the chunk codecs on the output of {@link ChunkSerializer} for generated terrain.
+ * <br><br>
+ * The "bytes" counter is the rate of uncompressed bytes processed, i.e. bytes per second. The compression ratio of
+ * each codec gets printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Fork(1)
+@Measurement(iterations = 1)
+public class ChunkCodecBenchmark {
+
+    private static final int CHUNK_COUNT = 128;
+
+    @Benchmark
+    public int compress(CodecState state, ByteCounter counter) {
+        byte[] chunk = state.nextChunk();
+        counter.bytes += chunk.length;
+        return ChunkCodecRegistry.encode(state.codec, chunk).length;
+    }
+
+    @Benchmark
+    public int decompress(CodecState state, ByteCounter counter) throws IOException {
+        int index = state.nextIndex();
+        counter.bytes += state.chunks.get(index).length;
+        return state.registry.decode(state.compressedChunks.get(index)).length;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ByteCounter {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CodecState {
+        @Param({"gzip", "none", "lz-dict"})
+        private String codecName;
+
+        private ChunkCodecRegistry registry;
+        private ChunkCodec codec;
+        private List<byte[]> chunks;
+        private List<byte[]> compressedChunks;
+        private int index;
+
+        @Setup
+        public void setup() {
+            FastRandom random = new FastRandom(0L);
+            chunks = Lists.newArrayList();
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                chunks.add(createSerializedChunk(new Vector3i(i % 8, i / 64, (i / 8) % 8), random));
+            }
+
+            registry = new ChunkCodecRegistry(null);
+            codec = registry.getCodec(codecName);
+            if (codec instanceof DictionaryChunkCodec) {
+                // train on chunks that are not part of the measured set, like a world that trained on its first chunks
+                List<byte[]> samples = Lists.newArrayList();
+                for (int i = 0; i < 64; i++) {
+                    samples.add(createSerializedChunk(new Vector3i(100 + i, 0, 100), random));
+                }
+                ((DictionaryChunkCodec) codec).useDictionary(
+                        ChunkDictionaryTrainer.train(samples, LzDictionaryCompression.MAX_DICTIONARY_SIZE));
+            }
+
+            compressedChunks = Lists.newArrayList();
+            for (byte[] chunk : chunks) {
+                compressedChunks.add(ChunkCodecRegistry.encode(codec, chunk));
+            }
+        }
+
+        @TearDown
+        public void printRatio() {
+            long uncompressed = chunks.stream().mapToLong(chunk -> chunk.length).sum();
+            long compressed = compressedChunks.stream().mapToLong(chunk -> chunk.length).sum();
+            System.out.printf("%n%s: %d bytes -> %d bytes, ratio %.2f%n", codecName, uncompressed, compressed,
+                    (double) uncompressed / compressed);
+        }
+
+        private byte[] nextChunk() {
+            return chunks.get(nextIndex());
+        }
+
+        private int nextIndex() {
+            index = (index + 1) % CHUNK_COUNT;
+            return index;
+        }
+    }
+
+    /**
+     * Creates hilly terrain out of a few block types with some ores and caves, and one extra data array.
+     */
+    private static byte[] createSerializedChunk(Vector3i chunkPos, FastRandom random) {
+        TeraArray blocks = new TeraDenseArray16Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        TeraArray extraData = new TeraDenseArray8Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        for (int x = 0; x < Chunks.SIZE_X; x++) {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                int worldX = chunkPos.x * Chunks.SIZE_X + x;
+                int worldZ = chunkPos.z * Chunks.SIZE_Z + z;
+                int height = 32 + (int) (12 * Math.sin(worldX * 0.05) * Math.cos(worldZ * 0.07))
+                        - chunkPos.y * Chunks.SIZE_Y;
+                for (int y = 0; y < Chunks.SIZE_Y && y <= height; y++) {
+                    short block;
+                    if (y == height) {
+                        block = 4;
+                    } else if (y > height - 4) {
+                        block = 3;
+                    } else if (random.nextFloat() < 0.01f) {
+                        block = (short) (10 + random.nextInt(4));
+                    } else if (random.nextFloat() < 0.02f) {
+                        block = 0;
+                    } else {
+                        block = 2;
+                    }
+                    blocks.set(x, y, z, block);
+                }
+            }
+        }
+        return ChunkSerializer.encode(chunkPos, blocks, new TeraArray[]{extraData}).build().toByteArray();
+    }
+}
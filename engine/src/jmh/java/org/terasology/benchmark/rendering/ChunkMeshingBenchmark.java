@@ -0,0 +1,289 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.rendering;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.rendering.primitives.ChunkMesh;
+import org.terasology.engine.rendering.primitives.ChunkTessellator;
+import org.terasology.engine.utilities.procedural.SimplexNoise;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.shapes.BlockMeshPart;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.math.TeraMath;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to tessellate a chunk of generated hilly terrain, with and without greedy meshing. Runs without
+ * an OpenGL context, as it stops before the vertex buffers get uploaded.
+ * <br><br>
+ * The average number of opaque triangles per chunk gets printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+@Measurement(iterations = 5)
+public class ChunkMeshingBenchmark {
+
+    private static final int CHUNK_COUNT = 8;
+    private static final float TILE_SIZE = 1 / 16f;
+
+    @Benchmark
+    public int generateMesh(TerrainState state) {
+        ChunkMesh mesh = state.tessellator.generateMesh(state.nextChunk());
+        int vertices = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        // returns the staging buffers to the pool, as uploading the mesh would
+        mesh.discardData();
+        return vertices;
+    }
+
+    @State(Scope.Thread)
+    public static class TerrainState {
+        @Param({"false", "true"})
+        private boolean greedyMeshing;
+
+        private ChunkTessellator tessellator;
+        private TerrainView view;
+        private int chunk;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            tessellator = new ChunkTessellator(null);
+            tessellator.setGreedyMeshing(greedyMeshing);
+            view = new TerrainView();
+        }
+
+        @TearDown
+        public void printTriangles() {
+            long triangles = 0;
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                ChunkMesh mesh = tessellator.generateMesh(nextChunk());
+                triangles += mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).finalIndices.limit() / 3;
+                mesh.discardData();
+            }
+            System.out.printf("%ngreedy meshing %b: %d opaque triangles per chunk%n", greedyMeshing,
+                    triangles / CHUNK_COUNT);
+        }
+
+        TerrainView nextChunk() {
+            view.chunkX = chunk;
+            chunk = (chunk + 1) % CHUNK_COUNT;
+            return view;
+        }
+    }
+
+    private static Block createBlock(String uri, int tile) {
+        Block block = new Block();
+        block.setUri(new BlockUri(new ResourceUrn(uri)));
+        Map<BlockPart, BlockMeshPart> parts = new EnumMap<>(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = new EnumMap<>(BlockPart.class);
+        Vector2f atlasPos = new Vector2f(tile * TILE_SIZE, 0);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, atlasPos);
+        }
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createSide(side).mapTexCoords(atlasPos, TILE_SIZE, 1));
+            block.setFullSide(side, true);
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        return block;
+    }
+
+    private static BlockMeshPart createSide(Side side) {
+        Vector3ic normal = side.direction();
+        int n = normal.x() != 0 ? 0 : (normal.y() != 0 ? 1 : 2);
+        int a = n == 0 ? 1 : 0;
+        int b = n == 2 ? 1 : 2;
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        int[][] corners = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+        for (int i = 0; i < 4; i++) {
+            float[] vertex = new float[3];
+            vertex[n] = 0.5f * (normal.x() + normal.y() + normal.z());
+            vertex[a] = corners[i][0] - 0.5f;
+            vertex[b] = corners[i][1] - 0.5f;
+            vertices[i] = new Vector3f(vertex[0], vertex[1], vertex[2]);
+            normals[i] = new Vector3f(normal.x(), normal.y(), normal.z());
+            texCoords[i] = new Vector2f(corners[i][0], 1 - corners[i][1]);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    /**
+     * A row of {@link #CHUNK_COUNT} chunks of hills with grass on dirt on stone, with a border of one block around
+     * them. Sunlight fills the air above the ground.
+     */
+    private static class TerrainView implements ChunkView {
+        private static final int SIZE_X = CHUNK_COUNT * Chunks.SIZE_X + 2;
+        private static final int SIZE_Y = Chunks.SIZE_Y + 2;
+        private static final int SIZE_Z = Chunks.SIZE_Z + 2;
+
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final Block air;
+        /* the chunk which is currently viewed */
+        private int chunkX;
+
+        TerrainView() {
+            air = new Block();
+            air.setUri(new BlockUri(new ResourceUrn("engine:air")));
+            air.setTranslucent(true);
+            air.setShadowCasting(false);
+            air.setMeshGenerator(null);
+            Block stone = createBlock("engine:stone", 0);
+            Block dirt = createBlock("engine:dirt", 1);
+            Block grass = createBlock("engine:grass", 2);
+            grass.setGrass(true);
+
+            Arrays.fill(blocks, air);
+            SimplexNoise noise = new SimplexNoise(42);
+            for (int x = 0; x < SIZE_X; x++) {
+                for (int z = 0; z < SIZE_Z; z++) {
+                    float hills = noise.noise(x * 0.01f, z * 0.01f) * 16 + noise.noise(x * 0.05f, z * 0.05f) * 4;
+                    int height = 32 + TeraMath.floorToInt(hills);
+                    for (int y = -1; y < height; y++) {
+                        Block block = y == height - 1 ? grass : (y > height - 4 ? dirt : stone);
+                        blocks[x + SIZE_X * (y + 1 + SIZE_Y * z)] = block;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Block getBlock(float x, float y, float z) {
+            return getBlock(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f),
+                    TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public Block getBlock(Vector3ic pos) {
+            return getBlock(pos.x(), pos.y(), pos.z());
+        }
+
+        @Override
+        public Block getBlock(int x, int y, int z) {
+            int worldX = chunkX * Chunks.SIZE_X + x + 1;
+            if (worldX < 0 || y < -1 || z < -1 || worldX >= SIZE_X || y > Chunks.SIZE_Y || z > Chunks.SIZE_Z) {
+                return air;
+            }
+            return blocks[worldX + SIZE_X * (y + 1 + SIZE_Y * (z + 1))];
+        }
+
+        @Override
+        public byte getSunlight(float x, float y, float z) {
+            return getSunlight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f),
+                    TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public byte getSunlight(Vector3i pos) {
+            return getSunlight(pos.x(), pos.y(), pos.z());
+        }
+
+        @Override
+        public byte getSunlight(int x, int y, int z) {
+            return getBlock(x, y, z) == air ? Chunks.MAX_SUNLIGHT : 0;
+        }
+
+        @Override
+        public byte getLight(float x, float y, float z) {
+            return 0;
+        }
+
+        @Override
+        public byte getLight(Vector3i pos) {
+            return 0;
+        }
+
+        @Override
+        public byte getLight(int x, int y, int z) {
+            return 0;
+        }
+
+        @Override
+        public void setBlock(Vector3ic pos, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBlock(int x, int y, int z, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getExtraData(int index, int x, int y, int z) {
+            return 0;
+        }
+
+        @Override
+        public int getExtraData(int index, Vector3ic pos) {
+            return 0;
+        }
+
+        @Override
+        public void setExtraData(int index, int x, int y, int z, int value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setExtraData(int index, Vector3ic pos, int value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Vector3i toWorldPos(Vector3ic localPos) {
+            return new Vector3i(localPos).add(chunkX * Chunks.SIZE_X, 0, 0);
+        }
+
+        @Override
+        public BlockRegionc getWorldRegion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BlockRegionc getChunkRegion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setDirtyAround(Vector3ic blockPos) {
+        }
+
+        @Override
+        public void setDirtyAround(BlockRegionc blockRegion) {
+        }
+
+        @Override
+        public boolean isValidView() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.propagation.BatchPropagator;
+import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.PropagatorWorldView;
+import org.terasology.engine.world.propagation.StandardBatchPropagator;
+import org.terasology.engine.world.propagation.light.LightPropagationRules;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bulk relighting with {@link StandardBatchPropagator} in a lit cave system.
+ * <br><br>
+ * The "explosion" scenario removes a sphere of stone around lit tunnels, so light has to spread into it. The
+ * "collapse" scenario fills a sphere of the lit tunnels with stone, so their light has to be removed and spread again
+ * from the remaining torches. Run with the gc profiler ({@code -prof gc}) to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+@Measurement(iterations = 5)
+public class LightPropagationBenchmark {
+
+    private static final int SIZE_X = 128;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 128;
+    private static final int RADIUS = 12;
+
+    @Benchmark
+    public byte relight(WorldState state) {
+        state.propagator.process(state.changes);
+        return state.world.getValueAt(state.center);
+    }
+
+    @State(Scope.Thread)
+    public static class WorldState {
+        @Param({"explosion", "collapse"})
+        private String scenario;
+
+        private final Vector3i center = new Vector3i(SIZE_X / 2, SIZE_Y / 2, SIZE_Z / 2);
+        private Block air;
+        private Block stone;
+        private Block torch;
+        private ArrayWorldView world;
+        private BatchPropagator propagator;
+        private ArrayWorldView litWorld;
+        private List<BlockChange> changes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            air = new Block();
+            air.setTranslucent(true);
+            stone = new Block();
+            for (Side side : Side.values()) {
+                stone.setFullSide(side, true);
+            }
+            torch = new Block();
+            torch.setTranslucent(true);
+            torch.setLuminance(Chunks.MAX_LIGHT);
+
+            LightPropagationRules rules = new LightPropagationRules();
+            litWorld = new ArrayWorldView(stone);
+            BatchPropagator initialPropagator = new StandardBatchPropagator(rules, litWorld);
+            Vector3i pos = new Vector3i();
+            for (int x = 0; x < SIZE_X; x++) {
+                for (int y = 0; y < SIZE_Y; y++) {
+                    for (int z = 0; z < SIZE_Z; z++) {
+                        // tunnels along x and z every 16 blocks, with a torch every 8 blocks
+                        boolean tunnel = (y % 16 < 4) && (x % 16 < 4 || z % 16 < 4);
+                        if (tunnel) {
+                            boolean lit = y % 16 == 0 && x % 8 == 0 && z % 8 == 0;
+                            litWorld.setBlockAt(pos.set(x, y, z), lit ? torch : air);
+                            if (lit) {
+                                litWorld.setValueAt(pos, Chunks.MAX_LIGHT);
+                                initialPropagator.propagateFrom(pos, Chunks.MAX_LIGHT);
+                            }
+                        }
+                    }
+                }
+            }
+            initialPropagator.process();
+
+            changes = Lists.newArrayList();
+            boolean explosion = "explosion".equals(scenario);
+            for (int x = -RADIUS; x <= RADIUS; x++) {
+                for (int y = -RADIUS; y <= RADIUS; y++) {
+                    for (int z = -RADIUS; z <= RADIUS; z++) {
+                        if (x * x + y * y + z * z > RADIUS * RADIUS) {
+                            continue;
+                        }
+                        pos.set(center).add(x, y, z);
+                        Block block = litWorld.getBlockAt(pos);
+                        if (explosion && block == stone) {
+                            changes.add(new BlockChange(pos, stone, air));
+                        } else if (!explosion && block != stone) {
+                            changes.add(new BlockChange(pos, block, stone));
+                        }
+                    }
+                }
+            }
+
+            world = new ArrayWorldView(stone);
+            propagator = new StandardBatchPropagator(rules, world);
+        }
+
+        /**
+         * Restores the lit caves and applies the block changes of the benchmark to them.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            world.copyFrom(litWorld);
+            for (BlockChange change : changes) {
+                world.setBlockAt(change.getPosition(), change.getTo());
+            }
+        }
+    }
+
+    /**
+     * A world of {@link #SIZE_X} by {@link #SIZE_Y} by {@link #SIZE_Z} blocks starting at the origin.
+     */
+    private static class ArrayWorldView implements PropagatorWorldView {
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final byte[] values = new byte[blocks.length];
+
+        ArrayWorldView(Block fill) {
+            Arrays.fill(blocks, fill);
+        }
+
+        void copyFrom(ArrayWorldView other) {
+            System.arraycopy(other.blocks, 0, blocks, 0, blocks.length);
+            System.arraycopy(other.values, 0, values, 0, values.length);
+        }
+
+        @Override
+        public byte getValueAt(Vector3ic pos) {
+            int index = index(pos);
+            return index < 0 ? UNAVAILABLE : values[index];
+        }
+
+        @Override
+        public void setValueAt(Vector3ic pos, byte value) {
+            values[index(pos)] = value;
+        }
+
+        @Override
+        public Block getBlockAt(Vector3ic pos) {
+            int index = index(pos);
+            return index < 0 ? null : blocks[index];
+        }
+
+        void setBlockAt(Vector3ic pos, Block block) {
+            blocks[index(pos)] = block;
+        }
+
+        private static int index(Vector3ic pos) {
+            if (pos.x() < 0 || pos.y() < 0 || pos.z() < 0 || pos.x() >= SIZE_X || pos.y() >= SIZE_Y
+                    || pos.z() >= SIZE_Z) {
+                return -1;
+            }
+            return pos.x() + SIZE_X * (pos.y() + SIZE_Y * pos.z());
+        }
+    }
+}
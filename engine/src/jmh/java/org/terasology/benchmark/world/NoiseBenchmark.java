@@ -0,0 +1,111 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.utilities.procedural.BrownianNoise;
+import org.terasology.engine.utilities.procedural.Noise;
+import org.terasology.engine.utilities.procedural.PerlinNoise;
+import org.terasology.engine.utilities.procedural.SimplexNoise;
+import org.terasology.engine.world.block.BlockArea;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sampling noise one position at a time with sampling the area or region of a chunk at once.
+ * <br><br>
+ * The point benchmarks are what facet providers did before the grid methods of {@link Noise}, the area and region
+ * benchmarks go through the grid methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+@Measurement(iterations = 5)
+public class NoiseBenchmark {
+
+    private static final float ZOOM = 0.01f;
+
+    @Benchmark
+    public float[] areaPoints(NoiseState state) {
+        float[] out = state.areaValues;
+        int index = 0;
+        for (int y = state.area.minY(); y <= state.area.maxY(); y++) {
+            for (int x = state.area.minX(); x <= state.area.maxX(); x++) {
+                out[index++] = state.noise.noise(x * ZOOM, y * ZOOM);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public float[] areaGrid(NoiseState state) {
+        state.noise.noiseGrid(Noise.gridAxis(state.area.minX(), 1, state.area.getSizeX(), ZOOM),
+                Noise.gridAxis(state.area.minY(), 1, state.area.getSizeY(), ZOOM), state.areaValues);
+        return state.areaValues;
+    }
+
+    @Benchmark
+    public float[] regionPoints(NoiseState state) {
+        float[] out = state.regionValues;
+        int index = 0;
+        for (int z = state.region.minZ(); z <= state.region.maxZ(); z++) {
+            for (int y = state.region.minY(); y <= state.region.maxY(); y++) {
+                for (int x = state.region.minX(); x <= state.region.maxX(); x++) {
+                    out[index++] = state.noise.noise(x * ZOOM, y * ZOOM, z * ZOOM);
+                }
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public float[] regionGrid(NoiseState state) {
+        state.noise.noiseGrid(Noise.gridAxis(state.region.minX(), 1, state.region.getSizeX(), ZOOM),
+                Noise.gridAxis(state.region.minY(), 1, state.region.getSizeY(), ZOOM),
+                Noise.gridAxis(state.region.minZ(), 1, state.region.getSizeZ(), ZOOM), state.regionValues);
+        return state.regionValues;
+    }
+
+    @State(Scope.Thread)
+    public static class NoiseState {
+        @Param({"simplex", "perlin", "brownian"})
+        public String type;
+
+        Noise noise;
+        BlockArea area = new BlockArea(96, -32).setSize(Chunks.SIZE_X, Chunks.SIZE_Z);
+        BlockRegion region = new BlockRegion(96, 64, -32).setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        float[] areaValues;
+        float[] regionValues;
+
+        @Setup
+        public void setup() {
+            switch (type) {
+                case "perlin":
+                    noise = new PerlinNoise(0xCAFE);
+                    break;
+                case "brownian":
+                    noise = new BrownianNoise(new SimplexNoise(0xCAFE), 8);
+                    break;
+                default:
+                    noise = new SimplexNoise(0xCAFE);
+                    break;
+            }
+            areaValues = new float[area.getSizeX() * area.getSizeY()];
+            regionValues = new float[region.volume()];
+        }
+    }
+}
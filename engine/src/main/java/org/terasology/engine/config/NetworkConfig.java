@@ -49,6 +49,11 @@ public class NetworkConfig {
      */
     private String masterServer = "meta.terasology.org";
 
+    /**
+     * The codec which compresses the large messages sent to clients: none, deflate or snappy
+     */
+    private String frameCompression = "deflate";
+
     public void clear() {
         servers.clear();
     }
@@ -89,6 +94,14 @@ public List<ServerInfo> getServerInfos() {
         return Collections.unmodifiableList(servers);
     }
 
+    public String getFrameCompression() {
+        return frameCompression;
+    }
+
+    public void setFrameCompression(String frameCompression) {
+        this.frameCompression = frameCompression;
+    }
+
     public String getMasterServer() {
         return masterServer;
     }
@@ -78,6 +78,8 @@ public class RenderingConfig extends AbstractSubscribable {
     public static final String SCREENSHOT_FORMAT = "ScreenshotFormat";
     public static final String DUMP_SHADERS = "DumpShaders";
     public static final String VOLUMETRIC_FOG = "VolumetricFog";
+    public static final String GREEDY_MESHING = "GreedyMeshing";
+    public static final String CHUNK_MESH_MEMORY_BUDGET = "ChunkMeshMemoryBudget";
 
     private int pixelFormat;
     private int windowPosX;
@@ -126,6 +128,8 @@ public class RenderingConfig extends AbstractSubscribable {
     private int uiScale = 100;
     private boolean dumpShaders;
     private boolean volumetricFog;
+    private boolean greedyMeshing;
+    private int chunkMeshMemoryBudget;
     private ScreenshotSize screenshotSize;
     private String screenshotFormat;
     private PerspectiveCameraSettings cameraSettings;
@@ -691,4 +695,28 @@ public void setVolumetricFog(boolean volumetricFog) {
         propertyChangeSupport.firePropertyChange(VOLUMETRIC_FOG, oldValue, this.volumetricFog);
     }
 
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        boolean oldValue = this.greedyMeshing;
+        this.greedyMeshing = greedyMeshing;
+        propertyChangeSupport.firePropertyChange(GREEDY_MESHING, oldValue, this.greedyMeshing);
+    }
+
+    /**
+     * @return the memory in MiB that the meshes of nearby chunks may take up, before the least recently visible ones
+     *         are discarded, 0 if unlimited
+     */
+    public int getChunkMeshMemoryBudget() {
+        return chunkMeshMemoryBudget;
+    }
+
+    public void setChunkMeshMemoryBudget(int chunkMeshMemoryBudget) {
+        int oldValue = this.chunkMeshMemoryBudget;
+        this.chunkMeshMemoryBudget = chunkMeshMemoryBudget;
+        propertyChangeSupport.firePropertyChange(CHUNK_MESH_MEMORY_BUDGET, oldValue, this.chunkMeshMemoryBudget);
+    }
+
 }
@@ -21,6 +21,11 @@
 public class SystemConfig extends AutoConfig {
     public static final String SAVED_GAMES_ENABLED_PROPERTY = "org.terasology.savedGamesEnabled";
     public static final String PERMISSIVE_SECURITY_ENABLED_PROPERTY = "org.terasology.permissiveSecurityEnabled";
+    public static final String CHUNK_REGION_FILES_ENABLED_PROPERTY = "org.terasology.chunkRegionFilesEnabled";
+    public static final String ARCHETYPE_ENTITY_STORAGE_ENABLED_PROPERTY = "org.terasology.archetypeEntityStorageEnabled";
+    public static final String JOURNALED_SAVES_ENABLED_PROPERTY = "org.terasology.journaledSavesEnabled";
+    public static final String WORLD_GENERATION_PROFILING_ENABLED_PROPERTY =
+            "org.terasology.worldGenerationProfilingEnabled";
 
     public final Setting<Long> dayNightLengthInMs = setting(
             type(Long.class),
@@ -50,6 +55,22 @@ public class SystemConfig extends AutoConfig {
             constraint(new NumberRangeConstraint<>(0, 100, false, false))
     );
 
+    public final Setting<Boolean> journaledSavesEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Only append changes to a save journal on autosave"),
+            override(() -> Optional.ofNullable(
+                    System.getProperty(JOURNALED_SAVES_ENABLED_PROPERTY))
+                    .map(Boolean::parseBoolean))
+    );
+
+    public final Setting<Integer> secondsBetweenSaveCompactions = setting(
+            type(Integer.class),
+            defaultValue(600),
+            name("Seconds between full saves of a journaled game"),
+            constraint(new NumberRangeConstraint<>(0, 86400, false, false))
+    );
+
     public final Setting<Boolean> debugEnabled = setting(
             type(Boolean.class),
             defaultValue(false),
@@ -71,6 +92,33 @@ public class SystemConfig extends AutoConfig {
                     .map(Boolean::parseBoolean))
     );
 
+    public final Setting<Boolean> chunkRegionFilesEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Store chunks in region files"),
+            override(() -> Optional.ofNullable(
+                    System.getProperty(CHUNK_REGION_FILES_ENABLED_PROPERTY))
+                    .map(Boolean::parseBoolean))
+    );
+
+    public final Setting<Boolean> archetypeEntityStorageEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Group entity components by archetype"),
+            override(() -> Optional.ofNullable(
+                    System.getProperty(ARCHETYPE_ENTITY_STORAGE_ENABLED_PROPERTY))
+                    .map(Boolean::parseBoolean))
+    );
+
+    public final Setting<Boolean> worldGenerationProfilingEnabled = setting(
+            type(Boolean.class),
+            defaultValue(false),
+            name("Log the time taken by each world generation step"),
+            override(() -> Optional.ofNullable(
+                    System.getProperty(WORLD_GENERATION_PROFILING_ENABLED_PROPERTY))
+                    .map(Boolean::parseBoolean))
+    );
+
     public final Setting<Long> chunkGenerationFailTimeoutInMs = setting(
             type(Long.class),
             defaultValue(1800000L),
@@ -5,11 +5,13 @@
 
 import org.terasology.assets.ResourceUrn;
 import org.terasology.engine.audio.events.PlaySoundEvent;
+import org.terasology.engine.config.SystemConfig;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.core.module.ModuleManager;
 import org.terasology.engine.entitySystem.Component;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.ArchetypeComponentTable;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.engine.entitySystem.event.Event;
@@ -106,7 +108,10 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        SystemConfig systemConfig = context.get(SystemConfig.class);
+        PojoEntityManager entityManager = systemConfig != null && systemConfig.archetypeEntityStorageEnabled.get()
+                ? new PojoEntityManager(ArchetypeComponentTable::new)
+                : new PojoEntityManager();
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -155,7 +160,7 @@ private static EventSystem createEventSystem(NetworkSystem networkSystem, PojoEn
                     recordAndReplaySerializer, recordAndReplayUtils, selectedClassesToRecord, recordAndReplayCurrentStatus);
         } else {
             EventCatcher eventCatcher = new EventCatcher(selectedClassesToRecord, recordedEventStore);
-            eventSystem = new EventSystemImpl(networkSystem.getMode().isAuthority());
+            eventSystem = new EventSystemImpl(networkSystem.getMode().isAuthority(), library.getComponentLibrary());
             eventSystem = new NetworkEventSystemDecorator(eventSystem, networkSystem, library.getEventLibrary());
             eventSystem = new RecordingEventSystemDecorator(eventSystem, eventCatcher, recordAndReplayCurrentStatus);
         }
@@ -72,6 +72,11 @@ public void send(EntityRef entity, Event event, Component component) {
         eventSystem.send(entity, event, component);
     }
 
+    @Override
+    public void sendToAll(Iterable<EntityRef> entities, Event event) {
+        eventSystem.sendToAll(entities, event);
+    }
+
     @Override
     public void setToCurrentThread() {
         eventSystem.setToCurrentThread();
@@ -16,6 +16,9 @@
 
 package org.terasology.engine.core.modes;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  */
 public interface LoadProcess {
@@ -46,4 +49,24 @@ public interface LoadProcess {
      * @return A relative cost for this process. A small process would have a cost of 1, a large process a bigger cost.
      */
     int getExpectedCost();
+
+    /**
+     * Processes which do not need the main thread run on a worker pool. They begin once the main thread processes
+     * queued before them are finished, and run at the same time as the processes queued after them.
+     *
+     * @return Whether the process has to run on the main thread
+     */
+    default boolean isMainThreadOnly() {
+        return true;
+    }
+
+    /**
+     * Main thread processes run one after the other in the order they are queued, so a process only has to list the
+     * processes queued before it which do not need the main thread and whose results it uses.
+     *
+     * @return The processes which have to be finished before this process begins
+     */
+    default Set<Class<? extends LoadProcess>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
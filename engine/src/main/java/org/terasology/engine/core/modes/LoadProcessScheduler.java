@@ -0,0 +1,265 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.core.modes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the load processes of a game in the order they are queued.
+ * <br><br>
+ * Main thread processes are stepped one at a time by {@link #step()}. Processes which do not need the main thread are
+ * handed to a worker pool as soon as the main thread processes before them are finished, and a process waits for the
+ * ones it lists in {@link LoadProcess#getDependencies()}. Once all processes are finished, the time each one took is
+ * logged as a timeline.
+ */
+public class LoadProcessScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(LoadProcessScheduler.class);
+
+    private final List<LoadProcess> processes;
+    private final Set<LoadProcess> finished = Sets.newHashSet();
+    /* the processes on the worker pool, in the order they were started */
+    private final Map<LoadProcess, Future<TimelineEntry>> running = Maps.newLinkedHashMap();
+    private final List<TimelineEntry> timeline = Lists.newArrayList();
+    private final long startTime = System.nanoTime();
+    private final int maxProgress;
+
+    private int next;
+    private int progress;
+    private LoadProcess current;
+    private long currentStartTime;
+    private ExecutorService workers;
+
+    public LoadProcessScheduler(List<LoadProcess> processes) {
+        this.processes = ImmutableList.copyOf(processes);
+        this.maxProgress = processes.stream().mapToInt(LoadProcess::getExpectedCost).sum();
+    }
+
+    /**
+     * Collects the processes finished on the worker pool, begins the processes whose turn it is and runs one step of
+     * the current main thread process.
+     *
+     * @return whether loading can go on right away, false while the main thread waits for the worker pool
+     * @throws RuntimeException if a process failed
+     */
+    public boolean step() {
+        collectFinishedWorkers();
+        if (current == null) {
+            beginNext();
+            if (current == null) {
+                return false;
+            }
+        }
+        if (current.step()) {
+            LoadProcess process = current;
+            current = null;
+            finish(process, newEntry(process, currentStartTime, System.nanoTime()));
+        }
+        return true;
+    }
+
+    public boolean isFinished() {
+        return next == processes.size() && current == null && running.isEmpty();
+    }
+
+    /**
+     * @return the main thread process being run, or null while none is
+     */
+    public LoadProcess getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return the message of the main thread process being run, or else of a process on the worker pool or the next
+     *         process
+     */
+    public String getMessage() {
+        if (current != null) {
+            return current.getMessage();
+        }
+        if (!running.isEmpty()) {
+            return running.keySet().iterator().next().getMessage();
+        }
+        return next < processes.size() ? processes.get(next).getMessage() : "";
+    }
+
+    /**
+     * @return the share of the expected cost of all processes which is done, between 0 and 1
+     */
+    public float getProgress() {
+        if (maxProgress == 0) {
+            return isFinished() ? 1 : 0;
+        }
+        float currentProgress = current != null ? current.getExpectedCost() * current.getProgress() : 0;
+        return (progress + currentProgress) / maxProgress;
+    }
+
+    /**
+     * @return the finished processes, in the order they finished
+     */
+    public List<TimelineEntry> getTimeline() {
+        return Collections.unmodifiableList(timeline);
+    }
+
+    /**
+     * Stops the worker pool, interrupting the processes still running on it.
+     */
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    private void beginNext() {
+        while (next < processes.size()) {
+            LoadProcess process = processes.get(next);
+            if (!dependenciesFinished(process)) {
+                return;
+            }
+            next++;
+            if (process.isMainThreadOnly()) {
+                logger.debug(process.getMessage());
+                currentStartTime = System.nanoTime();
+                process.begin();
+                current = process;
+                return;
+            }
+            logger.debug("{} (on worker)", process.getMessage());
+            running.put(process, getWorkers().submit(() -> {
+                long processStartTime = System.nanoTime();
+                process.begin();
+                while (!process.step()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Loading was cancelled");
+                    }
+                }
+                return newEntry(process, processStartTime, System.nanoTime());
+            }));
+        }
+    }
+
+    private boolean dependenciesFinished(LoadProcess process) {
+        Set<Class<? extends LoadProcess>> dependencies = process.getDependencies();
+        for (int i = 0; i < next; i++) {
+            LoadProcess earlier = processes.get(i);
+            if (dependencies.contains(earlier.getClass()) && !finished.contains(earlier)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void collectFinishedWorkers() {
+        Iterator<Map.Entry<LoadProcess, Future<TimelineEntry>>> iterator = running.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<LoadProcess, Future<TimelineEntry>> entry = iterator.next();
+            if (entry.getValue().isDone()) {
+                iterator.remove();
+                finish(entry.getKey(), getResult(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private TimelineEntry getResult(LoadProcess process, Future<TimelineEntry> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            shutdown();
+            throw new RuntimeException("Error while loading " + process.getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading " + process.getMessage(), e);
+        }
+    }
+
+    private void finish(LoadProcess process, TimelineEntry entry) {
+        finished.add(process);
+        progress += process.getExpectedCost();
+        timeline.add(entry);
+        if (isFinished()) {
+            shutdown();
+            logTimeline();
+        }
+    }
+
+    private TimelineEntry newEntry(LoadProcess process, long processStartTime, long processEndTime) {
+        return new TimelineEntry(process.getClass().getSimpleName(), Thread.currentThread().getName(),
+                TimeUnit.NANOSECONDS.toMillis(processStartTime - startTime),
+                TimeUnit.NANOSECONDS.toMillis(processEndTime - processStartTime));
+    }
+
+    private ExecutorService getWorkers() {
+        if (workers == null) {
+            int threads = (int) processes.stream().filter(process -> !process.isMainThreadOnly()).count();
+            threads = Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors()));
+            workers = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("Loading-%d").setDaemon(true).build());
+        }
+        return workers;
+    }
+
+    private void logTimeline() {
+        StringBuilder builder = new StringBuilder();
+        long total = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        builder.append(String.format("Loading finished in %dms, started at and duration of each process:", total));
+        for (TimelineEntry entry : timeline) {
+            builder.append(String.format("%n%8dms %8dms  %-36s %s", entry.getStartMs(), entry.getDurationMs(),
+                    entry.getProcess(), entry.getThread()));
+        }
+        logger.info(builder.toString());
+    }
+
+    /**
+     * When and on which thread a load process ran.
+     */
+    public static final class TimelineEntry {
+        private final String process;
+        private final String thread;
+        private final long startMs;
+        private final long durationMs;
+
+        TimelineEntry(String process, String thread, long startMs, long durationMs) {
+            this.process = process;
+            this.thread = thread;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+        }
+
+        public String getProcess() {
+            return process;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return the time between the start of loading and the start of the process
+         */
+        public long getStartMs() {
+            return startMs;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+    }
+}
@@ -4,7 +4,7 @@
 package org.terasology.engine.core.modes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.config.Config;
@@ -59,7 +59,7 @@
 import org.terasology.engine.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 import org.terasology.engine.world.chunks.event.OnChunkLoaded;
 
-import java.util.Queue;
+import java.util.List;
 
 public class StateLoading implements GameState {
 
@@ -68,8 +68,8 @@ public class StateLoading implements GameState {
     private Context context;
     private GameManifest gameManifest;
     private NetworkMode netMode;
-    private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
-    private LoadProcess current;
+    private List<LoadProcess> loadProcesses = Lists.newArrayList();
+    private LoadProcessScheduler scheduler;
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -79,9 +79,6 @@ public class StateLoading implements GameState {
     private Config config;
     private SystemConfig systemConfig;
 
-    private int progress;
-    private int maxProgress;
-
     private boolean chunkGenerationStarted;
     private long timeLastChunkGenerated;
 
@@ -129,15 +126,9 @@ public void init(GameEngine engine) {
                 break;
         }
 
-        progress = 0;
-        maxProgress = 0;
-        for (LoadProcess process : loadProcesses) {
-            maxProgress += process.getExpectedCost();
-        }
-
-        popStep();
+        scheduler = new LoadProcessScheduler(loadProcesses);
         loadingScreen = nuiManager.pushScreen("engine:loadingScreen", LoadingScreen.class);
-        loadingScreen.updateStatus(current.getMessage(), current.getProgress());
+        loadingScreen.updateStatus(scheduler.getMessage(), scheduler.getProgress());
 
         chunkGenerationStarted = false;
     }
@@ -173,11 +164,11 @@ private void initHost() {
         loadProcesses.add(new InitialiseGraphics(context));
         loadProcesses.add(new LoadPrefabs(context));
         loadProcesses.add(new ProcessBlockPrefabs(context));
+        loadProcesses.add(new LoadExtraBlockData(context));
         loadProcesses.add(new InitialiseComponentSystemManager(context));
         loadProcesses.add(new RegisterInputSystem(context));
         loadProcesses.add(new RegisterSystems(context, netMode));
         loadProcesses.add(new InitialiseCommandSystem(context));
-        loadProcesses.add(new LoadExtraBlockData(context));
         loadProcesses.add(new InitialiseWorld(gameManifest, context));
         loadProcesses.add(new RegisterBlockFamilies(context));
         loadProcesses.add(new EnsureSaveGameConsistency(context));
@@ -208,20 +199,11 @@ private void initHost() {
         loadProcesses.add(new PrepareWorld(context));
     }
 
-    private void popStep() {
-        if (current != null) {
-            progress += current.getExpectedCost();
-        }
-        current = null;
-        if (!loadProcesses.isEmpty()) {
-            current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
-        }
-    }
-
     @Override
     public void dispose(boolean shuttingDown) {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
         EngineTime time = (EngineTime) context.get(Time.class);
         time.setPaused(false);
     }
@@ -235,31 +217,31 @@ public void update(float delta) {
         GameEngine gameEngine = context.get(GameEngine.class);
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
-        while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+        while (!scheduler.isFinished() && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
             try {
-                if (current.step()) {
-                    popStep();
+                if (!scheduler.step()) {
+                    // waiting for processes on the worker pool
+                    break;
                 }
             } catch (Exception e) {
-                logger.error("Error while loading {}", current, e);
+                logger.error("Error while loading {}", scheduler.getMessage(), e);
                 String errorMessage = String.format("Failed to load game. There was an error during \"%s\".",
-                        current == null ? "the last part" : current.getMessage());
+                        scheduler.isFinished() ? "the last part" : scheduler.getMessage());
                 gameEngine.changeState(new StateMainMenu(errorMessage));
                 CrashReporter.report(e, LoggingContext.getLoggingPath());
                 return;
             }
         }
-        if (current == null) {
+        if (scheduler.isFinished()) {
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             context.get(GameEngine.class).changeState(new StateIngame(gameManifest, context));
         } else {
-            float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
-            loadingScreen.updateStatus(current.getMessage(), progressValue);
+            loadingScreen.updateStatus(scheduler.getMessage(), scheduler.getProgress());
             nuiManager.update(delta);
 
             // chunk generation begins at the AwaitCharacterSpawn step
-            if (current instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
+            if (scheduler.getCurrent() instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
                 chunkGenerationStarted = true;
                 // in case no chunks generate, this should be set for a basis
                 timeLastChunkGenerated = time.getRealTimeInMs();
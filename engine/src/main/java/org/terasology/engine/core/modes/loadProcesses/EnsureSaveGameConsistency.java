@@ -50,4 +50,9 @@ public boolean step() {
     public int getExpectedCost() {
         return 0;
     }
+
+    @Override
+    public boolean isMainThreadOnly() {
+        return false;
+    }
 }
@@ -3,9 +3,11 @@
 
 package org.terasology.engine.core.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.core.ComponentSystemManager;
 import org.terasology.engine.core.TerasologyConstants;
+import org.terasology.engine.core.modes.LoadProcess;
 import org.terasology.engine.core.modes.SingleStepLoadProcess;
 import org.terasology.engine.core.subsystem.RenderingSubsystemFactory;
 import org.terasology.engine.game.GameManifest;
@@ -30,6 +32,8 @@
 import org.terasology.engine.world.sun.CelestialSystem;
 import org.terasology.engine.world.sun.DefaultCelestialSystem;
 
+import java.util.Set;
+
 public class InitialiseRemoteWorld extends SingleStepLoadProcess {
     private final Context context;
     private final GameManifest gameManifest;
@@ -93,4 +97,8 @@ public int getExpectedCost() {
         return 1;
     }
 
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(LoadExtraBlockData.class);
+    }
 }
@@ -3,6 +3,7 @@
 
 package org.terasology.engine.core.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,7 @@
 import org.terasology.engine.core.ComponentSystemManager;
 import org.terasology.engine.core.GameEngine;
 import org.terasology.engine.core.TerasologyConstants;
+import org.terasology.engine.core.modes.LoadProcess;
 import org.terasology.engine.core.modes.SingleStepLoadProcess;
 import org.terasology.engine.core.modes.StateMainMenu;
 import org.terasology.engine.core.module.ModuleManager;
@@ -22,6 +24,7 @@
 import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.engine.persistence.StorageManager;
+import org.terasology.engine.persistence.internal.ChunkStorageMode;
 import org.terasology.engine.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.engine.persistence.internal.ReadWriteStorageManager;
 import org.terasology.engine.recording.DirectionAndOriginPosRecorderList;
@@ -57,6 +60,7 @@
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Set;
 
 public class InitialiseWorld extends SingleStepLoadProcess {
 
@@ -108,7 +112,14 @@ public boolean step() {
 
         // Init. a new world
         EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
-        boolean writeSaveGamesEnabled = context.get(SystemConfig.class).writeSaveGamesEnabled.get();
+        SystemConfig systemConfig = context.get(SystemConfig.class);
+        if (systemConfig.worldGenerationProfilingEnabled.get() && worldGenerator.getWorld() != null) {
+            worldGenerator.getWorld().setProfilingEnabled(true);
+        }
+        boolean writeSaveGamesEnabled = systemConfig.writeSaveGamesEnabled.get();
+        ChunkStorageMode chunkStorageMode = systemConfig.chunkRegionFilesEnabled.get()
+                ? ChunkStorageMode.REGION_FILES
+                : ChunkStorageMode.ZIP_BUNDLES;
         //Gets save data from a normal save or from a recording if it is a replay
         Path saveOrRecordingPath = getSaveOrRecordingPath();
         StorageManager storageManager;
@@ -116,9 +127,16 @@ public boolean step() {
         RecordAndReplayUtils recordAndReplayUtils = context.get(RecordAndReplayUtils.class);
         RecordAndReplayCurrentStatus recordAndReplayCurrentStatus = context.get(RecordAndReplayCurrentStatus.class);
         try {
-            storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus)
-                    : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager);
+            if (writeSaveGamesEnabled) {
+                ReadWriteStorageManager readWriteStorageManager = new ReadWriteStorageManager(saveOrRecordingPath,
+                        environment, entityManager, blockManager, extraDataManager, chunkStorageMode,
+                        recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                readWriteStorageManager.setChunkCodec(worldInfo.getChunkCodec());
+                storageManager = readWriteStorageManager;
+            } else {
+                storageManager = new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager,
+                        blockManager, extraDataManager, chunkStorageMode);
+            }
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -181,4 +199,9 @@ private Path getSaveOrRecordingPath() {
     public int getExpectedCost() {
         return 5;
     }
+
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(LoadExtraBlockData.class);
+    }
 }
@@ -56,4 +56,9 @@ public boolean step() {
     public int getExpectedCost() {
         return 5;
     }
+
+    @Override
+    public boolean isMainThreadOnly() {
+        return false;
+    }
 }
@@ -16,15 +16,18 @@
 
 package org.terasology.engine.core.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.context.Context;
+import org.terasology.engine.core.modes.LoadProcess;
 import org.terasology.engine.core.modes.SingleStepLoadProcess;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.persistence.StorageManager;
 
 import java.io.IOException;
+import java.util.Set;
 
 public class LoadEntities extends SingleStepLoadProcess {
 
@@ -66,5 +69,8 @@ public int getExpectedCost() {
         return 1;
     }
 
-
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(EnsureSaveGameConsistency.class);
+    }
 }
@@ -46,4 +46,9 @@ public boolean step() {
     public int getExpectedCost() {
         return 1;
     }
+
+    @Override
+    public boolean isMainThreadOnly() {
+        return false;
+    }
 }
@@ -15,13 +15,16 @@
  */
 package org.terasology.engine.core.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.engine.context.Context;
 import org.terasology.engine.core.ComponentSystemManager;
+import org.terasology.engine.core.modes.LoadProcess;
 import org.terasology.engine.core.modes.StepBasedLoadProcess;
 import org.terasology.engine.entitySystem.systems.ComponentSystem;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Responsible for calling {@link ComponentSystem#postBegin()} on all registered systems.
@@ -62,4 +65,9 @@ public void begin() {
     public int getExpectedCost() {
         return 1;
     }
+
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(InitialiseWorldGenerator.class);
+    }
 }
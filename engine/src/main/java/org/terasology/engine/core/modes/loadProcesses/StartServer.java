@@ -16,14 +16,18 @@
 
 package org.terasology.engine.core.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.engine.config.Config;
 import org.terasology.engine.context.Context;
+import org.terasology.engine.core.modes.LoadProcess;
 import org.terasology.engine.core.modes.SingleStepLoadProcess;
 import org.terasology.engine.network.NetworkSystem;
 import org.terasology.engine.network.exceptions.HostingFailedException;
 import org.terasology.engine.rendering.nui.NUIManager;
 import org.terasology.engine.rendering.nui.layers.mainMenu.MessagePopup;
 
+import java.util.Set;
+
 /**
  */
 public class StartServer extends SingleStepLoadProcess {
@@ -61,4 +65,9 @@ public boolean step() {
     public int getExpectedCost() {
         return 1;
     }
+
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(InitialiseWorldGenerator.class);
+    }
 }
@@ -0,0 +1,33 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.core.module;
+
+import org.terasology.module.Module;
+import org.terasology.module.ModuleLoader;
+import org.terasology.module.ModuleMetadataJsonAdapter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Loads modules like {@link ModuleLoader}, but takes the class index of module archives from a
+ * {@link ModuleIndexCache}.
+ */
+public class IndexCachingModuleLoader extends ModuleLoader {
+    private final ModuleIndexCache indexCache;
+
+    public IndexCachingModuleLoader(ModuleMetadataJsonAdapter metadataReader, ModuleIndexCache indexCache) {
+        super(metadataReader);
+        this.indexCache = indexCache;
+    }
+
+    @Override
+    public Module load(Path modulePath) throws IOException {
+        Module module = super.load(modulePath);
+        if (module == null) {
+            return null;
+        }
+        return indexCache.index(modulePath, module);
+    }
+}
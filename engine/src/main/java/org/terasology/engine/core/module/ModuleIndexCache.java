@@ -0,0 +1,181 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.core.module;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.reflections.Reflections;
+import org.reflections.ReflectionsException;
+import org.reflections.serializers.Serializer;
+import org.reflections.serializers.XmlSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.module.ArchiveModule;
+import org.terasology.module.Module;
+import org.terasology.module.ModuleMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the class index of module archives on disk, so unchanged modules need not be scanned on every start.
+ * <br><br>
+ * The index of an archive is the {@link Reflections} fragment of its module, stored under the hash of the archive's
+ * content. While modules are loaded, {@link #index} hands out modules backed by the stored index of their archive.
+ * Archives without one keep their module, and {@link #update} scans them in parallel afterwards and stores their
+ * index for the next start.
+ */
+public class ModuleIndexCache {
+    private static final Logger logger = LoggerFactory.getLogger(ModuleIndexCache.class);
+
+    private static final String INDEX_SUFFIX = ".xml";
+
+    private final Path directory;
+    private final Serializer serializer = new XmlSerializer();
+    private final List<PendingIndex> pending = Lists.newArrayList();
+    private final Set<Path> usedIndices = Sets.newHashSet();
+    private int loaded;
+
+    /**
+     * @param directory the directory holding the indices
+     */
+    public ModuleIndexCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param path the location the module was loaded from
+     * @param module the module loaded from there
+     * @return a module using the stored index if the module is an archive whose content is unchanged, the given
+     *         module otherwise
+     */
+    public synchronized Module index(Path path, Module module) {
+        if (!Files.isRegularFile(path) || !module.isCodeModule()) {
+            return module;
+        }
+        HashCode hash;
+        try {
+            hash = hash(path);
+        } catch (IOException e) {
+            logger.warn("Failed to hash module archive {}, it will be scanned", path, e);
+            return module;
+        }
+        Path indexPath = getIndexPath(hash);
+        usedIndices.add(indexPath);
+        Optional<Reflections> index = read(indexPath);
+        if (index.isPresent()) {
+            loaded++;
+            return new IndexedArchiveModule(path, module.getMetadata(), index.get());
+        }
+        pending.add(new PendingIndex(module, indexPath));
+        return module;
+    }
+
+    /**
+     * Scans the modules which had no stored index in parallel, stores their indices and removes the indices of
+     * archives which are gone.
+     */
+    public synchronized void update() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        int built = pending.size();
+        pending.parallelStream().forEach(PendingIndex::build);
+        pending.clear();
+        removeUnused();
+        logger.info("Module class index: {} loaded, {} scanned in {}ms", loaded, built,
+                stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    static HashCode hash(Path archive) throws IOException {
+        return com.google.common.io.Files.asByteSource(archive.toFile()).hash(Hashing.sha256());
+    }
+
+    Path getIndexPath(HashCode hash) {
+        return directory.resolve(hash + INDEX_SUFFIX);
+    }
+
+    Optional<Reflections> read(Path indexPath) {
+        if (!Files.isRegularFile(indexPath)) {
+            return Optional.empty();
+        }
+        try (InputStream stream = Files.newInputStream(indexPath)) {
+            return Optional.of(serializer.read(stream));
+        } catch (IOException | RuntimeException e) {
+            // the serializer wraps malformed documents in plain runtime exceptions
+            logger.warn("Failed to read module class index {}, it will be rebuilt", indexPath, e);
+            return Optional.empty();
+        }
+    }
+
+    void write(Path indexPath, Reflections index) throws IOException {
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, "index", ".tmp");
+        try {
+            serializer.save(index, tempPath.toString());
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private void removeUnused() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> indices = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX)) {
+            for (Path indexPath : indices) {
+                if (!usedIndices.contains(indexPath)) {
+                    Files.delete(indexPath);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to remove unused module class indices from {}", directory, e);
+        }
+    }
+
+    private final class PendingIndex {
+        private final Module module;
+        private final Path indexPath;
+
+        PendingIndex(Module module, Path indexPath) {
+            this.module = module;
+            this.indexPath = indexPath;
+        }
+
+        void build() {
+            try {
+                write(indexPath, module.getReflectionsFragment());
+            } catch (IOException | ReflectionsException e) {
+                logger.warn("Failed to store the class index of module {}", module, e);
+            }
+        }
+    }
+
+    /**
+     * An archive module whose class index is read from the cache instead of being scanned.
+     */
+    private static final class IndexedArchiveModule extends ArchiveModule {
+        private final Reflections index;
+
+        IndexedArchiveModule(Path path, ModuleMetadata metadata, Reflections index) {
+            super(path, metadata);
+            this.index = index;
+        }
+
+        @Override
+        public Reflections getReflectionsFragment() {
+            return index;
+        }
+    }
+}
@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.core.module;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Sets;
 import org.reflections.Reflections;
 import org.reflections.serializers.Serializer;
@@ -51,6 +52,7 @@
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Verify.verifyNotNull;
@@ -80,27 +82,40 @@ public ModuleManager(String masterServerAddress, List<Class<?>> classesOnClasspa
 
     public ModuleManager(String masterServerAddress, List<Class<?>> classesOnClasspathsToAddToEngine, Boolean loadModulesFromClasspath) {
         PathManager pathManager = PathManager.getInstance();  // get early so if it needs to initialize, it does it now
+        Stopwatch total = Stopwatch.createStarted();
+        Stopwatch phase = Stopwatch.createStarted();
 
         metadataReader = newMetadataReader();
 
         engineModule = loadEngineModule(classesOnClasspathsToAddToEngine);
+        logPhase("engine module", phase);
 
         registry = new TableModuleRegistry();
         registry.add(engineModule);
 
         if (doLoadModulesFromClasspath(loadModulesFromClasspath)) {
             loadModulesFromClassPath();
+            logPhase("classpath modules", phase);
         } else {
             logger.info("Not loading classpath modules.");
         }
 
         loadModulesFromApplicationPath(pathManager);
+        logPhase("module paths", phase);
 
         ensureModulesDependOnEngine(engineModule);
 
         setupSandbox();
+        logPhase("sandbox", phase);
         loadEnvironment(Sets.newHashSet(engineModule), true);
+        logPhase("environment", phase);
         installManager = new ModuleInstallManager(this, masterServerAddress);
+        logger.info("Module manager started in {}ms", total.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    private static void logPhase(String name, Stopwatch phase) {
+        logger.info("Module manager startup phase '{}' took {}ms", name, phase.elapsed(TimeUnit.MILLISECONDS));
+        phase.reset().start();
     }
 
     /**
@@ -118,10 +133,22 @@ private void ensureModulesDependOnEngine(Module engineModule) {
         registry.stream().filter(mod -> mod != engineModule).forEach(mod -> mod.getMetadata().getDependencies().add(engineDep));
     }
 
+    /**
+     * Loads the modules in the module paths, taking the class index of unchanged module archives from the cache in
+     * {@link PathManager#getModuleIndexPath()} and rebuilding the others in parallel.
+     */
     private void loadModulesFromApplicationPath(PathManager pathManager) {
-        ModulePathScanner scanner = new ModulePathScanner(new ModuleLoader(metadataReader));
+        Path indexPath = pathManager.getModuleIndexPath();
+        ModuleIndexCache indexCache = indexPath != null ? new ModuleIndexCache(indexPath) : null;
+        ModuleLoader loader = indexCache != null
+                ? new IndexCachingModuleLoader(metadataReader, indexCache)
+                : new ModuleLoader(metadataReader);
+        ModulePathScanner scanner = new ModulePathScanner(loader);
         scanner.getModuleLoader().setModuleInfoPath(TerasologyConstants.MODULE_INFO_FILENAME);
         scanner.scan(registry, pathManager.getModulePaths());
+        if (indexCache != null) {
+            indexCache.update();
+        }
     }
 
     private Module loadEngineModule(List<Class<?>> classesOnClasspathsToAddToEngine) {
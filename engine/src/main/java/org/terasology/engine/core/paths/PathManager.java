@@ -37,6 +37,7 @@ public final class PathManager {
     private static final String SHADER_LOG_DIR = "shaders";
     private static final String MODULE_DIR = "modules";
     private static final String MODULE_CACHE_DIR = "cachedModules";
+    private static final String MODULE_INDEX_DIR = "moduleIndex";
     private static final String SCREENSHOT_DIR = "screenshots";
     private static final String NATIVES_DIR = "natives";
     private static final String CONFIGS_DIR = "configs";
@@ -54,6 +55,7 @@ public final class PathManager {
     private Path shaderLogPath;
     private Path currentWorldPath;
     private Path sandboxPath;
+    private Path moduleIndexPath;
 
     private ImmutableList<Path> modPaths = ImmutableList.of();
     private Path screenshotPath;
@@ -291,6 +293,14 @@ public Path getSandboxPath() {
         return sandboxPath;
     }
 
+    /**
+     *
+     * @return Path in which the class indices of module archives are cached.
+     */
+    public Path getModuleIndexPath() {
+        return moduleIndexPath;
+    }
+
     /**
      * Updates all of the path manager's file/directory references to match the path settings. Creates directories if they don't already exist.
      * @throws IOException Thrown when required directories cannot be accessed.
@@ -307,6 +317,7 @@ private void updateDirs() throws IOException {
             currentWorldPath = homePath;
         }
         sandboxPath = homePath.resolve(SANDBOX_DIR);
+        moduleIndexPath = homePath.resolve(MODULE_INDEX_DIR);
 
         modPaths = defaultModPaths();
 
@@ -0,0 +1,19 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity;
+
+import org.terasology.engine.entitySystem.Component;
+
+/**
+ * Receives the entities of {@link EntityManager#forEachWith} together with the requested components.
+ */
+@FunctionalInterface
+public interface ComponentRowConsumer {
+
+    /**
+     * @param entity the visited entity
+     * @param components the requested components of the entity. The array is reused for the next entity, so it
+     *                   must not be kept.
+     */
+    void accept(EntityRef entity, Component[] components);
+}
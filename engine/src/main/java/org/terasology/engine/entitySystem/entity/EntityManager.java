@@ -98,4 +98,22 @@ public interface EntityManager extends EntityPool {
 
     boolean moveToPool(long id, EngineEntityPool pool);
 
+    /**
+     * Calls the consumer for every entity which has all of the given components.
+     * <br><br>
+     * This is meant for systems which process many entities per tick: implementations may hand out the components
+     * without looking each of them up. Components must not be added to or removed from entities while iterating.
+     *
+     * @param componentClasses the required component classes
+     * @param consumer receives each entity with its components, in the order of {@code componentClasses}
+     */
+    default void forEachWith(Class<? extends Component>[] componentClasses, ComponentRowConsumer consumer) {
+        Component[] components = new Component[componentClasses.length];
+        for (EntityRef entity : getEntitiesWith(componentClasses)) {
+            for (int i = 0; i < componentClasses.length; i++) {
+                components[i] = entity.getComponent(componentClasses[i]);
+            }
+            consumer.accept(entity, components);
+        }
+    }
 }
@@ -0,0 +1,407 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.engine.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A component table which groups entities by their set of component types (their archetype).
+ * <br><br>
+ * Each archetype stores its entities in parallel arrays, one per component type. Iterating the entities with a given
+ * set of components only visits the archetypes containing all of them, and reads the components row by row instead
+ * of looking each of them up in a map. Adding or removing a component moves the entity to another archetype.
+ */
+public class ArchetypeComponentTable implements ComponentTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<? extends Component>, List<Archetype>> archetypesByType = Maps.newHashMap();
+    private final TLongObjectMap<Archetype> entityArchetypes = new TLongObjectHashMap<>();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return null;
+        }
+        int column = archetype.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        return componentClass.cast(archetype.columns[column][archetype.rowOf(entityId)]);
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<? extends Component> componentClass = component.getClass();
+        Archetype source = entityArchetypes.get(entityId);
+        if (source != null) {
+            int column = source.columnOf(componentClass);
+            if (column >= 0) {
+                int row = source.rowOf(entityId);
+                Component old = source.columns[column][row];
+                source.columns[column][row] = component;
+                return old;
+            }
+        }
+        Archetype target = source == null
+                ? getArchetype(ImmutableSet.of(componentClass))
+                : source.withAdded(componentClass);
+        int row = move(entityId, source, target);
+        target.columns[target.columnOf(componentClass)][row] = component;
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        Archetype source = entityArchetypes.get(entityId);
+        if (source == null) {
+            return null;
+        }
+        int column = source.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        Component removed = source.columns[column][source.rowOf(entityId)];
+        if (source.types.length == 1) {
+            remove(entityId);
+        } else {
+            move(entityId, source, source.withRemoved(componentClass));
+        }
+        return removed;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        List<Component> components = getComponentsInNewList(entityId);
+        remove(entityId);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        Archetype archetype = entityArchetypes.remove(entityId);
+        if (archetype != null) {
+            archetype.removeRow(archetype.rowOf(entityId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        archetypes.clear();
+        archetypesByType.clear();
+        entityArchetypes.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        int count = 0;
+        for (Archetype archetype : archetypesByType.getOrDefault(componentClass, Collections.emptyList())) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        int row = archetype.rowOf(entityId);
+        List<Component> components = Lists.newArrayListWithCapacity(archetype.types.length);
+        for (Component[] column : archetype.columns) {
+            components.add(column[row]);
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> matching = archetypesByType.get(componentClass);
+        if (matching == null) {
+            return null;
+        }
+        return new ArchetypeComponentIterator<>(matching, componentClass);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongArrayList(entityArchetypes.keys()).iterator();
+    }
+
+    @Override
+    public TLongIterator entityIdIterator(Class<? extends Component>[] componentClasses) {
+        TLongList ids = new TLongArrayList();
+        for (Archetype archetype : getMatchingArchetypes(componentClasses)) {
+            ids.add(archetype.ids, 0, archetype.size);
+        }
+        return ids.iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return entityArchetypes.size();
+    }
+
+    @Override
+    public void forEachWith(Class<? extends Component>[] componentClasses, RowVisitor visitor) {
+        Component[] row = new Component[componentClasses.length];
+        int[] columns = new int[componentClasses.length];
+        for (Archetype archetype : getMatchingArchetypes(componentClasses)) {
+            for (int i = 0; i < componentClasses.length; i++) {
+                columns[i] = archetype.columnOf(componentClasses[i]);
+            }
+            for (int r = 0; r < archetype.size; r++) {
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = archetype.columns[columns[i]][r];
+                }
+                visitor.visit(archetype.ids[r], row);
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct component sets used by the entities of this table so far.
+     */
+    public int getArchetypeCount() {
+        return archetypes.size();
+    }
+
+    private List<Archetype> getMatchingArchetypes(Class<? extends Component>[] componentClasses) {
+        if (componentClasses.length == 0) {
+            return Lists.newArrayList(archetypes.values());
+        }
+        List<Archetype> candidates = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            List<Archetype> withType = archetypesByType.get(componentClass);
+            if (withType == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || withType.size() < candidates.size()) {
+                candidates = withType;
+            }
+        }
+        List<Archetype> result = Lists.newArrayListWithCapacity(candidates.size());
+        for (Archetype candidate : candidates) {
+            if (candidate.size > 0 && candidate.containsAll(componentClasses)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves the entity with all components it has in {@code source} to a new row of {@code target}.
+     *
+     * @return the row of the entity in {@code target}
+     */
+    private int move(long entityId, Archetype source, Archetype target) {
+        int targetRow = target.addRow(entityId);
+        if (source != null) {
+            int sourceRow = source.rowOf(entityId);
+            for (int column = 0; column < source.types.length; column++) {
+                int targetColumn = target.columnOf(source.types[column]);
+                if (targetColumn >= 0) {
+                    target.columns[targetColumn][targetRow] = source.columns[column][sourceRow];
+                }
+            }
+            source.removeRow(sourceRow);
+        }
+        entityArchetypes.put(entityId, target);
+        return targetRow;
+    }
+
+    private Archetype getArchetype(Set<Class<? extends Component>> types) {
+        Archetype archetype = archetypes.get(types);
+        if (archetype == null) {
+            archetype = new Archetype(types);
+            archetypes.put(archetype.typeSet, archetype);
+            for (Class<? extends Component> type : types) {
+                archetypesByType.computeIfAbsent(type, key -> Lists.newArrayList()).add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    private final class Archetype {
+        private final Set<Class<? extends Component>> typeSet;
+        private final Class<? extends Component>[] types;
+        private final Map<Class<?>, Integer> columnIndices = new IdentityHashMap<>();
+        private final Map<Class<?>, Archetype> addTransitions = new IdentityHashMap<>();
+        private final Map<Class<?>, Archetype> removeTransitions = new IdentityHashMap<>();
+        private final TLongIntMap rows = new TLongIntHashMap();
+        private final Component[][] columns;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private Archetype(Set<Class<? extends Component>> typeSet) {
+            this.typeSet = ImmutableSet.copyOf(typeSet);
+            this.types = this.typeSet.toArray(new Class[0]);
+            this.columns = new Component[types.length][INITIAL_CAPACITY];
+            for (int i = 0; i < types.length; i++) {
+                columnIndices.put(types[i], i);
+            }
+        }
+
+        int columnOf(Class<?> type) {
+            Integer column = columnIndices.get(type);
+            return column == null ? -1 : column;
+        }
+
+        boolean containsAll(Class<? extends Component>[] componentClasses) {
+            for (Class<? extends Component> componentClass : componentClasses) {
+                if (!columnIndices.containsKey(componentClass)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int rowOf(long entityId) {
+            return rows.get(entityId);
+        }
+
+        Archetype withAdded(Class<? extends Component> type) {
+            Archetype result = addTransitions.get(type);
+            if (result == null) {
+                result = getArchetype(ImmutableSet.<Class<? extends Component>>builder()
+                        .addAll(typeSet).add(type).build());
+                addTransitions.put(type, result);
+            }
+            return result;
+        }
+
+        Archetype withRemoved(Class<? extends Component> type) {
+            Archetype result = removeTransitions.get(type);
+            if (result == null) {
+                ImmutableSet.Builder<Class<? extends Component>> remaining = ImmutableSet.builder();
+                for (Class<? extends Component> existing : types) {
+                    if (existing != type) {
+                        remaining.add(existing);
+                    }
+                }
+                result = getArchetype(remaining.build());
+                removeTransitions.put(type, result);
+            }
+            return result;
+        }
+
+        int addRow(long entityId) {
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+            ids[size] = entityId;
+            rows.put(entityId, size);
+            return size++;
+        }
+
+        /**
+         * Removes a row by moving the last row into its place.
+         */
+        void removeRow(int row) {
+            int last = --size;
+            rows.remove(ids[row]);
+            if (row != last) {
+                ids[row] = ids[last];
+                rows.put(ids[row], row);
+                for (Component[] column : columns) {
+                    column[row] = column[last];
+                }
+            }
+            for (Component[] column : columns) {
+                column[last] = null;
+            }
+        }
+    }
+
+    private static final class ArchetypeComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final long[][] ids;
+        private final Component[][] components;
+        private int archetype;
+        private int row = -1;
+
+        private ArchetypeComponentIterator(List<Archetype> archetypes, Class<T> componentClass) {
+            // copy the rows so that changing the table while iterating does not skip or repeat entities.
+            ids = new long[archetypes.size()][];
+            components = new Component[archetypes.size()][];
+            for (int i = 0; i < archetypes.size(); i++) {
+                Archetype source = archetypes.get(i);
+                ids[i] = Arrays.copyOf(source.ids, source.size);
+                components[i] = Arrays.copyOf(source.columns[source.columnOf(componentClass)], source.size);
+            }
+        }
+
+        @Override
+        public long key() {
+            return ids[archetype][row];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T value() {
+            return (T) components[archetype][row];
+        }
+
+        @Override
+        public T setValue(T val) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            row++;
+            while (row >= ids[archetype].length) {
+                archetype++;
+                row = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            int nextArchetype = archetype;
+            int nextRow = row + 1;
+            while (nextArchetype < ids.length && nextRow >= ids[nextArchetype].length) {
+                nextArchetype++;
+                nextRow = 0;
+            }
+            return nextArchetype < ids.length;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,130 +1,59 @@
-/*
- * Copyright 2017 MovingBlocks
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *      http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.entitySystem.entity.internal;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
-import gnu.trove.map.TLongObjectMap;
-import gnu.trove.map.hash.TLongObjectHashMap;
-import gnu.trove.set.TLongSet;
-import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.engine.entitySystem.Component;
 
 import java.util.List;
-import java.util.Map;
 
 /**
- * A table for storing entities and components. Focused on allowing iteration across a components of a given type
- *
+ * Storage of the components of the entities in an {@link EngineEntityPool}.
+ * <br><br>
+ * {@link MapComponentTable} keeps one map per component type, {@link ArchetypeComponentTable} groups entities with
+ * the same set of component types into contiguous arrays.
  */
-public class ComponentTable {
-    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
-
-    public <T extends Component> T get(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
-        if (entityMap != null) {
-            return componentClass.cast(entityMap.get(entityId));
-        }
-        return null;
-    }
+public interface ComponentTable {
 
-    public Component put(long entityId, Component component) {
-        TLongObjectMap<Component> entityMap = store.get(component.getClass());
-        if (entityMap == null) {
-            entityMap = new TLongObjectHashMap<>();
-            store.put(component.getClass(), entityMap);
-        }
-        return entityMap.put(entityId, component);
-    }
+    <T extends Component> T get(long entityId, Class<T> componentClass);
+
+    /**
+     * @return the component of the same class the entity had before, or null if it had none.
+     */
+    Component put(long entityId, Component component);
 
     /**
-     *
      * @return removes the component with the specified class from the entity and returns it.
      *         Returns null if no component could be removed.
      */
-    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
-        if (entityMap != null) {
-            return entityMap.remove(entityId);
-        }
-        return null;
-    }
+    <T extends Component> Component remove(long entityId, Class<T> componentClass);
 
+    List<Component> removeAndReturnComponentsOf(long entityId);
 
-    public List<Component> removeAndReturnComponentsOf(long entityId) {
-        List<Component> componentList = Lists.newArrayList();
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            Component component = entityMap.remove(entityId);
-            if (component != null) {
-                componentList.add(component);
-            }
-        }
-        return componentList;
-    }
-
-    public void remove(long entityId) {
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            entityMap.remove(entityId);
-        }
-    }
+    void remove(long entityId);
 
-    public void clear() {
-        store.clear();
-    }
+    void clear();
 
-    public int getComponentCount(Class<? extends Component> componentClass) {
-        TLongObjectMap<Component> map = store.get(componentClass);
-        return (map == null) ? 0 : map.size();
-    }
+    int getComponentCount(Class<? extends Component> componentClass);
 
     /**
-     *
      * @return an iterable that should be only used for iteration over the components. It can't be used to remove
      *         components. It should not be used after components have been added or removed from the entity.
-     *
      */
-    public Iterable<Component> iterateComponents(long entityId) {
-        return getComponentsInNewList(entityId);
-    }
+    Iterable<Component> iterateComponents(long entityId);
 
     /**
-     *
      * @return a new modifable list instance that contains all the components the entity had at the
      *         time this method got called.
      */
-    public List<Component> getComponentsInNewList(long entityId) {
-        List<Component> components = Lists.newArrayList();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            Component comp = componentMap.get(entityId);
-            if (comp != null) {
-                components.add(comp);
-            }
-        }
-        return components;
-    }
+    List<Component> getComponentsInNewList(long entityId);
 
-    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
-        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
-        if (entityMap != null) {
-            return entityMap.iterator();
-        }
-        return null;
-    }
+    /**
+     * @return an iterator over the entities with a component of the given class and these components, or null if no
+     *         entity ever had such a component.
+     */
+    <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass);
 
     /**
      * Produces an iterator for iterating over all entities
@@ -133,20 +62,32 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
      *
      * @return An iterator over all entity ids.
      */
-    public TLongIterator entityIdIterator() {
-        TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
-        }
-        return idSet.iterator();
-    }
+    TLongIterator entityIdIterator();
 
-    public int numEntities() {
-        TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
-        }
-        return idSet.size();
-    }
+    /**
+     * @return an iterator over the ids of the entities which have all of the given components at the time this method
+     *         got called.
+     */
+    TLongIterator entityIdIterator(Class<? extends Component>[] componentClasses);
+
+    int numEntities();
 
+    /**
+     * Visits every entity which has all of the given components, without creating entity refs.
+     * <br><br>
+     * Components must not be added to or removed from entities of this table while visiting.
+     *
+     * @param componentClasses the required component classes
+     * @param visitor receives the components in the order of {@code componentClasses}
+     */
+    void forEachWith(Class<? extends Component>[] componentClasses, RowVisitor visitor);
+
+    @FunctionalInterface
+    interface RowVisitor {
+        /**
+         * @param entityId the id of the visited entity
+         * @param components the requested components of the entity. The array is reused for the next entity.
+         */
+        void visit(long entityId, Component[] components);
+    }
 }
@@ -17,6 +17,7 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.core.TerasologyConstants;
 import org.terasology.engine.entitySystem.Component;
+import org.terasology.engine.entitySystem.entity.ComponentRowConsumer;
 import org.terasology.engine.entitySystem.entity.EntityBuilder;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
@@ -25,6 +26,7 @@
 import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnAddedComponent;
 import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.event.internal.EventSystem;
+import org.terasology.engine.entitySystem.event.internal.EventSystemImpl;
 import org.terasology.engine.entitySystem.metadata.ComponentLibrary;
 import org.terasology.engine.entitySystem.prefab.Prefab;
 import org.terasology.engine.entitySystem.prefab.PrefabManager;
@@ -41,6 +43,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.terasology.engine.entitySystem.entity.internal.EntityScope.SECTOR;
 
@@ -52,8 +55,9 @@ public class PojoEntityManager implements EngineEntityManager {
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
 
-    private EngineEntityPool globalPool = new PojoEntityPool(this);
-    private PojoSectorManager sectorManager = new PojoSectorManager(this);
+    private final Supplier<ComponentTable> componentTableFactory;
+    private EngineEntityPool globalPool;
+    private PojoSectorManager sectorManager;
     private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
     private List<EngineEntityPool> worldPools = Lists.newArrayList();
     private Map<EngineEntityPool, Long> poolCounts = new HashMap<EngineEntityPool, Long>();
@@ -70,6 +74,24 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeHandlerLibrary typeSerializerLibrary;
 
+    public PojoEntityManager() {
+        this(MapComponentTable::new);
+    }
+
+    /**
+     * @param componentTableFactory creates the component storage of each entity pool, e.g.
+     *                              {@link ArchetypeComponentTable}.
+     */
+    public PojoEntityManager(Supplier<ComponentTable> componentTableFactory) {
+        this.componentTableFactory = componentTableFactory;
+        this.globalPool = new PojoEntityPool(this);
+        this.sectorManager = new PojoSectorManager(this);
+    }
+
+    ComponentTable createComponentTable() {
+        return componentTableFactory.get();
+    }
+
     @Override
     public RefStrategy getEntityRefStrategy() {
         return refStrategy;
@@ -259,6 +281,21 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
                 getCurrentWorldPool().getEntitiesWith(componentClasses), sectorManager.getEntitiesWith(componentClasses));
     }
 
+    @Override
+    public void forEachWith(Class<? extends Component>[] componentClasses, ComponentRowConsumer consumer) {
+        forEachWith(globalPool, componentClasses, consumer);
+        if (!isWorldPoolGlobalPool()) {
+            forEachWith(getCurrentWorldPool(), componentClasses, consumer);
+        }
+        forEachWith(sectorManager, componentClasses, consumer);
+    }
+
+    private void forEachWith(EngineEntityPool pool, Class<? extends Component>[] componentClasses,
+                             ComponentRowConsumer consumer) {
+        pool.getComponentStore().forEachWith(componentClasses,
+                (entityId, components) -> consumer.accept(pool.getEntity(entityId), components));
+    }
+
     @Override
     public int getActiveEntityCount() {
         if (isWorldPoolGlobalPool()) {
@@ -482,6 +519,7 @@ public Iterable<Component> iterateComponents(long entityId) {
 
     @Override
     public void destroy(long entityId) {
+        EventSystemImpl.checkNotInParallelDispatch("Destroying an entity");
         getPool(entityId).ifPresent(pool -> pool.destroy(entityId));
     }
 
@@ -520,6 +558,7 @@ public <T extends Component> T getComponent(long entityId, Class<T> componentCla
     @Override
     public <T extends Component> T addComponent(long entityId, T component) {
         Preconditions.checkNotNull(component);
+        EventSystemImpl.checkNotInParallelDispatch("Adding a component");
         Optional<Component> oldComponent = getPool(entityId).map(pool -> pool.getComponentStore().put(entityId, component));
 
         // notify internal users first to get the unobstructed views on the entity as it is at this moment.
@@ -553,6 +592,7 @@ public <T extends Component> T addComponent(long entityId, T component) {
      */
     @Override
     public <T extends Component> T removeComponent(long entityId, Class<T> componentClass) {
+        EventSystemImpl.checkNotInParallelDispatch("Removing a component");
         Optional<ComponentTable> maybeStore = getPool(entityId).map(EngineEntityPool::getComponentStore);
         Optional<T> component = maybeStore.map(store -> store.get(entityId, componentClass));
 
@@ -576,6 +616,7 @@ public <T extends Component> T removeComponent(long entityId, Class<T> component
      */
     @Override
     public void saveComponent(long entityId, Component component) {
+        EventSystemImpl.checkNotInParallelDispatch("Saving a component");
         Optional<Component> oldComponent = getPool(entityId)
                 .map(pool -> pool.getComponentStore().put(entityId, component));
 
@@ -44,10 +44,11 @@ public class PojoEntityPool implements EngineEntityPool {
     private static final Logger logger = LoggerFactory.getLogger(PojoEntityPool.class);
 
     private Map<Long, BaseEntityRef> entityStore = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable componentStore = new ComponentTable();
+    private ComponentTable componentStore;
 
     public PojoEntityPool(PojoEntityManager entityManager) {
         this.entityManager = entityManager;
+        this.componentStore = entityManager.createComponentTable();
     }
 
     @Override
@@ -298,10 +299,10 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
+        if (componentClasses.length > 0) {
+            return () -> new EntityIterator(componentStore.entityIdIterator(componentClasses), this);
+        }
         return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
-                .filter(id -> Arrays.stream(componentClasses)
-                        .allMatch(component -> componentStore.get(id, component) != null))
                 .map(id -> getEntity(id))
                 .iterator();
     }
@@ -0,0 +1,45 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.entitySystem.event;
+
+import org.terasology.engine.entitySystem.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which components of the receiving entity a {@link ReceiveEvent} method reads and writes, so the event
+ * system may run it on a worker thread.
+ * <br><br>
+ * Events sent from other threads are queued until the event system processes them on the main thread. A queued event
+ * whose selected handlers all declare their access is dispatched in parallel with the queued events before and after
+ * it, unless they are sent to the same entity and one of them writes a component the other one accesses. Conflicting
+ * events and events with undeclared handlers keep the order they were sent in.
+ * <br><br>
+ * A handler declaring its access must:
+ * <ul>
+ *     <li>only access the declared components of the receiving entity. The components it filters on and takes as
+ *     parameters count as read.</li>
+ *     <li>change written components in place without saving them. Those it changed are saved on the main thread
+ *     once the parallel batch is done.</li>
+ *     <li>not add or remove components, nor create or destroy entities.</li>
+ * </ul>
+ * Saving, adding or removing components and destroying entities from a handler running on a worker thread fails with
+ * an {@link IllegalStateException}.
+ * Events sent by the handler are queued in the order the parallel dispatches were scheduled in.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ComponentAccess {
+    /**
+     * Components of the receiving entity the handler reads, besides those it filters on or takes as parameters
+     */
+    Class<? extends Component>[] reads() default {};
+
+    /**
+     * Components of the receiving entity the handler changes
+     */
+    Class<? extends Component>[] writes() default {};
+}
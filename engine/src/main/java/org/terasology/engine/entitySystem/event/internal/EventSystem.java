@@ -5,6 +5,7 @@
 import org.terasology.assets.ResourceUrn;
 import org.terasology.engine.entitySystem.Component;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.ConsumableEvent;
 import org.terasology.engine.entitySystem.event.Event;
 import org.terasology.engine.entitySystem.systems.ComponentSystem;
 
@@ -78,6 +79,26 @@ public interface EventSystem {
      */
     void send(EntityRef entity, Event event, Component component);
 
+    /**
+     * Sends the same event to each of the given entities.
+     * <br><br>
+     * Handlers are selected once for all entities with the same relevant components, so this is cheaper than sending
+     * the event to every entity separately. The order in which entities receive the event is not defined. A
+     * {@link ConsumableEvent} stops being delivered to the remaining entities
+     * once it got consumed. The entities may be iterated more than once.
+     *
+     * @param entities the entities to send the event to
+     * @param event the event, shared by all receivers
+     */
+    default void sendToAll(Iterable<EntityRef> entities, Event event) {
+        for (EntityRef entity : entities) {
+            send(entity, event);
+            if (event instanceof ConsumableEvent && ((ConsumableEvent) event).isConsumed()) {
+                return;
+            }
+        }
+    }
+
     /**
      * Change main thread to current thread.
      */
@@ -2,18 +2,23 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.entitySystem.event.internal;
 
-import com.esotericsoftware.reflectasm.MethodAccess;
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,14 +26,19 @@
 import org.terasology.engine.entitySystem.Component;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.event.AbstractConsumableEvent;
+import org.terasology.engine.entitySystem.event.ComponentAccess;
 import org.terasology.engine.entitySystem.event.ConsumableEvent;
 import org.terasology.engine.entitySystem.event.Event;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.PendingEvent;
 import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.metadata.ComponentFieldMetadata;
+import org.terasology.engine.entitySystem.metadata.ComponentLibrary;
+import org.terasology.engine.entitySystem.metadata.ComponentMetadata;
 import org.terasology.engine.entitySystem.metadata.EventLibrary;
 import org.terasology.engine.entitySystem.metadata.EventMetadata;
 import org.terasology.engine.entitySystem.systems.ComponentSystem;
+import org.terasology.engine.monitoring.Activity;
 import org.terasology.engine.monitoring.PerformanceMonitor;
 import org.terasology.engine.network.BroadcastEvent;
 import org.terasology.engine.network.Client;
@@ -43,16 +53,26 @@
 import org.terasology.engine.recording.RecordAndReplayStatus;
 import org.terasology.engine.world.block.BlockComponent;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An implementation of the EventSystem.
@@ -60,12 +80,20 @@
 public class EventSystemImpl implements EventSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(EventSystemImpl.class);
+    // The events sent by the handlers of the parallel dispatch a worker thread is running
+    private static final ThreadLocal<List<PendingEvent>> DEFERRED_EVENTS = new ThreadLocal<>();
+
     private final boolean isAutority;
 
     private Map<Class<? extends Event>, SetMultimap<Class<? extends Component>, EventHandlerInfo>> componentSpecificHandlers = Maps.newHashMap();
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Handlers selected for each event type, built on first use and dropped whenever handlers change
+    private Map<Class<? extends Event>, DispatchPlan> dispatchPlans = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, EventHandlerInfo[]>> componentDispatchPlans =
+            Maps.newHashMap();
+
     // Event metadata
     private BiMap<ResourceUrn, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
@@ -73,21 +101,157 @@ public class EventSystemImpl implements EventSystem {
     private Thread mainThread;
     private BlockingQueue<PendingEvent> pendingEvents = Queues.newLinkedBlockingQueue();
 
+    // Handlers with declared component access, and the workers running them
+    private boolean hasParallelHandlers;
+    private ForkJoinPool workerPool;
+    private final AtomicInteger workerIndex = new AtomicInteger();
+    private final ComponentLibrary componentLibrary;
+
 
     public EventSystemImpl(boolean isAutority) {
+        this(isAutority, null);
+    }
+
+    /**
+     * @param componentLibrary used to find out which of the components written by a parallel dispatch actually
+     *         changed. Without it, all components a handler declares to write are saved after it ran.
+     */
+    public EventSystemImpl(boolean isAutority, ComponentLibrary componentLibrary) {
         this.isAutority = isAutority;
+        this.componentLibrary = componentLibrary;
         this.mainThread = Thread.currentThread();
     }
 
+    /**
+     * Fails when called by a handler of a parallel dispatch on a worker thread. Such handlers must leave the component
+     * tables alone, as other workers read them at the same time.
+     *
+     * @param operation what the handler tried to do, for the error message
+     * @throws IllegalStateException if called from a parallel dispatch
+     */
+    public static void checkNotInParallelDispatch(String operation) {
+        Preconditions.checkState(DEFERRED_EVENTS.get() == null,
+                "%s is not allowed in event handlers declaring their @ComponentAccess; change written components "
+                        + "in place instead", operation);
+    }
+
     @Override
     public void process() {
-        for (PendingEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
-            if (event.getComponent() != null) {
-                send(event.getEntity(), event.getEvent(), event.getComponent());
+        if (!hasParallelHandlers) {
+            for (PendingEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
+                sendPending(event);
+            }
+            return;
+        }
+        List<PendingEvent> events = Lists.newArrayList();
+        while (pendingEvents.drainTo(events) > 0) {
+            processInParallel(events);
+            events.clear();
+        }
+    }
+
+    private void sendPending(PendingEvent event) {
+        if (event.getComponent() != null) {
+            send(event.getEntity(), event.getEvent(), event.getComponent());
+        } else {
+            send(event.getEntity(), event.getEvent());
+        }
+    }
+
+    /**
+     * Sends queued events in their order. Consecutive events whose handlers all declared their component access are
+     * grouped into batches without conflicting accesses, which are run on the worker pool.
+     */
+    private void processInParallel(List<PendingEvent> events) {
+        ParallelBatch batch = new ParallelBatch();
+        for (PendingEvent event : events) {
+            ParallelDispatch dispatch = prepareParallelDispatch(event);
+            if (dispatch == null) {
+                runBatch(batch);
+                sendPending(event);
             } else {
-                send(event.getEntity(), event.getEvent());
+                if (batch.conflictsWith(dispatch)) {
+                    runBatch(batch);
+                }
+                batch.add(dispatch);
             }
         }
+        runBatch(batch);
+    }
+
+    /**
+     * @return the dispatch of the event, or null if one of the handlers selected for it did not declare its access
+     */
+    private ParallelDispatch prepareParallelDispatch(PendingEvent pending) {
+        Event event = pending.getEvent();
+        EventHandlerInfo[] handlers = pending.getComponent() != null
+                ? getComponentHandlers(event, pending.getComponent())
+                : getDispatchPlan(event.getClass()).select(pending.getEntity());
+        Set<Class<? extends Component>> reads = Sets.newHashSet();
+        Set<Class<? extends Component>> writes = Sets.newHashSet();
+        for (EventHandlerInfo handler : handlers) {
+            DeclaredAccess access = handler.getDeclaredAccess();
+            if (access == null) {
+                return null;
+            }
+            reads.addAll(access.reads);
+            writes.addAll(access.writes);
+        }
+        boolean consumable = pending.getComponent() == null && event instanceof ConsumableEvent;
+        return new ParallelDispatch(pending.getEntity(), event, handlers, consumable, reads, writes);
+    }
+
+    private void runBatch(ParallelBatch batch) {
+        List<ParallelDispatch> dispatches = batch.dispatches;
+        if (dispatches.isEmpty()) {
+            return;
+        }
+        if (dispatches.size() == 1) {
+            dispatches.get(0).call();
+        } else {
+            for (Future<Void> result : getWorkerPool().invokeAll(dispatches)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    logger.error("Failed to dispatch event", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        for (ParallelDispatch dispatch : dispatches) {
+            dispatch.complete();
+        }
+        batch.clear();
+    }
+
+    private ForkJoinPool getWorkerPool() {
+        if (workerPool == null) {
+            int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            workerPool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setDaemon(true);
+                thread.setName("Event-Worker-" + workerIndex.getAndIncrement());
+                return thread;
+            }, null, false);
+        }
+        return workerPool;
+    }
+
+    /**
+     * Queues an event sent from a thread other than the main thread. Events sent by handlers of a parallel batch are
+     * kept with their dispatch, so they get queued in a deterministic order.
+     */
+    private void queue(PendingEvent event) {
+        List<PendingEvent> deferred = DEFERRED_EVENTS.get();
+        if (deferred != null) {
+            deferred.add(event);
+        } else {
+            pendingEvents.offer(event);
+        }
     }
 
     @Override
@@ -99,6 +263,7 @@ public void registerEvent(ResourceUrn uri, Class<? extends Event> eventType) {
                 childEvents.put(parent, eventType);
             }
         }
+        invalidateDispatchPlans();
     }
 
     @Override
@@ -138,9 +303,18 @@ public void registerEventHandler(ComponentSystem handler) {
                     componentParams.add((Class<? extends Component>) types[i]);
                 }
 
+                DeclaredAccess declaredAccess = null;
+                ComponentAccess componentAccess = method.getAnnotation(ComponentAccess.class);
+                if (componentAccess != null) {
+                    declaredAccess = new DeclaredAccess(
+                            Sets.union(requiredComponents, Sets.newHashSet(componentAccess.reads())),
+                            Arrays.asList(componentAccess.writes()));
+                    hasParallelHandlers = true;
+                }
+
                 ByteCodeEventHandlerInfo handlerInfo = new ByteCodeEventHandlerInfo(handler, method,
                         receiveEventAnnotation.priority(),
-                        receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                        receiveEventAnnotation.activity(), requiredComponents, componentParams, declaredAccess);
                 addEventHandler((Class<? extends Event>) types[0], handlerInfo, requiredComponents);
             }
         }
@@ -166,10 +340,12 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        invalidateDispatchPlans();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<?
             extends Component>> components) {
+        invalidateDispatchPlans();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -232,16 +408,20 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        invalidateDispatchPlans();
+    }
+
+    private void invalidateDispatchPlans() {
+        dispatchPlans.clear();
+        componentDispatchPlans.clear();
     }
 
     @Override
     public void send(EntityRef entity, Event event) {
         if (Thread.currentThread() != mainThread) {
-            pendingEvents.offer(new PendingEvent(entity, event));
+            queue(new PendingEvent(entity, event));
         } else {
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            selectedHandlers.sort(priorityComparator);
+            EventHandlerInfo[] selectedHandlers = getDispatchPlan(event.getClass()).select(entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -251,7 +431,7 @@ public void send(EntityRef entity, Event event) {
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendStandardEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
@@ -260,7 +440,7 @@ private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerI
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendConsumableEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         ConsumableEvent consumableEvent = (ConsumableEvent) event;
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
@@ -276,39 +456,87 @@ private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandle
     @Override
     public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
-            pendingEvents.offer(new PendingEvent(entity, event, component));
+            queue(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers =
-                    componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                eventHandlers.sort(priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getComponentHandlers(event, component)) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
-            return result;
+    @Override
+    public void sendToAll(Iterable<EntityRef> entities, Event event) {
+        if (Thread.currentThread() != mainThread) {
+            for (EntityRef entity : entities) {
+                queue(new PendingEvent(entity, event));
+            }
+            return;
         }
-
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
-                    if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
+        DispatchPlan plan = getDispatchPlan(event.getClass());
+        try (Activity ignored = PerformanceMonitor.startActivity(plan.batchActivityName)) {
+            if (event instanceof ConsumableEvent) {
+                ConsumableEvent consumableEvent = (ConsumableEvent) event;
+                for (EntityRef entity : entities) {
+                    sendConsumableEvent(entity, event, plan.select(entity));
+                    if (consumableEvent.isConsumed()) {
+                        return;
                     }
                 }
+            } else {
+                // Entities with the same signature share the selected array, so it identifies their batch
+                Map<EventHandlerInfo[], List<EntityRef>> batches = Maps.newLinkedHashMap();
+                for (EntityRef entity : entities) {
+                    batches.computeIfAbsent(plan.select(entity), handlers -> Lists.newArrayList()).add(entity);
+                }
+                for (Map.Entry<EventHandlerInfo[], List<EntityRef>> batch : batches.entrySet()) {
+                    sendStandardEvent(batch.getValue(), event, batch.getKey());
+                }
+            }
+        }
+    }
+
+    private void sendStandardEvent(List<EntityRef> entities, Event event, EventHandlerInfo[] selectedHandlers) {
+        for (EventHandlerInfo handler : selectedHandlers) {
+            for (EntityRef entity : entities) {
+                // Check isValid for every entity in case earlier handlers removed components.
+                if (handler.isValidFor(entity)) {
+                    handler.invoke(entity, event);
+                }
+            }
+        }
+    }
+
+    private EventHandlerInfo[] getComponentHandlers(Event event, Component component) {
+        return componentDispatchPlans
+                .computeIfAbsent(event.getClass(), eventType -> Maps.newHashMap())
+                .computeIfAbsent(component.getClass(), componentType -> {
+                    SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers =
+                            componentSpecificHandlers.get(event.getClass());
+                    return handlers == null ? new EventHandlerInfo[0] : sortByPriority(handlers.get(componentType));
+                });
+    }
+
+    private DispatchPlan getDispatchPlan(Class<? extends Event> eventType) {
+        DispatchPlan plan = dispatchPlans.get(eventType);
+        if (plan == null) {
+            Set<EventHandlerInfo> candidates = Sets.newLinkedHashSet(generalHandlers.get(eventType));
+            Set<Class<? extends Component>> signatureComponents = Collections.emptySet();
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers != null) {
+                candidates.addAll(handlers.values());
+                signatureComponents = handlers.keySet();
             }
+            plan = new DispatchPlan(eventType, sortByPriority(candidates), signatureComponents);
+            dispatchPlans.put(eventType, plan);
         }
+        return plan;
+    }
+
+    private EventHandlerInfo[] sortByPriority(Collection<EventHandlerInfo> handlers) {
+        EventHandlerInfo[] result = handlers.toArray(new EventHandlerInfo[0]);
+        Arrays.sort(result, priorityComparator);
         return result;
     }
 
@@ -317,11 +545,206 @@ public void setToCurrentThread() {
         mainThread = Thread.currentThread();
     }
 
+    /**
+     * The handlers of one event type in priority order, together with the selections made from them for each
+     * component signature seen so far.
+     * <br><br>
+     * A signature records which of the components that handlers of the event type filter on an entity has. Every
+     * component of a handler filter is one of those components, so entities with the same signature get the same
+     * handlers. As the signature is computed on every send, component changes of entities are taken into account
+     * without invalidation.
+     */
+    private static final class DispatchPlan {
+        private final EventHandlerInfo[] candidates;
+        private final Class<? extends Component>[] signatureComponents;
+        private final TLongObjectMap<EventHandlerInfo[]> handlersBySignature = new TLongObjectHashMap<>();
+        private final String batchActivityName;
+
+        DispatchPlan(Class<? extends Event> eventType, EventHandlerInfo[] candidates,
+                     Collection<Class<? extends Component>> signatureComponents) {
+            this.candidates = candidates;
+            this.batchActivityName = "Sending " + eventType.getSimpleName() + " to all";
+            // signatures are stored as bits of a long, events with more filter components are not cached
+            this.signatureComponents = signatureComponents.size() <= Long.SIZE
+                    ? signatureComponents.toArray(new Class[0])
+                    : null;
+        }
+
+        EventHandlerInfo[] select(EntityRef entity) {
+            if (signatureComponents == null) {
+                return selectValid(entity);
+            }
+            long signature = 0;
+            for (int i = 0; i < signatureComponents.length; i++) {
+                if (entity.hasComponent(signatureComponents[i])) {
+                    signature |= 1L << i;
+                }
+            }
+            EventHandlerInfo[] selected = handlersBySignature.get(signature);
+            if (selected == null) {
+                selected = selectValid(entity);
+                handlersBySignature.put(signature, selected);
+            }
+            return selected;
+        }
+
+        private EventHandlerInfo[] selectValid(EntityRef entity) {
+            List<EventHandlerInfo> valid = Lists.newArrayListWithCapacity(candidates.length);
+            for (EventHandlerInfo candidate : candidates) {
+                if (candidate.isValidFor(entity)) {
+                    valid.add(candidate);
+                }
+            }
+            return valid.toArray(new EventHandlerInfo[0]);
+        }
+    }
+
+    /**
+     * The components a handler reads and writes, as declared with {@link ComponentAccess}.
+     */
+    private static final class DeclaredAccess {
+        private final Set<Class<? extends Component>> reads;
+        private final Set<Class<? extends Component>> writes;
+
+        DeclaredAccess(Collection<Class<? extends Component>> reads, Collection<Class<? extends Component>> writes) {
+            this.reads = ImmutableSet.copyOf(reads);
+            this.writes = ImmutableSet.copyOf(writes);
+        }
+    }
+
+    /**
+     * The handlers selected for one queued event, which are run together on a worker thread.
+     */
+    private final class ParallelDispatch implements Callable<Void> {
+        private final EntityRef entity;
+        private final Event event;
+        private final EventHandlerInfo[] handlers;
+        private final boolean consumable;
+        private final Set<Class<? extends Component>> reads;
+        private final Set<Class<? extends Component>> writes;
+        private final List<PendingEvent> sentEvents = Lists.newArrayList();
+        private final Map<Class<? extends Component>, Component> originals = Maps.newHashMap();
+
+        ParallelDispatch(EntityRef entity, Event event, EventHandlerInfo[] handlers, boolean consumable,
+                         Set<Class<? extends Component>> reads, Set<Class<? extends Component>> writes) {
+            this.entity = entity;
+            this.event = event;
+            this.handlers = handlers;
+            this.consumable = consumable;
+            this.reads = reads;
+            this.writes = writes;
+        }
+
+        boolean conflictsWith(ParallelDispatch other) {
+            return !Collections.disjoint(writes, other.reads)
+                    || !Collections.disjoint(writes, other.writes)
+                    || !Collections.disjoint(other.writes, reads);
+        }
+
+        @Override
+        public Void call() {
+            if (componentLibrary != null) {
+                for (Class<? extends Component> written : writes) {
+                    Component component = entity.getComponent(written);
+                    ComponentMetadata<Component> metadata = component != null
+                            ? componentLibrary.getMetadata(component) : null;
+                    if (metadata != null) {
+                        originals.put(written, metadata.copy(component));
+                    }
+                }
+            }
+            // on the main thread, events are sent right away and entities may be changed as usual
+            boolean onWorker = Thread.currentThread() != mainThread;
+            if (onWorker) {
+                DEFERRED_EVENTS.set(sentEvents);
+            }
+            try {
+                if (consumable) {
+                    sendConsumableEvent(entity, event, handlers);
+                } else {
+                    sendStandardEvent(entity, event, handlers);
+                }
+            } finally {
+                if (onWorker) {
+                    DEFERRED_EVENTS.remove();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Saves the written components the handlers changed and queues the sent events, on the main thread.
+         */
+        void complete() {
+            for (Class<? extends Component> written : writes) {
+                Component component = entity.getComponent(written);
+                if (component != null && isChanged(originals.get(written), component)) {
+                    entity.saveComponent(component);
+                }
+            }
+            originals.clear();
+            pendingEvents.addAll(sentEvents);
+        }
+
+        /**
+         * Compares the fields of a component with the copy taken before the handlers ran. Fields of types without
+         * value equality count as changed.
+         */
+        private boolean isChanged(Component original, Component component) {
+            if (componentLibrary == null || original == null) {
+                return true;
+            }
+            ComponentMetadata<Component> metadata = componentLibrary.getMetadata(component);
+            if (metadata == null) {
+                return true;
+            }
+            for (ComponentFieldMetadata<Component, ?> field : metadata.getFields()) {
+                if (!java.util.Objects.deepEquals(field.getValue(original), field.getValue(component))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Queued events which can be dispatched at the same time, as none of them writes a component of an entity that
+     * another one accesses.
+     */
+    private static final class ParallelBatch {
+        private final List<ParallelDispatch> dispatches = Lists.newArrayList();
+        private final ListMultimap<EntityRef, ParallelDispatch> dispatchesByEntity = ArrayListMultimap.create();
+
+        boolean conflictsWith(ParallelDispatch dispatch) {
+            for (ParallelDispatch other : dispatchesByEntity.get(dispatch.entity)) {
+                if (dispatch.conflictsWith(other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(ParallelDispatch dispatch) {
+            dispatches.add(dispatch);
+            dispatchesByEntity.put(dispatch.entity, dispatch);
+        }
+
+        void clear() {
+            dispatches.clear();
+            dispatchesByEntity.clear();
+        }
+    }
+
     private interface EventHandlerInfo {
         boolean isValidFor(EntityRef entity);
 
         void invoke(EntityRef entity, Event event);
 
+        /**
+         * @return the declared component access of the handler, or null if it may only run on the main thread
+         */
+        DeclaredAccess getDeclaredAccess();
+
         int getPriority();
 
         Object getHandler();
@@ -338,27 +761,36 @@ public int compare(EventHandlerInfo o1, EventHandlerInfo o2) {
     private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
         private ComponentSystem handler;
         private String activity;
-        private MethodAccess methodAccess;
-        private int methodIndex;
+        private MethodHandle methodHandle;
         private ImmutableList<Class<? extends Component>> filterComponents;
         private ImmutableList<Class<? extends Component>> componentParams;
         private int priority;
+        private DeclaredAccess declaredAccess;
 
         ByteCodeEventHandlerInfo(ComponentSystem handler,
                                  Method method,
                                  int priority,
                                  String activity,
                                  Collection<Class<? extends Component>> filterComponents,
-                                 Collection<Class<? extends Component>> componentParams) {
+                                 Collection<Class<? extends Component>> componentParams,
+                                 DeclaredAccess declaredAccess) {
 
 
             this.handler = handler;
             this.activity = activity;
-            this.methodAccess = MethodAccess.get(handler.getClass());
-            methodIndex = methodAccess.getIndex(method.getName(), method.getParameterTypes());
+            try {
+                // bound to the handler and taking all arguments as one array, so it can be invoked exactly
+                this.methodHandle = MethodHandles.lookup().unreflect(method)
+                        .bindTo(handler)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(void.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot access event handler method " + method, e);
+            }
             this.filterComponents = ImmutableList.copyOf(filterComponents);
             this.componentParams = ImmutableList.copyOf(componentParams);
             this.priority = priority;
+            this.declaredAccess = declaredAccess;
         }
 
         @Override
@@ -386,17 +818,24 @@ public void invoke(EntityRef entity, Event event) {
                     PerformanceMonitor.startActivity(activity);
                 }
                 try {
-                    methodAccess.invoke(handler, methodIndex, params);
+                    methodHandle.invokeExact(params);
                 } finally {
                     if (!activity.isEmpty()) {
                         PerformanceMonitor.endActivity();
                     }
                 }
-            } catch (Exception ex) {
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable ex) {
                 logger.error("Failed to invoke event", ex);
             }
         }
 
+        @Override
+        public DeclaredAccess getDeclaredAccess() {
+            return declaredAccess;
+        }
+
         @Override
         public int getPriority() {
             return priority;
@@ -434,6 +873,11 @@ public void invoke(EntityRef entity, Event event) {
             receiver.onEvent((T) event, entity);
         }
 
+        @Override
+        public DeclaredAccess getDeclaredAccess() {
+            return null;
+        }
+
         @Override
         public int getPriority() {
             return priority;
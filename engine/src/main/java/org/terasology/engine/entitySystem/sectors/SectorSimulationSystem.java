@@ -15,6 +15,7 @@
  */
 package org.terasology.engine.entitySystem.sectors;
 
+import org.joml.Vector3ic;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
@@ -34,6 +35,8 @@
 import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
 import org.terasology.engine.world.chunks.event.OnChunkLoaded;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -176,14 +179,13 @@ public void processPeriodicSectorEvent(PeriodicActionTriggeredEvent event, Entit
      */
     @ReceiveEvent(components = WorldComponent.class)
     public void chunkLoad(OnChunkLoaded event, EntityRef worldEntity) {
-        for (EntityRef entity : entityManager.getEntitiesWith(SectorSimulationComponent.class)) {
-            if (SectorUtil.getWatchedChunks(entity).contains(event.getChunkPos())) {
-                entity.send(new OnChunkLoaded(event.getChunkPos()));
-                if (SectorUtil.onlyWatchedChunk(entity, event.getChunkPos(), chunkProvider)) {
-                    entity.send(new SectorEntityLoad());
-                }
-                sendLoadedSectorUpdateEvent(entity, simulationDelta(entity));
+        List<EntityRef> watchers = getWatchers(event.getChunkPos());
+        entityManager.getEventSystem().sendToAll(watchers, new OnChunkLoaded(event.getChunkPos()));
+        for (EntityRef entity : watchers) {
+            if (SectorUtil.onlyWatchedChunk(entity, event.getChunkPos(), chunkProvider)) {
+                entity.send(new SectorEntityLoad());
             }
+            sendLoadedSectorUpdateEvent(entity, simulationDelta(entity));
         }
     }
 
@@ -198,12 +200,11 @@ public void chunkLoad(OnChunkLoaded event, EntityRef worldEntity) {
      */
     @ReceiveEvent(components = WorldComponent.class)
     public void chunkUnload(BeforeChunkUnload event, EntityRef worldEntity) {
-        for (EntityRef entity : entityManager.getEntitiesWith(SectorSimulationComponent.class)) {
-            if (SectorUtil.getWatchedChunks(entity).contains(event.getChunkPos())) {
-                entity.send(new BeforeChunkUnload(event.getChunkPos()));
-                if (SectorUtil.onlyWatchedChunk(entity, event.getChunkPos(), chunkProvider)) {
-                    entity.send(new SectorEntityUnload());
-                }
+        List<EntityRef> watchers = getWatchers(event.getChunkPos());
+        entityManager.getEventSystem().sendToAll(watchers, new BeforeChunkUnload(event.getChunkPos()));
+        for (EntityRef entity : watchers) {
+            if (SectorUtil.onlyWatchedChunk(entity, event.getChunkPos(), chunkProvider)) {
+                entity.send(new SectorEntityUnload());
             }
         }
     }
@@ -218,6 +219,20 @@ public void sectorEntityUnloaded(SectorEntityUnload event, EntityRef entity) {
         addUnloadedAction(entity);
     }
 
+    /**
+     * @param chunkPos the position of a chunk
+     * @return the sector-scope entities which are watching the given chunk
+     */
+    private List<EntityRef> getWatchers(Vector3ic chunkPos) {
+        List<EntityRef> watchers = new ArrayList<>();
+        for (EntityRef entity : entityManager.getEntitiesWith(SectorSimulationComponent.class)) {
+            if (SectorUtil.getWatchedChunks(entity).contains(chunkPos)) {
+                watchers.add(entity);
+            }
+        }
+        return watchers;
+    }
+
     /**
      * Send the appropriate events to a sector-scope entity in a loaded chunk.
      *
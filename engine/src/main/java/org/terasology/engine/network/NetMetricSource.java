@@ -42,4 +42,27 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The amount of bytes the frames sent or received since last time this method was called had before
+     * compression, or 0 if the source does not record compression
+     */
+    default long getUncompressedBytesSinceLastCall() {
+        return 0;
+    }
+
+    /**
+     * @return The amount of bytes the frames sent or received since last time this method was called had as they went
+     * over the network, or 0 if the source does not record compression
+     */
+    default long getCompressedBytesSinceLastCall() {
+        return 0;
+    }
+
+    /**
+     * @return The time in nanoseconds spent compressing or decompressing frames since last time this method was called
+     */
+    default long getCompressionTimeSinceLastCall() {
+        return 0;
+    }
 }
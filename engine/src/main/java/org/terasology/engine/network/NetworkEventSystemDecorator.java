@@ -54,6 +54,16 @@ public void send(EntityRef entity, Event event) {
         super.send(entity, event);
     }
 
+    @Override
+    public void sendToAll(Iterable<EntityRef> entities, Event event) {
+        if (currentThreadIsMain()) {
+            for (EntityRef entity : entities) {
+                networkReplicate(entity, event);
+            }
+        }
+        super.sendToAll(entities, event);
+    }
+
     private <T extends Event> void networkReplicate(EntityRef entity, T event) {
         EventMetadata<T> metadata = eventLibrary.getMetadata(event);
         if (metadata != null && metadata.isNetworkEvent()) {
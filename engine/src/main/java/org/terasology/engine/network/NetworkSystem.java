@@ -65,6 +65,35 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    /**
+     * @return the size of the frames sent and received since the last request as they went over the network, divided by
+     *         their size before compression, or 1 if no frames were compressed
+     */
+    default float getCompressionRatioDelta() {
+        return 1;
+    }
+
+    /**
+     * @return the time in nanoseconds spent compressing and decompressing frames since the last request
+     */
+    default long getCompressionTimeDelta() {
+        return 0;
+    }
+
+    /**
+     * @return how often a server sent an entity serialized for another client, since it started
+     */
+    default long getEntityCacheHits() {
+        return 0;
+    }
+
+    /**
+     * @return how often a server serialized an entity to send it, since it started
+     */
+    default long getEntityCacheMisses() {
+        return 0;
+    }
+
     void forceDisconnect(Client client);
 
     void setContext(Context context);
@@ -0,0 +1,231 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.chunks.Chunk;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Decides which of the chunks ready to be sent to a client are sent in each net tick.
+ * <br><br>
+ * Chunks are sent closest first, with the chunks in front of the client's character preferred over those behind it.
+ * As many chunks are packed into a net tick as the connection keeps up with: the byte budget per tick grows while the
+ * outbound buffer of the channel drains, and is halved as soon as the buffer fills up, so the budget follows the
+ * bandwidth and round trip time actually available rather than a fixed rate.
+ */
+final class ChunkStreamScheduler {
+    /* the most chunk data packed into a single message, well below the maximum frame size of the client */
+    static final int MAX_BUDGET = 1024 * 1024;
+    /*
+     * how much the squared distance of a chunk directly in front of the character is reduced by, so that it is sent as
+     * early as a chunk beside or behind the character about sqrt(2) times closer; chunks behind are never favoured
+     */
+    private static final float HEADING_BIAS = 0.5f;
+    /* how far the heading may turn before the chunks are reordered */
+    private static final float HEADING_TOLERANCE = 0.9f;
+    /* the radius in chunks around the character which has to be sent before the client is considered playable */
+    private static final int PLAYABLE_RADIUS = 1;
+
+    private final Map<Vector3i, Entry> pending = Maps.newHashMap();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry.score));
+
+    private final Vector3i center = new Vector3i();
+    private final Vector3f heading = new Vector3f();
+
+    private final long startTime;
+    private long timeToPlayableArea = -1;
+
+    private int budget;
+    private int allowance;
+    private boolean budgetExhausted;
+
+    /**
+     * @param startTime the time in milliseconds at which the client connected
+     */
+    ChunkStreamScheduler(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Queues the given chunk to be sent, replacing the chunk queued for the same position.
+     */
+    void add(Vector3ic pos, Chunk chunk) {
+        Entry entry = new Entry(new Vector3i(pos), chunk);
+        entry.score = score(entry.pos);
+        pending.put(entry.pos, entry);
+        queue.add(entry);
+    }
+
+    /**
+     * Stops the chunk at the given position from being sent, if it has not been sent yet.
+     */
+    void remove(Vector3ic pos) {
+        pending.remove(new Vector3i(pos));
+        if (queue.size() > 2 * pending.size() + 16) {
+            rebuildQueue();
+        }
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Reorders the queued chunks if the character moved to another chunk or turned noticeably.
+     *
+     * @param centerChunk the position of the chunk the character is in
+     * @param direction the direction the character is facing, or a zero vector if unknown
+     */
+    void setFocus(Vector3ic centerChunk, Vector3fc direction) {
+        Vector3f newHeading = new Vector3f(direction);
+        if (newHeading.lengthSquared() > 0 && newHeading.isFinite()) {
+            newHeading.normalize();
+        } else {
+            newHeading.zero();
+        }
+        if (!center.equals(centerChunk) || newHeading.dot(heading) < HEADING_TOLERANCE
+                && newHeading.lengthSquared() + heading.lengthSquared() > 0) {
+            center.set(centerChunk);
+            heading.set(newHeading);
+            rebuildQueue();
+        }
+    }
+
+    /**
+     * Adapts the byte budget of this net tick to the state of the connection.
+     *
+     * @param baseBudget the share of the configured upstream bandwidth of the client, in bytes per net tick
+     * @param writable whether the outbound buffer of the channel is below its high water mark
+     * @param bytesBeforeUnwritable how many bytes may be written until the outbound buffer reaches its high water mark
+     * @param highWaterMark the size of the outbound buffer at which the channel becomes unwritable
+     */
+    void updateBudget(int baseBudget, boolean writable, long bytesBeforeUnwritable, long highWaterMark) {
+        int minimum = Math.max(1, Math.min(baseBudget, MAX_BUDGET));
+        if (!writable) {
+            budget = Math.max(minimum, budget / 2);
+            allowance = 0;
+        } else {
+            if (budget < minimum) {
+                budget = minimum;
+            } else if (budgetExhausted && bytesBeforeUnwritable >= highWaterMark / 2) {
+                budget = Math.min(MAX_BUDGET, budget + minimum);
+            }
+            allowance = (int) Math.max(1, Math.min(budget, bytesBeforeUnwritable));
+        }
+        budgetExhausted = false;
+    }
+
+    /**
+     * Sends the most urgent chunks until the budget of this net tick is used up. At least one chunk is sent if the
+     * channel is writable.
+     *
+     * @return the number of chunks sent
+     */
+    int stream(ChunkSender sender) {
+        int sentBytes = 0;
+        int sentChunks = 0;
+        while (sentBytes < allowance) {
+            Entry entry = queue.poll();
+            if (entry == null) {
+                break;
+            }
+            if (pending.get(entry.pos) != entry) {
+                continue;
+            }
+            pending.remove(entry.pos);
+            sentBytes += sender.send(entry.pos, entry.chunk);
+            sentChunks++;
+        }
+        budgetExhausted = sentBytes >= allowance && !pending.isEmpty();
+        return sentChunks;
+    }
+
+    /**
+     * Records the time to the first playable area once all chunks around the character have been sent.
+     *
+     * @param sentChunks the positions of all chunks the client has been sent
+     * @param time the current time in milliseconds
+     * @return true if the playable area was completed just now
+     */
+    boolean checkPlayableArea(Set<Vector3i> sentChunks, long time) {
+        if (timeToPlayableArea >= 0 || sentChunks.isEmpty()) {
+            return false;
+        }
+        Vector3i pos = new Vector3i();
+        for (int x = -PLAYABLE_RADIUS; x <= PLAYABLE_RADIUS; x++) {
+            for (int y = -PLAYABLE_RADIUS; y <= PLAYABLE_RADIUS; y++) {
+                for (int z = -PLAYABLE_RADIUS; z <= PLAYABLE_RADIUS; z++) {
+                    if (!sentChunks.contains(pos.set(center).add(x, y, z))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        timeToPlayableArea = time - startTime;
+        return true;
+    }
+
+    /**
+     * @return the time in milliseconds from the connection of the client until the chunks around its character were
+     *         sent, or -1 if they have not been sent yet
+     */
+    long getTimeToPlayableArea() {
+        return timeToPlayableArea;
+    }
+
+    int getBudget() {
+        return budget;
+    }
+
+    private void rebuildQueue() {
+        queue.clear();
+        for (Entry entry : pending.values()) {
+            entry.score = score(entry.pos);
+            queue.add(entry);
+        }
+    }
+
+    private float score(Vector3ic pos) {
+        float dx = pos.x() - center.x();
+        float dy = pos.y() - center.y();
+        float dz = pos.z() - center.z();
+        float distanceSquared = dx * dx + dy * dy + dz * dz;
+        if (distanceSquared == 0) {
+            return 0;
+        }
+        float cos = (dx * heading.x + dy * heading.y + dz * heading.z) / (float) Math.sqrt(distanceSquared);
+        return distanceSquared * (1 - HEADING_BIAS * Math.max(0, cos));
+    }
+
+    @FunctionalInterface
+    interface ChunkSender {
+        /**
+         * @return the number of bytes the chunk added to the message
+         */
+        int send(Vector3ic pos, Chunk chunk);
+    }
+
+    private static final class Entry {
+        private final Vector3i pos;
+        private final Chunk chunk;
+        private float score;
+
+        Entry(Vector3i pos, Chunk chunk) {
+            this.pos = pos;
+            this.chunk = chunk;
+        }
+    }
+}
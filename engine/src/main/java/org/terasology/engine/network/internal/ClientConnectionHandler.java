@@ -247,6 +247,8 @@ private void receiveModule(ChannelHandlerContext channelHandlerContext, NetData.
     private void completeJoin(ChannelHandlerContext channelHandlerContext, NetData.JoinCompleteMessage joinComplete) {
         logger.info("Join complete received");
         server.setClientId(joinComplete.getClientId());
+        server.setCachesChunks(
+                NetMessageUtil.hasFlag(joinComplete.getUnknownFields(), NetMessageUtil.CACHES_CHUNKS_FIELD));
 
         channelHandlerContext.pipeline().remove(this);
         channelHandlerContext.pipeline().get(ClientHandler.class).joinComplete(server);
@@ -298,6 +300,7 @@ private void sendJoin(ChannelHandlerContext channelHandlerContext) {
         bldr.setName(playerConfig.playerName.get());
         bldr.setViewDistanceLevel(config.getRendering().getViewDistance().getIndex());
         bldr.setColor(clrbldr.setRgba(playerConfig.color.get().rgba()).build());
+        bldr.mergeUnknownFields(NetMessageUtil.flag(NetMessageUtil.CACHES_CHUNKS_FIELD));
 
         channelHandlerContext.channel().writeAndFlush(NetData.NetMessage.newBuilder().setJoin(bldr).build());
     }
@@ -5,6 +5,7 @@
 import com.google.common.primitives.Bytes;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnknownFieldSet;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.slf4j.Logger;
@@ -232,7 +233,8 @@ private void sendCertificate(NetData.HandshakeHello helloMessage, ChannelHandler
         ctx.channel().writeAndFlush(NetData.NetMessage.newBuilder()
                 .setHandshakeHello(clientHello)
                 .setHandshakeVerification(NetData.HandshakeVerification.newBuilder()
-                        .setSignature(ByteString.copyFrom(signature)))
+                        .setSignature(ByteString.copyFrom(signature))
+                        .mergeUnknownFields(frameCodecs()))
                 .build());
     }
 
@@ -252,10 +254,16 @@ private void requestIdentity(ChannelHandlerContext ctx) {
         ctx.channel().writeAndFlush(NetData.NetMessage.newBuilder()
                 .setNewIdentityRequest(NetData.NewIdentityRequest.newBuilder()
                         .setPreMasterSecret(ByteString.copyFrom(encryptedPreMasterSecret))
-                        .setRandom(ByteString.copyFrom(clientRandom)))
+                        .setRandom(ByteString.copyFrom(clientRandom))
+                        .mergeUnknownFields(frameCodecs()))
                 .build());
         requestedCertificate = true;
     }
 
-
+    /**
+     * Lists the frame codecs the client can decode, so that the server only compresses frames with one of them.
+     */
+    private static UnknownFieldSet frameCodecs() {
+        return NetMessageUtil.values(NetMessageUtil.FRAME_CODECS_FIELD, FrameCodec.getIds());
+    }
 }
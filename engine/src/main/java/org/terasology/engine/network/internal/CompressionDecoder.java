@@ -0,0 +1,63 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Decompresses the frames written by a {@link CompressionEncoder}, whichever {@link FrameCodec} compressed them.
+ */
+public class CompressionDecoder extends MessageToMessageDecoder<ByteBuf> {
+    private final int maxFrameLength;
+
+    /**
+     * @param maxFrameLength the largest size a frame may have once decompressed
+     */
+    public CompressionDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        long startTime = System.nanoTime();
+        int frameLength = msg.readableBytes();
+        byte id = msg.readByte();
+        FrameCodec codec = FrameCodec.forId(id);
+        if (codec == null) {
+            throw new CorruptedFrameException("Received frame compressed by the unknown codec " + (id & 0xFF));
+        }
+        ByteBuf frame;
+        if (codec == FrameCodec.NONE) {
+            frame = msg.readRetainedSlice(msg.readableBytes());
+        } else {
+            int length = msg.readInt();
+            if (length < 0 || length > maxFrameLength) {
+                throw new CorruptedFrameException("Received frame of " + length + " bytes, more than "
+                        + maxFrameLength);
+            }
+            frame = ctx.alloc().buffer(length);
+            try {
+                codec.decompress(msg, frame, length);
+            } catch (DataFormatException | RuntimeException e) {
+                frame.release();
+                throw new CorruptedFrameException("Failed to decompress frame", e);
+            }
+            if (frame.readableBytes() != length) {
+                String error = "Frame decompressed to " + frame.readableBytes() + " bytes instead of " + length;
+                frame.release();
+                throw new CorruptedFrameException(error);
+            }
+        }
+        out.add(frame);
+        MetricRecordingHandler metrics = (MetricRecordingHandler) ctx.pipeline().get(MetricRecordingHandler.NAME);
+        if (metrics != null) {
+            metrics.recordCompression(frame.readableBytes(), frameLength, System.nanoTime() - startTime);
+        }
+    }
+}
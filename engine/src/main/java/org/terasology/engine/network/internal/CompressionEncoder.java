@@ -0,0 +1,61 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Compresses the outgoing frames which are large enough to be worth it, and sends the others as they are.
+ * <br><br>
+ * Every frame starts with the id of the {@link FrameCodec} which compressed it. Compressed frames continue with their
+ * uncompressed size, followed by the compressed data. Small frames, like the movement updates of a single tick, barely
+ * compress and are sent with the id of {@link FrameCodec#NONE}. So are frames which would grow when compressed.
+ * <br><br>
+ * All frames are sent uncompressed until {@link #setCodec} is called once the handshake is complete, see
+ * {@link CompressionDecoder} for the receiving end.
+ */
+public class CompressionEncoder extends MessageToByteEncoder<ByteBuf> {
+    /* frames smaller than this are sent uncompressed */
+    public static final int MIN_COMPRESSED_SIZE = 256;
+
+    private volatile FrameCodec codec = FrameCodec.NONE;
+
+    public FrameCodec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(FrameCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        long startTime = System.nanoTime();
+        int length = msg.readableBytes();
+        int frameStart = out.writerIndex();
+        FrameCodec frameCodec = codec;
+        if (frameCodec != FrameCodec.NONE && length >= MIN_COMPRESSED_SIZE) {
+            int dataStart = msg.readerIndex();
+            out.writeByte(frameCodec.getId());
+            out.writeInt(length);
+            frameCodec.compress(msg, out);
+            if (out.writerIndex() - frameStart > length) {
+                out.writerIndex(frameStart);
+                msg.readerIndex(dataStart);
+                frameCodec = FrameCodec.NONE;
+            }
+        } else {
+            frameCodec = FrameCodec.NONE;
+        }
+        if (frameCodec == FrameCodec.NONE) {
+            out.writeByte(FrameCodec.NONE.getId());
+            out.writeBytes(msg);
+        }
+        MetricRecordingHandler metrics = (MetricRecordingHandler) ctx.pipeline().get(MetricRecordingHandler.NAME);
+        if (metrics != null) {
+            metrics.recordCompression(length, out.writerIndex() - frameStart, System.nanoTime() - startTime);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.math.TeraMath;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the positions of the network entities which are replicated to the clients close to them.
+ * <br><br>
+ * Finding the entities within a distance only visits the cells overlapping that distance, so the cost depends on the
+ * number of entities nearby rather than on the total number of entities.
+ */
+final class EntityInterestGrid {
+    private static final int COORDINATE_BITS = 21;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+
+    private final float cellSize;
+    private final TLongObjectMap<TIntSet> cells = new TLongObjectHashMap<>();
+    private final TIntObjectMap<Vector3f> positions = new TIntObjectHashMap<>();
+    private final TIntLongMap cellOfEntity = new TIntLongHashMap();
+
+    /**
+     * @param cellSize the edge length of the cells, ideally about the smallest distance queried
+     */
+    EntityInterestGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds the entity with the given network id, or moves it to the given position.
+     */
+    void update(int netId, Vector3fc position) {
+        long cell = cellKey(cell(position.x()), cell(position.y()), cell(position.z()));
+        Vector3f currentPosition = positions.get(netId);
+        if (currentPosition == null) {
+            positions.put(netId, new Vector3f(position));
+        } else {
+            currentPosition.set(position);
+            long currentCell = cellOfEntity.get(netId);
+            if (currentCell == cell) {
+                return;
+            }
+            removeFromCell(netId, currentCell);
+        }
+        cellOfEntity.put(netId, cell);
+        TIntSet entities = cells.get(cell);
+        if (entities == null) {
+            entities = new TIntHashSet();
+            cells.put(cell, entities);
+        }
+        entities.add(netId);
+    }
+
+    /**
+     * @return true if the entity was in the grid
+     */
+    boolean remove(int netId) {
+        if (positions.remove(netId) == null) {
+            return false;
+        }
+        removeFromCell(netId, cellOfEntity.remove(netId));
+        return true;
+    }
+
+    boolean contains(int netId) {
+        return positions.containsKey(netId);
+    }
+
+    /**
+     * @return the position of the given entity, or null if it is not in the grid
+     */
+    Vector3fc getPosition(int netId) {
+        return positions.get(netId);
+    }
+
+    int size() {
+        return positions.size();
+    }
+
+    /**
+     * Passes the network ids of all entities within the given distance of the given position to the consumer.
+     */
+    void forEachWithin(Vector3fc center, float distance, IntConsumer consumer) {
+        float distanceSquared = distance * distance;
+        int minX = cell(center.x() - distance);
+        int maxX = cell(center.x() + distance);
+        int minY = cell(center.y() - distance);
+        int maxY = cell(center.y() + distance);
+        int minZ = cell(center.z() - distance);
+        int maxZ = cell(center.z() + distance);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    TIntSet entities = cells.get(cellKey(x, y, z));
+                    if (entities == null) {
+                        continue;
+                    }
+                    TIntIterator iterator = entities.iterator();
+                    while (iterator.hasNext()) {
+                        int netId = iterator.next();
+                        if (positions.get(netId).distanceSquared(center) <= distanceSquared) {
+                            consumer.accept(netId);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeFromCell(int netId, long cell) {
+        TIntSet entities = cells.get(cell);
+        entities.remove(netId);
+        if (entities.isEmpty()) {
+            cells.remove(cell);
+        }
+    }
+
+    private int cell(float coordinate) {
+        return TeraMath.floorToInt(coordinate / cellSize);
+    }
+
+    private static long cellKey(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS)) | ((y & COORDINATE_MASK) << COORDINATE_BITS)
+                | (z & COORDINATE_MASK);
+    }
+}
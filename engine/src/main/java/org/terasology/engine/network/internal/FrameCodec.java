@@ -0,0 +1,181 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.compression.Snappy;
+
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The codecs which can compress single frames sent over the network, see {@link CompressionEncoder}.
+ * <br><br>
+ * Every compressed frame starts with the id of the codec that compressed it, so the receiving end can decode frames of
+ * every codec without being told which one the sender uses. The codecs keep their state per thread, so they can be
+ * used from all event loops at once.
+ */
+public enum FrameCodec {
+    /**
+     * Sends all frames as they are.
+     */
+    NONE((byte) 0) {
+        @Override
+        void compress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
+
+        @Override
+        void decompress(ByteBuf in, ByteBuf out, int length) {
+            out.writeBytes(in, length);
+        }
+    },
+
+    /**
+     * Deflate at its fastest level, which compresses chunks well at a moderate cost.
+     */
+    DEFLATE((byte) 1) {
+        @Override
+        void compress(ByteBuf in, ByteBuf out) {
+            Deflater deflater = DEFLATERS.get();
+            deflater.reset();
+            deflater.setInput(toArray(in));
+            deflater.finish();
+            byte[] buffer = BUFFERS.get();
+            while (!deflater.finished()) {
+                out.writeBytes(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+
+        @Override
+        void decompress(ByteBuf in, ByteBuf out, int length) throws DataFormatException {
+            Inflater inflater = INFLATERS.get();
+            inflater.reset();
+            inflater.setInput(toArray(in));
+            byte[] result = new byte[length];
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int count = inflater.inflate(result, inflated, length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != length || !inflater.finished()) {
+                throw new DataFormatException("Frame does not inflate to its announced size of " + length + " bytes");
+            }
+            out.writeBytes(result);
+        }
+    },
+
+    /**
+     * Snappy, which compresses less than deflate but takes only a fraction of its time.
+     */
+    SNAPPY((byte) 2) {
+        @Override
+        void compress(ByteBuf in, ByteBuf out) {
+            Snappy snappy = SNAPPIES.get();
+            while (in.isReadable()) {
+                int blockLength = Math.min(in.readableBytes(), SNAPPY_BLOCK_SIZE);
+                int sizeIndex = out.writerIndex();
+                out.writeInt(0);
+                snappy.encode(in.readSlice(blockLength), out, blockLength);
+                snappy.reset();
+                out.setInt(sizeIndex, out.writerIndex() - sizeIndex - Integer.BYTES);
+            }
+        }
+
+        @Override
+        void decompress(ByteBuf in, ByteBuf out, int length) throws DataFormatException {
+            Snappy snappy = SNAPPIES.get();
+            while (in.isReadable()) {
+                int blockSize = in.readInt();
+                if (blockSize < 0 || blockSize > in.readableBytes()) {
+                    throw new DataFormatException("Snappy block exceeds the frame");
+                }
+                snappy.decode(in.readSlice(blockSize), out);
+                snappy.reset();
+            }
+        }
+    };
+
+    /* the largest block the snappy encoder can refer back into */
+    private static final int SNAPPY_BLOCK_SIZE = Short.MAX_VALUE;
+
+    private static final ThreadLocal<Deflater> DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<Snappy> SNAPPIES = ThreadLocal.withInitial(Snappy::new);
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private static final FrameCodec[] BY_ID = new FrameCodec[256];
+
+    static {
+        for (FrameCodec codec : values()) {
+            BY_ID[codec.id & 0xFF] = codec;
+        }
+    }
+
+    private final byte id;
+
+    FrameCodec(byte id) {
+        this.id = id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Compresses all readable bytes of the given buffer.
+     */
+    abstract void compress(ByteBuf in, ByteBuf out);
+
+    /**
+     * Decompresses all readable bytes of the given buffer.
+     *
+     * @param length the size of the frame before it was compressed
+     * @throws DataFormatException if the data was not compressed by this codec
+     */
+    abstract void decompress(ByteBuf in, ByteBuf out, int length) throws DataFormatException;
+
+    /**
+     * @return the codec with the given id, or null if there is none
+     */
+    public static FrameCodec forId(byte id) {
+        return BY_ID[id & 0xFF];
+    }
+
+    /**
+     * @return the ids of all codecs, which are the codecs a {@link CompressionDecoder} can decode
+     */
+    public static long[] getIds() {
+        long[] ids = new long[values().length];
+        for (FrameCodec codec : values()) {
+            ids[codec.ordinal()] = codec.id;
+        }
+        return ids;
+    }
+
+    /**
+     * @return the codec with the given name, ignoring case, or null if there is none
+     */
+    public static FrameCodec forName(String name) {
+        if (name != null) {
+            for (FrameCodec codec : values()) {
+                if (codec.name().equals(name.toUpperCase(Locale.ROOT))) {
+                    return codec;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static byte[] toArray(ByteBuf buf) {
+        byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        return data;
+    }
+}
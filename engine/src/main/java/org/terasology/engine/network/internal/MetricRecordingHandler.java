@@ -23,6 +23,7 @@
 import org.terasology.engine.network.NetMetricSource;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A generic Netty handler for recording metrics on sent and received bytes and messages.
@@ -35,6 +36,9 @@ public class MetricRecordingHandler extends ChannelDuplexHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicLong uncompressedBytes = new AtomicLong();
+    private AtomicLong compressedBytes = new AtomicLong();
+    private AtomicLong compressionTime = new AtomicLong();
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
@@ -52,6 +56,19 @@ public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
         super.write(ctx, msg, promise);
     }
 
+    /**
+     * Records a frame passing through a {@link CompressionEncoder} or {@link CompressionDecoder}.
+     *
+     * @param uncompressedSize the size of the frame before compression
+     * @param compressedSize the size of the frame as it went over the network
+     * @param time the time in nanoseconds spent compressing or decompressing the frame
+     */
+    void recordCompression(int uncompressedSize, int compressedSize, long time) {
+        uncompressedBytes.addAndGet(uncompressedSize);
+        compressedBytes.addAndGet(compressedSize);
+        compressionTime.addAndGet(time);
+    }
+
     @Override
     public int getReceivedMessagesSinceLastCall() {
         return receivedMessages.getAndSet(0);
@@ -71,4 +88,19 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    @Override
+    public long getUncompressedBytesSinceLastCall() {
+        return uncompressedBytes.getAndSet(0);
+    }
+
+    @Override
+    public long getCompressedBytesSinceLastCall() {
+        return compressedBytes.getAndSet(0);
+    }
+
+    @Override
+    public long getCompressionTimeSinceLastCall() {
+        return compressionTime.getAndSet(0);
+    }
 }
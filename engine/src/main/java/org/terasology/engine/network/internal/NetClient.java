@@ -16,6 +16,7 @@
 import io.netty.channel.Channel;
 import org.joml.RoundingMode;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.slf4j.Logger;
@@ -32,7 +33,6 @@
 import org.terasology.engine.logic.characters.PredictionSystem;
 import org.terasology.engine.logic.common.DisplayNameComponent;
 import org.terasology.engine.logic.location.LocationComponent;
-import org.terasology.engine.network.Client;
 import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.network.ColorComponent;
 import org.terasology.engine.network.NetMetricSource;
@@ -49,6 +49,7 @@
 import org.terasology.engine.world.block.family.BlockFamily;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.nui.Color;
 import org.terasology.persistence.typeHandling.DeserializationException;
 import org.terasology.persistence.typeHandling.SerializationException;
@@ -70,6 +71,8 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    /* changes of entities further away than a third and two thirds of the relevance distance are sent less often */
+    private static final int[] UPDATE_INTERVALS = {1, 2, 4};
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -80,8 +83,11 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private NetMetricSource metricSource;
 
     // Relevance
-    private Set<Vector3i> relevantChunks = Sets.newHashSet();
+    private Map<Vector3i, Chunk> relevantChunks = Maps.newHashMap();
     private TIntSet netRelevant = new TIntHashSet();
+    private final Vector3f relevanceCenter = new Vector3f();
+    private boolean relevanceCenterKnown;
+    private int netTickCount;
 
     // Entity replication data
     private TIntSet netInitial = new TIntHashSet();
@@ -94,9 +100,6 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
 
     private PublicIdentityCertificate identity;
 
@@ -106,9 +109,11 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private ChunkStreamScheduler readyChunks;
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
-
+    private RemoteChunkCache cachedChunks;
+    /* whether the client keeps the chunks which stop being relevant, as told in its join message */
+    private boolean cachesChunks;
 
     // Incoming messages
     private BlockingQueue<NetData.NetMessage> queuedIncomingMessage = Queues.newLinkedBlockingQueue();
@@ -132,6 +137,9 @@ public NetClient(Channel channel, NetworkSystemImpl networkSystem, PublicIdentit
         this.networkSystem = networkSystem;
         this.time = CoreRegistry.get(Time.class);
         this.identity = identity;
+        this.readyChunks = new ChunkStreamScheduler(time.getRealTimeInMs());
+        ExtraBlockDataManager extraDataManager = CoreRegistry.get(ExtraBlockDataManager.class);
+        this.cachedChunks = new RemoteChunkCache(extraDataManager != null ? extraDataManager.getSlotCount() : 0);
         WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
         if (worldProvider != null) {
             worldProvider.registerListener(this);
@@ -167,6 +175,14 @@ public String getId() {
         return identity.getId();
     }
 
+    /**
+     * @param cachesChunks whether the client keeps the chunks which stop being relevant to it, so that they can be
+     *                     sent with only their position and changes when they become relevant again
+     */
+    void setCachesChunks(boolean cachesChunks) {
+        this.cachesChunks = cachesChunks;
+    }
+
     public void setColor(Color color) {
         this.color = color;
 
@@ -207,6 +223,8 @@ public void update(boolean netTick) {
         if (netTick) {
             NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
             message.setTime(time.getGameTimeInMs());
+            netTickCount++;
+            updateEntityRelevance();
             sendRegisteredBlocks(message);
             sendChunkInvalidations(message);
             sendNewChunks(message);
@@ -234,35 +252,67 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
     }
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    Vector3f target = loc.getWorldPosition(new Vector3f());
-                    if (target.isFinite()) {
-                        center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
-                        Chunks.toChunkPos(center, center); // update center to chunkPos
-                    }
-                }
-                Vector3i pos = null;
-                long distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    long chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
-                }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
+        if (readyChunks.isEmpty()) {
+            return;
+        }
+        Vector3i center = new Vector3i();
+        Vector3f heading = new Vector3f();
+        LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+        if (loc != null) {
+            Vector3f target = loc.getWorldPosition(new Vector3f());
+            if (target.isFinite()) {
+                center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
+                Chunks.toChunkPos(center, center); // update center to chunkPos
+                loc.getWorldDirection(heading);
             }
+        }
+        readyChunks.setFocus(center, heading);
+        int bandwidthBudget = (int) (networkSystem.getBandwidthPerClient() * 1000 / 8 * NET_TICK_RATE);
+        readyChunks.updateBudget(bandwidthBudget, channel.isWritable(), channel.bytesBeforeUnwritable(),
+                channel.config().getWriteBufferHighWaterMark());
+        readyChunks.stream((pos, chunk) -> {
+            relevantChunks.put(new Vector3i(pos), chunk);
+            return sendChunk(message, pos, chunk);
+        });
+        if (readyChunks.checkPlayableArea(relevantChunks.keySet(), time.getRealTimeInMs())) {
+            logger.info("Sent the area around the character of {} after {}ms", getName(),
+                    readyChunks.getTimeToPlayableArea());
+        }
+    }
+
+    /**
+     * Adds the given chunk to the message, or only its changes if the client has cached it.
+     *
+     * @return the number of bytes added to the message
+     */
+    private int sendChunk(NetData.NetMessage.Builder message, Vector3ic pos, Chunk chunk) {
+        List<NetData.BlockChangeMessage> blockChanges = Lists.newArrayList();
+        List<NetData.ExtraDataChangeMessage> extraDataChanges = Lists.newArrayList();
+        EntityData.ChunkStore chunkStore;
+        if (cachedChunks.take(chunk, blockChanges, extraDataChanges)) {
+            chunkStore = EntityData.ChunkStore.newBuilder().setX(pos.x()).setY(pos.y()).setZ(pos.z()).build();
         } else {
-            chunkSendCounter = 1.0f;
+            chunkStore = chunk.encode().build();
+        }
+        message.addChunkInfo(chunkStore);
+        message.addAllBlockChange(blockChanges);
+        message.addAllExtraDataChange(extraDataChanges);
+        int size = chunkStore.getSerializedSize();
+        for (NetData.BlockChangeMessage blockChange : blockChanges) {
+            size += blockChange.getSerializedSize();
+        }
+        for (NetData.ExtraDataChangeMessage extraDataChange : extraDataChanges) {
+            size += extraDataChange.getSerializedSize();
         }
+        return size;
+    }
+
+    /**
+     * @return the time in milliseconds from the connection of this client until the chunks around its character were
+     *         sent, or -1 if they have not been sent yet
+     */
+    public long getTimeToPlayableArea() {
+        return readyChunks.getTimeToPlayableArea();
     }
 
     private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
@@ -270,7 +320,10 @@ private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
         while (i.hasNext()) {
             Vector3i pos = i.next();
             i.remove();
-            relevantChunks.remove(pos);
+            Chunk chunk = relevantChunks.remove(pos);
+            if (chunk != null && cachesChunks && !chunk.isDisposed()) {
+                cachedChunks.store(chunk);
+            }
             message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder().setPos(NetMessageUtil.convert(pos)));
         }
         invalidatedChunks.clear();
@@ -280,8 +333,17 @@ public void setNetInitial(int netId) {
         netInitial.add(netId);
     }
 
+    /**
+     * Sends the given entity to this client, unless it already has been.
+     */
+    void setNetRelevant(int netId) {
+        if (!netRelevant.contains(netId)) {
+            netInitial.add(netId);
+        }
+    }
+
     public void setNetRemoved(int netId) {
-        if (!netInitial.remove(netId)) {
+        if (!netInitial.remove(netId) && netRelevant.contains(netId)) {
             netRemoved.add(netId);
         }
         dirtyComponents.keySet().remove(netId);
@@ -334,7 +396,7 @@ public void send(Event event, EntityRef target) {
         try {
             BlockComponent blockComp = target.getComponent(BlockComponent.class);
             if (blockComp != null) {
-                if (relevantChunks.contains(Chunks.toChunkPos(blockComp.getPosition(), new Vector3i()))) {
+                if (relevantChunks.containsKey(Chunks.toChunkPos(blockComp.getPosition(), new Vector3i()))) {
                     queuedOutgoingEvents.add(NetData.EventMessage.newBuilder()
                         .setTargetBlockPos(NetMessageUtil.convert(blockComp.getPosition()))
                         .setEvent(eventSerializer.serialize(event)).build());
@@ -375,7 +437,7 @@ void send(NetData.NetMessage data) {
     public void onChunkRelevant(Vector3ic pos, Chunk chunk) {
         Vector3i result = new Vector3i(pos);
         invalidatedChunks.remove(result);
-        readyChunks.put(result, chunk);
+        readyChunks.add(result, chunk);
     }
 
     @Override
@@ -385,11 +447,18 @@ public void onChunkIrrelevant(Vector3ic pos) {
         invalidatedChunks.add(result);
     }
 
+    /**
+     * Forgets the copy of the chunk the client may have cached, as the server unloaded the chunk.
+     */
+    void onChunkUnloaded(Vector3ic pos) {
+        cachedChunks.remove(pos);
+    }
+
 
     @Override
     public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
         org.joml.Vector3i chunkPos = Chunks.toChunkPos(pos, new org.joml.Vector3i());
-        if (relevantChunks.contains(chunkPos)) {
+        if (relevantChunks.containsKey(chunkPos)) {
             queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
                 .setPos(NetMessageUtil.convert(pos))
                 .setNewBlock(newBlock.getId())
@@ -400,7 +469,7 @@ public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
     @Override
     public void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData) {
         org.joml.Vector3i chunkPos = Chunks.toChunkPos(pos, new org.joml.Vector3i());
-        if (relevantChunks.contains(chunkPos)) {
+        if (relevantChunks.containsKey(chunkPos)) {
             queuedOutgoingExtraDataChanges.add(NetData.ExtraDataChangeMessage.newBuilder()
                 .setIndex(i)
                 .setPos(NetMessageUtil.convert(pos))
@@ -419,10 +488,25 @@ private void processReceivedMessages() {
             }
             processEntityUpdates(message);
             processEvents(message);
+            processChunkRequests(message);
 
         }
     }
 
+    /**
+     * Sends the chunks again in their entirety which the client should have cached, but has not.
+     */
+    private void processChunkRequests(NetData.NetMessage message) {
+        for (NetData.InvalidateChunkMessage chunkRequest : message.getInvalidateChunkList()) {
+            Vector3i pos = NetMessageUtil.convert(chunkRequest.getPos());
+            cachedChunks.remove(pos);
+            Chunk chunk = relevantChunks.get(pos);
+            if (chunk != null) {
+                readyChunks.add(pos, chunk);
+            }
+        }
+    }
+
     private void sendEvents(NetData.NetMessage.Builder message) {
         List<NetData.BlockChangeMessage> blockChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBlockChanges.size());
         queuedOutgoingBlockChanges.drainTo(blockChanges);
@@ -446,25 +530,83 @@ private void processEntityUpdates(NetData.NetMessage message) {
         }
     }
 
+    /**
+     * Sends the entities replicated by distance which came close to the character of this client, and removes those
+     * which moved away. Entities leave at a slightly larger distance than they enter, so that entities moving along
+     * the border are not sent over and over.
+     */
+    private void updateEntityRelevance() {
+        EntityRef character = getEntity().getComponent(ClientComponent.class).character;
+        LocationComponent loc = character.getComponent(LocationComponent.class);
+        relevanceCenterKnown = loc != null && loc.getWorldPosition(relevanceCenter).isFinite();
+        if (!relevanceCenterKnown) {
+            return;
+        }
+        EntityInterestGrid interestGrid = networkSystem.getInterestGrid();
+        float leaveDistance = getRelevanceDistance() + Chunks.SIZE_X;
+        float leaveDistanceSquared = leaveDistance * leaveDistance;
+        TIntSet leaving = new TIntHashSet();
+        for (TIntSet entities : new TIntSet[]{netRelevant, netInitial}) {
+            TIntIterator iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                int netId = iterator.next();
+                Vector3fc position = interestGrid.getPosition(netId);
+                if (position != null && position.distanceSquared(relevanceCenter) > leaveDistanceSquared) {
+                    leaving.add(netId);
+                }
+            }
+        }
+        leaving.forEach(netId -> {
+            setNetRemoved(netId);
+            return true;
+        });
+        interestGrid.forEachWithin(relevanceCenter, getRelevanceDistance(), this::setNetRelevant);
+    }
+
+    private float getRelevanceDistance() {
+        return viewDistance.getChunkDistance().x() / 2f * Chunks.SIZE_X;
+    }
+
+    /**
+     * @return true if the changes of the given entity should wait for a later net tick, as it is far away
+     */
+    private boolean isUpdateDeferred(int netId) {
+        Vector3fc position = networkSystem.getInterestGrid().getPosition(netId);
+        if (position == null || !relevanceCenterKnown) {
+            return false;
+        }
+        float distance = position.distance(relevanceCenter) / getRelevanceDistance();
+        int tier = Math.min(UPDATE_INTERVALS.length - 1, (int) (distance * UPDATE_INTERVALS.length));
+        return netTickCount % UPDATE_INTERVALS[tier] != 0;
+    }
+
     private void sendDirtyEntities(NetData.NetMessage.Builder message) {
         TIntIterator dirtyIterator = netDirty.iterator();
         while (dirtyIterator.hasNext()) {
             int netId = dirtyIterator.next();
+            if (isUpdateDeferred(netId)) {
+                continue;
+            }
             EntityRef entity = networkSystem.getEntity(netId);
             if (!entity.exists()) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            Set<Class<? extends Component>> added = addedComponents.get(netId);
+            Set<Class<? extends Component>> changed = dirtyComponents.get(netId);
+            Set<Class<? extends Component>> removed = removedComponents.get(netId);
+            // other clients are likely sent the same changes, so they share the serialized entity
+            EntityData.PackedEntity entityData = networkSystem.getPackedEntityCache().getUpdate(netId, isOwner,
+                    added, changed, removed, () -> entitySerializer.serialize(entity, added, changed, removed,
+                            new ServerComponentFieldCheck(isOwner, false)));
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
+            dirtyIterator.remove();
+            addedComponents.removeAll(netId);
+            removedComponents.removeAll(netId);
+            dirtyComponents.removeAll(netId);
         }
-        netDirty.clear();
-        addedComponents.clear();
-        removedComponents.clear();
-        dirtyComponents.clear();
     }
 
     private void sendRemovedEntities(NetData.NetMessage.Builder message) {
@@ -487,8 +629,10 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
                 continue;
             }
             // Note: Send owner->server fields on initial create
-            Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            boolean isOwner = networkSystem.getOwner(entity) == this;
+            EntityData.PackedEntity entityData = networkSystem.getPackedEntityCache().getInitial(netId, isOwner,
+                    () -> entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(isOwner, true))
+                            .build());
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
@@ -4,20 +4,69 @@
 package org.terasology.engine.network.internal;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
 import org.joml.Vector3ic;
 import org.terasology.engine.identity.PublicIdentityCertificate;
 import org.terasology.protobuf.NetData;
 
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Utility class for converting types between network representation and usable objects
  *
  */
 public final class NetMessageUtil {
+    /**
+     * The handshake extension field by which a peer tells that it keeps the chunks which stop being relevant to the
+     * client, see the Capabilities in NetMessage.proto.
+     */
+    static final int CACHES_CHUNKS_FIELD = 5000;
+    /**
+     * The handshake extension field by which the client lists the ids of the {@link FrameCodec frame codecs} it can
+     * decode, see the Capabilities in NetMessage.proto.
+     */
+    static final int FRAME_CODECS_FIELD = 5000;
+
     private NetMessageUtil() {
     }
 
+    /**
+     * The capability flags are extensions of the handshake messages, which the decoders read without an extension
+     * registry, so they are written and read as unknown fields. This way peers which do not know a flag ignore it.
+     *
+     * @return the unknown fields of a message with the given flag set
+     */
+    static UnknownFieldSet flag(int field) {
+        return values(field, 1);
+    }
+
+    /**
+     * @return the unknown fields of a message with the given values in the given field
+     */
+    static UnknownFieldSet values(int field, long... values) {
+        UnknownFieldSet.Field.Builder builder = UnknownFieldSet.Field.newBuilder();
+        for (long value : values) {
+            builder.addVarint(value);
+        }
+        return UnknownFieldSet.newBuilder().addField(field, builder.build()).build();
+    }
+
+    /**
+     * @return the values of the given field in the unknown fields of a message, empty if there are none
+     */
+    static List<Long> getValues(UnknownFieldSet fields, int field) {
+        return fields.hasField(field) ? fields.getField(field).getVarintList() : Collections.emptyList();
+    }
+
+    /**
+     * @return whether the given flag is set in the unknown fields of a message
+     */
+    static boolean hasFlag(UnknownFieldSet fields, int field) {
+        return getValues(fields, field).contains(1L);
+    }
+
     public static org.joml.Vector3i convert(NetData.Vector3iData data) {
         return new org.joml.Vector3i(data.getX(), data.getY(), data.getZ());
     }
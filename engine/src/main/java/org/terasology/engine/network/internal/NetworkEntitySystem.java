@@ -29,12 +29,15 @@
 import org.terasology.engine.network.NetworkComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.world.WorldRenderer;
+import org.terasology.engine.world.WorldComponent;
+import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
 
 /**
  * This system handles a number of events relevant to the Network System:
  * <ul>
  * <li>Notifies the network system when network entities are created, destroyed or updated</li>
  * <li>Notifies the network system when a client requests a change of view range</li>
+ * <li>Notifies the network system when the server unloads a chunk, which clients may have cached</li>
  * </ul>
  *
  */
@@ -76,4 +79,9 @@ public void onDeactivateNetworkComponent(BeforeDeactivateComponent event, Entity
         networkSystem.unregisterNetworkEntity(entity);
     }
 
+    @ReceiveEvent(components = WorldComponent.class, netFilter = RegisterMode.AUTHORITY)
+    public void onChunkUnload(BeforeChunkUnload event, EntityRef worldEntity) {
+        networkSystem.onChunkUnloaded(event.getChunkPos());
+    }
+
 }
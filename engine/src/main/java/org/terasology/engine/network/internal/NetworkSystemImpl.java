@@ -5,6 +5,7 @@
 
 import com.google.common.base.Objects;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
@@ -20,12 +21,15 @@
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.config.Config;
@@ -46,6 +50,7 @@
 import org.terasology.engine.entitySystem.metadata.ComponentMetadata;
 import org.terasology.engine.entitySystem.metadata.EventLibrary;
 import org.terasology.engine.entitySystem.metadata.EventMetadata;
+import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.monitoring.PerformanceMonitor;
 import org.terasology.engine.network.Client;
 import org.terasology.engine.network.JoinStatus;
@@ -67,8 +72,10 @@
 import org.terasology.engine.registry.CoreRegistry;
 import org.terasology.engine.world.BlockEntityRegistry;
 import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.remoteChunkProvider.RemoteChunkProvider;
 import org.terasology.engine.world.generator.WorldGenerator;
 import org.terasology.module.Module;
@@ -101,8 +108,15 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private static final int OWNER_DEPTH_LIMIT = 50;
     private static final int NET_TICK_RATE = 50;
     private static final int NULL_NET_ID = 0;
+    /* lets the outbound buffer hold several chunks, so the chunk streaming of clients is throttled by the connection */
+    private static final WriteBufferWaterMark CHUNK_STREAM_WATER_MARK = new WriteBufferWaterMark(
+            ChunkStreamScheduler.MAX_BUDGET / 2, 2 * ChunkStreamScheduler.MAX_BUDGET);
+    private static final Set<Class<? extends Component>> AFFECTS_INTEREST = ImmutableSet.of(LocationComponent.class,
+            BlockComponent.class, NetworkComponent.class);
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
+    private final PackedEntityCache packedEntityCache = new PackedEntityCache();
+    private final EntityInterestGrid interestGrid = new EntityInterestGrid(Chunks.SIZE_X);
     // Shared
     private Context context;
     private Optional<HibernationManager> hibernationSettings;
@@ -166,6 +180,7 @@ public void host(int port, boolean dedicatedServer) throws HostingFailedExceptio
                         .localAddress(port)
                         .childOption(ChannelOption.TCP_NODELAY, true)
                         .childOption(ChannelOption.SO_KEEPALIVE, true)
+                        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, CHUNK_STREAM_WATER_MARK)
                         .childHandler(new TerasologyServerPipelineFactory(this));
                 // Start the server.
                 serverChannelFuture = b.bind();
@@ -337,6 +352,7 @@ public void update() {
                 if (currentTimer > nextNetworkTick) {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
+                    packedEntityCache.clear();
                 }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
@@ -405,6 +421,13 @@ NetClient getNetOwner(EntityRef entity) {
         return null;
     }
 
+    /**
+     * @return the entities serialized for replication in the current net tick
+     */
+    PackedEntityCache getPackedEntityCache() {
+        return packedEntityCache;
+    }
+
     public int getBandwidthPerClient() {
         if (netClientList.size() > 0) {
             return config.getUpstreamBandwidth() / netClientList.size();
@@ -460,9 +483,11 @@ public void registerNetworkEntity(EntityRef entity) {
                     }
                     break;
                 default:
-                    for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComponent.getNetworkId());
+                    // entities replicated by distance are sent to the clients close to them on the next net tick
+                    if (!updateInterest(entity, netComponent)) {
+                        for (NetClient client : netClientList) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
                     }
                     break;
             }
@@ -475,6 +500,15 @@ public void registerNetworkEntity(EntityRef entity) {
 
     }
 
+    /**
+     * Makes the clients forget their cached copies of a chunk the server unloads.
+     */
+    void onChunkUnloaded(Vector3ic pos) {
+        for (NetClient client : netClientList) {
+            client.onChunkUnloaded(pos);
+        }
+    }
+
     public void updateOwnership(EntityRef entity) {
         NetworkComponent netComponent = entity.getComponent(NetworkComponent.class);
         if (netComponent == null || netComponent.getNetworkId() == NULL_NET_ID) {
@@ -512,6 +546,9 @@ public void updateOwnership(EntityRef entity) {
             } else {
                 ownerLookup.remove(entity);
             }
+            if (mode.isServer()) {
+                updateInterest(entity, netComponent);
+            }
         }
     }
 
@@ -545,6 +582,7 @@ public void unregisterNetworkEntity(EntityRef entity) {
             if (netComponent != null) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
+                interestGrid.remove(netComponent.getNetworkId());
                 if (mode.isServer()) {
                     for (NetClient client : netClientList) {
                         client.setNetRemoved(netComponent.getNetworkId());
@@ -599,11 +637,15 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    packedEntityCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.debug("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
                     }
                 }
+                if (AFFECTS_INTEREST.contains(component)) {
+                    updateInterest(entity, netComp);
+                }
             }
         }
         updatedOwnedEntities(entity, component, metadata);
@@ -616,11 +658,16 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    packedEntityCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.debug("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
                     }
                 }
+                // the component is still present, but without a location the entity is relevant to every client
+                if (component == LocationComponent.class) {
+                    removeInterest(netComp.getNetworkId());
+                }
             }
         }
         if (mode.isAuthority() && metadata.isReferenceOwner()) {
@@ -647,10 +694,14 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
                     if (metadata.isReplicated()) {
+                        packedEntityCache.invalidate(netComp.getNetworkId());
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
                     }
+                    if (AFFECTS_INTEREST.contains(component)) {
+                        updateInterest(entity, netComp);
+                    }
                     break;
                 case CLIENT:
                     if (server != null && metadata.isReplicatedFromOwner() && getOwnerEntity(entity).equals(server.getClientEntity())) {
@@ -676,6 +727,85 @@ private void updatedOwnedEntities(EntityRef entity, Class<? extends Component> c
         }
     }
 
+    /**
+     * Adds the given entity to the interest grid if it is replicated to the clients close to it, or removes it, and
+     * does the same for the entities attached to it.
+     * <br><br>
+     * Only entities replicated as {@link NetworkComponent.ReplicateMode#RELEVANT} with a position are replicated by
+     * distance. Entities attached to another entity take the position of the root of their location hierarchy, so they
+     * reach and leave each client together with it, and are relevant to every client if the root is. Owned entities
+     * and block entities stay relevant to every client, as they are part of something which may be relevant regardless
+     * of its position.
+     *
+     * @return true if the entity is replicated by distance
+     */
+    private boolean updateInterest(EntityRef entity, NetworkComponent netComponent) {
+        int netId = netComponent.getNetworkId();
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        boolean byDistance = false;
+        if (location != null && isReplicatedByDistance(entity, netComponent)) {
+            EntityRef root = entity;
+            LocationComponent rootLocation = location;
+            while (rootLocation != null && rootLocation.getParent().exists()) {
+                root = rootLocation.getParent();
+                rootLocation = root.getComponent(LocationComponent.class);
+            }
+            NetworkComponent rootNetComponent = root.getComponent(NetworkComponent.class);
+            if (rootLocation != null && rootNetComponent != null && isReplicatedByDistance(root, rootNetComponent)) {
+                Vector3f position = rootLocation.getWorldPosition(new Vector3f());
+                if (position.isFinite()) {
+                    interestGrid.update(netId, position);
+                    byDistance = true;
+                }
+            }
+        }
+        if (!byDistance) {
+            removeInterest(netId);
+        }
+        if (location != null) {
+            updateAttachedInterest(location);
+        }
+        return byDistance;
+    }
+
+    private static boolean isReplicatedByDistance(EntityRef entity, NetworkComponent netComponent) {
+        return netComponent.replicateMode == NetworkComponent.ReplicateMode.RELEVANT && !entity.getOwner().exists()
+                && !entity.hasComponent(BlockComponent.class);
+    }
+
+    /**
+     * Moves the entities attached to an entity along with it in the interest grid, including those attached through
+     * entities which are not replicated.
+     */
+    private void updateAttachedInterest(LocationComponent location) {
+        for (EntityRef child : location.getChildren()) {
+            NetworkComponent childNetComponent = child.getComponent(NetworkComponent.class);
+            if (childNetComponent != null && childNetComponent.getNetworkId() != NULL_NET_ID) {
+                updateInterest(child, childNetComponent);
+            } else {
+                LocationComponent childLocation = child.getComponent(LocationComponent.class);
+                if (childLocation != null) {
+                    updateAttachedInterest(childLocation);
+                }
+            }
+        }
+    }
+
+    private void removeInterest(int netId) {
+        if (interestGrid.remove(netId)) {
+            for (NetClient client : netClientList) {
+                client.setNetRelevant(netId);
+            }
+        }
+    }
+
+    /**
+     * @return the positions of the entities which are replicated to the clients close to them
+     */
+    EntityInterestGrid getInterestGrid() {
+        return interestGrid;
+    }
+
     /**
      * @return The number of received messages since last request
      */
@@ -762,6 +892,63 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    @Override
+    public float getCompressionRatioDelta() {
+        long uncompressed = 0;
+        long compressed = 0;
+        switch (mode) {
+            case LISTEN_SERVER:
+            case DEDICATED_SERVER:
+                for (NetClient client : netClientList) {
+                    uncompressed += client.getMetrics().getUncompressedBytesSinceLastCall();
+                    compressed += client.getMetrics().getCompressedBytesSinceLastCall();
+                }
+                break;
+            case CLIENT:
+                if (server != null) {
+                    uncompressed = server.getMetrics().getUncompressedBytesSinceLastCall();
+                    compressed = server.getMetrics().getCompressedBytesSinceLastCall();
+                }
+                break;
+            default:
+                break;
+        }
+        if (uncompressed == 0) {
+            return 1;
+        }
+        return (float) compressed / uncompressed;
+    }
+
+    @Override
+    public long getCompressionTimeDelta() {
+        switch (mode) {
+            case LISTEN_SERVER:
+            case DEDICATED_SERVER:
+                long total = 0;
+                for (NetClient client : netClientList) {
+                    total += client.getMetrics().getCompressionTimeSinceLastCall();
+                }
+                return total;
+            case CLIENT:
+                if (server != null) {
+                    return server.getMetrics().getCompressionTimeSinceLastCall();
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public long getEntityCacheHits() {
+        return packedEntityCache.getHits();
+    }
+
+    @Override
+    public long getEntityCacheMisses() {
+        return packedEntityCache.getMisses();
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
@@ -848,8 +1035,10 @@ private void processNewClient(NetClient client) {
         }
 
         client.connected(entityManager, entitySerializer, eventSerializer, eventLibrary);
-        client.send(NetData.NetMessage.newBuilder().setJoinComplete(
-                NetData.JoinCompleteMessage.newBuilder().setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId())).build());
+        NetData.JoinCompleteMessage.Builder joinComplete = NetData.JoinCompleteMessage.newBuilder()
+                .setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId())
+                .mergeUnknownFields(NetMessageUtil.flag(NetMessageUtil.CACHES_CHUNKS_FIELD));
+        client.send(NetData.NetMessage.newBuilder().setJoinComplete(joinComplete).build());
         clientList.add(client);
         netClientList.add(client);
         clientPlayerLookup.put(client.getEntity(), client);
@@ -868,8 +1057,9 @@ private void processNewClient(NetClient client) {
                         }
                         break;
                     default:
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComp.getNetworkId());
+                        if (!interestGrid.contains(netComp.getNetworkId())) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
                         break;
                 }
             }
@@ -0,0 +1,129 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Shares the serialized entities of one net tick between the clients they are replicated to.
+ * <br><br>
+ * Clients which are sent the same components of an entity, with the same ownership, get the same serialized entity, so
+ * it only needs to be serialized once per tick rather than once per client. The cache is cleared at the beginning of
+ * every net tick, and the entries of an entity are discarded as soon as one of its components changes.
+ */
+final class PackedEntityCache {
+    private final TIntObjectMap<Map<Key, EntityData.PackedEntity>> entities = new TIntObjectHashMap<>();
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param netId the network id of the entity
+     * @param owner whether the entity is serialized for the client owning it
+     * @param serializer serializes the entity in its entirety, if it has not been serialized for another client
+     * @return the serialized entity for creating it on the client
+     */
+    EntityData.PackedEntity getInitial(int netId, boolean owner, Supplier<EntityData.PackedEntity> serializer) {
+        return get(netId, new Key(true, owner, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of()), serializer);
+    }
+
+    /**
+     * @param netId the network id of the entity
+     * @param owner whether the entity is serialized for the client owning it
+     * @param added the components added to the entity since the last update
+     * @param changed the components changed since the last update
+     * @param removed the components removed since the last update
+     * @param serializer serializes the given changes, if they have not been serialized for another client
+     * @return the serialized changes for updating the entity on the client, or null if there are no changes to send
+     */
+    EntityData.PackedEntity getUpdate(int netId, boolean owner, Set<Class<? extends Component>> added,
+                                      Set<Class<? extends Component>> changed,
+                                      Set<Class<? extends Component>> removed,
+                                      Supplier<EntityData.PackedEntity> serializer) {
+        Key key = new Key(false, owner, ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed),
+                ImmutableSet.copyOf(removed));
+        return get(netId, key, serializer);
+    }
+
+    /**
+     * Discards the serialized forms of the given entity, because it has changed.
+     */
+    void invalidate(int netId) {
+        entities.remove(netId);
+    }
+
+    /**
+     * Discards all serialized entities, at the beginning of a net tick.
+     */
+    void clear() {
+        entities.clear();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    private EntityData.PackedEntity get(int netId, Key key, Supplier<EntityData.PackedEntity> serializer) {
+        Map<Key, EntityData.PackedEntity> packedEntities = entities.get(netId);
+        if (packedEntities == null) {
+            packedEntities = Maps.newHashMap();
+            entities.put(netId, packedEntities);
+        } else if (packedEntities.containsKey(key)) {
+            hits++;
+            return packedEntities.get(key);
+        }
+        misses++;
+        EntityData.PackedEntity packedEntity = serializer.get();
+        packedEntities.put(key, packedEntity);
+        return packedEntity;
+    }
+
+    private static final class Key {
+        private final boolean initial;
+        private final boolean owner;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+
+        Key(boolean initial, boolean owner, Set<Class<? extends Component>> added,
+            Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+            this.initial = initial;
+            this.owner = owner;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return initial == other.initial && owner == other.owner && added.equals(other.added)
+                        && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(initial, owner, added, changed, removed);
+        }
+    }
+}
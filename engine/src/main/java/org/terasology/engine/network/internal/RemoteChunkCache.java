@@ -0,0 +1,128 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.network.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.protobuf.NetData;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The server side record of the chunks a client keeps cached after they stopped being relevant to it.
+ * <br><br>
+ * When a chunk stops being relevant, the client keeps its copy, and this cache keeps a snapshot of the same data. When
+ * the chunk becomes relevant again, the client only needs to be sent the blocks which changed since, rather than the
+ * whole chunk. Both sides keep the {@link #CAPACITY} most recently cached chunks; if the client no longer has a chunk,
+ * it asks for the whole chunk instead. This is only done when both sides tell in the handshake that they support it.
+ * <br><br>
+ * Only the snapshot of each chunk is kept, not the chunk itself. Its entry has to be {@link #remove removed} when the
+ * server unloads the chunk, as the snapshot would otherwise keep the data of the unloaded chunk alive, and a chunk
+ * loaded at the same position later could match its version by chance.
+ */
+final class RemoteChunkCache {
+    /* the number of chunks cached per client */
+    static final int CAPACITY = 256;
+    /* the most changed blocks and extra data values sent instead of the whole chunk */
+    private static final int MAX_CHANGES = 1024;
+
+    private final int extraDataSlots;
+    private final Map<Vector3i, ChunkSnapshot> entries = new LinkedHashMap<Vector3i, ChunkSnapshot>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Vector3i, ChunkSnapshot> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * @param extraDataSlots the number of extra-data fields of the chunks
+     */
+    RemoteChunkCache(int extraDataSlots) {
+        this.extraDataSlots = extraDataSlots;
+    }
+
+    /**
+     * Records that the client keeps its copy of the given chunk, which matches the current data of the chunk. Must be
+     * called from the thread that changes the chunk.
+     */
+    void store(Chunk chunk) {
+        entries.put(chunk.getPosition(new Vector3i()), chunk.createSnapshot());
+    }
+
+    /**
+     * Stops expecting the client to have a copy of the chunk at the given position.
+     */
+    void remove(Vector3ic pos) {
+        entries.remove(new Vector3i(pos));
+    }
+
+    boolean contains(Vector3ic pos) {
+        return entries.containsKey(new Vector3i(pos));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Takes the copy of the given chunk the client has cached, and collects the changes needed to bring it up to date.
+     *
+     * @param chunk the chunk which became relevant to the client again
+     * @param blockChanges receives the blocks which changed since the chunk was cached
+     * @param extraDataChanges receives the extra data which changed since the chunk was cached
+     * @return false if the client has no usable copy of the chunk, and has to be sent the whole chunk
+     */
+    boolean take(Chunk chunk, List<NetData.BlockChangeMessage> blockChanges,
+                 List<NetData.ExtraDataChangeMessage> extraDataChanges) {
+        ChunkSnapshot snapshot = entries.remove(chunk.getPosition(new Vector3i()));
+        if (snapshot == null) {
+            return false;
+        }
+        if (snapshot.getVersion() == chunk.getVersion()) {
+            return true;
+        }
+        List<NetData.BlockChangeMessage> changedBlocks = Lists.newArrayList();
+        List<NetData.ExtraDataChangeMessage> changedExtraData = Lists.newArrayList();
+        Vector3i pos = new Vector3i();
+        for (int y = 0; y < Chunks.SIZE_Y; y++) {
+            for (int z = 0; z < Chunks.SIZE_Z; z++) {
+                for (int x = 0; x < Chunks.SIZE_X; x++) {
+                    short blockId = chunk.getBlock(x, y, z).getId();
+                    if (blockId != snapshot.getBlock(x, y, z).getId()) {
+                        if (changedBlocks.size() + changedExtraData.size() >= MAX_CHANGES) {
+                            return false;
+                        }
+                        chunk.chunkToWorldPosition(x, y, z, pos);
+                        changedBlocks.add(NetData.BlockChangeMessage.newBuilder()
+                                .setPos(NetMessageUtil.convert(pos))
+                                .setNewBlock(blockId)
+                                .build());
+                    }
+                    for (int i = 0; i < extraDataSlots; i++) {
+                        int value = chunk.getExtraData(i, x, y, z);
+                        if (value != snapshot.getExtraData(i, x, y, z)) {
+                            if (changedBlocks.size() + changedExtraData.size() >= MAX_CHANGES) {
+                                return false;
+                            }
+                            chunk.chunkToWorldPosition(x, y, z, pos);
+                            changedExtraData.add(NetData.ExtraDataChangeMessage.newBuilder()
+                                    .setIndex(i)
+                                    .setPos(NetMessageUtil.convert(pos))
+                                    .setNewData(value)
+                                    .build());
+                        }
+                    }
+                }
+            }
+        }
+        blockChanges.addAll(changedBlocks);
+        extraDataChanges.addAll(changedExtraData);
+        return true;
+    }
+}
@@ -120,6 +120,7 @@ private void receivedConnect(NetData.JoinMessage message) {
         client.setPreferredName(message.getName());
         client.setColor(new Color(message.getColor().getRgba()));
         client.setViewDistanceMode(ViewDistance.forIndex(message.getViewDistanceLevel()));
+        client.setCachesChunks(NetMessageUtil.hasFlag(message.getUnknownFields(), NetMessageUtil.CACHES_CHUNKS_FIELD));
         channelHandlerContext.pipeline().remove(this);
         serverHandler.connectionComplete(client);
     }
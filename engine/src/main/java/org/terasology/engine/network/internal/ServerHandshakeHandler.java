@@ -3,6 +3,7 @@
 package org.terasology.engine.network.internal;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.slf4j.Logger;
@@ -24,6 +25,8 @@
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Authentication handler for the server end of the handshake
@@ -35,6 +38,8 @@ public class ServerHandshakeHandler extends ChannelInboundHandlerAdapter {
     private ServerConnectionHandler serverConnectionHandler;
     private byte[] serverRandom = new byte[IdentityConstants.SERVER_CLIENT_RANDOM_LENGTH];
     private NetData.HandshakeHello serverHello;
+    /* the frame codecs the client can decode, as listed in its handshake; every client can read uncompressed frames */
+    private final Set<FrameCodec> clientCodecs = EnumSet.of(FrameCodec.NONE);
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
@@ -60,8 +65,10 @@ public void channelActive(ChannelHandlerContext ctx) throws Exception {
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         NetData.NetMessage message = (NetData.NetMessage) msg;
         if (message.hasNewIdentityRequest()) {
+            readFrameCodecs(message.getNewIdentityRequest().getUnknownFields());
             processNewIdentityRequest(message.getNewIdentityRequest(), ctx);
         } else if (message.hasHandshakeHello() && message.hasHandshakeVerification()) {
+            readFrameCodecs(message.getHandshakeVerification().getUnknownFields());
             processClientHandshake(message.getHandshakeHello(), message.getHandshakeVerification(), ctx);
         }
     }
@@ -91,6 +98,7 @@ private void processClientHandshake(NetData.HandshakeHello clientHello, NetData.
                         .setSignature(ByteString.copyFrom(serverSignature))).build());
 
         // Identity has been established, inform the server handler and withdraw from the pipeline
+        enableCompression(ctx);
         ctx.pipeline().remove(this);
         serverConnectionHandler.channelAuthenticated(clientCert);
     }
@@ -127,6 +135,7 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
                     .build());
 
             // Identity has been established, inform the server handler and withdraw from the pipeline
+            enableCompression(ctx);
             ctx.pipeline().remove(this);
             serverConnectionHandler.channelAuthenticated(clientCertificates.getPublicCert());
         } catch (BadEncryptedDataException e) {
@@ -134,4 +143,34 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
             ctx.channel().close();
         }
     }
+
+    private void readFrameCodecs(UnknownFieldSet fields) {
+        for (long id : NetMessageUtil.getValues(fields, NetMessageUtil.FRAME_CODECS_FIELD)) {
+            FrameCodec codec = id >= 0 && id <= 0xFF ? FrameCodec.forId((byte) id) : null;
+            if (codec != null) {
+                clientCodecs.add(codec);
+            }
+        }
+    }
+
+    /**
+     * Compresses the frames sent from now on with the configured codec, if the client listed it among the codecs it
+     * can decode in its handshake, and sends them uncompressed otherwise. The handshake itself is sent uncompressed.
+     */
+    private void enableCompression(ChannelHandlerContext ctx) {
+        CompressionEncoder encoder = ctx.pipeline().get(CompressionEncoder.class);
+        if (encoder != null) {
+            String codecName = config.getNetwork().getFrameCompression();
+            FrameCodec codec = FrameCodec.forName(codecName);
+            if (codec == null) {
+                logger.warn("Unknown frame compression '{}', using deflate", codecName);
+                codec = FrameCodec.DEFLATE;
+            }
+            if (!clientCodecs.contains(codec)) {
+                logger.info("Client cannot decode frame compression {}, sending uncompressed frames", codec);
+                codec = FrameCodec.NONE;
+            }
+            encoder.setCodec(codec);
+        }
+    }
 }
@@ -53,6 +53,7 @@
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -87,6 +88,18 @@ public class ServerImpl implements Server {
     private SetMultimap<Integer, Class<? extends Component>> changedComponents = HashMultimap.create();
     private ListMultimap<Vector3i, NetData.BlockChangeMessage> awaitingChunkReadyBlockUpdates = ArrayListMultimap.create();
     private ListMultimap<Vector3i, NetData.ExtraDataChangeMessage> awaitingChunkReadyExtraDataUpdates = ArrayListMultimap.create();
+    /* the chunks which stopped being relevant, kept so that the server can send just their changes when they become
+     * relevant again; the server keeps track of them in a RemoteChunkCache */
+    private Map<Vector3i, EntityData.ChunkStore> cachedChunks =
+            new LinkedHashMap<Vector3i, EntityData.ChunkStore>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Vector3i, EntityData.ChunkStore> eldest) {
+                    return size() > RemoteChunkCache.CAPACITY;
+                }
+            };
+    private List<Vector3i> missingCachedChunks = Lists.newArrayList();
+    /* whether the server sends the cached chunks with only their position, as told in its join complete message */
+    private boolean cachesChunks;
 
     private EngineTime time;
 
@@ -116,6 +129,10 @@ void setClientId(int id) {
         clientEntityNetId = id;
     }
 
+    void setCachesChunks(boolean cachesChunks) {
+        this.cachesChunks = cachesChunks;
+    }
+
     @Override
     public EntityRef getClientEntity() {
         return networkSystem.getEntity(clientEntityNetId);
@@ -163,6 +180,7 @@ public void update(boolean netTick) {
                 message.setTime(time.getGameTimeInMs());
                 sendEntities(message);
                 sendEvents(message);
+                sendChunkRequests(message);
                 send(message.build());
             } else if (!queuedOutgoingEvents.isEmpty()) {
                 NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
@@ -180,6 +198,16 @@ private void sendEvents(NetData.NetMessage.Builder message) {
         queuedOutgoingEvents.clear();
     }
 
+    /**
+     * Asks the server for the whole chunks it expected to be cached here, but which were evicted already.
+     */
+    private void sendChunkRequests(NetData.NetMessage.Builder message) {
+        for (Vector3i pos : missingCachedChunks) {
+            message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder().setPos(NetMessageUtil.convert(pos)));
+        }
+        missingCachedChunks.clear();
+    }
+
     private void processReceivedChunks() {
         if (remoteWorldProvider != null) {
             List<Chunk> chunks = Lists.newArrayListWithExpectedSize(chunkQueue.size());
@@ -255,6 +283,7 @@ private void processMessages() {
             processInvalidatedChunks(message);
             processBlockChanges(message);
             processExtraDataChanges(message);
+            cacheInvalidatedChunks(message);
             processRemoveEntities(message);
             message.getCreateEntityList().forEach(this::createEntityMessage);
             message.getUpdateEntityList().forEach(this::updateEntity);
@@ -322,9 +351,42 @@ private void processInvalidatedChunks(NetData.NetMessage message) {
         }
     }
 
+    /**
+     * Keeps the invalidated chunks, after the block changes sent along with their invalidation have been applied.
+     */
+    private void cacheInvalidatedChunks(NetData.NetMessage message) {
+        if (!cachesChunks) {
+            return;
+        }
+        for (NetData.InvalidateChunkMessage invalidateChunk : message.getInvalidateChunkList()) {
+            Vector3i chunkPos = NetMessageUtil.convert(invalidateChunk.getPos());
+            Chunk chunk = remoteWorldProvider.getChunk(chunkPos);
+            if (chunk != null) {
+                cachedChunks.put(chunkPos, chunk.encode().build());
+            } else {
+                cachedChunks.remove(chunkPos);
+            }
+        }
+    }
+
+    /**
+     * Decodes the chunks received in the message. Chunks without block data were cached here before, and are only
+     * followed by the block changes which happened since.
+     */
     private void processReceivedChunks(NetData.NetMessage message) {
         for (EntityData.ChunkStore chunkInfo : message.getChunkInfoList()) {
-            Chunk chunk = ChunkSerializer.decode(chunkInfo, blockManager, extraDataManager);
+            Vector3i chunkPos = new Vector3i(chunkInfo.getX(), chunkInfo.getY(), chunkInfo.getZ());
+            EntityData.ChunkStore chunkStore = chunkInfo;
+            if (cachesChunks && !chunkInfo.hasBlockData()) {
+                chunkStore = cachedChunks.remove(chunkPos);
+                if (chunkStore == null) {
+                    missingCachedChunks.add(chunkPos);
+                    continue;
+                }
+            } else {
+                cachedChunks.remove(chunkPos);
+            }
+            Chunk chunk = ChunkSerializer.decode(chunkStore, blockManager, extraDataManager);
             chunkQueue.offer(chunk);
         }
     }
@@ -39,7 +39,6 @@
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -48,7 +47,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -68,31 +66,65 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageMode chunkStorageMode;
+    private final RegionFileStore regionFileStore;
+    private final ChunkCodecRegistry chunkCodecRegistry;
+
+    /**
+     * True while the world directory may still contain chunks that are not stored in region files.
+     */
+    private volatile boolean legacyChunksPresent;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageMode chunkStorageMode) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.extraDataManager = extraDataManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.regionFileStore = new RegionFileStore(storagePathProvider);
+        this.chunkCodecRegistry = new ChunkCodecRegistry(storagePathProvider.getChunkDictionariesPath());
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+        if (chunkStorageMode == ChunkStorageMode.REGION_FILES) {
+            try {
+                this.legacyChunksPresent = RegionFileMigrator.hasLegacyChunks(storagePathProvider);
+            } catch (IOException e) {
+                logger.error("Failed to check for chunks that are not stored in region files", e);
+                this.legacyChunksPresent = true;
+            }
+        }
     }
 
     @Override
     public void loadGlobalStore() throws IOException {
+        EntityData.GlobalStore store = loadGlobalStoreData();
+        if (store != null) {
+            GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
+            loader.load(store);
+        }
+    }
+
+    /**
+     * @return the stored global store, or null if there is none.
+     */
+    protected EntityData.GlobalStore loadGlobalStoreData() throws IOException {
         Path globalDataFile = storagePathProvider.getGlobalEntityStorePath();
         if (Files.isRegularFile(globalDataFile)) {
             try (InputStream in = new BufferedInputStream(Files.newInputStream(globalDataFile))) {
-                EntityData.GlobalStore store = EntityData.GlobalStore.parseFrom(in);
-                GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
-                loader.load(store);
+                return EntityData.GlobalStore.parseFrom(in);
             }
         }
+        return null;
     }
 
     @Override
@@ -109,12 +141,11 @@ public ChunkStore loadChunkStore(Vector3ic chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(chunkCodecRegistry.decode(chunkData));
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, extraDataManager);
             } catch (IOException e) {
-                logger.error("Failed to read existing saved chunk {}", chunkPos);
+                logger.error("Failed to read existing saved chunk {}", chunkPos, e);
             }
         }
         return store;
@@ -141,32 +172,66 @@ protected byte[] loadChunkZip(Vector3ic chunkPos) {
     public void update() {
     }
 
+    protected byte[] loadChunkFromRegionFile(Vector3ic chunkPos) {
+        try {
+            return regionFileStore.read(chunkPos);
+        } catch (IOException e) {
+            logger.error("Failed to load chunk {} from its region file", chunkPos, e);
+        }
+        return null;
+    }
+
+    protected byte[] loadChunkFile(Vector3ic chunkPos) {
+        Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
+        if (Files.isRegularFile(chunkPath)) {
+            try {
+                return Files.readAllBytes(chunkPath);
+            } catch (IOException e) {
+                logger.error("Failed to load chunk {}", chunkPos, e);
+            }
+        }
+        return null;
+    }
+
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStorageMode == ChunkStorageMode.ZIP_BUNDLES;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips);
+    }
+
+    public ChunkStorageMode getChunkStorageMode() {
+        return chunkStorageMode;
+    }
+
+    /**
+     * For tests only
+     */
+    void setChunkStorageMode(ChunkStorageMode chunkStorageMode) {
+        this.chunkStorageMode = chunkStorageMode;
     }
 
     protected byte[] loadCompressedChunk(Vector3ic chunkPos) {
-        if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
-        } else {
-            Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
-            if (Files.isRegularFile(chunkPath)) {
-                try {
-                    return Files.readAllBytes(chunkPath);
-                } catch (IOException e) {
-                    logger.error("Failed to load chunk {}", chunkPos, e);
+        switch (chunkStorageMode) {
+            case ZIP_BUNDLES:
+                return loadChunkZip(chunkPos);
+            case REGION_FILES:
+                byte[] chunkData = loadChunkFromRegionFile(chunkPos);
+                if (chunkData == null && legacyChunksPresent) {
+                    // the save has not been migrated to region files yet
+                    chunkData = loadChunkZip(chunkPos);
+                    if (chunkData == null) {
+                        chunkData = loadChunkFile(chunkPos);
+                    }
                 }
-            }
+                return chunkData;
+            default:
+                return loadChunkFile(chunkPos);
         }
-
-        return null;
     }
 
     protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
@@ -223,6 +288,22 @@ protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
 
+    protected ChunkCodecRegistry getChunkCodecRegistry() {
+        return chunkCodecRegistry;
+    }
+
+    protected RegionFileStore getRegionFileStore() {
+        return regionFileStore;
+    }
+
+    protected boolean isLegacyChunksPresent() {
+        return legacyChunksPresent;
+    }
+
+    protected void setLegacyChunksPresent(boolean legacyChunksPresent) {
+        this.legacyChunksPresent = legacyChunksPresent;
+    }
+
     protected ModuleEnvironment getEnvironment() {
         return environment;
     }
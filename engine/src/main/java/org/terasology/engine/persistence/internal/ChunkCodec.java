@@ -0,0 +1,28 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import java.io.IOException;
+
+/**
+ * Compresses the serialized form of chunks before they get stored.
+ * <br><br>
+ * Every stored chunk starts with a header that contains the id of the codec that wrote it, see
+ * {@link ChunkCodecRegistry}. Implementations need to be thread safe.
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return the id that gets written into the header of stored chunks. Must never change once chunks got stored.
+     */
+    byte getId();
+
+    /**
+     * @return the name under which the codec can be selected for a world.
+     */
+    String getName();
+
+    byte[] compress(byte[] data);
+
+    byte[] decompress(byte[] data, int offset, int length) throws IOException;
+}
@@ -0,0 +1,85 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Maps;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Knows the {@link ChunkCodec}s of a world and the header format of stored chunks.
+ * <br><br>
+ * A stored chunk starts with the bytes 'T' 'C' followed by the id of the codec that compressed the rest of the data.
+ * Chunks without that header got stored before codecs got introduced and are plain gzip data.
+ */
+public class ChunkCodecRegistry {
+    public static final String DEFAULT_CODEC = GzipChunkCodec.NAME;
+
+    private static final byte MAGIC_0 = 'T';
+    private static final byte MAGIC_1 = 'C';
+    private static final int HEADER_SIZE = 3;
+
+    private final ChunkCodec[] codecsById = new ChunkCodec[256];
+    private final Map<String, ChunkCodec> codecsByName = Maps.newHashMap();
+
+    /**
+     * @param dictionaryDirectory the directory in which {@link DictionaryChunkCodec} keeps the dictionaries of the
+     *                            world, or null if no dictionaries should be trained.
+     */
+    public ChunkCodecRegistry(Path dictionaryDirectory) {
+        register(new GzipChunkCodec());
+        register(new UncompressedChunkCodec());
+        register(new DictionaryChunkCodec(dictionaryDirectory));
+    }
+
+    public final void register(ChunkCodec codec) {
+        int id = codec.getId() & 0xFF;
+        if (codecsById[id] != null) {
+            throw new IllegalArgumentException("Codec id " + id + " is used by " + codecsById[id].getName()
+                    + " and " + codec.getName());
+        }
+        codecsById[id] = codec;
+        codecsByName.put(codec.getName(), codec);
+    }
+
+    /**
+     * @return the codec with the given name or null if there is none.
+     */
+    public ChunkCodec getCodec(String name) {
+        return codecsByName.get(name);
+    }
+
+    public ChunkCodec getDefaultCodec() {
+        return codecsByName.get(DEFAULT_CODEC);
+    }
+
+    /**
+     * @return the compressed data prefixed by the header that identifies the codec.
+     */
+    public static byte[] encode(ChunkCodec codec, byte[] data) {
+        byte[] compressed = codec.compress(data);
+        byte[] result = new byte[HEADER_SIZE + compressed.length];
+        result[0] = MAGIC_0;
+        result[1] = MAGIC_1;
+        result[2] = codec.getId();
+        System.arraycopy(compressed, 0, result, HEADER_SIZE, compressed.length);
+        return result;
+    }
+
+    /**
+     * @param storedChunk data created by {@link #encode(ChunkCodec, byte[])} or by a version that always used gzip.
+     * @return the decompressed data.
+     */
+    public byte[] decode(byte[] storedChunk) throws IOException {
+        if (storedChunk.length < HEADER_SIZE || storedChunk[0] != MAGIC_0 || storedChunk[1] != MAGIC_1) {
+            return getCodec(GzipChunkCodec.NAME).decompress(storedChunk, 0, storedChunk.length);
+        }
+        ChunkCodec codec = codecsById[storedChunk[2] & 0xFF];
+        if (codec == null) {
+            throw new IOException("Chunk got stored with the unknown codec " + (storedChunk[2] & 0xFF));
+        }
+        return codec.decompress(storedChunk, HEADER_SIZE, storedChunk.length - HEADER_SIZE);
+    }
+}
@@ -0,0 +1,115 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds a dictionary for {@link LzDictionaryCompression} out of sample chunks.
+ * <br><br>
+ * Every sample gets split into segments. Segments score high if the byte sequences they contain appear in many
+ * samples. The best scoring distinct segments get concatenated, with the best ones at the end of the dictionary, where
+ * the offsets to them are the smallest.
+ */
+public final class ChunkDictionaryTrainer {
+    private static final int GRAM_SIZE = 8;
+    private static final int SEGMENT_SIZE = 64;
+
+    private ChunkDictionaryTrainer() {
+    }
+
+    public static byte[] train(List<byte[]> samples, int maxSize) {
+        TLongIntMap sampleCountPerGram = countSamplesPerGram(samples);
+
+        List<Segment> segments = Lists.newArrayList();
+        for (byte[] sample : samples) {
+            for (int start = 0; start + SEGMENT_SIZE <= sample.length; start += SEGMENT_SIZE) {
+                int score = 0;
+                for (int i = start; i + GRAM_SIZE <= start + SEGMENT_SIZE; i++) {
+                    int count = sampleCountPerGram.get(readGram(sample, i));
+                    if (count > 1) {
+                        score += count;
+                    }
+                }
+                if (score > 0) {
+                    segments.add(new Segment(sample, start, score));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingInt((Segment segment) -> segment.score).reversed());
+
+        List<Segment> selected = Lists.newArrayList();
+        TLongSet selectedContent = new TLongHashSet();
+        int size = 0;
+        for (Segment segment : segments) {
+            if (size + SEGMENT_SIZE > maxSize) {
+                break;
+            }
+            if (selectedContent.add(segment.contentHash())) {
+                selected.add(segment);
+                size += SEGMENT_SIZE;
+            }
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            Segment segment = selected.get(i);
+            dictionary.write(segment.sample, segment.start, SEGMENT_SIZE);
+        }
+        return dictionary.toByteArray();
+    }
+
+    private static TLongIntMap countSamplesPerGram(List<byte[]> samples) {
+        TLongIntMap sampleCountPerGram = new TLongIntHashMap();
+        TLongSet gramsOfSample = new TLongHashSet();
+        for (byte[] sample : samples) {
+            gramsOfSample.clear();
+            for (int i = 0; i + GRAM_SIZE <= sample.length; i++) {
+                gramsOfSample.add(readGram(sample, i));
+            }
+            gramsOfSample.forEach(gram -> {
+                sampleCountPerGram.adjustOrPutValue(gram, 1, 1);
+                return true;
+            });
+        }
+        return sampleCountPerGram;
+    }
+
+    private static long readGram(byte[] data, int pos) {
+        long gram = 0;
+        for (int i = 0; i < GRAM_SIZE; i++) {
+            gram = gram << 8 | (data[pos + i] & 0xFF);
+        }
+        return gram;
+    }
+
+    private static final class Segment {
+        private final byte[] sample;
+        private final int start;
+        private final int score;
+
+        private Segment(byte[] sample, int start, int score) {
+            this.sample = sample;
+            this.start = start;
+            this.score = score;
+        }
+
+        private long contentHash() {
+            // 64 bit FNV-1a
+            long hash = 0xcbf29ce484222325L;
+            for (int i = start; i < start + SEGMENT_SIZE; i++) {
+                hash ^= sample[i] & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+/**
+ * Describes how the compressed chunks of a world are laid out in the world directory.
+ */
+public enum ChunkStorageMode {
+    /**
+     * Every chunk gets stored in a file of its own.
+     */
+    FILE_PER_CHUNK,
+    /**
+     * Chunks get bundled into zip files, which get rewritten completely whenever one of their chunks changes.
+     */
+    ZIP_BUNDLES,
+    /**
+     * Chunks get packed into pre-allocated region files with a sector table. Changed chunks get rewritten in place.
+     *
+     * @see RegionFile
+     */
+    REGION_FILES;
+
+    /**
+     * @return the mode that matches the legacy "store chunks in zips" flag.
+     */
+    public static ChunkStorageMode fromStoreChunksInZips(boolean storeChunksInZips) {
+        return storeChunksInZips ? ZIP_BUNDLES : FILE_PER_CHUNK;
+    }
+}
@@ -17,88 +17,74 @@
 
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
 import org.terasology.protobuf.EntityData;
-import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
- * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
- * or it must be an unloaded chunk which no longer changes.
+ * Provides an easy to get a compressed version of a chunk. The chunk data gets encoded from a {@link ChunkSnapshot},
+ * so the chunk can keep changing (or get unloaded) while the result is built on another thread.
  *
  */
 public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
-    private ChunkImpl chunk;
-    private boolean viaSnapshot;
+    private ChunkSnapshot snapshot;
+    private ChunkCodec codec;
     private byte[] result;
     private Set<EntityRef> storedEntities;
 
     /**
      *
+     * @param snapshot       snapshot of the chunk data to be stored.
      * @param entitiesToSave all persistent entities within the given chunk
-     * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
-     *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
-     *                      possible.
+     * @param codec         the codec used to compress the chunk.
      */
-    public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
-                                  Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+    public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkSnapshot snapshot,
+                                  Collection<EntityRef> entitiesToSave, ChunkCodec codec) {
         EntityStorer storer = new EntityStorer(entityManager);
         entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
         storedEntities = storer.getStoredEntities();
         this.entityStore = storer.finaliseStore();
 
-        this.chunk = chunk;
-        this.viaSnapshot = !chunkUnloaded;
-        if (viaSnapshot) {
-            this.chunk.createSnapshot();
-        }
+        this.snapshot = snapshot;
+        this.codec = codec;
     }
 
     /**
      *
      * @param entityStore encoded entities to be stored.
-     * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
-     * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param snapshot    snapshot of the chunk data to be stored.
+     * @param codec       the codec used to compress the chunk.
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkSnapshot snapshot, ChunkCodec codec) {
         this.entityStore = entityStore;
-        this.chunk = chunk;
-        this.viaSnapshot = viaSnapshot;
+        this.snapshot = snapshot;
+        this.codec = codec;
+    }
+
+    /**
+     * @param encodedChunk a chunk that got encoded by {@link #buildEncodedChunk()} before.
+     */
+    public CompressedChunkBuilder(byte[] encodedChunk) {
+        this.result = encodedChunk;
+        this.storedEntities = Collections.emptySet();
     }
 
     public synchronized byte[] buildEncodedChunk() {
         if (result == null) {
-
-            EntityData.ChunkStore.Builder encoded;
-            if (viaSnapshot) {
-                encoded = chunk.encodeAndReleaseSnapshot();
-            } else {
-                encoded = chunk.encode();
-            }
+            EntityData.ChunkStore.Builder encoded = snapshot.encode();
             encoded.setStore(entityStore);
             EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            result = ChunkCodecRegistry.encode(codec, store.toByteArray());
+            // no longer keep the chunk data alive, the result is all that is needed from now on
+            snapshot = null;
         }
         return result;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
-    }
-
     public Set<EntityRef> getStoredEntities() {
         return storedEntities;
     }
@@ -0,0 +1,165 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compresses chunks with {@link LzDictionaryCompression} using a dictionary that got trained on the chunks of the
+ * world.
+ * <br><br>
+ * Until a dictionary exists, chunks get compressed without one and the first {@link #SAMPLE_COUNT} chunks get
+ * collected as samples. Once enough samples are there, a dictionary gets trained with {@link ChunkDictionaryTrainer}
+ * and gets stored in the dictionary directory before any chunk that uses it gets compressed. Dictionaries are
+ * identified by their checksum, which every compressed chunk contains, so chunks compressed with an older dictionary
+ * stay readable.
+ */
+public class DictionaryChunkCodec implements ChunkCodec {
+    public static final byte ID = 3;
+    public static final String NAME = "lz-dict";
+
+    static final int SAMPLE_COUNT = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryChunkCodec.class);
+    private static final String DICTIONARY_EXTENSION = ".dict";
+    private static final int NO_DICTIONARY = 0;
+    private static final int HEADER_SIZE = 8;
+
+    private final Path dictionaryDirectory;
+    private final Map<Integer, byte[]> dictionaries = Maps.newConcurrentMap();
+    private final List<byte[]> samples = Lists.newArrayList();
+    private volatile int currentDictionaryId = NO_DICTIONARY;
+    private volatile boolean training;
+
+    /**
+     * @param dictionaryDirectory the directory the dictionaries get stored in. If null no dictionary gets trained.
+     */
+    public DictionaryChunkCodec(Path dictionaryDirectory) {
+        this.dictionaryDirectory = dictionaryDirectory;
+        this.training = dictionaryDirectory != null;
+        dictionaries.put(NO_DICTIONARY, new byte[0]);
+        if (dictionaryDirectory != null && Files.isDirectory(dictionaryDirectory)) {
+            loadDictionaries();
+        }
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Makes the given dictionary the one used for compressing. The dictionary does not get stored.
+     */
+    public void useDictionary(byte[] dictionary) {
+        int id = getDictionaryId(dictionary);
+        dictionaries.put(id, dictionary);
+        currentDictionaryId = id;
+        training = false;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        if (training) {
+            addSample(data);
+        }
+        int dictionaryId = currentDictionaryId;
+        byte[] compressed = LzDictionaryCompression.compress(dictionaries.get(dictionaryId), data);
+        ByteBuffer result = ByteBuffer.allocate(HEADER_SIZE + compressed.length);
+        result.putInt(dictionaryId);
+        result.putInt(data.length);
+        result.put(compressed);
+        return result.array();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length) throws IOException {
+        if (length < HEADER_SIZE) {
+            throw new IOException("Compressed chunk is truncated");
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, offset, HEADER_SIZE);
+        int dictionaryId = header.getInt();
+        int decompressedLength = header.getInt();
+        byte[] dictionary = dictionaries.get(dictionaryId);
+        if (dictionary == null) {
+            throw new IOException("Chunk got compressed with the unknown dictionary " + Integer.toHexString(dictionaryId));
+        }
+        return LzDictionaryCompression.decompress(dictionary, data, offset + HEADER_SIZE, length - HEADER_SIZE,
+                decompressedLength);
+    }
+
+    private void addSample(byte[] data) {
+        synchronized (samples) {
+            if (!training) {
+                return;
+            }
+            samples.add(data.clone());
+            if (samples.size() < SAMPLE_COUNT) {
+                return;
+            }
+            byte[] dictionary = ChunkDictionaryTrainer.train(samples, LzDictionaryCompression.MAX_DICTIONARY_SIZE);
+            samples.clear();
+            training = false;
+            try {
+                storeDictionary(dictionary);
+                useDictionary(dictionary);
+                logger.info("Trained chunk compression dictionary of {} bytes", dictionary.length);
+            } catch (IOException e) {
+                logger.error("Failed to store chunk compression dictionary, chunks get compressed without one", e);
+            }
+        }
+    }
+
+    private void storeDictionary(byte[] dictionary) throws IOException {
+        Files.createDirectories(dictionaryDirectory);
+        Path target = dictionaryDirectory.resolve(Integer.toHexString(getDictionaryId(dictionary)) + DICTIONARY_EXTENSION);
+        Path temp = dictionaryDirectory.resolve(target.getFileName() + ".tmp");
+        Files.write(temp, dictionary);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void loadDictionaries() {
+        FileTime newest = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dictionaryDirectory, "*" + DICTIONARY_EXTENSION)) {
+            for (Path file : files) {
+                byte[] dictionary = Files.readAllBytes(file);
+                int id = getDictionaryId(dictionary);
+                dictionaries.put(id, dictionary);
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (newest == null || modified.compareTo(newest) > 0) {
+                    newest = modified;
+                    currentDictionaryId = id;
+                    training = false;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to load chunk compression dictionaries from {}", dictionaryDirectory, e);
+        }
+    }
+
+    private static int getDictionaryId(byte[] dictionary) {
+        CRC32 crc = new CRC32();
+        crc.update(dictionary);
+        int id = (int) crc.getValue();
+        return id == NO_DICTIONARY ? 1 : id;
+    }
+}
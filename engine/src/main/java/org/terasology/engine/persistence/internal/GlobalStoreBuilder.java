@@ -42,6 +42,13 @@ final class GlobalStoreBuilder {
         this.prefabSerializer = prefabSerializer;
     }
     
+    /**
+     * @return the next entity id at the time this builder got created, which gets stored.
+     */
+    public long getNextEntityId() {
+        return nextEntityId;
+    }
+
     public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<EntityRef> entities) {
         EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
 
@@ -0,0 +1,178 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A fast LZ77 compression in the style of LZ4 that can use a preset dictionary.
+ * <br><br>
+ * The dictionary is treated as if it preceded the data, so matches can reference it. This makes even small inputs
+ * like chunks with few block types compress well, as the protobuf structure they share is found in the dictionary.
+ * <br><br>
+ * The data is a sequence of tokens. The high nibble of a token is the number of literals that follow, the low nibble
+ * the length of the following match minus {@link #MIN_MATCH}. A nibble value of 15 means that more length bytes
+ * follow, which get added up until a byte different from 255. The literals are followed by the 2 byte little endian
+ * offset of the match. The last token only contains literals.
+ */
+public final class LzDictionaryCompression {
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_LOG = 14;
+    private static final int RUN_MASK = 15;
+
+    private LzDictionaryCompression() {
+    }
+
+    public static byte[] compress(byte[] dictionary, byte[] input) {
+        if (dictionary.length > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Dictionary exceeds " + MAX_DICTIONARY_SIZE + " bytes");
+        }
+        int dictionaryLength = dictionary.length;
+        byte[] window = new byte[dictionaryLength + input.length];
+        System.arraycopy(dictionary, 0, window, 0, dictionaryLength);
+        System.arraycopy(input, 0, window, dictionaryLength, input.length);
+
+        byte[] out = new byte[input.length + input.length / 255 + 16];
+        int outPos = 0;
+
+        int[] table = new int[1 << HASH_LOG];
+        Arrays.fill(table, -1);
+        for (int i = 0; i + MIN_MATCH <= dictionaryLength; i++) {
+            table[hash(window, i)] = i;
+        }
+
+        int end = window.length;
+        int anchor = dictionaryLength;
+        int pos = dictionaryLength;
+        while (pos + MIN_MATCH <= end) {
+            int h = hash(window, pos);
+            int ref = table[h];
+            table[h] = pos;
+            if (ref >= 0 && pos - ref <= MAX_OFFSET && readInt(window, ref) == readInt(window, pos)) {
+                int matchLength = MIN_MATCH;
+                while (pos + matchLength < end && window[ref + matchLength] == window[pos + matchLength]) {
+                    matchLength++;
+                }
+                outPos = writeSequence(out, outPos, window, anchor, pos - anchor, pos - ref, matchLength);
+                pos += matchLength;
+                anchor = pos;
+            } else {
+                pos++;
+            }
+        }
+        outPos = writeLiterals(out, outPos, window, anchor, end - anchor, 0);
+        return Arrays.copyOf(out, outPos);
+    }
+
+    public static byte[] decompress(byte[] dictionary, byte[] data, int offset, int length, int decompressedLength)
+            throws IOException {
+        int dictionaryLength = dictionary.length;
+        byte[] window = new byte[dictionaryLength + decompressedLength];
+        System.arraycopy(dictionary, 0, window, 0, dictionaryLength);
+
+        int pos = offset;
+        int end = offset + length;
+        int outPos = dictionaryLength;
+        while (pos < end) {
+            int token = data[pos++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int lengthByte;
+                do {
+                    checkAvailable(pos, end);
+                    lengthByte = data[pos++] & 0xFF;
+                    literalLength += lengthByte;
+                } while (lengthByte == 255);
+            }
+            if (pos + literalLength > end || outPos + literalLength > window.length) {
+                throw new IOException("Corrupt compressed chunk: literals exceed the data");
+            }
+            System.arraycopy(data, pos, window, outPos, literalLength);
+            pos += literalLength;
+            outPos += literalLength;
+            if (pos == end) {
+                break;
+            }
+
+            checkAvailable(pos + 1, end);
+            int matchOffset = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+            pos += 2;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int lengthByte;
+                do {
+                    checkAvailable(pos, end);
+                    lengthByte = data[pos++] & 0xFF;
+                    matchLength += lengthByte;
+                } while (lengthByte == 255);
+            }
+            matchLength += MIN_MATCH;
+            int ref = outPos - matchOffset;
+            if (matchOffset == 0 || ref < 0 || outPos + matchLength > window.length) {
+                throw new IOException("Corrupt compressed chunk: invalid match");
+            }
+            // The match may overlap the bytes it produces, so it has to be copied byte by byte
+            for (int i = 0; i < matchLength; i++) {
+                window[outPos++] = window[ref++];
+            }
+        }
+        if (outPos != window.length) {
+            throw new IOException("Corrupt compressed chunk: expected " + decompressedLength + " bytes but got "
+                    + (outPos - dictionaryLength));
+        }
+        return Arrays.copyOfRange(window, dictionaryLength, window.length);
+    }
+
+    private static int writeSequence(byte[] out, int outPos, byte[] window, int literalStart, int literalLength,
+                                     int matchOffset, int matchLength) {
+        int matchRun = matchLength - MIN_MATCH;
+        int pos = writeLiterals(out, outPos, window, literalStart, literalLength, Math.min(matchRun, RUN_MASK));
+        out[pos++] = (byte) matchOffset;
+        out[pos++] = (byte) (matchOffset >>> 8);
+        if (matchRun >= RUN_MASK) {
+            pos = writeLength(out, pos, matchRun - RUN_MASK);
+        }
+        return pos;
+    }
+
+    private static int writeLiterals(byte[] out, int outPos, byte[] window, int literalStart, int literalLength,
+                                     int matchNibble) {
+        int pos = outPos;
+        out[pos++] = (byte) (Math.min(literalLength, RUN_MASK) << 4 | matchNibble);
+        if (literalLength >= RUN_MASK) {
+            pos = writeLength(out, pos, literalLength - RUN_MASK);
+        }
+        System.arraycopy(window, literalStart, out, pos, literalLength);
+        return pos + literalLength;
+    }
+
+    private static int writeLength(byte[] out, int outPos, int length) {
+        int pos = outPos;
+        int remaining = length;
+        while (remaining >= 255) {
+            out[pos++] = (byte) 255;
+            remaining -= 255;
+        }
+        out[pos++] = (byte) remaining;
+        return pos;
+    }
+
+    private static void checkAvailable(int pos, int end) throws IOException {
+        if (pos >= end) {
+            throw new IOException("Corrupt compressed chunk: unexpected end of data");
+        }
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | data[pos + 3] << 24;
+    }
+
+    private static int hash(byte[] data, int pos) {
+        return (readInt(data, pos) * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -44,6 +44,12 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
         super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
     }
 
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageMode chunkStorageMode) {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageMode);
+    }
+
     @Override
     public void finishSavingAndShutdown() {
         // don't care
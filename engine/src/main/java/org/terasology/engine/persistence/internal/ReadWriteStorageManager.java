@@ -3,6 +3,7 @@
 package org.terasology.engine.persistence.internal;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
@@ -83,15 +84,28 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private final ReadWriteLock worldDirectoryLock = new ReentrantReadWriteLock(true);
     private final Lock worldDirectoryReadLock = worldDirectoryLock.readLock();
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
+    private final SaveJournal saveJournal;
+    private final StoredEntityIndex storedEntityIndex = new StoredEntityIndex();
     private SaveTransaction saveTransaction;
     private Config config;
     private SystemConfig systemConfig;
+    private ChunkCodec chunkCodec;
 
     /**
      * Time of the next save in the format that {@link System#currentTimeMillis()} returns.
      */
     private Long nextAutoSave;
+    /**
+     * Time of the next full save of a game that gets saved into the save journal, in the format that
+     * {@link System#currentTimeMillis()} returns.
+     */
+    private Long nextCompaction;
     private boolean saveRequested;
+    /**
+     * The versions of the loaded chunks when they got saved the last time.
+     */
+    private Map<Chunk, Long> storedChunkVersions = new MapMaker().weakKeys().makeMap();
+    private Map<Chunk, Long> savingChunkVersions = new MapMaker().weakKeys().makeMap();
     private ConcurrentMap<Vector3ic, CompressedChunkBuilder> unloadedAndUnsavedChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<Vector3ic, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
@@ -120,15 +134,27 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
                                    BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
                                    RecordAndReplaySerializer recordAndReplaySerializer, RecordAndReplayUtils recordAndReplayUtils,
                             RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips), recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                   ChunkStorageMode chunkStorageMode, RecordAndReplaySerializer recordAndReplaySerializer,
+                                   RecordAndReplayUtils recordAndReplayUtils,
+                                   RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageMode);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
-        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider(), getRegionFileStoreIfUsed());
+        this.saveJournal = new SaveJournal(getStoragePathProvider().getSaveJournalPath());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
+        this.chunkCodec = getChunkCodecRegistry().getDefaultCodec();
         this.config = CoreRegistry.get(Config.class);
         this.systemConfig = CoreRegistry.get((SystemConfig.class));
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
@@ -140,6 +166,23 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
 
     }
 
+    /**
+     * Selects the codec that compresses chunks when they get stored. Stored chunks remember their codec, so the codec
+     * can change at any time.
+     *
+     * @param codecName the name of a codec known by the {@link ChunkCodecRegistry} or null for the default codec.
+     */
+    public void setChunkCodec(String codecName) {
+        ChunkCodec codec = codecName != null ? getChunkCodecRegistry().getCodec(codecName) : null;
+        if (codec == null) {
+            if (codecName != null) {
+                logger.warn("Unknown chunk codec '{}', using '{}' instead", codecName, ChunkCodecRegistry.DEFAULT_CODEC);
+            }
+            codec = getChunkCodecRegistry().getDefaultCodec();
+        }
+        this.chunkCodec = codec;
+    }
+
     private static EngineEntityManager createPrivateEntityManager(ComponentLibrary componentLibrary) {
         PojoEntityManager pojoEntityManager = new PojoEntityManager();
         pojoEntityManager.setComponentLibrary(componentLibrary);
@@ -154,6 +197,19 @@ public void finishSavingAndShutdown() {
         }
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        getRegionFileStore().close();
+        try {
+            saveJournal.close();
+        } catch (IOException e) {
+            logger.error("Failed to close the save journal", e);
+        }
+    }
+
+    /**
+     * @return the region file store if chunks are stored in region files, null otherwise.
+     */
+    private RegionFileStore getRegionFileStoreIfUsed() {
+        return getChunkStorageMode() == ChunkStorageMode.REGION_FILES ? getRegionFileStore() : null;
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -162,8 +218,12 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
             if (result != null) {
                 Throwable t = saveTransaction.getResult().getCatchedThrowable();
                 if (t != null) {
+                    storedChunkVersions.clear();
+                    savingChunkVersions.clear();
                     throw new RuntimeException("Saving failed", t);
                 }
+                storedChunkVersions.putAll(savingChunkVersions);
+                savingChunkVersions.clear();
                 saveTransaction = null;
             }
             unloadedAndSavingChunkMap.clear();
@@ -197,6 +257,13 @@ protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
         }
         worldDirectoryReadLock.lock();
         try {
+            byte[] journaledPlayer = saveJournal.readPlayer(playerId);
+            if (journaledPlayer != null) {
+                return EntityData.PlayerStore.parseFrom(journaledPlayer);
+            }
+            return super.loadPlayerStoreData(playerId);
+        } catch (IOException e) {
+            logger.error("Failed to load player {} from the save journal", playerId, e);
             return super.loadPlayerStoreData(playerId);
         } finally {
             worldDirectoryReadLock.unlock();
@@ -223,6 +290,11 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             unloadedAndSavingChunkMap.remove(chunk.getPosition(new Vector3i()));
             ChunkImpl chunkImpl = (ChunkImpl) chunk;  // this storage manager can only work with ChunkImpls
             saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            Long storedVersion = storedChunkVersions.get(chunk);
+            if (storedVersion != null && storedVersion == chunk.getVersion()) {
+                saveTransactionBuilder.addUnchangedChunk(chunk.getPosition());
+            }
+            savingChunkVersions.put(chunk, chunk.getVersion());
         });
 
         for (Map.Entry<Vector3ic, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
@@ -241,6 +313,17 @@ public void waitForCompletionOfPreviousSaveAndStartSaving() {
         startSaving();
     }
 
+    /**
+     * Starts a save that only appends the stores changed since the previous save to the save journal, like auto saves
+     * do between compactions.
+     */
+    void waitForCompletionOfPreviousSaveAndStartJournaledSaving() {
+        waitForCompletionOfPreviousSave();
+        saveTransaction = createSaveTransaction(true);
+        saveThreadManager.offer(saveTransaction);
+        entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
+    }
+
     private void waitForCompletionOfPreviousSave() {
         if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.REPLAY_FINISHED) {
             recordAndReplayUtils.setShutdownRequested(true); //Important to trigger complete serialization in a recording
@@ -252,10 +335,15 @@ private void waitForCompletionOfPreviousSave() {
         checkSaveTransactionAndClearUpIfItIsDone();
     }
 
-    private SaveTransaction createSaveTransaction() {
+    /**
+     * @param journaled whether only the stores that changed since the previous save get appended to the save journal
+     */
+    private SaveTransaction createSaveTransaction(boolean journaled) {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock,
+                entitySetDeltaRecorder, getChunkStorageMode(), chunkCodec, saveJournal, storedEntityIndex,
+                getStoragePathProvider(), getRegionFileStoreIfUsed(), worldDirectoryWriteLock,
                 recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        saveTransactionBuilder.setJournaled(journaled);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -317,8 +405,8 @@ private PlayerStoreBuilder createPlayerStore(Client client, EntityRef character)
     public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
-        unloadedAndUnsavedChunkMap.put(chunk.getPosition(new Vector3i()), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+        unloadedAndUnsavedChunkMap.put(chunk.getPosition(new Vector3i()), new CompressedChunkBuilder(getEntityManager(),
+                chunkImpl.createSnapshot(), entitiesOfChunk, chunkCodec));
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
     }
@@ -336,12 +424,28 @@ protected byte[] loadCompressedChunk(Vector3ic chunkPos) {
 
         worldDirectoryReadLock.lock();
         try {
+            byte[] journaledChunk = saveJournal.readChunk(chunkPos);
+            if (journaledChunk != null) {
+                return journaledChunk;
+            }
+            return super.loadCompressedChunk(chunkPos);
+        } catch (IOException e) {
+            logger.error("Failed to load chunk {} from the save journal", chunkPos, e);
             return super.loadCompressedChunk(chunkPos);
         } finally {
             worldDirectoryReadLock.unlock();
         }
     }
 
+    @Override
+    protected EntityData.GlobalStore loadGlobalStoreData() throws IOException {
+        byte[] journaledGlobalStore = saveJournal.readGlobalStore();
+        if (journaledGlobalStore != null) {
+            return EntityData.GlobalStore.parseFrom(journaledGlobalStore);
+        }
+        return super.loadGlobalStoreData();
+    }
+
     @Override
     public void onEntityDestroyed(EntityRef entity) {
         entitySetDeltaRecorder.onEntityDestroyed(entity);
@@ -403,8 +507,9 @@ private void startSaving() {
         }
 
         saveRequested = false;
-        saveTransaction = createSaveTransaction();
+        saveTransaction = createSaveTransaction(false);
         saveThreadManager.offer(saveTransaction);
+        scheduleNextCompaction();
 
         if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.NOT_ACTIVATED) {
             saveGamePreviewImage();
@@ -426,8 +531,12 @@ private void startAutoSaving() {
             sys.preAutoSave();
         }
 
-        saveTransaction = createSaveTransaction();
+        boolean journaled = isJournaledSaveAllowed();
+        saveTransaction = createSaveTransaction(journaled);
         saveThreadManager.offer(saveTransaction);
+        if (!journaled) {
+            scheduleNextCompaction();
+        }
 
         for (ComponentSystem sys : componentSystemManager.getAllSystems()) {
             sys.postAutoSave();
@@ -462,6 +571,20 @@ private void scheduleNextAutoSave() {
         nextAutoSave = System.currentTimeMillis() + msBetweenAutoSave;
     }
 
+    /**
+     * Auto saves only append the changed stores to the save journal, unless it is time to write everything into the
+     * world directory again. That full save keeps the journal from growing without bounds.
+     */
+    private boolean isJournaledSaveAllowed() {
+        return systemConfig.journaledSavesEnabled.get() && nextCompaction != null
+                && System.currentTimeMillis() < nextCompaction;
+    }
+
+    private void scheduleNextCompaction() {
+        long msBetweenCompactions = (long) systemConfig.secondsBetweenSaveCompactions.get() * 1000;
+        nextCompaction = System.currentTimeMillis() + msBetweenCompactions;
+    }
+
     private void saveGamePreviewImage() {
         final ScreenGrabber screenGrabber = CoreRegistry.get(ScreenGrabber.class);
         final Game game = CoreRegistry.get(Game.class);
@@ -479,8 +602,19 @@ public boolean isSaving() {
     public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
+            // the unmerged full save contains everything from the journal, which would otherwise hide newer stores
+            saveJournal.clear();
             saveTransactionHelper.mergeChanges();
         }
+        if (getChunkStorageMode() == ChunkStorageMode.REGION_FILES && isLegacyChunksPresent()) {
+            worldDirectoryWriteLock.lock();
+            try {
+                new RegionFileMigrator(getStoragePathProvider(), getRegionFileStore()).migrate();
+                setLegacyChunksPresent(false);
+            } finally {
+                worldDirectoryWriteLock.unlock();
+            }
+        }
     }
 
 
@@ -491,8 +625,12 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        getRegionFileStore().close();
+        storedEntityIndex.clear();
+        storedChunkVersions.clear();
 
         try {
+            saveJournal.clear();
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
         } catch (IOException e) {
             logger.error("Failed to purge chunks", e);
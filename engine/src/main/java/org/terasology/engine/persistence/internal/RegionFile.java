@@ -0,0 +1,250 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file that contains the compressed chunks of a {@link #REGION_DIM}^3 cube of chunks.
+ * <br><br>
+ * The file is divided into sectors of {@link #SECTOR_SIZE} bytes. The first {@link #HEADER_SECTORS} sectors hold a
+ * header with a sector table, which stores for each chunk of the region the first sector and the byte length of its
+ * data. Chunk data always starts at a sector boundary and occupies consecutive sectors.
+ * <br><br>
+ * A chunk gets rewritten in place if its new data fits into the sectors it already occupies. Otherwise the first
+ * free run of sectors that is large enough gets used. The file grows in steps of {@link #GROWTH_SECTORS} sectors, so
+ * that a save burst does not need to extend the file for every chunk.
+ * <br><br>
+ * Reads go through a {@link MappedByteBuffer} of the whole file, which gets remapped when the file grew.
+ * All methods are synchronized, concurrent access to different region files is possible.
+ */
+public class RegionFile implements Closeable {
+    public static final int REGION_DIM = 16;
+    public static final int CHUNKS_PER_REGION = REGION_DIM * REGION_DIM * REGION_DIM;
+
+    static final int SECTOR_SIZE = 4096;
+    static final int GROWTH_SECTORS = 256;
+
+    private static final int MAGIC = 0x54524731; // "TRG1"
+    private static final int VERSION = 1;
+    private static final int HEADER_PREFIX_SIZE = 8;
+    private static final int ENTRY_SIZE = 8;
+    static final int HEADER_SECTORS = (HEADER_PREFIX_SIZE + CHUNKS_PER_REGION * ENTRY_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] sectorOffsets = new int[CHUNKS_PER_REGION];
+    private final int[] byteLengths = new int[CHUNKS_PER_REGION];
+    private final BitSet usedSectors = new BitSet();
+    private int sectorCount;
+    private MappedByteBuffer mappedFile;
+
+    private RegionFile(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        if (channel.size() == 0) {
+            initializeHeader();
+        } else {
+            readHeader();
+        }
+        usedSectors.set(0, HEADER_SECTORS);
+    }
+
+    /**
+     * Opens the region file at the given path, creating and pre-allocating it if it does not exist yet.
+     */
+    public static RegionFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            return new RegionFile(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the position of the region that contains the given chunk.
+     */
+    public static Vector3i getRegionPosition(Vector3ic chunkPos, Vector3i dest) {
+        return dest.set(Math.floorDiv(chunkPos.x(), REGION_DIM),
+                Math.floorDiv(chunkPos.y(), REGION_DIM),
+                Math.floorDiv(chunkPos.z(), REGION_DIM));
+    }
+
+    /**
+     * @return the index of the given chunk within the sector table of its region.
+     */
+    public static int getChunkIndex(Vector3ic chunkPos) {
+        return Math.floorMod(chunkPos.x(), REGION_DIM)
+                + REGION_DIM * (Math.floorMod(chunkPos.y(), REGION_DIM)
+                + REGION_DIM * Math.floorMod(chunkPos.z(), REGION_DIM));
+    }
+
+    /**
+     * @param index the index of the chunk as returned by {@link #getChunkIndex(Vector3ic)}
+     * @return the stored data of the chunk or null if the region does not contain the chunk.
+     */
+    public synchronized byte[] read(int index) throws IOException {
+        int length = byteLengths[index];
+        if (length == 0) {
+            return null;
+        }
+        ByteBuffer view = getMappedFile().duplicate();
+        view.position(sectorOffsets[index] * SECTOR_SIZE);
+        byte[] result = new byte[length];
+        view.get(result);
+        return result;
+    }
+
+    /**
+     * Stores the data of a chunk, replacing its previous data.
+     *
+     * @param index the index of the chunk as returned by {@link #getChunkIndex(Vector3ic)}
+     * @param data the data to store, must not be empty
+     */
+    public synchronized void write(int index, byte[] data) throws IOException {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Can't store empty chunk data in " + path);
+        }
+        int neededSectors = sectorsFor(data.length);
+        int oldOffset = sectorOffsets[index];
+        int oldSectors = sectorsFor(byteLengths[index]);
+
+        int offset;
+        if (oldOffset != 0 && neededSectors <= oldSectors) {
+            offset = oldOffset;
+            usedSectors.clear(oldOffset + neededSectors, oldOffset + oldSectors);
+        } else {
+            if (oldOffset != 0) {
+                usedSectors.clear(oldOffset, oldOffset + oldSectors);
+            }
+            offset = allocateSectors(neededSectors);
+        }
+        usedSectors.set(offset, offset + neededSectors);
+
+        writeFully(ByteBuffer.wrap(data), (long) offset * SECTOR_SIZE);
+        writeEntry(index, offset, data.length);
+    }
+
+    /**
+     * Forces all written data to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mappedFile = null;
+        channel.close();
+    }
+
+    private int allocateSectors(int neededSectors) throws IOException {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        int nextUsed = usedSectors.nextSetBit(start);
+        while (nextUsed != -1) {
+            if (nextUsed - start >= neededSectors) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(nextUsed);
+            nextUsed = usedSectors.nextSetBit(start);
+        }
+        // start is the beginning of the unused tail of the file
+        if (start + neededSectors > sectorCount) {
+            growTo(start + neededSectors + GROWTH_SECTORS);
+        }
+        return start;
+    }
+
+    private void growTo(int newSectorCount) throws IOException {
+        if ((long) newSectorCount * SECTOR_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Region file " + path + " exceeds the maximum size");
+        }
+        // Writing the last byte extends the file without writing the sectors in between
+        writeFully(ByteBuffer.wrap(new byte[1]), (long) newSectorCount * SECTOR_SIZE - 1);
+        sectorCount = newSectorCount;
+    }
+
+    private void initializeHeader() throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(HEADER_PREFIX_SIZE);
+        prefix.putInt(MAGIC);
+        prefix.putInt(VERSION);
+        prefix.flip();
+        writeFully(prefix, 0);
+        growTo(HEADER_SECTORS + GROWTH_SECTORS);
+    }
+
+    private void readHeader() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SECTORS * SECTOR_SIZE) {
+            throw new IOException("Region file " + path + " is truncated");
+        }
+        sectorCount = (int) (fileSize / SECTOR_SIZE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_PREFIX_SIZE + CHUNKS_PER_REGION * ENTRY_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Unexpected end of region file " + path);
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("File " + path + " is not a supported region file");
+        }
+        for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+            int offset = header.getInt();
+            int length = header.getInt();
+            if (length == 0) {
+                continue;
+            }
+            int sectors = sectorsFor(length);
+            if (offset < HEADER_SECTORS || offset + sectors > sectorCount) {
+                throw new IOException("Region file " + path + " has a corrupt sector table");
+            }
+            sectorOffsets[i] = offset;
+            byteLengths[i] = length;
+            usedSectors.set(offset, offset + sectors);
+        }
+    }
+
+    private void writeEntry(int index, int sectorOffset, int byteLength) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        entry.putInt(sectorOffset);
+        entry.putInt(byteLength);
+        entry.flip();
+        writeFully(entry, HEADER_PREFIX_SIZE + (long) index * ENTRY_SIZE);
+        sectorOffsets[index] = sectorOffset;
+        byteLengths[index] = byteLength;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            currentPosition += channel.write(buffer, currentPosition);
+        }
+    }
+
+    private MappedByteBuffer getMappedFile() throws IOException {
+        long fileSize = channel.size();
+        if (mappedFile == null || mappedFile.capacity() != fileSize) {
+            mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        return mappedFile;
+    }
+
+    private static int sectorsFor(int byteLength) {
+        return (byteLength + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Moves chunks that got stored as single files or in zip bundles into {@link RegionFile}s.
+ * <br><br>
+ * Each legacy file gets deleted after its chunks got written, so an interrupted migration can simply be started
+ * again. The write lock of the world directory should be held while migrating.
+ */
+public class RegionFileMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileMigrator.class);
+    private static final String CHUNK_ZIP_GLOB = "*.chunks.zip";
+    private static final String CHUNK_FILE_GLOB = "*.chunk";
+
+    private final StoragePathProvider storagePathProvider;
+    private final RegionFileStore regionFileStore;
+
+    public RegionFileMigrator(StoragePathProvider storagePathProvider, RegionFileStore regionFileStore) {
+        this.storagePathProvider = storagePathProvider;
+        this.regionFileStore = regionFileStore;
+    }
+
+    /**
+     * @return true if the world directory contains chunks that are not stored in region files.
+     */
+    public static boolean hasLegacyChunks(StoragePathProvider storagePathProvider) throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return false;
+        }
+        try (DirectoryStream<Path> zips = Files.newDirectoryStream(worldPath, CHUNK_ZIP_GLOB);
+             DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(worldPath, CHUNK_FILE_GLOB)) {
+            return zips.iterator().hasNext() || chunkFiles.iterator().hasNext();
+        }
+    }
+
+    /**
+     * @return the number of chunks that got moved into region files.
+     */
+    public int migrate() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        int migratedChunks = 0;
+        try (DirectoryStream<Path> zips = Files.newDirectoryStream(worldPath, CHUNK_ZIP_GLOB)) {
+            for (Path zipPath : zips) {
+                migratedChunks += migrateChunkZip(zipPath);
+            }
+        }
+        List<Path> migratedChunkFiles = Lists.newArrayList();
+        try (DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(worldPath, CHUNK_FILE_GLOB)) {
+            for (Path chunkFile : chunkFiles) {
+                if (migrateChunkData(chunkFile)) {
+                    migratedChunks++;
+                }
+                migratedChunkFiles.add(chunkFile);
+            }
+        }
+        regionFileStore.flush();
+        for (Path chunkFile : migratedChunkFiles) {
+            Files.delete(chunkFile);
+        }
+        logger.info("Migrated {} chunks into region files", migratedChunks);
+        return migratedChunks;
+    }
+
+    private int migrateChunkZip(Path zipPath) throws IOException {
+        int migratedChunks = 0;
+        try (FileSystem chunkZip = FileSystems.newFileSystem(zipPath, null)) {
+            for (Path root : chunkZip.getRootDirectories()) {
+                try (DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(root, CHUNK_FILE_GLOB)) {
+                    for (Path chunkFile : chunkFiles) {
+                        if (migrateChunkData(chunkFile)) {
+                            migratedChunks++;
+                        }
+                    }
+                }
+            }
+        }
+        regionFileStore.flush();
+        Files.delete(zipPath);
+        return migratedChunks;
+    }
+
+    private boolean migrateChunkData(Path chunkFile) throws IOException {
+        Vector3i chunkPos = storagePathProvider.getChunkPositionFromFilename(chunkFile.getFileName().toString());
+        if (chunkPos == null) {
+            logger.warn("Skipping file with unexpected name {}", chunkFile);
+            return false;
+        }
+        byte[] data = Files.readAllBytes(chunkFile);
+        if (data.length == 0) {
+            return false;
+        }
+        regionFileStore.write(chunkPos, data);
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Stores compressed chunks in {@link RegionFile}s within the world directory and keeps the region files that got
+ * accessed open.
+ * <br><br>
+ * Reading is possible from any thread. Writes should only happen while the world directory write lock is held.
+ */
+public class RegionFileStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileStore.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final Map<Vector3i, RegionFile> openRegions = Maps.newHashMap();
+
+    public RegionFileStore(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    /**
+     * @return the stored data of the chunk or null if it has not been stored yet.
+     */
+    public byte[] read(Vector3ic chunkPos) throws IOException {
+        RegionFile regionFile = getRegionFile(RegionFile.getRegionPosition(chunkPos, new Vector3i()), false);
+        if (regionFile == null) {
+            return null;
+        }
+        return regionFile.read(RegionFile.getChunkIndex(chunkPos));
+    }
+
+    public void write(Vector3ic chunkPos, byte[] data) throws IOException {
+        RegionFile regionFile = getRegionFile(RegionFile.getRegionPosition(chunkPos, new Vector3i()), true);
+        regionFile.write(RegionFile.getChunkIndex(chunkPos), data);
+    }
+
+    /**
+     * Forces the data of all open region files to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        for (RegionFile regionFile : openRegions.values()) {
+            regionFile.flush();
+        }
+    }
+
+    /**
+     * Closes all open region files. The store stays usable and reopens region files when needed.
+     */
+    @Override
+    public synchronized void close() {
+        for (Map.Entry<Vector3i, RegionFile> entry : openRegions.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                logger.error("Failed to close region file {}", entry.getKey(), e);
+            }
+        }
+        openRegions.clear();
+    }
+
+    private synchronized RegionFile getRegionFile(Vector3i regionPos, boolean create) throws IOException {
+        RegionFile regionFile = openRegions.get(regionPos);
+        if (regionFile == null) {
+            Path path = storagePathProvider.getRegionFilePath(regionPos);
+            if (!create && !Files.isRegularFile(path)) {
+                return null;
+            }
+            Files.createDirectories(path.getParent());
+            regionFile = RegionFile.open(path);
+            openRegions.put(regionPos, regionFile);
+        }
+        return regionFile;
+    }
+}
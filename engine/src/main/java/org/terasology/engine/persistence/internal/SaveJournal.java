@@ -0,0 +1,334 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of the stores that changed since the last full save.
+ * <br><br>
+ * Journaled saves append the encoded chunks, player stores and global store they changed as one batch. A batch is
+ * protected by a checksum and only becomes visible once it is completely on disk, so a batch that got cut off by a
+ * crash is dropped when the journal is opened again. The newest entry of every store is indexed, so that loading
+ * prefers it over the possibly older data in the world directory.
+ * <br><br>
+ * A full save writes every store into the world directory, including the ones only present in the journal. It clears
+ * the journal once all stores are in its unmerged changes and before merging them, so a journal left next to unmerged
+ * changes after a crash is outdated and gets dropped as well.
+ */
+public class SaveJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SaveJournal.class);
+
+    private static final byte CHUNK_ENTRY = 1;
+    private static final byte PLAYER_ENTRY = 2;
+    private static final byte GLOBAL_STORE_ENTRY = 3;
+    private static final int BATCH_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private final Map<Vector3i, Entry> chunks = Maps.newHashMap();
+    private final Map<String, Entry> players = Maps.newHashMap();
+    private Entry globalStore;
+    private FileChannel channel;
+    private long size;
+
+    public SaveJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Appends the batch and forces it to disk.
+     */
+    public synchronized void append(Batch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        open(true);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeInt(batch.entries.size());
+        List<Entry> written = Lists.newArrayListWithCapacity(batch.entries.size());
+        for (BatchEntry entry : batch.entries) {
+            out.writeByte(entry.type);
+            writeKey(out, entry);
+            out.writeInt(entry.data.length);
+            written.add(new Entry(size + BATCH_HEADER_SIZE + out.size(), entry.data.length));
+            out.write(entry.data);
+        }
+        out.flush();
+
+        byte[] payloadBytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payloadBytes);
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH_HEADER_SIZE + payloadBytes.length);
+        buffer.putInt(payloadBytes.length);
+        buffer.putLong(crc.getValue());
+        buffer.put(payloadBytes);
+        buffer.flip();
+        long position = size;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+
+        for (int i = 0; i < written.size(); i++) {
+            index(batch.entries.get(i), written.get(i));
+        }
+        size = position;
+    }
+
+    /**
+     * @return the newest journaled version of the encoded chunk, or null if the journal has none.
+     */
+    public synchronized byte[] readChunk(Vector3ic chunkPos) throws IOException {
+        return open(false) ? read(chunks.get(new Vector3i(chunkPos))) : null;
+    }
+
+    /**
+     * @return the newest journaled version of the encoded player store, or null if the journal has none.
+     */
+    public synchronized byte[] readPlayer(String playerId) throws IOException {
+        return open(false) ? read(players.get(playerId)) : null;
+    }
+
+    /**
+     * @return the newest journaled version of the encoded global store, or null if the journal has none.
+     */
+    public synchronized byte[] readGlobalStore() throws IOException {
+        return open(false) ? read(globalStore) : null;
+    }
+
+    public synchronized Set<Vector3i> getChunkPositions() throws IOException {
+        open(false);
+        return ImmutableSet.copyOf(chunks.keySet());
+    }
+
+    public synchronized Set<String> getPlayerIds() throws IOException {
+        open(false);
+        return ImmutableSet.copyOf(players.keySet());
+    }
+
+    /**
+     * @return the size of the journal in bytes
+     */
+    public synchronized long size() throws IOException {
+        open(false);
+        return size;
+    }
+
+    /**
+     * Drops all entries, once a full save contains them.
+     */
+    public synchronized void clear() throws IOException {
+        if (open(false)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+        chunks.clear();
+        players.clear();
+        globalStore = null;
+        size = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * @param create whether the journal file should be created if it does not exist yet
+     * @return true if the journal file is open
+     */
+    private boolean open(boolean create) throws IOException {
+        if (channel != null) {
+            return true;
+        }
+        if (!create && !Files.isRegularFile(path)) {
+            return false;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        size = recover();
+        if (size < channel.size()) {
+            logger.warn("Dropping {} bytes of an incomplete save journal batch", channel.size() - size);
+            channel.truncate(size);
+        }
+        return true;
+    }
+
+    /**
+     * Indexes all complete batches of the journal file.
+     *
+     * @return the end of the last complete batch
+     */
+    private long recover() throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER_SIZE);
+        while (fileSize - position >= BATCH_HEADER_SIZE) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            long checksum = header.getLong();
+            if (length < 0 || length > fileSize - position - BATCH_HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + BATCH_HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if (crc.getValue() != checksum) {
+                break;
+            }
+            indexBatch(payload.array(), position + BATCH_HEADER_SIZE);
+            position += BATCH_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private void indexBatch(byte[] payload, long payloadPosition) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            BatchEntry entry;
+            switch (type) {
+                case CHUNK_ENTRY:
+                    entry = new BatchEntry(type, new Vector3i(in.readInt(), in.readInt(), in.readInt()), null, null);
+                    break;
+                case PLAYER_ENTRY:
+                    entry = new BatchEntry(type, null, in.readUTF(), null);
+                    break;
+                case GLOBAL_STORE_ENTRY:
+                    entry = new BatchEntry(type, null, null, null);
+                    break;
+                default:
+                    throw new IOException("Unknown save journal entry type " + type);
+            }
+            int length = in.readInt();
+            long offset = payloadPosition + payload.length - in.available();
+            index(entry, new Entry(offset, length));
+            in.skipBytes(length);
+        }
+    }
+
+    private void index(BatchEntry batchEntry, Entry entry) {
+        switch (batchEntry.type) {
+            case CHUNK_ENTRY:
+                chunks.put(batchEntry.chunkPos, entry);
+                break;
+            case PLAYER_ENTRY:
+                players.put(batchEntry.playerId, entry);
+                break;
+            default:
+                globalStore = entry;
+                break;
+        }
+    }
+
+    private static void writeKey(DataOutputStream out, BatchEntry entry) throws IOException {
+        if (entry.type == CHUNK_ENTRY) {
+            out.writeInt(entry.chunkPos.x);
+            out.writeInt(entry.chunkPos.y);
+            out.writeInt(entry.chunkPos.z);
+        } else if (entry.type == PLAYER_ENTRY) {
+            out.writeUTF(entry.playerId);
+        }
+    }
+
+    private byte[] read(Entry entry) throws IOException {
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer data = ByteBuffer.allocate(entry.length);
+        readFully(data, entry.offset);
+        return data.array();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("Unexpected end of save journal " + path);
+            }
+            current += read;
+        }
+    }
+
+    /**
+     * The stores written by one journaled save.
+     */
+    public static final class Batch {
+        private final List<BatchEntry> entries = Lists.newArrayList();
+
+        public void addChunk(Vector3ic chunkPos, byte[] encodedChunk) {
+            entries.add(new BatchEntry(CHUNK_ENTRY, new Vector3i(chunkPos), null, encodedChunk));
+        }
+
+        public void addPlayer(String playerId, byte[] encodedPlayerStore) {
+            entries.add(new BatchEntry(PLAYER_ENTRY, null, playerId, encodedPlayerStore));
+        }
+
+        public void setGlobalStore(byte[] encodedGlobalStore) {
+            entries.add(new BatchEntry(GLOBAL_STORE_ENTRY, null, null, encodedGlobalStore));
+        }
+
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        public int getEntryCount() {
+            return entries.size();
+        }
+    }
+
+    private static final class BatchEntry {
+        private final byte type;
+        private final Vector3i chunkPos;
+        private final String playerId;
+        private final byte[] data;
+
+        BatchEntry(byte type, Vector3i chunkPos, String playerId, byte[] data) {
+            this.type = type;
+            this.chunkPos = chunkPos;
+            this.playerId = playerId;
+            this.data = data;
+        }
+    }
+
+    private static final class Entry {
+        private final long offset;
+        private final int length;
+
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -5,6 +5,8 @@
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.slf4j.Logger;
@@ -13,6 +15,7 @@
 import org.terasology.engine.entitySystem.Component;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.engine.entitySystem.entity.internal.OwnershipHelper;
 import org.terasology.engine.game.GameManifest;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.network.ClientComponent;
@@ -22,8 +25,8 @@
 import org.terasology.engine.recording.RecordAndReplayStatus;
 import org.terasology.engine.recording.RecordAndReplayUtils;
 import org.terasology.engine.utilities.concurrency.AbstractTask;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
 import org.terasology.engine.world.chunks.Chunks;
-import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
@@ -67,7 +70,7 @@ public class SaveTransaction extends AbstractTask {
     private final Map<String, EntityData.PlayerStore> unloadedPlayers;
     private final Map<String, PlayerStoreBuilder> loadedPlayers;
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
-    private final Map<Vector3i, ChunkImpl> loadedChunks;
+    private final Map<Vector3i, ChunkSnapshot> loadedChunks;
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
@@ -77,7 +80,15 @@ public class SaveTransaction extends AbstractTask {
 
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
+    private final ChunkCodec chunkCodec;
+
+    // Journaled saves:
+    private final SaveJournal saveJournal;
+    private final StoredEntityIndex storedEntityIndex;
+    private final boolean journaled;
+    private final Set<Vector3i> unchangedChunks;
+    private final OwnershipHelper ownershipHelper;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
@@ -92,9 +103,12 @@ public class SaveTransaction extends AbstractTask {
     public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
-                           Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
+                           Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkSnapshot> loadedChunks,
+                           GameManifest gameManifest, ChunkStorageMode chunkStorageMode, ChunkCodec chunkCodec,
+                           SaveJournal saveJournal, StoredEntityIndex storedEntityIndex, boolean journaled,
+                           Set<Vector3i> unchangedChunks,
+                           StoragePathProvider storagePathProvider, RegionFileStore regionFileStore,
+                           Lock worldDirectoryWriteLock,
                            RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
@@ -106,9 +120,15 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.loadedChunks = loadedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
+        this.chunkCodec = chunkCodec;
+        this.saveJournal = saveJournal;
+        this.storedEntityIndex = storedEntityIndex;
+        this.journaled = journaled;
+        this.unchangedChunks = unchangedChunks;
+        this.ownershipHelper = new OwnershipHelper(privateEntityManager.getComponentLibrary());
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, regionFileStore);
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -131,26 +151,134 @@ public void run() {
                 // should not happen, as initialization should clean it up
                 throw new IOException("Save rand while there were unmerged changes");
             }
-            saveTransactionHelper.cleanupSaveTransactionDirectory();
-            applyDeltaToPrivateEntityManager();
-            prepareChunksPlayersAndGlobalStore();
-            createPreviewImagesFolder();
-            createSaveTransactionDirectory();
-            writePlayerStores();
-            writeGlobalStore();
-            writeChunkStores();
-            saveGameManifest();
-            perpareChangesForMerge();
-            mergeChanges();
+            if (journaled) {
+                saveChangesToJournal();
+            } else {
+                saveEverything();
+            }
             result = SaveTransactionResult.createSuccessResult();
             logger.info("Save game finished");
             saveRecordingData();
         } catch (IOException | RuntimeException t) {
+            // It is unknown what got stored, so the next journaled save has to store everything
+            storedEntityIndex.clear();
             logger.error("Save game creation failed", t);
             result = SaveTransactionResult.createFailureResult(t);
         }
     }
 
+    private void saveEverything() throws IOException {
+        saveTransactionHelper.cleanupSaveTransactionDirectory();
+        applyDeltaToPrivateEntityManager();
+        prepareChunksPlayersAndGlobalStore();
+        addStoresOnlyInJournal();
+        createPreviewImagesFolder();
+        createSaveTransactionDirectory();
+        writePlayerStores();
+        writeGlobalStore();
+        writeChunkStores();
+        saveGameManifest();
+        perpareChangesForMerge();
+        mergeChanges();
+    }
+
+    /**
+     * Appends the stores that changed since the previous save to the journal, instead of writing all of them.
+     */
+    private void saveChangesToJournal() throws IOException {
+        TLongSet changedEntities = getChangedEntities();
+        applyDeltaToPrivateEntityManager();
+        SaveJournal.Batch batch = prepareJournalBatch(changedEntities);
+        saveJournal.append(batch);
+        saveGameManifestInPlace();
+        logger.info("Journaled {} changed stores", batch.getEntryCount());
+    }
+
+    private TLongSet getChangedEntities() {
+        TLongSet changedEntities = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntities.addAll(deltaToSave.getDestroyedEntities());
+        changedEntities.addAll(deltaToSave.getDeactivatedEntities());
+        return changedEntities;
+    }
+
+    private SaveJournal.Batch prepareJournalBatch(TLongSet changedEntities) throws IOException {
+        SaveJournal.Batch batch = new SaveJournal.Batch();
+        Set<EntityRef> unsavedEntities = getUnsavedEntities();
+        preparePlayerStores(unsavedEntities);
+        for (Map.Entry<String, EntityData.PlayerStore> playerEntry : allPlayers.entrySet()) {
+            batch.addPlayer(playerEntry.getKey(), playerEntry.getValue().toByteArray());
+        }
+
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> chunkEntry : unloadedChunks.entrySet()) {
+            batch.addChunk(chunkEntry.getKey(), chunkEntry.getValue().buildEncodedChunk());
+            storedEntityIndex.removeChunk(chunkEntry.getKey());
+        }
+
+        Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = createChunkPosToUnsavedOwnerLessEntitiesMap();
+        for (Map.Entry<Vector3i, ChunkSnapshot> chunkEntry : loadedChunks.entrySet()) {
+            Vector3i chunkPos = chunkEntry.getKey();
+            Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.getOrDefault(chunkPos,
+                    Collections.emptySet());
+            Set<EntityRef> storedEntities = collectEntitiesToStore(entitiesToStore);
+            if (!unchangedChunks.contains(chunkPos)
+                    || storedEntityIndex.isChunkChanged(chunkPos, storedEntities, changedEntities)) {
+                CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager,
+                        chunkEntry.getValue(), entitiesToStore, chunkCodec);
+                batch.addChunk(chunkPos, compressedChunkBuilder.buildEncodedChunk());
+                storedEntities = compressedChunkBuilder.getStoredEntities();
+            }
+            unsavedEntities.removeAll(entitiesToStore);
+            unsavedEntities.removeAll(storedEntities);
+            storedEntityIndex.setChunkEntities(chunkPos, storedEntities);
+        }
+
+        long nextEntityId = globalStoreBuilder.getNextEntityId();
+        if (storedEntityIndex.isGlobalStoreChanged(unsavedEntities, nextEntityId, changedEntities)) {
+            batch.setGlobalStore(globalStoreBuilder.build(privateEntityManager, unsavedEntities).toByteArray());
+            storedEntityIndex.setGlobalEntities(unsavedEntities, nextEntityId);
+        }
+        return batch;
+    }
+
+    /**
+     * @return the entities a {@link CompressedChunkBuilder} would store for the given entities, without serializing
+     *         them.
+     */
+    private Set<EntityRef> collectEntitiesToStore(Collection<EntityRef> entities) {
+        Set<EntityRef> storedEntities = new HashSet<>();
+        entities.stream().filter(EntityRef::isPersistent).forEach(entity -> collectEntitiesToStore(entity,
+                storedEntities));
+        return storedEntities;
+    }
+
+    private void collectEntitiesToStore(EntityRef entity, Set<EntityRef> storedEntities) {
+        if (entity.isActive()) {
+            for (EntityRef ownedEntity : ownershipHelper.listOwnedEntities(entity)) {
+                if (!ownedEntity.isAlwaysRelevant() && ownedEntity.isPersistent()) {
+                    collectEntitiesToStore(ownedEntity, storedEntities);
+                }
+            }
+            storedEntities.add(entity);
+        }
+    }
+
+    /**
+     * Adds the stores whose newest version is only in the journal, so that the journal can be cleared once the
+     * changes are merged.
+     */
+    private void addStoresOnlyInJournal() throws IOException {
+        for (Vector3i chunkPos : saveJournal.getChunkPositions()) {
+            if (!allChunks.containsKey(chunkPos)) {
+                allChunks.put(chunkPos, new CompressedChunkBuilder(saveJournal.readChunk(chunkPos)));
+            }
+        }
+        for (String playerId : saveJournal.getPlayerIds()) {
+            if (!allPlayers.containsKey(playerId)) {
+                allPlayers.put(playerId, EntityData.PlayerStore.parseFrom(saveJournal.readPlayer(playerId)));
+            }
+        }
+    }
+
     private void createPreviewImagesFolder() throws IOException {
         Files.createDirectories(storagePathProvider.getPreviewsPath());
     }
@@ -185,18 +313,24 @@ private boolean isReplay() {
     }
 
     private void prepareChunksPlayersAndGlobalStore() {
-        /*
-         * Currently loaded persistent entities without owner that have not been saved yet.
-         */
+        Set<EntityRef> unsavedEntities = getUnsavedEntities();
+        preparePlayerStores(unsavedEntities);
+        prepareCompressedChunkBuilders(unsavedEntities);
+        this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        storedEntityIndex.setGlobalEntities(unsavedEntities, globalStoreBuilder.getNextEntityId());
+    }
+
+    /**
+     * @return currently loaded persistent entities without owner that have not been saved yet.
+     */
+    private Set<EntityRef> getUnsavedEntities() {
         Set<EntityRef> unsavedEntities = new HashSet<>();
         for (EntityRef entity : privateEntityManager.getAllEntities()) {
             if (entity.isPersistent()) {
                 unsavedEntities.add(entity);
             }
         }
-        preparePlayerStores(unsavedEntities);
-        prepareCompressedChunkBuilders(unsavedEntities);
-        this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        return unsavedEntities;
     }
 
 
@@ -209,17 +343,19 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
 
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
-        for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : loadedChunks.entrySet()) {
+        unloadedChunks.keySet().forEach(storedEntityIndex::removeChunk);
+        for (Map.Entry<Vector3i, ChunkSnapshot> chunkEntry : loadedChunks.entrySet()) {
             Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
             if (entitiesToStore == null) {
                 entitiesToStore = Collections.emptySet();
             }
-            ChunkImpl chunk = chunkEntry.getValue();
+            ChunkSnapshot chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, chunkCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+            storedEntityIndex.setChunkEntities(chunkEntry.getKey(), compressedChunkBuilder.getStoredEntities());
         }
     }
 
@@ -389,7 +525,7 @@ private void writeGlobalStore() throws IOException {
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        if (chunkStorageMode == ChunkStorageMode.ZIP_BUNDLES) {
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -432,6 +568,7 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                 zip.close();
             }
         } else {
+            // In region file mode the chunk files get packed into the region files when the changes get merged
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
                 CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
@@ -461,9 +598,31 @@ private void saveGameManifest() {
         }
     }
 
+    /**
+     * Replaces the manifest of the save game directly, as journaled saves don't merge a transaction directory.
+     */
+    private void saveGameManifestInPlace() {
+        Path directory = storagePathProvider.getStoragePathDirectory();
+        Path path = directory.resolve(GameManifest.DEFAULT_FILE_NAME);
+        Path tempPath = directory.resolve(GameManifest.DEFAULT_FILE_NAME + ".tmp");
+        try {
+            GameManifest.save(tempPath, gameManifest);
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to save world manifest", e);
+        }
+    }
+
     private void mergeChanges() throws IOException {
         worldDirectoryWriteLock.lock();
         try {
+            // The unmerged changes contain everything in the journal. Clearing it first means a crash during the merge
+            // can't leave journal entries behind that are older than the merged stores.
+            saveJournal.clear();
             saveTransactionHelper.mergeChanges();
         } finally {
             worldDirectoryWriteLock.unlock();
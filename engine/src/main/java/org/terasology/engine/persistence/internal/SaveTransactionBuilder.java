@@ -16,6 +16,7 @@
 package org.terasology.engine.persistence.internal;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.terasology.engine.entitySystem.entity.internal.EngineEntityManager;
@@ -24,9 +25,11 @@
 import org.terasology.engine.recording.RecordAndReplayCurrentStatus;
 import org.terasology.engine.recording.RecordAndReplaySerializer;
 import org.terasology.engine.recording.RecordAndReplayUtils;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
 import org.terasology.engine.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -40,24 +43,37 @@ class SaveTransactionBuilder {
     private Map<String, EntityData.PlayerStore> unloadedPlayers = Maps.newHashMap();
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
-    private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
+    private Map<Vector3i, ChunkSnapshot> loadedChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
+    private final ChunkCodec chunkCodec;
+    private final SaveJournal saveJournal;
+    private final StoredEntityIndex storedEntityIndex;
+    private boolean journaled;
+    private Set<Vector3i> unchangedChunks = Sets.newHashSet();
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileStore regionFileStore;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
     private RecordAndReplayUtils recordAndReplayUtils;
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
+                           ChunkStorageMode chunkStorageMode, ChunkCodec chunkCodec,
+                           SaveJournal saveJournal, StoredEntityIndex storedEntityIndex,
+                           StoragePathProvider storagePathProvider, RegionFileStore regionFileStore,
+                           Lock worldDirectoryWriteLock,
+                           RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
+        this.chunkCodec = chunkCodec;
+        this.saveJournal = saveJournal;
+        this.storedEntityIndex = storedEntityIndex;
         this.storagePathProvider = storagePathProvider;
+        this.regionFileStore = regionFileStore;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -81,14 +97,35 @@ void addUnloadedChunk(final Vector3ic chunkPosition, final CompressedChunkBuilde
     }
 
 
+    /**
+     * Takes a snapshot of the chunk, so it must be called from the thread that changes the chunk.
+     */
     void addLoadedChunk(final Vector3ic chunkPosition, final ChunkImpl chunk) {
-        loadedChunks.put(new Vector3i(chunkPosition), chunk);
+        loadedChunks.put(new Vector3i(chunkPosition), chunk.createSnapshot());
+    }
+
+    /**
+     * Marks a loaded chunk whose blocks did not change since the previous save. A journaled save only stores it
+     * again when its entities changed.
+     */
+    void addUnchangedChunk(final Vector3ic chunkPosition) {
+        unchangedChunks.add(new Vector3i(chunkPosition));
+    }
+
+    /**
+     * @param journaled whether only the changed stores get appended to the save journal, instead of writing
+     *                  everything into the world directory
+     */
+    void setJournaled(boolean journaled) {
+        this.journaled = journaled;
     }
 
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                unloadedChunks, loadedChunks, gameManifest, chunkStorageMode, chunkCodec, saveJournal,
+                storedEntityIndex, journaled, unchangedChunks, storagePathProvider,
+                regionFileStore, worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
 
     }
 
@@ -15,6 +15,8 @@
  */
 package org.terasology.engine.persistence.internal;
 
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +29,7 @@
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
 
 /**
  * Helper class for methods around {@link SaveTransaction}s that are also needed outside of the save transaction.
@@ -35,9 +38,19 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileStore regionFileStore;
 
     public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+        this(storagePathProvider, null);
+    }
+
+    /**
+     * @param regionFileStore if not null, merged chunks get written into their region files instead of being moved
+     *                        into the world directory.
+     */
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, RegionFileStore regionFileStore) {
         this.storagePathProvider = storagePathProvider;
+        this.regionFileStore = regionFileStore;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -69,9 +82,12 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
     public void mergeChanges() throws IOException {
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
         final Path targetDirectory = storagePathProvider.getStoragePathDirectory();
+        final Path sourceWorldDirectory =
+                sourceDirectory.resolve(targetDirectory.relativize(storagePathProvider.getWorldPath()));
 
         Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<Path>() {
             boolean atomicNotPossibleLogged;
+            final List<Path> chunksWrittenToRegionFiles = Lists.newArrayList();
 
             @Override
             public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes attrs) throws IOException {
@@ -84,6 +100,15 @@ public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes
 
             @Override
             public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) throws IOException {
+                if (regionFileStore != null && sourcePath.getParent().equals(sourceWorldDirectory)) {
+                    Vector3i chunkPos = storagePathProvider.getChunkPositionFromFilename(sourcePath.getFileName().toString());
+                    if (chunkPos != null) {
+                        // Rewriting a chunk is idempotent, so an interrupted merge can be repeated
+                        regionFileStore.write(chunkPos, Files.readAllBytes(sourcePath));
+                        chunksWrittenToRegionFiles.add(sourcePath);
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
                 Path targetPath = targetDirectory.resolve(sourceDirectory.relativize(sourcePath));
                 try {
                     // Delete file, as behavior of atomic move is undefined if target file exists:
@@ -101,6 +126,14 @@ public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) thr
 
             @Override
             public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (!chunksWrittenToRegionFiles.isEmpty() && dir.equals(sourceWorldDirectory)) {
+                    // The chunk files may only vanish once their data is guaranteed to be in the region files
+                    regionFileStore.flush();
+                    for (Path chunkFile : chunksWrittenToRegionFiles) {
+                        Files.delete(chunkFile);
+                    }
+                    chunksWrittenToRegionFiles.clear();
+                }
                 try {
                     Files.delete(dir);
                 } catch (DirectoryNotEmptyException e) {
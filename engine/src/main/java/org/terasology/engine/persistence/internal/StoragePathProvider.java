@@ -32,6 +32,10 @@ public class StoragePathProvider {
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String CHUNK_DICTIONARIES_PATH = "chunk-dictionaries";
+    private static final String SAVE_JOURNAL = "save-journal.wal";
+    private static final String REGION_FILE_EXTENSION = ".region";
+    private static final String CHUNK_FILE_EXTENSION = ".chunk";
     private static final int CHUNK_ZIP_DIM = 32;
 
     private final Path storagePathDirectory;
@@ -107,7 +111,31 @@ public Path getGlobalEntityStoreTempPath() {
     }
 
     public String getChunkFilename(Vector3ic pos) {
-        return String.format("%d.%d.%d.chunk", pos.x(), pos.y(), pos.z());
+        return String.format("%d.%d.%d" + CHUNK_FILE_EXTENSION, pos.x(), pos.y(), pos.z());
+    }
+
+    /**
+     * @return the chunk position encoded in a file name created by {@link #getChunkFilename(Vector3ic)} or null if
+     * the file name is not the one of a chunk.
+     */
+    public Vector3i getChunkPositionFromFilename(String filename) {
+        if (!filename.endsWith(CHUNK_FILE_EXTENSION)) {
+            return null;
+        }
+        String[] parts = filename.substring(0, filename.length() - CHUNK_FILE_EXTENSION.length()).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Path getRegionFilePath(Vector3ic regionPos) {
+        return worldPath.resolve(String.format("%d.%d.%d" + REGION_FILE_EXTENSION, regionPos.x(), regionPos.y(),
+                regionPos.z()));
     }
 
 
@@ -151,6 +179,20 @@ public Path getUnmergedChangesPath() {
         return unmergedChangesPath;
     }
 
+    /**
+     * @return the directory with the dictionaries used to compress the chunks of the world.
+     */
+    public Path getChunkDictionariesPath() {
+        return storagePathDirectory.resolve(CHUNK_DICTIONARIES_PATH);
+    }
+
+    /**
+     * @return the write-ahead log of the stores that changed since the last full save.
+     */
+    public Path getSaveJournalPath() {
+        return storagePathDirectory.resolve(SAVE_JOURNAL);
+    }
+
     public Path getStoragePathDirectory() {
         return storagePathDirectory;
     }
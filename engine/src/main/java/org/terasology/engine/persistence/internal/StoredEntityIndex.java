@@ -0,0 +1,86 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.persistence.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Remembers which entities the previous save stored with each chunk and in the global store.
+ * <br><br>
+ * Journaled saves use it to find the stores whose entities changed: a store has to be written again when it gets a
+ * different set of entities, or when one of its entities changed since the previous save. It is only used by the save
+ * thread.
+ */
+class StoredEntityIndex {
+    private final Map<Vector3i, TLongSet> chunkEntities = Maps.newHashMap();
+    private TLongSet globalEntities;
+    private long globalNextEntityId;
+
+    /**
+     * @param changedEntities ids of the entities that changed since the previous save
+     * @return true if the chunk has to be stored again to contain the given entities.
+     */
+    boolean isChunkChanged(Vector3ic chunkPos, Collection<EntityRef> entities, TLongSet changedEntities) {
+        return isChanged(chunkEntities.get(chunkPos), entities, changedEntities);
+    }
+
+    /**
+     * The global store also records the next entity id and the prefabs of all entities. New prefabs can only be
+     * needed by new entities, which also change the next entity id.
+     *
+     * @param changedEntities ids of the entities that changed since the previous save
+     * @return true if the global store has to be stored again to contain the given entities.
+     */
+    boolean isGlobalStoreChanged(Collection<EntityRef> entities, long nextEntityId, TLongSet changedEntities) {
+        return nextEntityId != globalNextEntityId || isChanged(globalEntities, entities, changedEntities);
+    }
+
+    void setChunkEntities(Vector3ic chunkPos, Collection<EntityRef> entities) {
+        chunkEntities.put(new Vector3i(chunkPos), toIds(entities));
+    }
+
+    void setGlobalEntities(Collection<EntityRef> entities, long nextEntityId) {
+        globalEntities = toIds(entities);
+        globalNextEntityId = nextEntityId;
+    }
+
+    void removeChunk(Vector3ic chunkPos) {
+        chunkEntities.remove(chunkPos);
+    }
+
+    /**
+     * Forgets everything, so that the next journaled save stores everything.
+     */
+    void clear() {
+        chunkEntities.clear();
+        globalEntities = null;
+    }
+
+    private static boolean isChanged(TLongSet storedIds, Collection<EntityRef> entities, TLongSet changedEntities) {
+        if (storedIds == null || storedIds.size() != entities.size()) {
+            return true;
+        }
+        for (EntityRef entity : entities) {
+            if (!storedIds.contains(entity.getId()) || changedEntities.contains(entity.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static TLongSet toIds(Collection<EntityRef> entities) {
+        TLongSet ids = new TLongHashSet(entities.size());
+        for (EntityRef entity : entities) {
+            ids.add(entity.getId());
+        }
+        return ids;
+    }
+}
@@ -34,6 +34,18 @@ public void send(EntityRef entity, Event event) {
         super.send(entity, event);
     }
 
+    @Override
+    public void sendToAll(Iterable<EntityRef> entities, Event event) {
+        if (currentThreadIsMain()) {
+            if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.RECORDING) {
+                for (EntityRef entity : entities) {
+                    eventCatcher.addEvent(new PendingEvent(entity, event));
+                }
+            }
+        }
+        super.sendToAll(entities, event);
+    }
+
     @Override
     public void send(EntityRef entity, Event event, Component component) {
         if (currentThreadIsMain()) {
@@ -38,6 +38,12 @@ public String getMetrics() {
             builder.append(String.format("In Bytes: %d%n", networkSystem.getIncomingBytesDelta()));
             builder.append(String.format("Out Msg: %d%n", networkSystem.getOutgoingMessagesDelta()));
             builder.append(String.format("Out Bytes: %d%n", networkSystem.getOutgoingBytesDelta()));
+            builder.append(String.format("Compression: %.2f%n", networkSystem.getCompressionRatioDelta()));
+            builder.append(String.format("Compression Time: %.2fms%n", networkSystem.getCompressionTimeDelta() / 1e6));
+            if (networkSystem.getMode().isServer()) {
+                builder.append(String.format("Entity Cache Hits/Misses: %d/%d%n", networkSystem.getEntityCacheHits(),
+                        networkSystem.getEntityCacheMisses()));
+            }
             if (lastTime != 0) {
                 // ignore the first update as it will not have useful data
                 lastMetric = builder.toString();
@@ -9,14 +9,18 @@
 import gnu.trove.list.array.TIntArrayList;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL15;
 import org.terasology.engine.core.subsystem.lwjgl.GLBufferPool;
+import org.terasology.engine.rendering.RenderMath;
 import org.terasology.engine.rendering.VertexBufferObjectUtil;
 import org.terasology.engine.rendering.assets.material.Material;
 import org.terasology.module.sandbox.API;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
@@ -73,15 +77,23 @@ public enum RenderPhase {
     private static final int SIZE_COLOR = 1;    // the color field's 4 components are packed into 1 float-sized field.
     private static final int SIZE_NORMAL = 3;   // normals are 3-dimensional vectors with u,v,t components
 
+    // lighting values between 0 and 1 are stored as shorts up to this value, the chunk shader scales them back
+    private static final float LIGHT_VALUE_SCALE = Short.MAX_VALUE;
+    private static final float NORMAL_SCALE = Byte.MAX_VALUE;
+    private static final int WHITE = RenderMath.packColor(1, 1, 1, 1);
+
     // offset to the beginning of each data field, from the start of the data regarding an individual vertex
-    private static final int OFFSET_VERTEX = 0;
-    private static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
-    private static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
-    private static final int OFFSET_COLOR = OFFSET_TEX_1 + SIZE_TEX1 * 4;
-    private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
-    private static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
+    static final int OFFSET_VERTEX = 0;
+    static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
+    static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
+    static final int OFFSET_COLOR = OFFSET_TEX_1 + 8; // 3 shorts, padded to keep the following fields aligned
+    static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
+    static final int STRIDE = OFFSET_NORMAL + 4; // 3 bytes, padded
     // the STRIDE, above, is the gap between the beginnings of the data regarding two consecutive vertices
 
+    // the vertex data of meshes waiting to be uploaded, up to 64 MiB are kept for reuse
+    private static final DirectBufferPool STAGING_BUFFERS = new DirectBufferPool(64 << 20);
+
     /* VERTEX DATA */
     public final int[] vertexBuffers = new int[4];
     public final int[] idxBuffers = new int[4];
@@ -89,6 +101,7 @@ public enum RenderPhase {
 
     /* STATS */
     private int triangleCount = -1;
+    private int memoryUsage;
 
     /* TEMPORARY DATA */
     private Map<RenderType, VertexElements> vertexElements = Maps.newEnumMap(RenderType.class);
@@ -115,6 +128,29 @@ public VertexElements getVertexElements(RenderType renderType) {
         return vertexElements.get(renderType);
     }
 
+    /**
+     * Sets the transformation applied to the positions of all vertices added afterwards.
+     *
+     * @param scale the factor to scale the positions with
+     * @param border the offset to subtract horizontally, vertically twice as much is subtracted
+     */
+    void setVertexTransform(float scale, float border) {
+        for (VertexElements elements : vertexElements.values()) {
+            elements.positionScale = scale;
+            elements.border = border;
+        }
+    }
+
+    /**
+     * Makes the collected vertices and indices available in {@link VertexElements#finalVertices} and
+     * {@link VertexElements#finalIndices}.
+     */
+    void finishVertexElements() {
+        for (VertexElements elements : vertexElements.values()) {
+            elements.finish();
+        }
+    }
+
     public boolean hasVertexElements() {
         return vertexElements != null;
     }
@@ -136,6 +172,7 @@ public boolean generateVBOs() {
                 dispose();
                 disposed = false;
 
+                memoryUsage = 0;
                 for (RenderType type : RenderType.values()) {
                     generateVBO(type);
                 }
@@ -162,6 +199,7 @@ private void generateVBO(RenderType type) {
 
             VertexBufferObjectUtil.bufferVboElementData(idxBuffers[id], elements.finalIndices, GL15.GL_STATIC_DRAW);
             VertexBufferObjectUtil.bufferVboData(vertexBuffers[id], elements.finalVertices, GL15.GL_STATIC_DRAW);
+            memoryUsage += (elements.finalIndices.limit() + elements.finalVertices.limit()) * Integer.BYTES;
         } else {
             vertexBuffers[id] = 0;
             idxBuffers[id] = 0;
@@ -175,6 +213,11 @@ private void generateVBO(RenderType type) {
      * be used in contexts where that might be necessary.
      */
     public void discardData() {
+        if (vertexElements != null) {
+            for (VertexElements elements : vertexElements.values()) {
+                elements.release();
+            }
+        }
         vertexElements = null;
     }
 
@@ -199,11 +242,11 @@ private void renderVbo(int id) {
                 glTexCoordPointer(SIZE_TEX0, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_0);
 
                 GL13.glClientActiveTexture(GL13.GL_TEXTURE1);
-                glTexCoordPointer(SIZE_TEX1, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_1);
+                glTexCoordPointer(SIZE_TEX1, GL11.GL_SHORT, STRIDE, OFFSET_TEX_1);
 
                 glColorPointer(SIZE_COLOR * 4, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_COLOR);
 
-                glNormalPointer(GL11.GL_FLOAT, STRIDE, OFFSET_NORMAL);
+                glNormalPointer(GL11.GL_BYTE, STRIDE, OFFSET_NORMAL);
 
                 GL11.glDrawElements(GL11.GL_TRIANGLES, vertexCount[id], GL11.GL_UNSIGNED_INT, 0);
 
@@ -335,6 +378,13 @@ private int triangleCount() {
         return triangleCount;
     }
 
+    /**
+     * @return the number of bytes taken up by the vertex and index buffers of this mesh, once they are generated
+     */
+    public int getMemoryUsage() {
+        return memoryUsage;
+    }
+
     /**
      * Returns true if an instance of this class stores no triangles.
      *
@@ -361,37 +411,249 @@ public int getTimeToGenerateOptimizedBuffers() {
     }
 
     /**
-     * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
+     * Collects the vertex data of one render type, interleaved in the layout of the vertex buffer.
+     * <br><br>
+     * Every vertex is started with {@link #addVertex}, which sets its position. The other attributes of the vertex
+     * can then be set in any order, and default to zero, with a white color. The data is written to pooled direct
+     * buffers, which are returned to the pool when the data of the mesh gets discarded.
+     * <br><br>
+     * Mesh generators written against the former layout may still append to the deprecated lists, such as
+     * {@link #vertices} and {@link #indices}, and increase {@link #vertexCount} by the number of vertices they
+     * appended, with the indices offset by the vertex count from before. Those vertices are copied into the direct
+     * buffer before the next vertex or index is added through the methods, or when the mesh is finished. To migrate,
+     * replace the appends to the lists of one vertex by a call of {@link #addVertex} followed by the setters, and
+     * the appends to {@link #indices} by {@link #addIndex}.
      */
     public static class VertexElements {
-
-        public final TFloatList normals;
-        public final TFloatList vertices;
-        public final TFloatList tex;
-        public final TFloatList color;
-        public final TIntList indices;
-        public final TIntList flags;
-        public final TIntList frames;
-        public final TFloatList sunlight;
-        public final TFloatList blocklight;
-        public final TFloatList ambientOcclusion;
+        /**
+         * @deprecated use {@link #setNormal}
+         */
+        @Deprecated
+        public final TFloatList normals = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #addVertex}
+         */
+        @Deprecated
+        public final TFloatList vertices = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #setTexCoord}
+         */
+        @Deprecated
+        public final TFloatList tex = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #setColor}
+         */
+        @Deprecated
+        public final TFloatList color = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #addIndex}
+         */
+        @Deprecated
+        public final TIntList indices = new TIntArrayList(0);
+        /**
+         * @deprecated use {@link #setFlags}
+         */
+        @Deprecated
+        public final TIntList flags = new TIntArrayList(0);
+        /**
+         * @deprecated use {@link #setFlags}
+         */
+        @Deprecated
+        public final TIntList frames = new TIntArrayList(0);
+        /**
+         * @deprecated use {@link #setLight}
+         */
+        @Deprecated
+        public final TFloatList sunlight = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #setLight}
+         */
+        @Deprecated
+        public final TFloatList blocklight = new TFloatArrayList(0);
+        /**
+         * @deprecated use {@link #setLight}
+         */
+        @Deprecated
+        public final TFloatList ambientOcclusion = new TFloatArrayList(0);
+
+        /**
+         * The number of vertices, including those appended to the deprecated lists which are not copied yet
+         */
         public int vertexCount;
 
         public IntBuffer finalVertices;
         public IntBuffer finalIndices;
 
+        private ByteBuffer vertexData;
+        private ByteBuffer indexData;
+        private int indexCount;
+        private int vertexStart;
+        private float positionScale = 1;
+        private float border;
+
         VertexElements() {
-            vertexCount = 0;
-            normals = new TFloatArrayList();
-            vertices = new TFloatArrayList();
-            tex = new TFloatArrayList();
-            color = new TFloatArrayList();
-            indices = new TIntArrayList();
-            flags = new TIntArrayList();
-            frames = new TIntArrayList();
-            sunlight = new TFloatArrayList();
-            blocklight = new TFloatArrayList();
-            ambientOcclusion = new TFloatArrayList();
+        }
+
+        /**
+         * Starts a new vertex.
+         *
+         * @return this, to set the other attributes of the vertex
+         */
+        public VertexElements addVertex(float x, float y, float z) {
+            copyDeprecatedLists();
+            return writeVertex(x, y, z);
+        }
+
+        private VertexElements writeVertex(float x, float y, float z) {
+            vertexData = ensureCapacity(vertexData, (vertexCount + 1) * STRIDE);
+            vertexStart = vertexCount * STRIDE;
+            vertexCount++;
+            vertexData.putFloat(vertexStart + OFFSET_VERTEX, (x - border) * positionScale);
+            vertexData.putFloat(vertexStart + OFFSET_VERTEX + 4, (y - 2 * border) * positionScale);
+            vertexData.putFloat(vertexStart + OFFSET_VERTEX + 8, (z - border) * positionScale);
+            for (int offset = OFFSET_TEX_0; offset < STRIDE; offset += 4) {
+                vertexData.putInt(vertexStart + offset, 0);
+            }
+            vertexData.putInt(vertexStart + OFFSET_COLOR, WHITE);
+            return this;
+        }
+
+        public VertexElements setTexCoord(float u, float v) {
+            vertexData.putFloat(vertexStart + OFFSET_TEX_0, u);
+            vertexData.putFloat(vertexStart + OFFSET_TEX_0 + 4, v);
+            return this;
+        }
+
+        /**
+         * @param flag the value of the {@link ChunkVertexFlag} of the vertex
+         * @param frames the number of animation frames of the texture
+         */
+        public VertexElements setFlags(int flag, int frames) {
+            vertexData.putFloat(vertexStart + OFFSET_TEX_0 + 8, flag);
+            vertexData.putFloat(vertexStart + OFFSET_TEX_0 + 12, frames);
+            return this;
+        }
+
+        /**
+         * @param sunlight the sunlight, between 0 and 1
+         * @param blockLight the light of light sources, between 0 and 1
+         * @param ambientOcclusion the ambient occlusion factor, between 0 and 1
+         */
+        public VertexElements setLight(float sunlight, float blockLight, float ambientOcclusion) {
+            vertexData.putShort(vertexStart + OFFSET_TEX_1, (short) (sunlight * LIGHT_VALUE_SCALE));
+            vertexData.putShort(vertexStart + OFFSET_TEX_1 + 2, (short) (blockLight * LIGHT_VALUE_SCALE));
+            vertexData.putShort(vertexStart + OFFSET_TEX_1 + 4, (short) (ambientOcclusion * LIGHT_VALUE_SCALE));
+            return this;
+        }
+
+        public VertexElements setColor(float r, float g, float b, float a) {
+            vertexData.putInt(vertexStart + OFFSET_COLOR, RenderMath.packColor(r, g, b, a));
+            return this;
+        }
+
+        /**
+         * Sets the normal, which must have unit length.
+         */
+        public VertexElements setNormal(float x, float y, float z) {
+            vertexData.put(vertexStart + OFFSET_NORMAL, (byte) Math.round(x * NORMAL_SCALE));
+            vertexData.put(vertexStart + OFFSET_NORMAL + 1, (byte) Math.round(y * NORMAL_SCALE));
+            vertexData.put(vertexStart + OFFSET_NORMAL + 2, (byte) Math.round(z * NORMAL_SCALE));
+            return this;
+        }
+
+        /**
+         * Adds the index of a vertex to the triangles of the mesh, three indices forming a triangle.
+         */
+        public void addIndex(int index) {
+            copyDeprecatedLists();
+            writeIndex(index);
+        }
+
+        private void writeIndex(int index) {
+            indexData = ensureCapacity(indexData, (indexCount + 1) * 4);
+            indexData.putInt(indexCount * 4, index);
+            indexCount++;
+        }
+
+        public int getIndexCount() {
+            return indexCount + indices.size();
+        }
+
+        /**
+         * Copies the vertices and indices appended to the deprecated lists into the direct buffers.
+         */
+        private void copyDeprecatedLists() {
+            int appended = vertices.size() / SIZE_VERTEX;
+            if (appended > 0) {
+                // the generator already counted the vertices it appended
+                vertexCount -= appended;
+                for (int i = 0; i < appended; i++) {
+                    writeVertex(vertices.get(i * 3), vertices.get(i * 3 + 1), vertices.get(i * 3 + 2))
+                            .setTexCoord(tex.get(i * 2), tex.get(i * 2 + 1))
+                            .setFlags(flags.get(i), frames.get(i))
+                            .setLight(sunlight.get(i), blocklight.get(i), ambientOcclusion.get(i))
+                            .setColor(color.get(i * 4), color.get(i * 4 + 1), color.get(i * 4 + 2),
+                                    color.get(i * 4 + 3))
+                            .setNormal(normals.get(i * 3), normals.get(i * 3 + 1), normals.get(i * 3 + 2));
+                }
+                vertices.clear();
+                tex.clear();
+                flags.clear();
+                frames.clear();
+                sunlight.clear();
+                blocklight.clear();
+                ambientOcclusion.clear();
+                color.clear();
+                normals.clear();
+            }
+            if (!indices.isEmpty()) {
+                for (int i = 0; i < indices.size(); i++) {
+                    writeIndex(indices.get(i));
+                }
+                indices.clear();
+            }
+        }
+
+        private void finish() {
+            copyDeprecatedLists();
+            finalVertices = asIntBuffer(vertexData, vertexCount * STRIDE);
+            finalIndices = asIntBuffer(indexData, indexCount * 4);
+        }
+
+        private void release() {
+            finalVertices = null;
+            finalIndices = null;
+            if (vertexData != null) {
+                STAGING_BUFFERS.release(vertexData);
+                vertexData = null;
+            }
+            if (indexData != null) {
+                STAGING_BUFFERS.release(indexData);
+                indexData = null;
+            }
+        }
+
+        private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+            if (buffer != null && buffer.capacity() >= capacity) {
+                return buffer;
+            }
+            ByteBuffer result = STAGING_BUFFERS.acquire(Math.max(capacity, buffer != null ? buffer.capacity() * 2 : 0));
+            if (buffer != null) {
+                buffer.clear();
+                result.put(buffer);
+                result.clear();
+                STAGING_BUFFERS.release(buffer);
+            }
+            return result;
+        }
+
+        private static IntBuffer asIntBuffer(ByteBuffer buffer, int length) {
+            if (buffer == null) {
+                return BufferUtils.createIntBuffer(0);
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.limit(length);
+            return view.slice().order(ByteOrder.nativeOrder()).asIntBuffer();
         }
     }
 }
@@ -3,15 +3,11 @@
 package org.terasology.engine.rendering.primitives;
 
 import com.google.common.base.Stopwatch;
-import gnu.trove.iterator.TIntIterator;
-import org.joml.Vector3f;
 import org.joml.Vector3fc;
-import org.lwjgl.BufferUtils;
 import org.terasology.engine.core.subsystem.lwjgl.GLBufferPool;
 import org.terasology.engine.math.Direction;
 import org.terasology.math.TeraMath;
 import org.terasology.engine.monitoring.PerformanceMonitor;
-import org.terasology.engine.rendering.RenderMath;
 import org.terasology.engine.world.ChunkView;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.chunks.Chunks;
@@ -26,12 +22,29 @@ public final class ChunkTessellator {
 
     private static int statVertexArrayUpdateCount;
 
+    /* Chunk meshes are generated by several threads */
+    private static final ThreadLocal<GreedyChunkMesher> GREEDY_MESHERS =
+            ThreadLocal.withInitial(GreedyChunkMesher::new);
+
     private GLBufferPool bufferPool;
+    private boolean greedyMeshing;
 
     public ChunkTessellator(GLBufferPool bufferPool) {
         this.bufferPool = bufferPool;
     }
 
+    /**
+     * @param greedyMeshing whether the sides of opaque full blocks get merged into larger quads, see
+     *         {@link GreedyChunkMesher}
+     */
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
     public ChunkMesh generateEmptyMesh() {
         return new ChunkMesh(bufferPool);
     }
@@ -44,25 +57,37 @@ public ChunkMesh generateMesh(ChunkView chunkView, float scale, int border) {
         PerformanceMonitor.startActivity("GenerateMesh");
         ChunkMesh mesh = new ChunkMesh(bufferPool);
 
+        mesh.setVertexTransform(scale * Chunks.SIZE_X / (Chunks.SIZE_X - 2 * border), border);
+
         final Stopwatch watch = Stopwatch.createStarted();
 
+        GreedyChunkMesher greedyMesher = null;
+        if (greedyMeshing) {
+            greedyMesher = GREEDY_MESHERS.get();
+            greedyMesher.begin(chunkView, mesh, Chunks.SIZE_Y - border * 2);
+        }
+
         // The mesh extends into the borders in the horizontal directions, but not vertically upwards, in order to cover gaps between LOD chunks of different scales, but also avoid multiple overlapping ocean surfaces.
         for (int x = 0; x < Chunks.SIZE_X; x++) {
             for (int z = 0; z < Chunks.SIZE_Z; z++) {
                 for (int y = 0; y < Chunks.SIZE_Y - border * 2; y++) {
                     Block block = chunkView.getBlock(x, y, z);
-                    if (block != null && block.getMeshGenerator() != null) {
+                    if (block != null && block.getMeshGenerator() != null
+                            && (greedyMesher == null || !greedyMesher.addBlock(block, x, y, z))) {
                         block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
                     }
                 }
             }
         }
+        if (greedyMesher != null) {
+            greedyMesher.finish();
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
         watch.reset().start();
-        generateOptimizedBuffers(chunkView, mesh, scale, border);
+        mesh.finishVertexElements();
         watch.stop();
         mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
         statVertexArrayUpdateCount++;
@@ -71,72 +96,20 @@ public ChunkMesh generateMesh(ChunkView chunkView, float scale, int border) {
         return mesh;
     }
 
+    /**
+     * Copies the vertices appended to the deprecated lists of {@link ChunkMesh.VertexElements} into the vertex buffers
+     * of the mesh, applying the position transform of the given scale and border to them.
+     *
+     * @deprecated vertices are now written to the vertex buffers as they are added, see
+     *         {@link ChunkMesh.VertexElements}. {@link #generateMesh} finishes the meshes it generates by itself.
+     *         Vertices added through {@link ChunkMesh.VertexElements#addVertex} before this call keep the transform
+     *         which was set when they were added.
+     */
+    @Deprecated
     public void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh, float scale, float border) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
-
-        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
-            ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
-            // Vertices double to account for light info
-            elements.finalVertices = BufferUtils.createIntBuffer(
-                    elements.vertices.size() + /* POSITION */
-                    elements.tex.size() + /* TEX0.xy (texture coords) */
-                    elements.flags.size() + /* TEX0.z (flags) */
-                    elements.frames.size() + /* TEX0.w (animation frame counts) */
-                    elements.vertexCount * 3 + /* TEX1 (lighting data) */
-                    elements.color.size() / 4 + /* COLOR */
-                    elements.normals.size() /* NORMALS */
-            );
-
-            for (int i = 0; i < elements.vertexCount; i++) {
-                Vector3f vertexPos = new Vector3f(
-                        elements.vertices.get(i * 3),
-                        elements.vertices.get(i * 3 + 1),
-                        elements.vertices.get(i * 3 + 2));
-
-                /* POSITION */
-                float totalScale = scale * Chunks.SIZE_X / (Chunks.SIZE_X - 2 * border);
-                elements.finalVertices.put(Float.floatToIntBits((vertexPos.x - border) * totalScale));
-                elements.finalVertices.put(Float.floatToIntBits((vertexPos.y - 2 * border) * totalScale));
-                elements.finalVertices.put(Float.floatToIntBits((vertexPos.z - border) * totalScale));
-
-                /* UV0 - TEX DATA 0.xy */
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(i * 2)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(i * 2 + 1)));
-
-                /* FLAGS - TEX DATA 0.z */
-                elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(i)));
-                
-                /* ANIMATION FRAME COUNT - TEX DATA 0.w*/
-                elements.finalVertices.put(Float.floatToIntBits(elements.frames.get(i)));
-
-                /* LIGHTING DATA / TEX DATA 1 */
-                elements.finalVertices.put(Float.floatToIntBits(elements.sunlight.get(i)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.blocklight.get(i)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.ambientOcclusion.get(i)));
-
-                /* PACKED COLOR */
-                final int packedColor = RenderMath.packColor(
-                        elements.color.get(i * 4),
-                        elements.color.get(i * 4 + 1),
-                        elements.color.get(i * 4 + 2),
-                        elements.color.get(i * 4 + 3));
-                elements.finalVertices.put(packedColor);
-
-                /* NORMALS */
-                elements.finalVertices.put(Float.floatToIntBits(elements.normals.get(i * 3)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.normals.get(i * 3 + 1)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.normals.get(i * 3 + 2)));
-            }
-
-            elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
-            TIntIterator indexIterator = elements.indices.iterator();
-            while (indexIterator.hasNext()) {
-                elements.finalIndices.put(indexIterator.next());
-            }
-
-            elements.finalVertices.flip();
-            elements.finalIndices.flip();
-        }
+        mesh.setVertexTransform(scale * Chunks.SIZE_X / (Chunks.SIZE_X - 2 * border), border);
+        mesh.finishVertexElements();
         PerformanceMonitor.endActivity();
     }
 
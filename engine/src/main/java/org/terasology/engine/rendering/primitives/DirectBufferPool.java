@@ -0,0 +1,69 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import com.google.common.collect.Lists;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps direct byte buffers for reuse, as allocating and freeing direct memory is expensive.
+ * <br><br>
+ * Buffers are handed out with capacities that are powers of two. Released buffers are kept until the pool holds the
+ * given number of bytes, further buffers are left to the garbage collector. Buffers can be acquired and released by
+ * any thread.
+ */
+final class DirectBufferPool {
+    private static final int MIN_CAPACITY_BITS = 14;
+    private static final int SIZE_CLASSES = 31 - MIN_CAPACITY_BITS;
+
+    private final List<Queue<ByteBuffer>> buffers = Lists.newArrayListWithCapacity(SIZE_CLASSES);
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final long maxPooledBytes;
+
+    DirectBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            buffers.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * @return a cleared buffer in native byte order with at least the given capacity
+     */
+    ByteBuffer acquire(int minCapacity) {
+        int sizeClass = sizeClass(minCapacity);
+        ByteBuffer buffer = buffers.get(sizeClass).poll();
+        if (buffer == null) {
+            return BufferUtils.createByteBuffer(1 << (sizeClass + MIN_CAPACITY_BITS));
+        }
+        pooledBytes.addAndGet(-buffer.capacity());
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer acquired from this pool. It must not be used afterwards.
+     */
+    void release(ByteBuffer buffer) {
+        if (pooledBytes.addAndGet(buffer.capacity()) > maxPooledBytes) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            return;
+        }
+        buffers.get(sizeClass(buffer.capacity())).offer(buffer);
+    }
+
+    long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    private static int sizeClass(int capacity) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+        return Math.max(0, bits - MIN_CAPACITY_BITS);
+    }
+}
@@ -0,0 +1,366 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.primitives;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.ChunkView;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockAppearance;
+import org.terasology.engine.world.block.BlockPart;
+import org.terasology.engine.world.block.shapes.BlockMeshPart;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Merges the visible sides of opaque full blocks into as few quads as possible.
+ * <br><br>
+ * Sides get merged with the adjacent sides of the same slice if they use the same mesh part, vertex flag and
+ * lighting, and if their lighting is the same at all four corners, so that the merged quad looks exactly like the
+ * separate ones. The integer part of the texture coordinates of a merged quad tells the chunk shader how often to
+ * repeat the tile, whose corner is given by the fractional part.
+ * <br><br>
+ * Blocks that this class can't handle, like liquids, translucent blocks or blocks with a center part, are left to
+ * their own {@link BlockMeshGenerator}, and sides with a mesh part that is not a square tile covering the whole
+ * side get added unmerged. A mesher is used by one thread at a time and keeps its buffers between chunks.
+ */
+final class GreedyChunkMesher {
+    private static final float EPSILON = 0.0001f;
+    private static final Side[] SIDES = Side.values();
+
+    private final Map<BlockMeshPart, FaceLayout> layouts = new WeakHashMap<>();
+    /* For every side, the index of the face record plus one for each block, zero if there is no face to merge */
+    private final int[][] faces = new int[SIDES.length][Chunks.SIZE_X * Chunks.SIZE_Y * Chunks.SIZE_Z];
+    private BlockMeshPart[] faceParts = new BlockMeshPart[256];
+    private ChunkVertexFlag[] faceFlags = new ChunkVertexFlag[256];
+    private float[] faceLighting = new float[256 * 3];
+    private int faceCount;
+
+    private ChunkView chunkView;
+    private ChunkMesh mesh;
+    private int height;
+
+    /**
+     * Starts collecting the sides of a chunk.
+     *
+     * @param view the chunk to mesh, with its neighbours
+     * @param chunkMesh the mesh to add the quads to
+     * @param meshHeight the number of layers of blocks that get meshed, starting at the bottom of the chunk
+     */
+    void begin(ChunkView view, ChunkMesh chunkMesh, int meshHeight) {
+        this.chunkView = view;
+        this.mesh = chunkMesh;
+        this.height = meshHeight;
+        if (faceCount > 0) {
+            // the previous chunk was not finished
+            for (int[] sideFaces : faces) {
+                Arrays.fill(sideFaces, 0);
+            }
+            faceCount = 0;
+        }
+    }
+
+    /**
+     * Collects the visible sides of the block, if it can be handled by this mesher.
+     *
+     * @return true if the block was handled, false if it has to be added by its own mesh generator
+     */
+    boolean addBlock(Block block, int x, int y, int z) {
+        if (!canMerge(block)) {
+            return false;
+        }
+        BlockAppearance appearance = block.getPrimaryAppearance();
+        for (Side side : SIDES) {
+            Vector3ic offset = side.direction();
+            Block adjacent = chunkView.getBlock(x + offset.x(), y + offset.y(), z + offset.z());
+            if (!BlockMeshGeneratorSingleShape.isSideVisibleForBlockTypes(adjacent, block, side)) {
+                continue;
+            }
+            BlockMeshPart part = appearance.getPart(BlockPart.fromSide(side));
+            if (part == null) {
+                continue;
+            }
+            ChunkVertexFlag flag = ChunkVertexFlag.NORMAL;
+            if (block.isGrass() && side != Side.TOP && side != Side.BOTTOM) {
+                flag = ChunkVertexFlag.COLOR_MASK;
+            }
+
+            FaceLayout layout = getLayout(part, side);
+            float[] lighting = layout != null ? getUniformLighting(part, x, y, z) : null;
+            if (lighting == null) {
+                part.appendTo(mesh, chunkView, x, y, z, ChunkMesh.RenderType.OPAQUE, flag);
+            } else {
+                faces[side.ordinal()][index(x, y, z)] = addFace(part, flag, lighting);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the collected sides into quads and adds them to the mesh.
+     */
+    void finish() {
+        int[] pos = new int[3];
+        for (Side side : SIDES) {
+            int[] sideFaces = faces[side.ordinal()];
+            Vector3ic normal = side.direction();
+            int n = normal.x() != 0 ? 0 : (normal.y() != 0 ? 1 : 2);
+            int a = n == 0 ? 1 : 0;
+            int b = n == 2 ? 1 : 2;
+            int strideA = stride(a);
+            int strideB = stride(b);
+            for (int slice = 0; slice < size(n); slice++) {
+                pos[n] = slice;
+                pos[a] = 0;
+                pos[b] = 0;
+                int sliceStart = index(pos[0], pos[1], pos[2]);
+                for (int j = 0; j < size(b); j++) {
+                    for (int i = 0; i < size(a); i++) {
+                        int start = sliceStart + i * strideA + j * strideB;
+                        int face = sideFaces[start];
+                        if (face == 0) {
+                            continue;
+                        }
+
+                        int width = 1;
+                        while (i + width < size(a) && sameFace(face, sideFaces[start + width * strideA])) {
+                            width++;
+                        }
+                        int depth = 1;
+                        while (j + depth < size(b)
+                                && rowMatches(face, sideFaces, start + depth * strideB, strideA, width)) {
+                            depth++;
+                        }
+                        for (int row = 0; row < depth; row++) {
+                            for (int column = 0; column < width; column++) {
+                                sideFaces[start + row * strideB + column * strideA] = 0;
+                            }
+                        }
+                        pos[a] = i;
+                        pos[b] = j;
+                        appendQuad(face - 1, pos, a, b, width, depth);
+                    }
+                }
+            }
+        }
+        Arrays.fill(faceParts, 0, faceCount, null);
+        Arrays.fill(faceFlags, 0, faceCount, null);
+        faceCount = 0;
+        chunkView = null;
+        mesh = null;
+    }
+
+    private static boolean canMerge(Block block) {
+        BlockMeshGenerator generator = block.getMeshGenerator();
+        return generator != null && generator.getClass() == BlockMeshGeneratorSingleShape.class
+                && !block.isTranslucent() && !block.isLiquid() && !block.isWater() && !block.isIce()
+                && !block.isDoubleSided() && !block.isWaving()
+                && block.getPrimaryAppearance().getPart(BlockPart.CENTER) == null;
+    }
+
+    /**
+     * @return the lighting of the first vertex if it is the same for all vertices, null otherwise
+     */
+    private float[] getUniformLighting(BlockMeshPart part, int x, int y, int z) {
+        float[] lighting = part.getLightingValues(chunkView, x, y, z, 0);
+        for (int i = 1; i < part.size(); i++) {
+            if (!Arrays.equals(lighting, part.getLightingValues(chunkView, x, y, z, i))) {
+                return null;
+            }
+        }
+        return lighting;
+    }
+
+    private int addFace(BlockMeshPart part, ChunkVertexFlag flag, float[] lighting) {
+        if (faceCount == faceParts.length) {
+            faceParts = Arrays.copyOf(faceParts, faceCount * 2);
+            faceFlags = Arrays.copyOf(faceFlags, faceCount * 2);
+            faceLighting = Arrays.copyOf(faceLighting, faceCount * 2 * 3);
+        }
+        faceParts[faceCount] = part;
+        faceFlags[faceCount] = flag;
+        System.arraycopy(lighting, 0, faceLighting, faceCount * 3, 3);
+        return ++faceCount;
+    }
+
+    private boolean sameFace(int face, int other) {
+        if (other == 0) {
+            return false;
+        }
+        int first = face - 1;
+        int second = other - 1;
+        return faceParts[first] == faceParts[second] && faceFlags[first] == faceFlags[second]
+                && faceLighting[first * 3] == faceLighting[second * 3]
+                && faceLighting[first * 3 + 1] == faceLighting[second * 3 + 1]
+                && faceLighting[first * 3 + 2] == faceLighting[second * 3 + 2];
+    }
+
+    private boolean rowMatches(int face, int[] sideFaces, int rowStart, int stride, int width) {
+        for (int i = 0; i < width; i++) {
+            if (!sameFace(face, sideFaces[rowStart + i * stride])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a quad covering width by depth sides, starting with the side of the block at the given position.
+     */
+    private void appendQuad(int face, int[] pos, int a, int b, int width, int depth) {
+        BlockMeshPart part = faceParts[face];
+        FaceLayout layout = layouts.get(part);
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int n = 3 - a - b;
+        float[] vertex = new float[3];
+        int nextIndex = elements.vertexCount;
+        for (int i = 0; i < 4; i++) {
+            vertex[n] = pos[n] + layout.normalOffset[i];
+            vertex[a] = pos[a] - 0.5f + layout.cornerA[i] * width;
+            vertex[b] = pos[b] - 0.5f + layout.cornerB[i] * depth;
+            int repeatU = layout.uAlongA ? width : depth;
+            int repeatV = layout.uAlongA ? depth : width;
+            Vector3f normal = part.getNormal(i);
+            elements.addVertex(vertex[0], vertex[1], vertex[2])
+                    .setTexCoord(layout.minU + layout.cornerU[i] * repeatU, layout.minV + layout.cornerV[i] * repeatV)
+                    .setFlags(faceFlags[face].getValue(), part.getTexFrames())
+                    .setLight(faceLighting[face * 3], faceLighting[face * 3 + 1], faceLighting[face * 3 + 2])
+                    .setNormal(normal.x, normal.y, normal.z);
+        }
+        for (int i = 0; i < part.indicesSize(); i++) {
+            elements.addIndex(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    private FaceLayout getLayout(BlockMeshPart part, Side side) {
+        FaceLayout layout = layouts.get(part);
+        if (layout == null) {
+            layout = FaceLayout.create(part, side);
+            layouts.put(part, layout);
+        }
+        return layout == FaceLayout.UNSUPPORTED ? null : layout;
+    }
+
+    private int size(int axis) {
+        switch (axis) {
+            case 0:
+                return Chunks.SIZE_X;
+            case 1:
+                return height;
+            default:
+                return Chunks.SIZE_Z;
+        }
+    }
+
+    private static int index(int x, int y, int z) {
+        return x + Chunks.SIZE_X * (y + Chunks.SIZE_Y * z);
+    }
+
+    private static int stride(int axis) {
+        switch (axis) {
+            case 0:
+                return 1;
+            case 1:
+                return Chunks.SIZE_X;
+            default:
+                return Chunks.SIZE_X * Chunks.SIZE_Y;
+        }
+    }
+
+    /**
+     * Describes how the four vertices of a side's mesh part map to the corners of the side and its tile.
+     */
+    private static final class FaceLayout {
+        private static final FaceLayout UNSUPPORTED = new FaceLayout();
+
+        /* 0 or 1 for the lower or upper end of the axis, for each vertex */
+        private final int[] cornerA = new int[4];
+        private final int[] cornerB = new int[4];
+        private final int[] cornerU = new int[4];
+        private final int[] cornerV = new int[4];
+        private final float[] normalOffset = new float[4];
+        private boolean uAlongA;
+        private float minU;
+        private float minV;
+
+        /**
+         * @return the layout of the part, or {@link #UNSUPPORTED} if it is not a square tile covering the side
+         */
+        static FaceLayout create(BlockMeshPart part, Side side) {
+            if (part.size() != 4) {
+                return UNSUPPORTED;
+            }
+            Vector3ic normal = side.direction();
+            int n = normal.x() != 0 ? 0 : (normal.y() != 0 ? 1 : 2);
+            int a = n == 0 ? 1 : 0;
+            int b = n == 2 ? 1 : 2;
+
+            FaceLayout layout = new FaceLayout();
+            float maxU = Float.NEGATIVE_INFINITY;
+            float maxV = Float.NEGATIVE_INFINITY;
+            layout.minU = Float.POSITIVE_INFINITY;
+            layout.minV = Float.POSITIVE_INFINITY;
+            int corners = 0;
+            for (int i = 0; i < 4; i++) {
+                Vector3f vertex = part.getVertex(i);
+                Vector2f texCoord = part.getTexCoord(i);
+                layout.cornerA[i] = corner(vertex.get(a));
+                layout.cornerB[i] = corner(vertex.get(b));
+                if (layout.cornerA[i] < 0 || layout.cornerB[i] < 0) {
+                    return UNSUPPORTED;
+                }
+                corners |= 1 << (layout.cornerA[i] + 2 * layout.cornerB[i]);
+                layout.normalOffset[i] = vertex.get(n);
+                layout.minU = Math.min(layout.minU, texCoord.x);
+                layout.minV = Math.min(layout.minV, texCoord.y);
+                maxU = Math.max(maxU, texCoord.x);
+                maxV = Math.max(maxV, texCoord.y);
+            }
+            float tileSize = maxU - layout.minU;
+            if (corners != 0b1111 || tileSize < EPSILON || Math.abs(maxV - layout.minV - tileSize) > EPSILON) {
+                return UNSUPPORTED;
+            }
+
+            for (int i = 0; i < 4; i++) {
+                layout.cornerU[i] = Math.abs(part.getTexCoord(i).x - maxU) < EPSILON ? 1 : 0;
+                layout.cornerV[i] = Math.abs(part.getTexCoord(i).y - maxV) < EPSILON ? 1 : 0;
+            }
+            layout.uAlongA = follows(layout.cornerU, layout.cornerA);
+            boolean uAlongB = follows(layout.cornerU, layout.cornerB);
+            boolean vAlongA = follows(layout.cornerV, layout.cornerA);
+            boolean vAlongB = follows(layout.cornerV, layout.cornerB);
+            if (!(layout.uAlongA && vAlongB) && !(uAlongB && vAlongA)) {
+                return UNSUPPORTED;
+            }
+            return layout;
+        }
+
+        /**
+         * @return 0 or 1 for a coordinate at the lower or upper edge of the block, -1 otherwise
+         */
+        private static int corner(float coordinate) {
+            if (Math.abs(coordinate + 0.5f) < EPSILON) {
+                return 0;
+            }
+            return Math.abs(coordinate - 0.5f) < EPSILON ? 1 : -1;
+        }
+
+        /**
+         * @return true if the texture corners change exactly where the position corners change
+         */
+        private static boolean follows(int[] texCorners, int[] corners) {
+            boolean same = true;
+            boolean flipped = true;
+            for (int i = 0; i < 4; i++) {
+                same &= texCorners[i] == corners[i];
+                flipped &= texCorners[i] != corners[i];
+            }
+            return same || flipped;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.rendering.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.joml.Vector3ic;
+import org.terasology.engine.rendering.primitives.ChunkMesh;
+import org.terasology.engine.world.chunks.Chunk;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the memory used by the meshes of the chunks near the camera, and disposes meshes once they take up
+ * more than a given budget.
+ * <br><br>
+ * The meshes of the chunks which have not been in sight for the longest time are disposed first, further away chunks
+ * before closer ones. A chunk whose mesh got disposed is not tessellated again until it comes back into sight, which is
+ * counted as a miss. Chunks in sight with a mesh are counted as hits.
+ * <br><br>
+ * Meant to be used by the main thread only.
+ */
+final class ChunkMeshCache {
+    private static final long UNLIMITED = 0;
+    /* least recently visible first, and the furthest away of those which were last visible in the same frame */
+    private static final Comparator<Entry> EVICTION_ORDER = Comparator
+            .<Entry>comparingInt(entry -> entry.lastVisibleFrame)
+            .thenComparing(Comparator.<Entry>comparingLong(entry -> entry.distance).reversed());
+
+    private final Map<Chunk, Entry> entries = Maps.newHashMap();
+    private final Set<Chunk> evicted = Sets.newHashSet();
+
+    private long budget = UNLIMITED;
+    private long usedBytes;
+    private int frame;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param budget the number of bytes the meshes may take up, or 0 if unlimited
+     */
+    void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Starts a new frame, the chunks marked visible afterwards are not evicted until the next frame.
+     */
+    void nextFrame() {
+        frame++;
+    }
+
+    /**
+     * Adds the current mesh of the given chunk, replacing the previous mesh of the chunk.
+     */
+    void add(Chunk chunk) {
+        remove(chunk);
+        ChunkMesh mesh = chunk.getMesh();
+        if (mesh != null) {
+            Entry entry = new Entry(chunk, mesh, frame);
+            entries.put(chunk, entry);
+            usedBytes += entry.size;
+        }
+    }
+
+    /**
+     * Forgets about the given chunk, e.g. because it is no longer close to the camera.
+     */
+    void remove(Chunk chunk) {
+        Entry entry = entries.remove(chunk);
+        if (entry != null) {
+            usedBytes -= entry.size;
+        }
+        evicted.remove(chunk);
+    }
+
+    /**
+     * Marks the given chunk as being in sight in the current frame.
+     *
+     * @return false if the mesh of the chunk had been evicted, and needs to be generated again
+     */
+    boolean markVisible(Chunk chunk) {
+        Entry entry = entries.get(chunk);
+        if (entry != null) {
+            entry.lastVisibleFrame = frame;
+            hits++;
+            return true;
+        }
+        if (evicted.remove(chunk)) {
+            misses++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the mesh of the given chunk has been evicted, and the chunk has not been in sight since
+     */
+    boolean isEvicted(Chunk chunk) {
+        return evicted.contains(chunk);
+    }
+
+    /**
+     * Disposes meshes until the remaining ones fit into the budget. Meshes of chunks which are in sight in the current
+     * frame are kept.
+     *
+     * @param cameraChunkPosition the position of the chunk containing the camera
+     */
+    void evict(Vector3ic cameraChunkPosition) {
+        if (budget == UNLIMITED || usedBytes <= budget) {
+            return;
+        }
+        List<Entry> candidates = Lists.newArrayList();
+        for (Entry entry : entries.values()) {
+            if (entry.lastVisibleFrame < frame) {
+                entry.distance = entry.chunk.getPosition().distanceSquared(cameraChunkPosition);
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(EVICTION_ORDER);
+
+        for (Entry entry : candidates) {
+            if (usedBytes <= budget) {
+                break;
+            }
+            entries.remove(entry.chunk);
+            usedBytes -= entry.size;
+            if (entry.chunk.getMesh() == entry.mesh) {
+                entry.chunk.disposeMesh();
+                evicted.add(entry.chunk);
+                evictions++;
+            }
+        }
+    }
+
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+
+    private static final class Entry {
+        private final Chunk chunk;
+        private final ChunkMesh mesh;
+        private final int size;
+        private int lastVisibleFrame;
+        private long distance;
+
+        Entry(Chunk chunk, ChunkMesh mesh, int frame) {
+            this.chunk = chunk;
+            this.mesh = mesh;
+            this.size = mesh.getMemoryUsage();
+            this.lastVisibleFrame = frame;
+        }
+    }
+}
@@ -48,6 +48,7 @@ class RenderableWorldImpl implements RenderableWorld {
     private static final int MAX_ANIMATED_CHUNKS = 64;
     private static final int MAX_BILLBOARD_CHUNKS = 64;
     private static final int MAX_LOADABLE_CHUNKS = ViewDistance.MEGA.getChunkDistance().x() * ViewDistance.MEGA.getChunkDistance().y() * ViewDistance.MEGA.getChunkDistance().z();
+    private static final long BYTES_PER_MIB = 1 << 20;
     private static final Vector3fc CHUNK_CENTER_OFFSET = new Vector3f(Chunks.CHUNK_SIZE).div(2);
 
     private static final Logger logger = LoggerFactory.getLogger(RenderableWorldImpl.class);
@@ -60,6 +61,7 @@ class RenderableWorldImpl implements RenderableWorld {
 
     private ChunkTessellator chunkTessellator;
     private final ChunkMeshUpdateManager chunkMeshUpdateManager;
+    private final ChunkMeshCache chunkMeshCache = new ChunkMeshCache();
     private final List<Chunk> chunksInProximityOfCamera = Lists.newArrayListWithCapacity(MAX_LOADABLE_CHUNKS);
     private BlockRegion renderableRegion = new BlockRegion(BlockRegion.INVALID);
     private ViewDistance currentViewDistance;
@@ -129,6 +131,7 @@ public void onChunkUnloaded(Vector3ic chunkCoordinates) {
             while (iterator.hasNext()) {
                 chunk = iterator.next();
                 if (chunk.getPosition(new org.joml.Vector3i()).equals(chunkCoordinates)) {
+                    chunkMeshCache.remove(chunk);
                     chunk.disposeMesh();
                     iterator.remove();
                     break;
@@ -171,6 +174,7 @@ public boolean pregenerateChunks() {
                     chunk.getMesh().dispose();
                 }
                 chunk.setMesh(newMesh);
+                chunkMeshCache.add(chunk);
 
                 pregenerationIsComplete = false;
                 break;
@@ -216,6 +220,7 @@ public boolean updateChunksInProximity(BlockRegion newRenderableRegion) {
                     for (Iterator<Chunk> it = nearbyChunks; it.hasNext(); ) {
                         chunk = it.next();
                         if (chunk.getPosition(new org.joml.Vector3i()).equals(chunkPositionToRemove)) {
+                            chunkMeshCache.remove(chunk);
                             chunk.disposeMesh();
                             nearbyChunks.remove();
                             break;
@@ -292,6 +297,7 @@ public void generateVBOs() {
                 }
                 chunk.setMesh(pendingMesh);
                 chunk.setPendingMesh(null);
+                chunkMeshCache.add(chunk);
 
             } else {
                 if (chunk.hasPendingMesh()) {
@@ -300,6 +306,8 @@ public void generateVBOs() {
                 }
             }
         }
+        chunkMeshCache.setBudget(renderingConfig.getChunkMeshMemoryBudget() * BYTES_PER_MIB);
+        chunkMeshCache.evict(calcCameraCoordinatesInChunkUnits());
         PerformanceMonitor.endActivity();
     }
 
@@ -375,8 +383,15 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         }
 
         if (isFirstRenderingStageForCurrentFrame) {
+            chunkMeshCache.nextFrame();
             for (Chunk chunk : chunksInProximityOfCamera) {
-                if (isChunkValidForRender(chunk) && (chunk.isDirty() || !chunk.hasMesh())) {
+                if (isChunkValidForRender(chunk) && (isChunkVisible(chunk)
+                        || isDynamicShadows && isChunkVisibleFromMainLight(chunk))) {
+                    chunkMeshCache.markVisible(chunk);
+                }
+                // chunks whose meshes were evicted get tessellated again once they come back into sight
+                if (isChunkValidForRender(chunk) && (chunk.isDirty() || !chunk.hasMesh())
+                        && !chunkMeshCache.isEvicted(chunk)) {
                     statDirtyChunks++;
                     chunkMeshUpdateManager.queueChunkUpdate(chunk);
                     processedChunks++;
@@ -460,6 +475,13 @@ public String getMetrics() {
         stringToReturn += "Visible Chunks: ";
         stringToReturn += statVisibleChunks;
         stringToReturn += "\n";
+        stringToReturn += "Chunk Mesh Memory: ";
+        stringToReturn += chunkMeshCache.getUsedBytes() / BYTES_PER_MIB;
+        stringToReturn += " MiB\n";
+        stringToReturn += "Chunk Mesh Hits/Misses/Evictions: ";
+        stringToReturn += chunkMeshCache.getHits() + "/" + chunkMeshCache.getMisses() + "/"
+                + chunkMeshCache.getEvictions();
+        stringToReturn += "\n";
         return stringToReturn;
     }
 
@@ -155,7 +155,9 @@ public WorldRendererImpl(Context context, GLBufferPool bufferPool) {
         LocalPlayerSystem localPlayerSystem = context.get(LocalPlayerSystem.class);
         localPlayerSystem.setPlayerCamera(playerCamera);
 
-        context.put(ChunkTessellator.class, new ChunkTessellator(bufferPool));
+        ChunkTessellator chunkTessellator = new ChunkTessellator(bufferPool);
+        chunkTessellator.setGreedyMeshing(renderingConfig.isGreedyMeshing());
+        context.put(ChunkTessellator.class, chunkTessellator);
 
         renderableWorld = new RenderableWorldImpl(context, playerCamera);
         renderQueues = renderableWorld.getRenderQueues();
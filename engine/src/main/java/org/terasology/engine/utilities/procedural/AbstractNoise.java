@@ -3,9 +3,12 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import org.terasology.engine.world.block.BlockAreac;
+import org.terasology.engine.world.block.BlockRegionc;
+
 /**
  * An abstract implementation of most methods.
- * The int-based methods delegate to float-bases ones.
+ * The int-based methods delegate to float-bases ones, and so do areas and regions through the grid methods.
  */
 public abstract class AbstractNoise implements Noise {
 
@@ -23,4 +26,17 @@ public float noise(int x, int y, int z) {
     public float noise(float x, float y) {
         return noise(x, y, 0);
     }
+
+    @Override
+    public void noise(BlockAreac area, float[] out) {
+        noiseGrid(Noise.gridAxis(area.minX(), 1, area.getSizeX(), 1),
+                Noise.gridAxis(area.minY(), 1, area.getSizeY(), 1), out);
+    }
+
+    @Override
+    public void noise(BlockRegionc region, float[] out) {
+        noiseGrid(Noise.gridAxis(region.minX(), 1, region.getSizeX(), 1),
+                Noise.gridAxis(region.minY(), 1, region.getSizeY(), 1),
+                Noise.gridAxis(region.minZ(), 1, region.getSizeZ(), 1), out);
+    }
 }
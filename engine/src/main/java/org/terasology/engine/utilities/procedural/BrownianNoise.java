@@ -3,6 +3,8 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -27,6 +29,9 @@ public class BrownianNoise extends AbstractNoise {
     private float scale;                // 1/sum of all weights
     private final Noise other;
 
+    /* the octave being sampled by the grid methods */
+    private final ThreadLocal<float[]> octaveBuffers = ThreadLocal.withInitial(() -> new float[0]);
+
     /**
      * Initialize with 9 octaves - <b>this is quite expensive, but backwards compatible</b>
      * @param other the noise to use as a basis
@@ -98,6 +103,85 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Samples the grid of every octave in one go through the grid methods of the base noise. The coordinates of each
+     * octave are derived per axis in the same way as {@link #noise(float, float)} does.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] out) {
+        int size = xs.length * ys.length;
+        float[] octave = getOctaveBuffer(size);
+        Arrays.fill(out, 0, size, 0.0f);
+
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noiseGrid(workingXs, workingYs, octave);
+            addOctave(octave, spectralWeights[i], out, size);
+
+            float offsetX = 10 * other.noise(i + 0.5f, 0.5f);
+            float offsetY = 10 * other.noise(-i - 0.5f, -0.5f);
+            for (int x = 0; x < workingXs.length; x++) {
+                workingXs[x] *= (float) getLacunarity();
+                workingXs[x] += offsetX;
+            }
+            for (int y = 0; y < workingYs.length; y++) {
+                workingYs[y] *= (float) getLacunarity();
+                workingYs[y] += offsetY;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            out[i] *= scale;
+        }
+    }
+
+    /**
+     * Samples the grid of every octave in one go through the grid methods of the base noise. The coordinates of each
+     * octave are derived per axis in the same way as {@link #noise(float, float, float)} does.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] zs, float[] out) {
+        int size = xs.length * ys.length * zs.length;
+        float[] octave = getOctaveBuffer(size);
+        Arrays.fill(out, 0, size, 0.0f);
+
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        float[] workingZs = zs.clone();
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noiseGrid(workingXs, workingYs, workingZs, octave);
+            addOctave(octave, spectralWeights[i], out, size);
+
+            scaleAxis(workingXs);
+            scaleAxis(workingYs);
+            scaleAxis(workingZs);
+        }
+        for (int i = 0; i < size; i++) {
+            out[i] *= scale;
+        }
+    }
+
+    private void scaleAxis(float[] axis) {
+        for (int i = 0; i < axis.length; i++) {
+            axis[i] *= (float) getLacunarity();
+        }
+    }
+
+    private float[] getOctaveBuffer(int size) {
+        float[] buffer = octaveBuffers.get();
+        if (buffer.length < size) {
+            buffer = new float[size];
+            octaveBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static void addOctave(float[] octave, float weight, float[] out, int size) {
+        for (int i = 0; i < size; i++) {
+            out[i] += octave[i] * weight;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
@@ -3,9 +3,15 @@
 
 package org.terasology.engine.utilities.procedural;
 
+import org.terasology.engine.world.block.BlockAreac;
+import org.terasology.engine.world.block.BlockRegionc;
+
 /**
  * Provides or generates noise
- *
+ * <br><br>
+ * Besides single positions, noise can be sampled for whole grids at once. The default implementations sample every
+ * position on its own. Implementations override them to share the work between neighbouring positions, like the
+ * lattice cell and its gradients, and to sample without allocating.
  */
 public interface Noise {
 
@@ -46,4 +52,83 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Samples the noise at every block of the given area.
+     *
+     * @param area the area to sample, where the y axis of the area is the y axis of the noise
+     * @param out receives the noise values, indexed by {@code x + sizeX * y} relative to the minimum of the area
+     */
+    default void noise(BlockAreac area, float[] out) {
+        int index = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                out[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Samples the noise at every block of the given region.
+     *
+     * @param region the region to sample
+     * @param out receives the noise values, indexed by {@code x + sizeX * (y + sizeY * z)} relative to the minimum of
+     *         the region
+     */
+    default void noise(BlockRegionc region, float[] out) {
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    out[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples the noise on a 2D grid, at {@code (xs[i], ys[j])} for every i and j. The coordinates are given per axis,
+     * so that every position of the grid is sampled at exactly the coordinates it has on its own, wherever the grid
+     * starts.
+     *
+     * @param out receives the noise values, indexed by {@code i + xs.length * j}
+     */
+    default void noiseGrid(float[] xs, float[] ys, float[] out) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                out[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Samples the noise on a 3D grid, at {@code (xs[i], ys[j], zs[k])} for every i, j and k. The coordinates are given
+     * per axis, so that every position of the grid is sampled at exactly the coordinates it has on its own, wherever
+     * the grid starts.
+     *
+     * @param out receives the noise values, indexed by {@code i + xs.length * (j + ys.length * k)}
+     */
+    default void noiseGrid(float[] xs, float[] ys, float[] zs, float[] out) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    out[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the coordinates {@code scale * (min + i * step)} for {@code i < count}, computed from the integer
+     *         position so that they do not depend on {@code min}
+     */
+    static float[] gridAxis(int min, int step, int count, float scale) {
+        float[] axis = new float[count];
+        for (int i = 0; i < count; i++) {
+            axis[i] = scale * (min + i * step);
+        }
+        return axis;
+    }
 }
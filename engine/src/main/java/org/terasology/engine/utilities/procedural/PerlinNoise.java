@@ -107,6 +107,80 @@ public float noise(float posX, float posY, float posZ) {
         return TeraMath.lerp(val1, val2, w);
     }
 
+    /**
+     * Gives the same values as {@link #noise(float, float)}, see
+     * {@link #noiseGrid(float[], float[], float[], float[])}.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] out) {
+        noiseGrid(xs, ys, new float[] {0}, out);
+    }
+
+    /**
+     * Gives the same values as {@link #noise(float, float, float)}, but hashes the corners of a lattice cell only once
+     * for all the positions inside it.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] zs, float[] out) {
+        int cellX = -1;
+        int cellY = -1;
+        int cellZ = -1;
+        int hashAA = 0;
+        int hashBA = 0;
+        int hashAB = 0;
+        int hashBB = 0;
+        int hashAA1 = 0;
+        int hashBA1 = 0;
+        int hashAB1 = 0;
+        int hashBB1 = 0;
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = Math.floorMod(TeraMath.floorToInt(posZ), permCount);
+            float fracZ = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(fracZ);
+            for (float posY : ys) {
+                int yInt = Math.floorMod(TeraMath.floorToInt(posY), permCount);
+                float fracY = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(fracY);
+                for (float posX : xs) {
+                    int xInt = Math.floorMod(TeraMath.floorToInt(posX), permCount);
+                    if (xInt != cellX || yInt != cellY || zInt != cellZ) {
+                        cellX = xInt;
+                        cellY = yInt;
+                        cellZ = zInt;
+                        int a = noisePermutations[xInt] + yInt;
+                        int aa = noisePermutations[a] + zInt;
+                        int ab = noisePermutations[(a + 1)] + zInt;
+                        int b = noisePermutations[(xInt + 1)] + yInt;
+                        int ba = noisePermutations[b] + zInt;
+                        int bb = noisePermutations[(b + 1)] + zInt;
+                        hashAA = noisePermutations[aa];
+                        hashBA = noisePermutations[ba];
+                        hashAB = noisePermutations[ab];
+                        hashBB = noisePermutations[bb];
+                        hashAA1 = noisePermutations[(aa + 1)];
+                        hashBA1 = noisePermutations[(ba + 1)];
+                        hashAB1 = noisePermutations[(ab + 1)];
+                        hashBB1 = noisePermutations[(bb + 1)];
+                    }
+                    float fracX = posX - TeraMath.fastFloor(posX);
+                    float u = TeraMath.fadePerlin(fracX);
+
+                    float val1 = TeraMath.lerp(
+                            TeraMath.lerp(grad(hashAA, fracX, fracY, fracZ), grad(hashBA, fracX - 1, fracY, fracZ), u),
+                            TeraMath.lerp(grad(hashAB, fracX, fracY - 1, fracZ),
+                                    grad(hashBB, fracX - 1, fracY - 1, fracZ), u), v);
+                    float val2 = TeraMath.lerp(
+                            TeraMath.lerp(grad(hashAA1, fracX, fracY, fracZ - 1),
+                                    grad(hashBA1, fracX - 1, fracY, fracZ - 1), u),
+                            TeraMath.lerp(grad(hashAB1, fracX, fracY - 1, fracZ - 1),
+                                    grad(hashBB1, fracX - 1, fracY - 1, fracZ - 1), u), v);
+                    out[index++] = TeraMath.lerp(val1, val2, w);
+                }
+            }
+        }
+    }
+
     private static float grad(int hash, float x, float y, float z) {
         int h = hash & 15;
         float u = h < 8 ? x : y;
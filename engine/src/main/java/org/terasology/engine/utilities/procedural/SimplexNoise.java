@@ -47,6 +47,11 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
             new Grad(1, 1, 1, 0), new Grad(1, 1, -1, 0), new Grad(1, -1, 1, 0), new Grad(1, -1, -1, 0),
             new Grad(-1, 1, 1, 0), new Grad(-1, 1, -1, 0), new Grad(-1, -1, 1, 0), new Grad(-1, -1, -1, 0)};
 
+    // The components of grad3, for the grid methods
+    private static final float[] GRAD3_X = {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0};
+    private static final float[] GRAD3_Y = {1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1};
+    private static final float[] GRAD3_Z = {0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1};
+
     // Skewing and unskewing factors for 2, 3, and 4 dimensions
     private static final float F2 = 0.5f * (float) (Math.sqrt(3.0f) - 1.0f);
     private static final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
@@ -338,6 +343,143 @@ public float noise(float xin, float yin, float zin) {
     }
 
 
+    /**
+     * 2D simplex noise on a grid. Gives the same values as {@link #noise(float, float)}, but looks up the gradients
+     * of a skewed cell only once for all the positions inside it.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] out) {
+        int cellI = Integer.MIN_VALUE;
+        int cellJ = Integer.MIN_VALUE;
+        int gi00 = 0;
+        int gi10 = 0;
+        int gi01 = 0;
+        int gi11 = 0;
+        int index = 0;
+        for (float yin : ys) {
+            for (float xin : xs) {
+                float s = (xin + yin) * F2;
+                int i = TeraMath.floorToInt(xin + s);
+                int j = TeraMath.floorToInt(yin + s);
+                if (i != cellI || j != cellJ) {
+                    cellI = i;
+                    cellJ = j;
+                    int ii = Math.floorMod(i, permCount);
+                    int jj = Math.floorMod(j, permCount);
+                    gi00 = permMod12[ii + perm[jj]];
+                    gi10 = permMod12[ii + 1 + perm[jj]];
+                    gi01 = permMod12[ii + perm[jj + 1]];
+                    gi11 = permMod12[ii + 1 + perm[jj + 1]];
+                }
+                float t = (i + j) * G2;
+                float x0 = xin - (i - t);
+                float y0 = yin - (j - t);
+                float n1;
+                if (x0 > y0) {
+                    n1 = contribution2D(gi10, x0 - 1 + G2, y0 + G2);
+                } else {
+                    n1 = contribution2D(gi01, x0 + G2, y0 - 1 + G2);
+                }
+                float n0 = contribution2D(gi00, x0, y0);
+                float n2 = contribution2D(gi11, x0 - 1.0f + 2.0f * G2, y0 - 1.0f + 2.0f * G2);
+                out[index++] = 70.0f * (n0 + n1 + n2);
+            }
+        }
+    }
+
+    /**
+     * 3D simplex noise on a grid. Gives the same values as {@link #noise(float, float, float)}, but looks up the
+     * gradients of the corners of a skewed cube only once for all the positions inside it.
+     */
+    @Override
+    public void noiseGrid(float[] xs, float[] ys, float[] zs, float[] out) {
+        int cellI = Integer.MIN_VALUE;
+        int cellJ = Integer.MIN_VALUE;
+        int cellK = Integer.MIN_VALUE;
+        // the gradient indices of the cube corners, indexed by (di << 2) | (dj << 1) | dk
+        int[] cube = new int[8];
+        int index = 0;
+        for (float zin : zs) {
+            for (float yin : ys) {
+                for (float xin : xs) {
+                    float s = (xin + yin + zin) * F3;
+                    int i = TeraMath.floorToInt(xin + s);
+                    int j = TeraMath.floorToInt(yin + s);
+                    int k = TeraMath.floorToInt(zin + s);
+                    if (i != cellI || j != cellJ || k != cellK) {
+                        cellI = i;
+                        cellJ = j;
+                        cellK = k;
+                        int ii = Math.floorMod(i, permCount);
+                        int jj = Math.floorMod(j, permCount);
+                        int kk = Math.floorMod(k, permCount);
+                        for (int corner = 0; corner < 8; corner++) {
+                            cube[corner] = permMod12[ii + (corner >> 2)
+                                    + perm[jj + ((corner >> 1) & 1) + perm[kk + (corner & 1)]]];
+                        }
+                    }
+                    float t = (i + j + k) * G3;
+                    float x0 = xin - (i - t);
+                    float y0 = yin - (j - t);
+                    float z0 = zin - (k - t);
+
+                    // the corners of the simplex, as in noise(float, float, float)
+                    int corner1;
+                    int corner2;
+                    if (x0 >= y0) {
+                        if (y0 >= z0) {
+                            corner1 = 4;
+                            corner2 = 6;
+                        } else if (x0 >= z0) {
+                            corner1 = 4;
+                            corner2 = 5;
+                        } else {
+                            corner1 = 1;
+                            corner2 = 5;
+                        }
+                    } else {
+                        if (y0 < z0) {
+                            corner1 = 1;
+                            corner2 = 3;
+                        } else if (x0 < z0) {
+                            corner1 = 2;
+                            corner2 = 3;
+                        } else {
+                            corner1 = 2;
+                            corner2 = 6;
+                        }
+                    }
+                    float n0 = contribution3D(cube[0], x0, y0, z0);
+                    float n1 = contribution3D(cube[corner1], x0 - (corner1 >> 2) + G3,
+                            y0 - ((corner1 >> 1) & 1) + G3, z0 - (corner1 & 1) + G3);
+                    float n2 = contribution3D(cube[corner2], x0 - (corner2 >> 2) + 2.0f * G3,
+                            y0 - ((corner2 >> 1) & 1) + 2.0f * G3, z0 - (corner2 & 1) + 2.0f * G3);
+                    float n3 = contribution3D(cube[7], x0 - 1.0f + 3.0f * G3, y0 - 1.0f + 3.0f * G3,
+                            z0 - 1.0f + 3.0f * G3);
+                    out[index++] = 32.0f * (n0 + n1 + n2 + n3);
+                }
+            }
+        }
+    }
+
+    private static float contribution2D(int gi, float x, float y) {
+        float t = 0.5f - x * x - y * y;
+        if (t < 0) {
+            return 0.0f;
+        }
+        t *= t;
+        return t * t * (GRAD3_X[gi] * x + GRAD3_Y[gi] * y);
+    }
+
+    private static float contribution3D(int gi, float x, float y, float z) {
+        float t = 0.6f - x * x - y * y - z * z;
+        if (t < 0) {
+            return 0.0f;
+        }
+        t *= t;
+        return t * t * (GRAD3_X[gi] * x + GRAD3_Y[gi] * y + GRAD3_Z[gi] * z);
+    }
+
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
      *
@@ -11,6 +11,7 @@
 import org.terasology.engine.world.block.BlockArea;
 import org.terasology.engine.world.block.BlockAreac;
 import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
 
 public class SubSampledNoise extends AbstractNoise {
 
@@ -55,6 +56,12 @@ public float[] noise(BlockAreac area) {
         return noise(area, 1);
     }
 
+    @Override
+    public void noise(BlockAreac area, float[] out) {
+        float[] result = noise(area);
+        System.arraycopy(result, 0, out, 0, result.length);
+    }
+
     public float[] noise(BlockAreac area, float scale) {
         BlockArea fullRegion = determineRequiredRegion(area);
         float[] keyData = getKeyValues(fullRegion, scale);
@@ -100,14 +107,8 @@ private float[] getKeyValues(BlockAreac fullRegion, float scale) {
         int xDim = fullRegion.getSizeX() / sampleRate + 1;
         int yDim = fullRegion.getSizeY() / sampleRate + 1;
         float[] fullData = new float[xDim * yDim];
-        for (int y = 0; y < yDim; y++) {
-            for (int x = 0; x < xDim; x++) {
-                int actualX = x * sampleRate + fullRegion.minX();
-                int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * scale * actualX, zoom.y * scale * actualY);
-            }
-        }
-
+        source.noiseGrid(Noise.gridAxis(fullRegion.minX(), sampleRate, xDim, zoom.x * scale),
+                Noise.gridAxis(fullRegion.minY(), sampleRate, yDim, zoom.y * scale), fullData);
         return fullData;
     }
 
@@ -147,6 +148,12 @@ public float[] noise(BlockRegion region) {
         return noise(region, 1);
     }
 
+    @Override
+    public void noise(BlockRegionc region, float[] out) {
+        float[] result = noise(new BlockRegion(region));
+        System.arraycopy(result, 0, out, 0, result.length);
+    }
+
     public float[] noise(BlockRegion region, float scale) {
         BlockRegion fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion, scale);
@@ -206,16 +213,9 @@ private float[] getKeyValues(BlockRegion fullRegion, float scale) {
         int yDim = fullRegion.getSizeY() / sampleRate + 1;
         int zDim = fullRegion.getSizeZ() / sampleRate + 1;
         float[] fullData = new float[xDim * yDim * zDim];
-        for (int z = 0; z < zDim; z++) {
-            for (int y = 0; y < yDim; y++) {
-                for (int x = 0; x < xDim; x++) {
-                    int actualX = x * sampleRate + fullRegion.minX();
-                    int actualY = y * sampleRate + fullRegion.minY();
-                    int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * scale * actualX, zoom.y * scale * actualY, zoom.z * scale * actualZ);
-                }
-            }
-        }
+        source.noiseGrid(Noise.gridAxis(fullRegion.minX(), sampleRate, xDim, zoom.x * scale),
+                Noise.gridAxis(fullRegion.minY(), sampleRate, yDim, zoom.y * scale),
+                Noise.gridAxis(fullRegion.minZ(), sampleRate, zDim, zoom.z * scale), fullData);
         return fullData;
     }
 
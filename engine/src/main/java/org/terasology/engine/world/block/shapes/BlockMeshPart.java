@@ -81,37 +81,32 @@ public BlockMeshPart mapTexCoords(Vector2f offset, float width, int frames) {
 
     public void appendTo(ChunkMesh chunk, ChunkView chunkView, int offsetX, int offsetY, int offsetZ, ChunkMesh.RenderType renderType, ChunkVertexFlag flags) {
         ChunkMesh.VertexElements elements = chunk.getVertexElements(renderType);
-        for (Vector2f texCoord : texCoords) {
-            elements.tex.add(texCoord.x);
-            elements.tex.add(texCoord.y);
-        }
-
         int nextIndex = elements.vertexCount;
         for (int vIdx = 0; vIdx < vertices.length; ++vIdx) {
-            elements.color.add(1);
-            elements.color.add(1);
-            elements.color.add(1);
-            elements.color.add(1);
-            elements.vertices.add(vertices[vIdx].x + offsetX);
-            elements.vertices.add(vertices[vIdx].y + offsetY);
-            elements.vertices.add(vertices[vIdx].z + offsetZ);
-            elements.normals.add(normals[vIdx].x);
-            elements.normals.add(normals[vIdx].y);
-            elements.normals.add(normals[vIdx].z);
-            elements.flags.add(flags.getValue());
-            elements.frames.add(texFrames);
-            float[] lightingData = calcLightingValuesForVertexPos(chunkView, vertices[vIdx].add(offsetX, offsetY, offsetZ, new Vector3f()), normals[vIdx]);
-            elements.sunlight.add(lightingData[0]);
-            elements.blocklight.add(lightingData[1]);
-            elements.ambientOcclusion.add(lightingData[2]);
+            Vector3f vertexPos = vertices[vIdx].add(offsetX, offsetY, offsetZ, new Vector3f());
+            float[] lightingData = calcLightingValuesForVertexPos(chunkView, vertexPos, normals[vIdx]);
+            elements.addVertex(vertexPos.x, vertexPos.y, vertexPos.z)
+                    .setTexCoord(texCoords[vIdx].x, texCoords[vIdx].y)
+                    .setFlags(flags.getValue(), texFrames)
+                    .setLight(lightingData[0], lightingData[1], lightingData[2])
+                    .setNormal(normals[vIdx].x, normals[vIdx].y, normals[vIdx].z);
         }
-        elements.vertexCount += vertices.length;
 
         for (int index : indices) {
-            elements.indices.add(index + nextIndex);
+            elements.addIndex(index + nextIndex);
         }
     }
 
+    /**
+     * Calculates the lighting of a vertex of this part, as {@link #appendTo} adds it to the chunk mesh.
+     *
+     * @return the sunlight, block light and ambient occlusion of the vertex
+     */
+    public float[] getLightingValues(ChunkView chunkView, int offsetX, int offsetY, int offsetZ, int vertexIndex) {
+        return calcLightingValuesForVertexPos(chunkView,
+                vertices[vertexIndex].add(offsetX, offsetY, offsetZ, new Vector3f()), normals[vertexIndex]);
+    }
+
     public BlockMeshPart rotate(Quaternionf rotation) {
         Vector3f[] newVertices = new Vector3f[vertices.length];
         Vector3f[] newNormals = new Vector3f[normals.length];
@@ -353,6 +353,23 @@ default Vector3f getRenderPosition() {
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 
+    /**
+     * Takes an immutable view of the current chunk data, which can be read from other threads while this chunk keeps
+     * changing. Taking a snapshot is cheap: the data is shared until this chunk gets changed, which then copies only
+     * the parts that it changes.
+     * <br><br>
+     * Must be called from the thread that changes the chunk, otherwise the snapshot may contain changes that happen
+     * while it gets taken.
+     *
+     * @return a snapshot of the current chunk data
+     */
+    ChunkSnapshot createSnapshot();
+
+    /**
+     * @return a number that increases whenever the data of the chunk changes
+     */
+    long getVersion();
+
     boolean isDirty();
 
     void setDirty(boolean dirty);
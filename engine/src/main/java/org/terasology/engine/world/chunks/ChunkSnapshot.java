@@ -0,0 +1,53 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.chunks;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.world.block.Block;
+import org.terasology.module.sandbox.API;
+import org.terasology.protobuf.EntityData;
+
+/**
+ * An immutable view of the data of a {@link Chunk} at the time {@link Chunk#createSnapshot()} got called.
+ * <br><br>
+ * Snapshots can be read from any thread while the chunk keeps changing. They share the data with the chunk, which
+ * copies the parts it changes afterwards.
+ */
+@API
+public interface ChunkSnapshot {
+
+    /**
+     * @return Position of the chunk in world, where units of distance from origin are chunks
+     */
+    Vector3ic getPosition();
+
+    /**
+     * @return the {@link Chunk#getVersion() version} of the chunk this snapshot got taken at.
+     */
+    long getVersion();
+
+    /**
+     * @param x X offset from the corner of the chunk
+     * @param y Y offset from the corner of the chunk
+     * @param z Z offset from the corner of the chunk
+     * @return Block at given position
+     */
+    Block getBlock(int x, int y, int z);
+
+    /**
+     * @param index Index of the extra data array
+     * @param x     X offset from the corner of the chunk
+     * @param y     Y offset from the corner of the chunk
+     * @param z     Z offset from the corner of the chunk
+     * @return Selected extra data value at the given location
+     */
+    int getExtraData(int index, int x, int y, int z);
+
+    byte getSunlight(int x, int y, int z);
+
+    byte getSunlightRegen(int x, int y, int z);
+
+    byte getLight(int x, int y, int z);
+
+    EntityData.ChunkStore.Builder encode();
+}
@@ -0,0 +1,496 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.terasology.engine.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray implements a dense array with elements of 16 bit size, like {@link TeraDenseArray16Bit}, which
+ * stores the distinct values in a palette and only keeps the palette index of each element.
+ * <br><br>
+ * The elements are packed into longs using 0, 1, 2, 4 or 8 bits per element, depending on the size of the palette.
+ * An array that contains a single value needs no element data at all. The bit width grows on {@link #set} when a value
+ * does not fit into the palette anymore. Once more than 256 distinct values are used, the elements get stored directly
+ * with 16 bits each. Palette entries that are not used anymore get removed on {@link #deflate}.
+ * <br><br>
+ * Concurrent readers see either the old or the new layout while the bit width grows, never a mix of both.
+ * {@link #copy()} is cheap: the copy shares the element data with this array, and whichever array gets written to
+ * afterwards copies just the section of {@value #SECTION_SIZE} elements it writes to.
+ */
+public class TeraPaletteArray extends TeraArray {
+
+    private static final int MAX_PALETTE_BITS = 8;
+    private static final int DIRECT_BITS = 16;
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+    private static final int SECTION_SHIFT = 12;
+    private static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+
+    private volatile Layout layout;
+
+    public TeraPaletteArray() {
+        super();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    /**
+     * Creates an array that contains the given 16 bit values, ordered like {@link TeraDenseArray16Bit#data}.
+     */
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] data) {
+        super(sizeX, sizeY, sizeZ, true);
+        Preconditions.checkNotNull(data);
+        Preconditions.checkArgument(data.length == getSizeXYZ(), "The length of parameter 'data' has to be " + getSizeXYZ() + " but is " + data.length);
+        for (int i = 0; i < data.length; i++) {
+            setAt(i, data[i]);
+        }
+    }
+
+    public TeraPaletteArray(TeraArray in) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), true);
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    setAt(pos(x, y, z), in.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private TeraPaletteArray(int sizeX, int sizeY, int sizeZ, Layout layout) {
+        super(sizeX, sizeY, sizeZ, false);
+        this.layout = layout;
+    }
+
+    @Override
+    protected void initialize() {
+        layout = new Layout(0, getSizeXYZ());
+        layout.addToPalette((short) 0);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), layout.copy());
+    }
+
+    /**
+     * Removes unused palette entries and shrinks the bit width if possible.
+     *
+     * @return the compacted array or null if compacting would not save memory.
+     */
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        Layout current = layout;
+        int[] usage = current.countUsage(getSizeXYZ());
+        int used = 0;
+        for (int count : usage) {
+            if (count > 0) {
+                used++;
+            }
+        }
+        int bits = bitsFor(used);
+        if (bits >= current.bits) {
+            return null;
+        }
+        Layout compacted = new Layout(bits, getSizeXYZ());
+        for (int i = 0; i < usage.length; i++) {
+            if (usage[i] > 0) {
+                compacted.addToPalette(current.valueOfIndex(i));
+            }
+        }
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            compacted.write(i, compacted.indexOf((short) current.get(i)));
+        }
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), compacted);
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        Layout current = layout;
+        if (current == null) {
+            return 4;
+        }
+        return 16 + current.getEstimatedMemoryConsumptionInBytes();
+    }
+
+    /**
+     * @return the number of bits currently used per element, which is 0 if all elements are equal.
+     */
+    @Override
+    public int getElementSizeInBits() {
+        return layout.bits;
+    }
+
+    /**
+     * @return the number of values in the palette, or -1 if the elements are stored directly.
+     */
+    public int getPaletteSize() {
+        Layout current = layout;
+        return current.palette == null ? -1 : current.paletteSize;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return layout.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        return setAt(pos(x, y, z), value);
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        if (layout.get(pos) == expected) {
+            setAt(pos, value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets a run of elements to the same value. Elements are ordered by y, then z, then x, the order in which
+     * {@link org.terasology.engine.world.chunks.internal.ChunkSerializer} encodes runs.
+     *
+     * @param start the index of the first element of the run
+     * @param length the number of elements in the run
+     */
+    public void fillRun(int start, int length, int value) {
+        Preconditions.checkPositionIndexes(start, start + length, getSizeXYZ());
+        if (length == 0) {
+            return;
+        }
+        short shortValue = (short) value;
+        Layout current = layoutContaining(shortValue);
+        int index = current.indexOf(shortValue);
+        for (int i = start; i < start + length; i++) {
+            current.write(i, index);
+        }
+    }
+
+    private int setAt(int pos, int value) {
+        short shortValue = (short) value;
+        Layout current = layoutContaining(shortValue);
+        int old = current.get(pos);
+        current.write(pos, current.indexOf(shortValue));
+        return old;
+    }
+
+    /**
+     * @return a layout that can store the given value, which replaces the current one if its palette is full.
+     */
+    private Layout layoutContaining(short value) {
+        Layout current = layout;
+        if (current.indexOf(value) >= 0) {
+            return current;
+        }
+        if (current.paletteSize < current.getPaletteCapacity()) {
+            current.addToPalette(value);
+            return current;
+        }
+        int bits = current.bits == 0 ? 1 : current.bits * 2;
+        Layout grown = new Layout(bits, getSizeXYZ());
+        if (grown.palette != null) {
+            for (int i = 0; i < current.paletteSize; i++) {
+                grown.addToPalette(current.palette[i]);
+            }
+            grown.addToPalette(value);
+        }
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            grown.write(i, grown.indexOf((short) current.get(i)));
+        }
+        layout = grown;
+        return grown;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        if (paletteSize <= 1) {
+            return 0;
+        }
+        int bits = 1;
+        while (bits <= MAX_PALETTE_BITS && 1 << bits < paletteSize) {
+            bits *= 2;
+        }
+        return Math.min(bits, DIRECT_BITS);
+    }
+
+    /**
+     * The packed elements together with the palette they index into. The bit width of a layout never changes.
+     * <br><br>
+     * The elements are split into sections of {@link #SECTION_SIZE} elements. Copies of a layout share the sections
+     * until one of them writes to a section, which copies just that section.
+     */
+    private static final class Layout {
+        private final int bits;
+        private final int bitShift;
+        private final int indexShift;
+        private final int indexMask;
+        private final int valueMask;
+        /** Null if all elements are the first palette entry. */
+        private final long[][] sections;
+        /** Whether the section is not shared with another layout and can be written to directly. */
+        private final boolean[] ownedSections;
+        /** Null if the elements are stored directly. */
+        private final short[] palette;
+        /** Only used for large palettes, where a linear search would be too slow. */
+        private final TIntIntMap reverseLookup;
+        private int paletteSize;
+
+        private Layout(int bits, int sizeXYZ) {
+            this.bits = bits;
+            if (bits == 0) {
+                bitShift = 0;
+                indexShift = 0;
+                indexMask = 0;
+                valueMask = 0;
+                sections = null;
+                ownedSections = null;
+            } else {
+                bitShift = Integer.numberOfTrailingZeros(bits);
+                indexShift = 6 - bitShift;
+                indexMask = (1 << indexShift) - 1;
+                valueMask = (1 << bits) - 1;
+                sections = new long[(sizeXYZ + SECTION_MASK) >>> SECTION_SHIFT][];
+                ownedSections = new boolean[sections.length];
+                for (int i = 0; i < sections.length; i++) {
+                    int sectionSize = Math.min(SECTION_SIZE, sizeXYZ - (i << SECTION_SHIFT));
+                    sections[i] = new long[(sectionSize + indexMask) >>> indexShift];
+                    ownedSections[i] = true;
+                }
+            }
+            palette = bits > MAX_PALETTE_BITS ? null : new short[1 << bits];
+            reverseLookup = palette != null && palette.length > LINEAR_SEARCH_LIMIT ? new TIntIntHashMap(palette.length, 0.5f, -1, -1) : null;
+        }
+
+        private Layout(Layout other) {
+            bits = other.bits;
+            bitShift = other.bitShift;
+            indexShift = other.indexShift;
+            indexMask = other.indexMask;
+            valueMask = other.valueMask;
+            if (other.sections == null) {
+                sections = null;
+                ownedSections = null;
+            } else {
+                sections = other.sections.clone();
+                ownedSections = new boolean[sections.length];
+                Arrays.fill(other.ownedSections, false);
+            }
+            palette = other.palette == null ? null : other.palette.clone();
+            reverseLookup = other.reverseLookup == null ? null : new TIntIntHashMap(other.reverseLookup);
+            paletteSize = other.paletteSize;
+        }
+
+        /**
+         * @return a copy that shares all sections with this layout. Not safe to call while another thread writes.
+         */
+        private Layout copy() {
+            return new Layout(this);
+        }
+
+        private int getPaletteCapacity() {
+            return palette == null ? Integer.MAX_VALUE : palette.length;
+        }
+
+        private int get(int pos) {
+            if (sections == null) {
+                return palette[0];
+            }
+            return valueOfIndex(indexAt(pos));
+        }
+
+        private int indexAt(int pos) {
+            long[] section = sections[pos >>> SECTION_SHIFT];
+            int local = pos & SECTION_MASK;
+            return (int) (section[local >>> indexShift] >>> ((local & indexMask) << bitShift)) & valueMask;
+        }
+
+        private short valueOfIndex(int index) {
+            return palette == null ? (short) index : palette[index];
+        }
+
+        private void write(int pos, int index) {
+            if (sections == null) {
+                return;
+            }
+            int sectionIndex = pos >>> SECTION_SHIFT;
+            if (!ownedSections[sectionIndex]) {
+                sections[sectionIndex] = sections[sectionIndex].clone();
+                ownedSections[sectionIndex] = true;
+            }
+            long[] section = sections[sectionIndex];
+            int local = pos & SECTION_MASK;
+            int shift = (local & indexMask) << bitShift;
+            int word = local >>> indexShift;
+            section[word] = section[word] & ~((long) valueMask << shift) | (long) index << shift;
+        }
+
+        /**
+         * @return the palette index of the value, the value itself if elements are stored directly, or -1 if the
+         *         value is not in the palette.
+         */
+        private int indexOf(short value) {
+            if (palette == null) {
+                return value & 0xFFFF;
+            }
+            if (reverseLookup != null) {
+                return reverseLookup.get(value);
+            }
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void addToPalette(short value) {
+            palette[paletteSize] = value;
+            if (reverseLookup != null) {
+                reverseLookup.put(value, paletteSize);
+            }
+            paletteSize++;
+        }
+
+        /**
+         * @return the number of elements per palette index, or per value if elements are stored directly.
+         */
+        private int[] countUsage(int sizeXYZ) {
+            int[] usage = new int[palette == null ? 1 << DIRECT_BITS : paletteSize];
+            if (sections == null) {
+                usage[0] = sizeXYZ;
+                return usage;
+            }
+            for (int i = 0; i < sizeXYZ; i++) {
+                usage[indexAt(i)]++;
+            }
+            return usage;
+        }
+
+        private int getWordCount() {
+            int count = 0;
+            if (sections != null) {
+                for (long[] section : sections) {
+                    count += section.length;
+                }
+            }
+            return count;
+        }
+
+        private int getEstimatedMemoryConsumptionInBytes() {
+            int size = 48;
+            if (sections != null) {
+                size += 32 + sections.length * 21 + getWordCount() * 8;
+            }
+            if (palette != null) {
+                size += 16 + palette.length * 2;
+            }
+            if (reverseLookup != null) {
+                size += 16 + palette.length * 2 * 9;
+            }
+            return size;
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray array) {
+            final Layout layout = array.layout;
+            if (layout == null) {
+                return 4;
+            }
+            return 12 + layout.paletteSize * 2 + layout.getWordCount() * 8;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray array, ByteBuffer buffer) {
+            final Layout layout = array.layout;
+            if (layout == null) {
+                buffer.putInt(-1);
+                return;
+            }
+            buffer.putInt(layout.bits);
+            buffer.putInt(layout.paletteSize);
+            for (int i = 0; i < layout.paletteSize; i++) {
+                buffer.putShort(layout.palette[i]);
+            }
+            buffer.putInt(layout.getWordCount());
+            if (layout.sections != null) {
+                LongBuffer longBuffer = buffer.asLongBuffer();
+                for (long[] section : layout.sections) {
+                    longBuffer.put(section);
+                }
+                buffer.position(buffer.position() + longBuffer.position() * 8);
+            }
+        }
+
+        @Override
+        protected TeraPaletteArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int bits = buffer.getInt();
+            if (bits < 0) {
+                return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+            }
+            Layout layout = new Layout(bits, sizeX * sizeY * sizeZ);
+            final int paletteSize = buffer.getInt();
+            for (int i = 0; i < paletteSize; i++) {
+                layout.addToPalette(buffer.getShort());
+            }
+            final int length = buffer.getInt();
+            if (length > 0) {
+                Preconditions.checkState(length == layout.getWordCount(), "Expected " + layout.getWordCount() + " words but got " + length);
+                LongBuffer longBuffer = buffer.asLongBuffer();
+                for (long[] section : layout.sections) {
+                    longBuffer.get(section);
+                }
+                buffer.position(buffer.position() + length * 8);
+            }
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, layout);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray> {
+
+        @Override
+        public Class<TeraPaletteArray> getArrayClass() {
+            return TeraPaletteArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray create() {
+            return new TeraPaletteArray();
+        }
+
+        @Override
+        public TeraPaletteArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+        }
+    }
+
+}
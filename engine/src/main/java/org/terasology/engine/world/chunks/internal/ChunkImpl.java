@@ -10,8 +10,8 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.engine.world.chunks.blockdata.TeraArray;
-import org.terasology.engine.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.engine.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.engine.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.engine.world.chunks.blockdata.TeraSparseArray8Bit;
 import org.terasology.joml.geom.AABBf;
 import org.terasology.joml.geom.AABBfc;
@@ -23,10 +23,12 @@
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.ChunkBlockIterator;
+import org.terasology.engine.world.chunks.ChunkSnapshot;
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.chunks.deflate.TeraDeflator;
 import org.terasology.engine.world.chunks.deflate.TeraStandardDeflator;
 
+import java.lang.ref.WeakReference;
 import java.text.DecimalFormat;
 
 /**
@@ -53,9 +55,11 @@ public class ChunkImpl implements Chunk {
     private TeraArray lightData;
 
     private TeraArray blockData;
-    private volatile TeraArray blockDataSnapshot;
     private TeraArray[] extraData;
-    private volatile TeraArray[] extraDataSnapshots;
+
+    /* only held weakly, so the arrays a setter copied away from are freed once no one uses the snapshot anymore */
+    private volatile WeakReference<Snapshot> latestSnapshot;
+    private volatile long version;
 
     private AABBf aabb = new AABBf();
 
@@ -74,7 +78,7 @@ public ChunkImpl(int x, int y, int z, BlockManager blockManager, ExtraBlockDataM
 
     public ChunkImpl(Vector3ic chunkPos, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
         this(chunkPos,
-            new TeraDenseArray16Bit(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z),
+            new TeraPaletteArray(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z),
             extraDataManager.makeDataArrays(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z),
             blockManager);
     }
@@ -147,10 +151,14 @@ public final Block getBlock(int x, int y, int z) {
     // so whatever sets a block to something extraData sensitive should also initialise the extra data.
     @Override
     public Block setBlock(int x, int y, int z, Block block) {
-        if (blockData == blockDataSnapshot) {
+        Snapshot snapshot = getLatestSnapshot();
+        if (snapshot != null && blockData == snapshot.blockData) {
             blockData = blockData.copy();
         }
         int oldValue = blockData.set(x, y, z, block.getId());
+        if (oldValue != block.getId()) {
+            version++;
+        }
         return blockManager.getBlock((short) oldValue);
     }
 
@@ -177,7 +185,11 @@ public boolean setSunlight(Vector3ic pos, byte amount) {
     @Override
     public boolean setSunlight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= Chunks.MAX_SUNLIGHT);
-        return sunlightData.set(x, y, z, amount) != amount;
+        Snapshot snapshot = getLatestSnapshot();
+        if (snapshot != null && sunlightData == snapshot.sunlightData) {
+            sunlightData = sunlightData.copy();
+        }
+        return changed(sunlightData.set(x, y, z, amount) != amount);
     }
 
     @Override
@@ -198,7 +210,11 @@ public boolean setSunlightRegen(Vector3ic pos, byte amount) {
     @Override
     public boolean setSunlightRegen(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= Chunks.MAX_SUNLIGHT_REGEN);
-        return sunlightRegenData.set(x, y, z, amount) != amount;
+        Snapshot snapshot = getLatestSnapshot();
+        if (snapshot != null && sunlightRegenData == snapshot.sunlightRegenData) {
+            sunlightRegenData = sunlightRegenData.copy();
+        }
+        return changed(sunlightRegenData.set(x, y, z, amount) != amount);
     }
 
     @Override
@@ -219,7 +235,11 @@ public boolean setLight(Vector3ic pos, byte amount) {
     @Override
     public boolean setLight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= Chunks.MAX_LIGHT);
-        return lightData.set(x, y, z, amount) != amount;
+        Snapshot snapshot = getLatestSnapshot();
+        if (snapshot != null && lightData == snapshot.lightData) {
+            lightData = lightData.copy();
+        }
+        return changed(lightData.set(x, y, z, amount) != amount);
     }
 
     @Override
@@ -234,10 +254,11 @@ public int getExtraData(int index, Vector3ic pos) {
 
     @Override
     public void setExtraData(int index, int x, int y, int z, int value) {
-        if (extraDataSnapshots != null && extraData[index] == extraDataSnapshots[index]) {
+        Snapshot snapshot = getLatestSnapshot();
+        if (snapshot != null && extraData[index] == snapshot.extraData[index]) {
             extraData[index] = extraData[index].copy();
         }
-        extraData[index].set(x, y, z, value);
+        changed(extraData[index].set(x, y, z, value) != value);
     }
 
     @Override
@@ -532,27 +553,118 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData);
     }
 
+    @Override
+    public ChunkSnapshot createSnapshot() {
+        Snapshot snapshot = getLatestSnapshot();
+        long currentVersion = version;
+        if (snapshot == null || snapshot.version != currentVersion || !snapshot.sharesDataWith(this)) {
+            snapshot = new Snapshot(this, currentVersion);
+            latestSnapshot = new WeakReference<>(snapshot);
+        }
+        return snapshot;
+    }
+
     /**
-     * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk. This snapshot
-     * can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
+     * @return the latest snapshot if it is still in use, in which case the arrays it shares must be copied before
+     *         they are changed
      */
-    public void createSnapshot() {
-        this.blockDataSnapshot = this.blockData;
-        this.extraDataSnapshots = new TeraArray[extraData.length];
-        System.arraycopy(extraData, 0, extraDataSnapshots, 0, extraData.length);
+    private Snapshot getLatestSnapshot() {
+        WeakReference<Snapshot> reference = latestSnapshot;
+        return reference != null ? reference.get() : null;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    private boolean changed(boolean changed) {
+        if (changed) {
+            version++;
+        }
+        return changed;
     }
 
     /**
-     * This method can only be called once after {@link #createSnapshot()} has been called. It can be called from a
-     * different thread than {@link #createSnapshot()}, but it must be made sure that neither method is still running
-     * when the other gets called.
-     *
-     * @return an encoded version of the snapshot taken with {@link #createSnapshot()}.
+     * Shares the data arrays of the chunk at the time it got taken. The chunk copies an array before it changes it if
+     * the array is still shared with its latest snapshot, so the arrays of a snapshot never change. Once a snapshot is
+     * no longer referenced, the chunk writes to the arrays in place again.
      */
-    public EntityData.ChunkStore.Builder encodeAndReleaseSnapshot() {
-        EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshots);
-        this.blockDataSnapshot = null;
-        this.extraDataSnapshots = null;
-        return result;
+    private static final class Snapshot implements ChunkSnapshot {
+        private final Vector3ic position;
+        private final long version;
+        private final BlockManager blockManager;
+        private final TeraArray blockData;
+        private final TeraArray[] extraData;
+        private final TeraArray sunlightData;
+        private final TeraArray sunlightRegenData;
+        private final TeraArray lightData;
+
+        private Snapshot(ChunkImpl chunk, long version) {
+            this.position = chunk.chunkPos;
+            this.version = version;
+            this.blockManager = chunk.blockManager;
+            this.blockData = chunk.blockData;
+            this.extraData = chunk.extraData.clone();
+            this.sunlightData = chunk.sunlightData;
+            this.sunlightRegenData = chunk.sunlightRegenData;
+            this.lightData = chunk.lightData;
+        }
+
+        /**
+         * Deflating and reactivating replace the arrays of a chunk without changing its version.
+         */
+        private boolean sharesDataWith(ChunkImpl chunk) {
+            if (blockData != chunk.blockData || sunlightData != chunk.sunlightData
+                    || sunlightRegenData != chunk.sunlightRegenData || lightData != chunk.lightData) {
+                return false;
+            }
+            for (int i = 0; i < extraData.length; i++) {
+                if (extraData[i] != chunk.extraData[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Vector3ic getPosition() {
+            return position;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public Block getBlock(int x, int y, int z) {
+            return blockManager.getBlock((short) blockData.get(x, y, z));
+        }
+
+        @Override
+        public int getExtraData(int index, int x, int y, int z) {
+            return extraData[index].get(x, y, z);
+        }
+
+        @Override
+        public byte getSunlight(int x, int y, int z) {
+            return (byte) sunlightData.get(x, y, z);
+        }
+
+        @Override
+        public byte getSunlightRegen(int x, int y, int z) {
+            return (byte) sunlightRegenData.get(x, y, z);
+        }
+
+        @Override
+        public byte getLight(int x, int y, int z) {
+            return (byte) lightData.get(x, y, z);
+        }
+
+        @Override
+        public EntityData.ChunkStore.Builder encode() {
+            return ChunkSerializer.encode(position, blockData, extraData);
+        }
     }
 }
@@ -45,6 +45,7 @@
 import org.terasology.engine.world.chunks.internal.ChunkRelevanceRegion;
 import org.terasology.engine.world.chunks.pipeline.ChunkProcessingPipeline;
 import org.terasology.engine.world.chunks.pipeline.stages.ChunkTaskProvider;
+import org.terasology.engine.world.generation.World;
 import org.terasology.engine.world.generation.impl.EntityBufferImpl;
 import org.terasology.engine.world.generator.WorldGenerator;
 import org.terasology.engine.world.internal.ChunkViewCore;
@@ -120,6 +121,13 @@ public LocalChunkProvider(StorageManager storageManager, EntityManager entityMan
     }
 
 
+    /**
+     * Re-scores the chunks waiting in the pipeline, as their priority depends on where the relevance regions are.
+     */
+    protected void onRelevanceRegionsMoved() {
+        loadingPipeline.reprioritize();
+    }
+
     protected Future<Chunk> createOrLoadChunk(Vector3ic chunkPos) {
         Vector3i pos = new Vector3i(chunkPos);
         return loadingPipeline.invokeGeneratorTask(
@@ -402,6 +410,7 @@ public void purgeWorld() {
         worldEntity.send(new PurgeWorldEvent());
 
         loadingPipeline = new ChunkProcessingPipeline(this::getChunk, relevanceSystem.createChunkTaskComporator());
+        loadingPipeline.setRelevanceFilter(relevanceSystem::isChunkInRegions);
         loadingPipeline.addStage(
             ChunkTaskProvider.create("Chunk generate internal lightning",
                 (Consumer<Chunk>) InternalLightProcessor::generateInternalLighting))
@@ -440,6 +449,7 @@ private boolean isChunkReady(Chunk chunk) {
     public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
         this.relevanceSystem = relevanceSystem;
         loadingPipeline = new ChunkProcessingPipeline(this::getChunk, relevanceSystem.createChunkTaskComporator());
+        loadingPipeline.setRelevanceFilter(relevanceSystem::isChunkInRegions);
         loadingPipeline.addStage(
             ChunkTaskProvider.create("Chunk generate internal lightning",
                 (Consumer<Chunk>) InternalLightProcessor::generateInternalLighting))
@@ -454,5 +464,9 @@ public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
                     .collect(Collectors.toCollection(Sets::newLinkedHashSet))
             ))
             .addStage(ChunkTaskProvider.create("Chunk ready", readyChunks::add));
+        World world = generator.getWorld();
+        if (world != null) {
+            world.setFocus(relevanceSystem::getRegionCenters);
+        }
     }
 }
@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.chunks.localChunkProvider;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
@@ -26,6 +27,7 @@
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -123,9 +125,11 @@ public void removeRelevanceEntity(EntityRef entity) {
      */
     private void updateRelevance() {
         try (Activity activity = PerformanceMonitor.startActivity("Update relevance")) {
+            boolean moved = false;
             for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
                 chunkRelevanceRegion.update();
                 if (chunkRelevanceRegion.isDirty()) {
+                    moved = true;
                     for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                         Chunk chunk = chunkProvider.getChunk(pos);
                         if (chunk != null) {
@@ -137,6 +141,9 @@ private void updateRelevance() {
                     chunkRelevanceRegion.setUpToDate();
                 }
             }
+            if (moved) {
+                chunkProvider.onRelevanceRegionsMoved();
+            }
         }
     }
 
@@ -194,12 +201,33 @@ public void addRelevanceEntity(EntityRef entity, Vector3ic distance, ChunkRegion
      * @return {@code true} if chunk in regions, otherwise {@code false}
      */
     public boolean isChunkInRegions(Vector3ic pos) {
-        for (ChunkRelevanceRegion region : regions.values()) {
-            if (new BlockRegion(region.getCurrentRegion()).expand(UNLOAD_LEEWAY).contains(pos)) {
-                return true;
+        regionLock.readLock().lock();
+        try {
+            for (ChunkRelevanceRegion region : regions.values()) {
+                if (new BlockRegion(region.getCurrentRegion()).expand(UNLOAD_LEEWAY).contains(pos)) {
+                    return true;
+                }
             }
+            return false;
+        } finally {
+            regionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return copies of the chunk positions the regions are centered on
+     */
+    public List<Vector3ic> getRegionCenters() {
+        regionLock.readLock().lock();
+        try {
+            List<Vector3ic> centers = Lists.newArrayListWithCapacity(regions.size());
+            for (ChunkRelevanceRegion region : regions.values()) {
+                centers.add(new Vector3i(region.getCenter()));
+            }
+            return centers;
+        } finally {
+            regionLock.readLock().unlock();
         }
-        return false;
     }
 
     /**
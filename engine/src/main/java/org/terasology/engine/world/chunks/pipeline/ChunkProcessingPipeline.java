@@ -4,6 +4,7 @@
 package org.terasology.engine.world.chunks.pipeline;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.SettableFuture;
@@ -15,7 +16,6 @@
 import org.terasology.engine.monitoring.ThreadMonitor;
 import org.terasology.engine.world.chunks.pipeline.stages.ChunkTask;
 import org.terasology.engine.world.chunks.pipeline.stages.ChunkTaskProvider;
-import org.terasology.engine.utilities.ReflectionUtil;
 import org.terasology.engine.world.chunks.Chunk;
 
 import java.util.Comparator;
@@ -23,18 +23,20 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.RunnableFuture;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -42,81 +44,156 @@
  * Manages execution of chunk processing.
  * <p>
  * {@link Chunk}s will processing on stages {@link ChunkProcessingPipeline#addStage}
+ * <p>
+ * Runnable tasks wait in a priority queue ordered by the comparator given to the constructor and are run by a
+ * work-stealing pool with one thread per spare core. Because the order of the comparator changes as players move, the
+ * queue gets re-scored periodically; tasks of chunks rejected by the {@link #setRelevanceFilter relevance filter} are
+ * cancelled at that point instead of being run.
  */
 public class ChunkProcessingPipeline {
 
-    private static final int NUM_TASK_THREADS = 4;
     private static final Logger logger = LoggerFactory.getLogger(ChunkProcessingPipeline.class);
+    private static final String GENERATION_STAGE = "Generation or Loading";
+    private static final long RESCORE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STATISTICS_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
 
     private final List<ChunkTaskProvider> stages = Lists.newArrayList();
-    private final Thread reactor;
-    private final CompletionService<Chunk> chunkProcessor;
-    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool pool;
     private final Function<Vector3ic, Chunk> chunkProvider;
     private final Map<Vector3ic, ChunkProcessingInfo> chunkProcessingInfoMap = Maps.newConcurrentMap();
-    private int threadIndex;
+    private final Map<String, StageStatistics> stageStatistics = Maps.newConcurrentMap();
+    private final Object processingLock = new Object();
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    private final PriorityQueue<PipelineTask> pendingTasks;
+    private long lastRescore = System.nanoTime();
+    private long lastStatisticsLog = System.nanoTime();
+    private boolean rescoreRequested;
+    private volatile Predicate<Vector3ic> relevanceFilter = pos -> true;
 
     /**
      * Create ChunkProcessingPipeline.
      */
     public ChunkProcessingPipeline(Function<Vector3ic, Chunk> chunkProvider, Comparator<Future<Chunk>> comparable) {
         this.chunkProvider = chunkProvider;
+        this.pendingTasks = new PriorityQueue<>(800, comparable);
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        pool = new ForkJoinPool(parallelism, this::threadFactory, this::uncaughtExceptionHandler, true);
+    }
+
+    /**
+     * Decides whether pending work for a chunk is still wanted. Tasks of positions it rejects get cancelled as if
+     * {@link #stopProcessingAt} was called for them.
+     *
+     * @param relevanceFilter returns false for positions that should no longer be processed.
+     */
+    public void setRelevanceFilter(Predicate<Vector3ic> relevanceFilter) {
+        this.relevanceFilter = relevanceFilter;
+    }
+
+    /**
+     * Re-score all pending tasks before the next one gets picked, e.g. after a relevance region moved.
+     */
+    public void reprioritize() {
+        synchronized (pendingTasks) {
+            rescoreRequested = true;
+        }
+    }
 
-        executor = new ThreadPoolExecutor(
-                NUM_TASK_THREADS,
-                NUM_TASK_THREADS, 0L,
-                TimeUnit.MILLISECONDS,
-                new PriorityBlockingQueue(800, unwrappingComporator(comparable)),
-                this::threadFactory,
-                this::rejectQueueHandler) {
-            @Override
-            protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
-                RunnableFuture<T> newTaskFor = super.newTaskFor(callable);
-                return new PositionFuture<>(newTaskFor, ((PositionalCallable) callable).getPosition());
+    /**
+     * @return queue depth and latency of all stages which have run so far, in pipeline order.
+     */
+    public List<StageStatistics> getStageStatistics() {
+        ImmutableList.Builder<StageStatistics> result = ImmutableList.builder();
+        StageStatistics generation = stageStatistics.get(GENERATION_STAGE);
+        if (generation != null) {
+            result.add(generation);
+        }
+        for (ChunkTaskProvider stage : stages) {
+            StageStatistics statistics = stageStatistics.get(stage.getName());
+            if (statistics != null) {
+                result.add(statistics);
             }
-        };
-        chunkProcessor = new ExecutorCompletionService<>(executor,
-                new PriorityBlockingQueue<>(800, comparable));
-        reactor = new Thread(this::chunkTaskHandler);
-        reactor.setDaemon(true);
-        reactor.setName("Chunk-Processing-Reactor");
-        reactor.start();
+        }
+        return result.build();
     }
 
     /**
-     * BlackMagic method: {@link ExecutorCompletionService} wraps task with QueueingFuture (private access)
-     * there takes wrapped task for comparing in {@link ThreadPoolExecutor}
+     * Worker slot. Each submitted task schedules one slot, which runs the most relevant task pending at that time.
      */
-    private Comparator unwrappingComporator(Comparator<Future<Chunk>> comparable) {
-        return (o1, o2) -> {
-                Object unwrapped1 = ReflectionUtil.readField(o1, "task");
-                Object unwrapped2 = ReflectionUtil.readField(o2, "task");
-                return comparable.compare((Future<Chunk>) unwrapped1, (Future<Chunk>) unwrapped2);
-        };
+    private void runNext() {
+        PipelineTask task = pollTask();
+        if (task == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        task.getStatistics().taskStarted(start - task.getEnqueueTime());
+        task.run();
+        task.getStatistics().taskFinished(System.nanoTime() - start);
+        // clear an interrupt from cancelling the task, the thread is reused for other chunks.
+        Thread.interrupted();
+        onTaskDone(task);
+    }
+
+    private PipelineTask pollTask() {
+        List<Vector3ic> rescored = Lists.newArrayList();
+        PipelineTask task;
+        synchronized (pendingTasks) {
+            long now = System.nanoTime();
+            if (rescoreRequested || now - lastRescore > RESCORE_INTERVAL) {
+                rescore(rescored);
+                rescoreRequested = false;
+                lastRescore = now;
+            }
+            task = pendingTasks.poll();
+            while (task != null && task.isCancelled()) {
+                task.getStatistics().taskCancelled();
+                task = pendingTasks.poll();
+            }
+            if (logger.isDebugEnabled() && now - lastStatisticsLog > STATISTICS_LOG_INTERVAL) {
+                lastStatisticsLog = now;
+                getStageStatistics().forEach(statistics -> logger.debug("{}", statistics));
+            }
+        }
+        // the filter may take locks of its own, so it must not run while holding the queue
+        Predicate<Vector3ic> filter = relevanceFilter;
+        for (Vector3ic position : rescored) {
+            if (!filter.test(position)) {
+                stopProcessingAt(position);
+            }
+        }
+        return task;
     }
 
     /**
-     * Reactor thread. Handles all ChunkTask dependency logic and running.
+     * Rebuilds the queue so that it reflects the current order of the comparator and drops cancelled tasks.
+     *
+     * @param rescored receives the positions of all tasks still pending
      */
-    private void chunkTaskHandler() {
-        try {
-            while (!executor.isTerminated()) {
-                PositionFuture<Chunk> future = (PositionFuture<Chunk>) chunkProcessor.take();
-                ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(future.getPosition());
-                if (chunkProcessingInfo == null) {
-                    continue; // chunk processing was cancelled.
-                }
-                onStageDone(future, chunkProcessingInfo);
+    private void rescore(List<Vector3ic> rescored) {
+        List<PipelineTask> tasks = Lists.newArrayList(pendingTasks);
+        pendingTasks.clear();
+        for (PipelineTask task : tasks) {
+            if (task.isCancelled()) {
+                task.getStatistics().taskCancelled();
+            } else {
+                rescored.add(task.getPosition());
+                pendingTasks.add(task);
             }
-        } catch (InterruptedException e) {
-            if (!executor.isTerminated()) {
-                logger.error("Reactor thread was interrupted", e);
+        }
+    }
+
+    private void onTaskDone(PipelineTask task) {
+        synchronized (processingLock) {
+            ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(task.getPosition());
+            if (chunkProcessingInfo == null || chunkProcessingInfo.getCurrentFuture() != task) {
+                return; // chunk processing was cancelled.
             }
-            reactor.interrupt();
+            onStageDone(task, chunkProcessingInfo);
         }
     }
 
-    private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunkProcessingInfo) throws InterruptedException {
+    private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunkProcessingInfo) {
         try {
             chunkProcessingInfo.resetTaskState();
             chunkProcessingInfo.setChunk(future.get());
@@ -135,14 +212,14 @@ private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunk
         } catch (ExecutionException e) {
             String stageName =
                     chunkProcessingInfo.getChunkTaskProvider() == null
-                            ? "Generation or Loading"
+                            ? GENERATION_STAGE
                             : chunkProcessingInfo.getChunkTaskProvider().getName();
             logger.error(
                     String.format("ChunkTask at position %s and stage [%s] catch error: ",
                             chunkProcessingInfo.getPosition(), stageName),
                     e);
             chunkProcessingInfo.getExternalFuture().setException(e);
-        } catch (CancellationException ignored) {
+        } catch (InterruptedException | CancellationException ignored) {
         }
     }
 
@@ -150,7 +227,7 @@ private void processChunkTasks() {
         chunkProcessingInfoMap.values().stream()
                 .filter(chunkProcessingInfo -> chunkProcessingInfo.getChunkTask() != null && chunkProcessingInfo.getCurrentFuture() == null)
                 .forEach(chunkProcessingInfo -> {
-                    org.terasology.engine.world.chunks.pipeline.stages.ChunkTask chunkTask = chunkProcessingInfo.getChunkTask();
+                    ChunkTask chunkTask = chunkProcessingInfo.getChunkTask();
                     Set<Chunk> providedChunks = chunkTask.getRequirements().stream()
                             .map(pos -> getChunkBy(chunkProcessingInfo.getChunkTaskProvider(), pos))
                             .filter(Objects::nonNull)
@@ -177,22 +254,37 @@ private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
     }
 
     private Future<Chunk> runTask(ChunkTask task, Set<Chunk> chunks) {
-        return chunkProcessor.submit(new PositionalCallable(() -> {
+        return submit(task.getName(), task.getPosition(), () -> {
             try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
                 return task.apply(chunks);
             }
-        }, task.getPosition()));
+        });
     }
 
-    private Thread threadFactory(Runnable runnable) {
-        Thread thread = new Thread(runnable);
+    private PipelineTask submit(String stageName, Vector3ic position, Callable<Chunk> callable) {
+        StageStatistics statistics = stageStatistics.computeIfAbsent(stageName, StageStatistics::new);
+        PipelineTask task = new PipelineTask(callable, position, statistics);
+        synchronized (pendingTasks) {
+            pendingTasks.add(task);
+            statistics.taskQueued();
+        }
+        try {
+            pool.execute(this::runNext);
+        } catch (RejectedExecutionException e) {
+            logger.error("Cannot run task for {} because the pipeline is shut down", position);
+        }
+        return task;
+    }
+
+    private ForkJoinWorkerThread threadFactory(ForkJoinPool forkJoinPool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
         thread.setDaemon(true);
-        thread.setName("Chunk-Processing-" + threadIndex++);
+        thread.setName("Chunk-Processing-" + threadIndex.getAndIncrement());
         return thread;
     }
 
-    private void rejectQueueHandler(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
-        logger.error("Cannot run {}  because queue is full", runnable);
+    private void uncaughtExceptionHandler(Thread thread, Throwable throwable) {
+        logger.error("Uncaught exception in {}", thread.getName(), throwable);
     }
 
     /**
@@ -216,16 +308,17 @@ public ChunkProcessingPipeline addStage(ChunkTaskProvider stage) {
      */
     public Future<Chunk> invokeGeneratorTask(Vector3i position, Supplier<Chunk> generatorTask) {
         Preconditions.checkState(!stages.isEmpty(), "ChunkProcessingPipeline must to have at least one stage");
-        ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(position);
-        if (chunkProcessingInfo != null) {
-            return chunkProcessingInfo.getExternalFuture();
-        } else {
-            SettableFuture<Chunk> exitFuture = SettableFuture.create();
-            chunkProcessingInfo = new ChunkProcessingInfo(position, exitFuture);
-            chunkProcessingInfoMap.put(position, chunkProcessingInfo);
-            chunkProcessingInfo.setCurrentFuture(chunkProcessor.submit(new PositionalCallable(generatorTask::get,
-                    position)));
-            return exitFuture;
+        synchronized (processingLock) {
+            ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(position);
+            if (chunkProcessingInfo != null) {
+                return chunkProcessingInfo.getExternalFuture();
+            } else {
+                SettableFuture<Chunk> exitFuture = SettableFuture.create();
+                chunkProcessingInfo = new ChunkProcessingInfo(position, exitFuture);
+                chunkProcessingInfoMap.put(position, chunkProcessingInfo);
+                chunkProcessingInfo.setCurrentFuture(submit(GENERATION_STAGE, position, generatorTask::get));
+                return exitFuture;
+            }
         }
     }
 
@@ -240,17 +333,16 @@ public Future<Chunk> invokePipeline(Chunk chunk) {
     }
 
     public void shutdown() {
-        executor.shutdown();
-        chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
-        chunkProcessingInfoMap.clear();
-        executor.getQueue().clear();
-        reactor.interrupt();
+        pool.shutdownNow();
+        restart();
     }
 
     public void restart() {
-        chunkProcessingInfoMap.clear();
-        executor.getQueue().clear();
-        chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
+        Lists.newArrayList(chunkProcessingInfoMap.keySet()).forEach(this::stopProcessingAt);
+        synchronized (pendingTasks) {
+            pendingTasks.forEach(task -> task.getStatistics().taskCancelled());
+            pendingTasks.clear();
+        }
     }
 
     /**
@@ -259,7 +351,10 @@ public void restart() {
      * @param pos position of chunk to stop processing.
      */
     public void stopProcessingAt(Vector3ic pos) {
-        ChunkProcessingInfo removed = chunkProcessingInfoMap.remove(pos);
+        ChunkProcessingInfo removed;
+        synchronized (processingLock) {
+            removed = chunkProcessingInfoMap.remove(pos);
+        }
         if (removed == null) {
             return;
         }
@@ -306,24 +401,24 @@ public List<Vector3ic> getProcessingPosition() {
     }
 
     /**
-     * Dummy callable for passthru position for {@link java.util.concurrent.ThreadPoolExecutor}#newTaskFor
+     * Pending or running task of one stage for one chunk.
      */
-    private static final class PositionalCallable implements Callable<Chunk> {
-        private final Callable<Chunk> callable;
-        private final Vector3ic position;
-
-        private PositionalCallable(Callable<Chunk> callable, Vector3ic position) {
-            this.callable = callable;
-            this.position = position;
+    private static final class PipelineTask extends PositionFuture<Chunk> {
+        private final StageStatistics statistics;
+        private final long enqueueTime;
+
+        private PipelineTask(Callable<Chunk> callable, Vector3ic position, StageStatistics statistics) {
+            super(new FutureTask<>(callable), position);
+            this.statistics = statistics;
+            this.enqueueTime = System.nanoTime();
         }
 
-        public Vector3ic getPosition() {
-            return position;
+        StageStatistics getStatistics() {
+            return statistics;
         }
 
-        @Override
-        public Chunk call() throws Exception {
-            return callable.call();
+        long getEnqueueTime() {
+            return enqueueTime;
         }
     }
 }
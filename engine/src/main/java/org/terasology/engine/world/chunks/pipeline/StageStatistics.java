@@ -0,0 +1,96 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.engine.world.chunks.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue depth and latency of one stage of a {@link ChunkProcessingPipeline}.
+ * <p>
+ * Waiting time is measured from the moment a task of the stage becomes runnable until a thread picks it up.
+ */
+public final class StageStatistics {
+    private final String stageName;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+
+    StageStatistics(String stageName) {
+        this.stageName = stageName;
+    }
+
+    void taskQueued() {
+        queued.incrementAndGet();
+    }
+
+    void taskStarted(long waitNanos) {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        totalWaitNanos.add(waitNanos);
+    }
+
+    void taskFinished(long runNanos) {
+        running.decrementAndGet();
+        completed.increment();
+        totalRunNanos.add(runNanos);
+    }
+
+    void taskCancelled() {
+        queued.decrementAndGet();
+        cancelled.increment();
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    /**
+     * @return the number of tasks of this stage waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the number of tasks that got dropped before they started, because their chunk was no longer relevant.
+     */
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    public double getMeanWaitMillis() {
+        return meanMillis(totalWaitNanos.sum(), getCompleted() + getRunning());
+    }
+
+    public double getMeanRunMillis() {
+        return meanMillis(totalRunNanos.sum(), getCompleted());
+    }
+
+    private static double meanMillis(long totalNanos, long count) {
+        if (count == 0) {
+            return 0;
+        }
+        return (double) totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: queued %d, running %d, done %d, cancelled %d, wait %.1fms, run %.1fms",
+                stageName, getQueueDepth(), getRunning(), getCompleted(), getCancelled(), getMeanWaitMillis(),
+                getMeanRunMillis());
+    }
+}
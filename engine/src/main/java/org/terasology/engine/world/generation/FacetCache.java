@@ -0,0 +1,198 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares the 2D facets of a column between all regions which cover the same x/z area at the same scale, like the
+ * chunks stacked on top of each other.
+ * <br><br>
+ * Only facets whose whole provider chain produces, updates and requires 2D facets are shared, see
+ * {@link FacetProviderGraph}. Those facets do not depend on the height of the region, so each column computes them
+ * once in a region of its own and hands out the finished facets. Regions must not modify the facets they get from the
+ * cache.
+ * <br><br>
+ * The cache holds a bounded number of columns. Once it is full, the columns farthest from the focus set through
+ * {@link #setFocus} are dropped, the least recently used first.
+ */
+public class FacetCache {
+    /* the number of columns kept by default, enough for the chunks around a player at a view distance of 16 */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetCache.class);
+
+    private final int capacity;
+    /* access ordered, guarded by this */
+    private final Map<ColumnKey, RegionImpl> columns = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Supplier<? extends Collection<? extends Vector3ic>> focus = Collections::emptyList;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FacetCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of columns to keep
+     */
+    public FacetCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets where the regions are which are generated now.
+     *
+     * @param focus supplies the chunk positions around which chunks are generated, called whenever the cache is
+     *         full
+     */
+    public void setFocus(Supplier<? extends Collection<? extends Vector3ic>> focus) {
+        this.focus = Objects.requireNonNull(focus);
+    }
+
+    /**
+     * @return the column covering the same x/z area as the given region, created by the factory if it is not cached
+     */
+    synchronized RegionImpl getColumn(BlockRegionc region, float scale, Supplier<RegionImpl> factory) {
+        ColumnKey key = new ColumnKey(region, scale);
+        RegionImpl column = columns.get(key);
+        if (column == null) {
+            column = factory.get();
+            columns.put(key, column);
+            if (columns.size() > capacity) {
+                evict();
+            }
+        }
+        return column;
+    }
+
+    /**
+     * @return the finished facet of the given column, generated if no region of the column asked for it before
+     */
+    <T extends WorldFacet> T getFacet(RegionImpl column, Class<T> type) {
+        synchronized (column) {
+            if (column.isGenerated(type)) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+            return column.getFacet(type);
+        }
+    }
+
+    public synchronized int size() {
+        return columns.size();
+    }
+
+    public synchronized void clear() {
+        columns.clear();
+    }
+
+    /**
+     * @return the number of facets which were taken from a column that generated them before
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of facets which had to be generated
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the share of facet requests served without generating the facet, or 0 if there were none
+     */
+    public float getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (float) hitCount / total;
+    }
+
+    private void evict() {
+        Collection<? extends Vector3ic> centers = focus.get();
+        List<Map.Entry<ColumnKey, RegionImpl>> entries = Lists.newArrayList(columns.entrySet());
+        if (!centers.isEmpty()) {
+            // stable, so columns at the same distance are still dropped in the order they were last used
+            entries.sort(Comparator.comparingDouble(
+                    (Map.Entry<ColumnKey, RegionImpl> entry) -> -entry.getKey().distanceSquared(centers)));
+        }
+        int target = capacity * 3 / 4;
+        int evicted = 0;
+        for (Map.Entry<ColumnKey, RegionImpl> entry : entries) {
+            if (columns.size() <= target) {
+                break;
+            }
+            columns.remove(entry.getKey());
+            evicted++;
+        }
+        logger.debug("Evicted {} facet columns, hit rate {}", evicted, getHitRate());
+    }
+
+    private static final class ColumnKey {
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final float scale;
+
+        ColumnKey(BlockRegionc region, float scale) {
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.maxX = region.maxX();
+            this.maxZ = region.maxZ();
+            this.scale = scale;
+        }
+
+        /**
+         * @return the squared distance in chunks between the center of this column and the nearest of the given chunks
+         */
+        float distanceSquared(Collection<? extends Vector3ic> chunks) {
+            float centerX = (minX + maxX + 1) * scale / 2 / Chunks.SIZE_X;
+            float centerZ = (minZ + maxZ + 1) * scale / 2 / Chunks.SIZE_Z;
+            float result = Float.MAX_VALUE;
+            for (Vector3ic chunk : chunks) {
+                float dx = centerX - chunk.x() - 0.5f;
+                float dz = centerZ - chunk.z() - 0.5f;
+                result = Math.min(result, dx * dx + dz * dz);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ColumnKey other = (ColumnKey) o;
+            return minX == other.minX && minZ == other.minZ && maxX == other.maxX && maxZ == other.maxZ
+                    && Float.compare(scale, other.scale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(minX, minZ, maxX, maxZ, scale);
+        }
+    }
+}
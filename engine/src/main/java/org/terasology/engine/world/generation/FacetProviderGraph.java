@@ -0,0 +1,145 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The provider chains of a world, compiled into the order in which a region can run them.
+ * <br><br>
+ * The providers of each chain are grouped into stages. A provider depends on every provider before it in the chain
+ * which writes a facet it reads or writes, or reads a facet it writes, where @Produces and @Updates write and
+ * @Requires reads. Each stage holds the providers whose dependencies are all in earlier stages, so the providers of a
+ * stage can run at the same time and still leave the facets exactly as running the chain one by one would.
+ * <br><br>
+ * The graph also knows the column providers, see {@link FacetCache}: the providers whose output depends only on the
+ * x/z column of a region, because they produce and update only 2D facets which nothing but providers of 2D facets
+ * contributes to.
+ */
+public class FacetProviderGraph {
+    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> chains;
+    private final Map<Class<? extends WorldFacet>, List<List<FacetProvider>>> stages = Maps.newHashMap();
+    private final ListMultimap<FacetProvider, Class<? extends WorldFacet>> columnProviders;
+
+    public FacetProviderGraph(ListMultimap<Class<? extends WorldFacet>, FacetProvider> chains) {
+        this.chains = chains;
+        for (Class<? extends WorldFacet> facet : chains.keySet()) {
+            stages.put(facet, determineStages(chains.get(facet)));
+        }
+        this.columnProviders = determineColumnProviders(chains);
+    }
+
+    public ListMultimap<Class<? extends WorldFacet>, FacetProvider> getChains() {
+        return chains;
+    }
+
+    /**
+     * @return the providers needed for the given facet, grouped into stages which have to run one after the other
+     */
+    public List<List<FacetProvider>> getStages(Class<? extends WorldFacet> facet) {
+        return stages.getOrDefault(facet, Collections.emptyList());
+    }
+
+    public boolean isColumnProvider(FacetProvider provider) {
+        return columnProviders.containsKey(provider);
+    }
+
+    /**
+     * @return the facets the given column provider produces or updates
+     */
+    public List<Class<? extends WorldFacet>> getColumnFacets(FacetProvider provider) {
+        return columnProviders.get(provider);
+    }
+
+    private static List<List<FacetProvider>> determineStages(List<FacetProvider> chain) {
+        int[] stageOf = new int[chain.size()];
+        List<List<FacetProvider>> result = Lists.newArrayList();
+        for (int i = 0; i < chain.size(); i++) {
+            FacetProvider provider = chain.get(i);
+            for (int j = 0; j < i; j++) {
+                if (conflicts(chain.get(j), provider)) {
+                    stageOf[i] = Math.max(stageOf[i], stageOf[j] + 1);
+                }
+            }
+            if (stageOf[i] == result.size()) {
+                result.add(Lists.newArrayList());
+            }
+            result.get(stageOf[i]).add(provider);
+        }
+        ImmutableList.Builder<List<FacetProvider>> builder = ImmutableList.builder();
+        result.forEach(stage -> builder.add(ImmutableList.copyOf(stage)));
+        return builder.build();
+    }
+
+    private static boolean conflicts(FacetProvider earlier, FacetProvider later) {
+        List<Class<? extends WorldFacet>> earlierOutputs = outputFacets(earlier);
+        List<Class<? extends WorldFacet>> laterOutputs = outputFacets(later);
+        return !Collections.disjoint(earlierOutputs, laterOutputs)
+                || !Collections.disjoint(earlierOutputs, requiredFacets(later))
+                || !Collections.disjoint(requiredFacets(earlier), laterOutputs);
+    }
+
+    private static ListMultimap<FacetProvider, Class<? extends WorldFacet>> determineColumnProviders(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        Set<Class<? extends WorldFacet>> columnFacets = Sets.newHashSet();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            boolean only2D = providerChains.get(facet).stream().allMatch(provider ->
+                    usedFacets(provider).stream().allMatch(WorldFacet2D.class::isAssignableFrom));
+            if (only2D && WorldFacet2D.class.isAssignableFrom(facet)) {
+                columnFacets.add(facet);
+            }
+        }
+        ListMultimap<FacetProvider, Class<? extends WorldFacet>> result = ArrayListMultimap.create();
+        for (FacetProvider provider : new LinkedHashSet<>(providerChains.values())) {
+            List<Class<? extends WorldFacet>> outputs = outputFacets(provider);
+            if (!outputs.isEmpty() && columnFacets.containsAll(outputs)) {
+                result.putAll(provider, outputs);
+            }
+        }
+        return result;
+    }
+
+    private static List<Class<? extends WorldFacet>> outputFacets(FacetProvider provider) {
+        List<Class<? extends WorldFacet>> result = Lists.newArrayList();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            result.addAll(Arrays.asList(produces.value()));
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                result.add(facet.value());
+            }
+        }
+        return result;
+    }
+
+    private static List<Class<? extends WorldFacet>> requiredFacets(FacetProvider provider) {
+        List<Class<? extends WorldFacet>> result = Lists.newArrayList();
+        Requires requires = provider.getClass().getAnnotation(Requires.class);
+        if (requires != null) {
+            for (Facet facet : requires.value()) {
+                result.add(facet.value());
+            }
+        }
+        return result;
+    }
+
+    private static List<Class<? extends WorldFacet>> usedFacets(FacetProvider provider) {
+        List<Class<? extends WorldFacet>> result = outputFacets(provider);
+        result.addAll(requiredFacets(provider));
+        return result;
+    }
+}
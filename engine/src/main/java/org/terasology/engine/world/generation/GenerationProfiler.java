@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long each facet provider, rasterizer and entity provider of a world takes, while it is enabled.
+ * <br><br>
+ * The steps are told apart by their class. Every ten seconds the statistics are logged, the slowest steps first.
+ */
+public class GenerationProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(GenerationProfiler.class);
+    private static final long LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final Map<Class<?>, GenerationStatistics> statistics = Maps.newConcurrentMap();
+    private volatile boolean enabled;
+    private volatile long lastLog = System.nanoTime();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the time at which a step starts, to be passed to {@link #record}
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records that the given facet provider, rasterizer or entity provider ran from the given start time until now.
+     */
+    void record(Object step, long startTime) {
+        if (!enabled || startTime == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        statistics.computeIfAbsent(step.getClass(), type -> new GenerationStatistics(type.getSimpleName()))
+                .record(now - startTime);
+        if (now - lastLog > LOG_INTERVAL) {
+            lastLog = now;
+            getStatistics().forEach(entry -> logger.info("{}", entry));
+        }
+    }
+
+    /**
+     * @return the statistics of all steps which ran while profiling was enabled, the slowest in total first
+     */
+    public List<GenerationStatistics> getStatistics() {
+        List<GenerationStatistics> result = Lists.newArrayList(statistics.values());
+        result.sort(Comparator.comparingDouble(GenerationStatistics::getTotalMillis).reversed());
+        return result;
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+}
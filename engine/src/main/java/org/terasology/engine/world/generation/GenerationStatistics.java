@@ -0,0 +1,47 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.generation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time a single facet provider, rasterizer or entity provider spent generating, see {@link GenerationProfiler}.
+ */
+public final class GenerationStatistics {
+    private final String name;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    GenerationStatistics(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos) {
+        runs.increment();
+        totalNanos.add(nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    public double getTotalMillis() {
+        return (double) totalNanos.sum() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMeanMillis() {
+        long count = getRuns();
+        return count == 0 ? 0 : getTotalMillis() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: runs %d, total %.1fms, mean %.3fms", name, getRuns(), getTotalMillis(),
+                getMeanMillis());
+    }
+}
@@ -3,51 +3,134 @@
 package org.terasology.engine.world.generation;
 
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.engine.utilities.collection.TypeMap;
 import org.terasology.engine.world.block.BlockRegion;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
 
 /**
+ * Generates the facets of a region on demand.
+ * <br><br>
+ * The providers needed for a facet run in the stages of the {@link FacetProviderGraph}. The providers of a stage
+ * are forked into the current fork/join pool, or the common pool when not called from one, and the region waits for
+ * all of them before it starts the next stage. The regions of a {@link FacetCache} run their providers one by one
+ * instead, as they generate while holding their lock, and a thread waiting for forked providers may pick up the
+ * generation of another chunk of the same column.
  */
 public class RegionImpl implements Region, GeneratingRegion {
 
     private final BlockRegion region;
-    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
+    private final FacetProviderGraph providerGraph;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final float scale;
+    private final FacetCache facetCache;
+    private final GenerationProfiler profiler;
+    private final boolean parallel;
 
-    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
+    /* written by the providers of a stage at the same time */
+    private final TypeMap<WorldFacet> generatingFacets =
+            TypeMap.create(Collections.synchronizedMap(Maps.newHashMap()));
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
+    private RegionImpl column;
 
     public RegionImpl(BlockRegion region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders, float scale) {
+        this(region, new FacetProviderGraph(facetProviderChains), borders, scale, null, new GenerationProfiler());
+    }
+
+    /**
+     * @param facetCache the cache sharing the facets of the column providers between regions of the same column, or
+     *         null to run them in this region
+     * @param profiler measures the time each provider takes
+     */
+    public RegionImpl(BlockRegion region, FacetProviderGraph providerGraph,
+                      Map<Class<? extends WorldFacet>, Border3D> borders, float scale, FacetCache facetCache,
+                      GenerationProfiler profiler) {
+        this(region, providerGraph, borders, scale, facetCache, profiler, true);
+    }
+
+    private RegionImpl(BlockRegion region, FacetProviderGraph providerGraph,
+                       Map<Class<? extends WorldFacet>, Border3D> borders, float scale, FacetCache facetCache,
+                       GenerationProfiler profiler, boolean parallel) {
         this.region = region;
-        this.facetProviderChains = facetProviderChains;
+        this.providerGraph = providerGraph;
         this.borders = borders;
         this.scale = scale;
+        this.facetCache = facetCache;
+        this.profiler = profiler;
+        this.parallel = parallel;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                if (scale == 1) {
-                    provider.process(this);
-                } else {
-                    ((ScalableFacetProvider) provider).process(this, scale);
+            for (List<FacetProvider> stage : providerGraph.getStages(dataType)) {
+                List<FacetProvider> pending = Lists.newArrayListWithCapacity(stage.size());
+                for (FacetProvider provider : stage) {
+                    if (!processedProviders.contains(provider)) {
+                        pending.add(provider);
+                    }
+                }
+                if (!parallel || pending.size() == 1) {
+                    pending.forEach(this::process);
+                } else if (pending.size() > 1) {
+                    List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(pending.size());
+                    for (FacetProvider provider : pending) {
+                        tasks.add(ForkJoinTask.adapt(() -> process(provider)));
+                    }
+                    ForkJoinTask.invokeAll(tasks);
                 }
-                processedProviders.add(provider);
-            });
+                processedProviders.addAll(pending);
+            }
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
         }
         return facet;
     }
 
+    private void process(FacetProvider provider) {
+        if (facetCache != null && providerGraph.isColumnProvider(provider)) {
+            providerGraph.getColumnFacets(provider).forEach(this::copyColumnFacet);
+            return;
+        }
+        long startTime = profiler.start();
+        if (scale == 1) {
+            provider.process(this);
+        } else {
+            ((ScalableFacetProvider) provider).process(this, scale);
+        }
+        profiler.record(provider, startTime);
+    }
+
+    /**
+     * @return whether the facet was requested before, so {@link #getFacet} returns it without generating it
+     */
+    boolean isGenerated(Class<? extends WorldFacet> type) {
+        return generatedFacets.containsKey(type);
+    }
+
+    private <T extends WorldFacet> void copyColumnFacet(Class<T> type) {
+        if (!generatingFacets.containsKey(type)) {
+            generatingFacets.put(type, facetCache.getFacet(getColumn(), type));
+        }
+    }
+
+    private synchronized RegionImpl getColumn() {
+        if (column == null) {
+            column = facetCache.getColumn(region, scale,
+                    () -> new RegionImpl(region, providerGraph, borders, scale, null, profiler, false));
+        }
+        return column;
+    }
+
     @Override
     public BlockRegion getRegion() {
         return region;
@@ -2,10 +2,13 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.generation;
 
+import org.joml.Vector3ic;
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.chunks.Chunk;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  */
@@ -33,4 +36,18 @@ default Region getWorldData(BlockRegion region) {
     Set<Class<? extends WorldFacet>> getAllFacets();
 
     void initialize();
+
+    /**
+     * Tells the world around which chunks it generates, so it can keep the data it caches for the closest ones.
+     *
+     * @param focus supplies the positions of the chunks the relevance regions are centered on
+     */
+    default void setFocus(Supplier<? extends Collection<? extends Vector3ic>> focus) {
+    }
+
+    /**
+     * Turns measuring how long each step of the generation takes on or off.
+     */
+    default void setProfilingEnabled(boolean enabled) {
+    }
 }
@@ -4,6 +4,7 @@
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
+import org.joml.Vector3ic;
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.engine.world.chunks.Chunk;
 
@@ -12,17 +13,21 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  */
 public class WorldImpl implements World {
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
-    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> scalableFacetProviderChains;
     private final List<WorldRasterizer> worldRasterizers;
     private final List<WorldRasterizer> scalableWorldRasterizers;
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final FacetCache facetCache = new FacetCache();
+    private final GenerationProfiler profiler = new GenerationProfiler();
+    private final FacetProviderGraph providerGraph;
+    private final FacetProviderGraph scalableProviderGraph;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      ListMultimap<Class<? extends WorldFacet>, FacetProvider> scalableFacetProviderChains,
@@ -32,17 +37,43 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetP
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
         this.facetProviderChains = facetProviderChains;
-        this.scalableFacetProviderChains = scalableFacetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.scalableWorldRasterizers = scalableWorldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.providerGraph = new FacetProviderGraph(facetProviderChains);
+        this.scalableProviderGraph = new FacetProviderGraph(scalableFacetProviderChains);
     }
 
     @Override
     public Region getWorldData(BlockRegion region, float scale) {
-        return new RegionImpl(region, scale == 1 ? facetProviderChains : scalableFacetProviderChains, borders, scale);
+        return new RegionImpl(region, scale == 1 ? providerGraph : scalableProviderGraph, borders, scale, facetCache,
+                profiler);
+    }
+
+    /**
+     * @return the cache sharing the 2D facets between the regions of a column
+     */
+    public FacetCache getFacetCache() {
+        return facetCache;
+    }
+
+    /**
+     * @return the profiler measuring the facet providers, rasterizers and entity providers of this world
+     */
+    public GenerationProfiler getProfiler() {
+        return profiler;
+    }
+
+    @Override
+    public void setProfilingEnabled(boolean enabled) {
+        profiler.setEnabled(enabled);
+    }
+
+    @Override
+    public void setFocus(Supplier<? extends Collection<? extends Vector3ic>> focus) {
+        facetCache.setFocus(focus);
     }
 
     @Override
@@ -54,10 +85,14 @@ public int getSeaLevel() {
     public void rasterizeChunk(Chunk chunk, EntityBuffer buffer) {
         Region chunkRegion = getWorldData(new BlockRegion(chunk.getRegion()), 1);
         for (WorldRasterizer rasterizer : worldRasterizers) {
+            long startTime = profiler.start();
             rasterizer.generateChunk(chunk, chunkRegion);
+            profiler.record(rasterizer, startTime);
         }
         for (EntityProvider entityProvider : entityProviders) {
+            long startTime = profiler.start();
             entityProvider.process(chunkRegion, buffer);
+            profiler.record(entityProvider, startTime);
         }
     }
 
@@ -65,7 +100,9 @@ public void rasterizeChunk(Chunk chunk, EntityBuffer buffer) {
     public void rasterizeChunk(Chunk chunk, float scale) {
         Region chunkRegion = getWorldData(new BlockRegion(chunk.getRegion()), scale);
         for (WorldRasterizer rasterizer : scalableWorldRasterizers) {
+            long startTime = profiler.start();
             ((ScalableWorldRasterizer) rasterizer).generateChunk(chunk, chunkRegion, scale);
+            profiler.record(rasterizer, startTime);
         }
     }
 
@@ -16,6 +16,7 @@ public class WorldInfo {
     private String seed = "";
     private long time;
     private SimpleUri worldGenerator = new SimpleUri();
+    private String chunkCodec;
 
     public WorldInfo() {
     }
@@ -78,6 +79,17 @@ public void setWorldGenerator(SimpleUri worldGenerator) {
         this.worldGenerator = worldGenerator;
     }
 
+    /**
+     * @return the name of the codec used to compress the chunks of the world or null if the default codec is used.
+     */
+    public String getChunkCodec() {
+        return chunkCodec;
+    }
+
+    public void setChunkCodec(String chunkCodec) {
+        this.chunkCodec = chunkCodec;
+    }
+
     @Override
     public String toString() {
         return title;
@@ -23,6 +23,7 @@
 import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.engine.world.propagation.BatchPropagator;
 import org.terasology.engine.world.propagation.BlockChange;
+import org.terasology.engine.world.propagation.ParallelBatchPropagation;
 import org.terasology.engine.world.propagation.PropagationRules;
 import org.terasology.engine.world.propagation.PropagatorWorldView;
 import org.terasology.engine.world.propagation.StandardBatchPropagator;
@@ -61,7 +62,8 @@ public class WorldProviderCoreImpl implements WorldProviderCore {
     private final List<WorldChangeListener> listeners = Lists.newArrayList();
 
     private final Map<Vector3i, BlockChange> blockChanges = Maps.newHashMap();
-    private List<BatchPropagator> propagators = Lists.newArrayList();
+    private List<BatchPropagator> propagators;
+    private final ParallelBatchPropagation parallelPropagation;
 
     private Block unloadedBlock;
 
@@ -79,14 +81,25 @@ public WorldProviderCoreImpl(String title, String customTitle, String seed, long
         this.worldTime = new WorldTimeImpl();
         worldTime.setMilliseconds(time);
 
-        propagators.add(new StandardBatchPropagator(new LightPropagationRules(), new LightWorldView(chunkProvider)));
+        propagators = createPropagators();
+        parallelPropagation = new ParallelBatchPropagation(this::createPropagators,
+                Math.max(Chunks.MAX_LIGHT, Chunks.MAX_SUNLIGHT) + 1);
+    }
+
+    /**
+     * @return the propagators that process the block changes in order. They must only be used by one thread at a time.
+     */
+    private List<BatchPropagator> createPropagators() {
+        List<BatchPropagator> result = Lists.newArrayList();
+        result.add(new StandardBatchPropagator(new LightPropagationRules(), new LightWorldView(chunkProvider)));
         PropagatorWorldView regenWorldView = new SunlightRegenWorldView(chunkProvider);
         PropagationRules sunlightRules = new SunlightPropagationRules(regenWorldView);
         PropagatorWorldView sunlightWorldView = new SunlightWorldView(chunkProvider);
         BatchPropagator sunlightPropagator = new StandardBatchPropagator(sunlightRules, sunlightWorldView);
-        propagators.add(new SunlightRegenBatchPropagator(new SunlightRegenPropagationRules(), regenWorldView,
+        result.add(new SunlightRegenBatchPropagator(new SunlightRegenPropagationRules(), regenWorldView,
                 sunlightPropagator, sunlightWorldView));
-        propagators.add(sunlightPropagator);
+        result.add(sunlightPropagator);
+        return result;
     }
 
     public WorldProviderCoreImpl(WorldInfo info, ChunkProvider chunkProvider, Block unloadedBlock,
@@ -122,9 +135,7 @@ public WorldInfo getWorldInfo() {
 
     @Override
     public void processPropagation() {
-        for (BatchPropagator propagator : propagators) {
-            propagator.process(blockChanges.values());
-        }
+        parallelPropagation.process(blockChanges.values(), propagators);
         blockChanges.clear();
     }
 
@@ -342,6 +353,7 @@ public int setExtraData(int index, Vector3ic worldPos, int value) {
 
     @Override
     public void dispose() {
+        parallelPropagation.shutdown();
         chunkProvider.dispose();
 
     }
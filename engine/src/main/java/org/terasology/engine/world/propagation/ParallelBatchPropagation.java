@@ -0,0 +1,221 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Processes large sets of block changes on several threads, with a chain of batch propagators per thread.
+ * <br><br>
+ * A change can only affect values within the reach of its position, and the propagators only read values next to
+ * the ones they may change. The changes are split into partitions, so that the chunk columns that the changes of
+ * different partitions can read or write don't overlap. Each partition gets processed by its own propagators, in the
+ * order the changes were given. As no two partitions touch the same chunk, the result is the same as processing all
+ * changes with a single chain of propagators.
+ * <br><br>
+ * Partitions contain whole chunk columns, as sunlight can spread down without getting weaker.
+ */
+public class ParallelBatchPropagation {
+    /**
+     * Fewer changes are processed by the serial propagators, as splitting them up costs more than it saves.
+     */
+    public static final int MIN_PARALLEL_CHANGES = 256;
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelBatchPropagation.class);
+    private static final AtomicInteger WORKER_INDEX = new AtomicInteger(1);
+
+    /* Every worker thread reuses its propagators, whose queues only grow */
+    private final ThreadLocal<List<BatchPropagator>> workerPropagators;
+    private final int reach;
+    private ForkJoinPool workerPool;
+
+    /**
+     * @param propagatorFactory creates a chain of propagators, which get used by one thread at a time.
+     * @param reach the maximum distance in blocks at which the propagators can change a value, plus one for the
+     *         neighbours they read
+     */
+    public ParallelBatchPropagation(Supplier<List<BatchPropagator>> propagatorFactory, int reach) {
+        this.workerPropagators = ThreadLocal.withInitial(propagatorFactory);
+        this.reach = reach;
+    }
+
+    /**
+     * Processes the changes in parallel if there are enough of them and they are far enough apart, or with the given
+     * propagators otherwise.
+     *
+     * @param blockChanges the changes to process
+     * @param serialPropagators the propagators to use if the changes are not processed in parallel
+     */
+    public void process(Collection<BlockChange> blockChanges, List<BatchPropagator> serialPropagators) {
+        List<Partition> partitions = blockChanges.size() < MIN_PARALLEL_CHANGES
+                ? null : partition(blockChanges);
+        if (partitions == null || partitions.size() < 2) {
+            for (BatchPropagator propagator : serialPropagators) {
+                propagator.process(blockChanges);
+            }
+            return;
+        }
+
+        List<Callable<Void>> tasks = Lists.newArrayListWithCapacity(partitions.size());
+        for (Partition partition : partitions) {
+            tasks.add(() -> {
+                for (BatchPropagator propagator : workerPropagators.get()) {
+                    propagator.process(partition.changes);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : getWorkerPool().invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while propagating {} block changes", blockChanges.size());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to propagate block changes", e.getCause());
+        }
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    public void shutdown() {
+        if (workerPool != null) {
+            workerPool.shutdown();
+            workerPool = null;
+        }
+    }
+
+    /**
+     * Assigns every change to a partition of the chunk columns it can affect, and merges the partitions whose columns
+     * overlap.
+     *
+     * @return partitions whose affected chunk columns don't overlap, each with its changes in the given order
+     */
+    List<Partition> partition(Collection<BlockChange> blockChanges) {
+        List<Partition> partitions = Lists.newArrayList();
+        List<Partition> assignments = Lists.newArrayListWithCapacity(blockChanges.size());
+        for (BlockChange change : blockChanges) {
+            Vector3ic pos = change.getPosition();
+            int minX = Chunks.toChunkPos(pos.x() - reach, Chunks.POWER_X);
+            int maxX = Chunks.toChunkPos(pos.x() + reach, Chunks.POWER_X);
+            int minZ = Chunks.toChunkPos(pos.z() - reach, Chunks.POWER_Z);
+            int maxZ = Chunks.toChunkPos(pos.z() + reach, Chunks.POWER_Z);
+
+            Partition target = null;
+            for (Partition partition : partitions) {
+                if (partition.overlaps(minX, maxX, minZ, maxZ)) {
+                    target = partition;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Partition(minX, maxX, minZ, maxZ);
+                partitions.add(target);
+            } else {
+                target.include(minX, maxX, minZ, maxZ);
+            }
+            assignments.add(target);
+        }
+        mergeOverlapping(partitions);
+
+        int index = 0;
+        for (BlockChange change : blockChanges) {
+            assignments.get(index++).root().changes.add(change);
+        }
+        return partitions;
+    }
+
+    /**
+     * Growing a partition can make it overlap with partitions that did not overlap with it before.
+     */
+    private static void mergeOverlapping(List<Partition> partitions) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < partitions.size() && !merged; i++) {
+                Partition partition = partitions.get(i);
+                for (int j = i + 1; j < partitions.size(); j++) {
+                    Partition other = partitions.get(j);
+                    if (partition.overlaps(other.minX, other.maxX, other.minZ, other.maxZ)) {
+                        partition.include(other.minX, other.maxX, other.minZ, other.maxZ);
+                        other.mergedInto = partition;
+                        partitions.remove(j);
+                        merged = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private ForkJoinPool getWorkerPool() {
+        if (workerPool == null) {
+            int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            workerPool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setDaemon(true);
+                thread.setName("Light-Worker-" + WORKER_INDEX.getAndIncrement());
+                return thread;
+            }, null, false);
+        }
+        return workerPool;
+    }
+
+    /**
+     * Block changes and the chunk columns they can read or write, as an inclusive range of chunk positions.
+     */
+    static final class Partition {
+        private final List<BlockChange> changes = Lists.newArrayList();
+        private Partition mergedInto;
+        private int minX;
+        private int maxX;
+        private int minZ;
+        private int maxZ;
+
+        private Partition(int minX, int maxX, int minZ, int maxZ) {
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+
+        List<BlockChange> getChanges() {
+            return changes;
+        }
+
+        private boolean overlaps(int otherMinX, int otherMaxX, int otherMinZ, int otherMaxZ) {
+            return minX <= otherMaxX && otherMinX <= maxX && minZ <= otherMaxZ && otherMinZ <= maxZ;
+        }
+
+        private void include(int otherMinX, int otherMaxX, int otherMinZ, int otherMaxZ) {
+            minX = Math.min(minX, otherMinX);
+            maxX = Math.max(maxX, otherMaxX);
+            minZ = Math.min(minZ, otherMinZ);
+            maxZ = Math.max(maxZ, otherMaxZ);
+        }
+
+        private Partition root() {
+            Partition root = this;
+            while (root.mergedInto != null) {
+                root = root.mergedInto;
+            }
+            return root;
+        }
+    }
+}
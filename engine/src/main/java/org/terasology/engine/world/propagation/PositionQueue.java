@@ -0,0 +1,209 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.world.propagation;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+
+import java.util.Arrays;
+
+/**
+ * Insertion ordered set of block positions, packed into longs so that queueing them creates no objects.
+ * <br><br>
+ * Each coordinate is stored in 21 bits, so positions must be within +-1048575 blocks of the origin on every axis.
+ * The arrays grow when needed and are kept when the queue gets cleared, so a propagator reusing its queues stops
+ * allocating once they are large enough for its batches. After a batch much smaller than the arrays they shrink back to
+ * their initial size, so a single large batch doesn't keep its memory or slow down clearing the queue afterwards.
+ */
+final class PositionQueue {
+    private static final int COORDINATE_BITS = 21;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    /**
+     * Marks removed entries. Packed positions never have the sign bit set.
+     */
+    private static final long REMOVED = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * The arrays shrink when a batch used less than this share of them.
+     */
+    private static final int SHRINK_RATIO = 16;
+    /**
+     * The used slots of the table are zeroed one by one when less than this share of it is in use.
+     */
+    private static final int SPARSE_CLEAR_RATIO = 8;
+
+    /**
+     * The positions in the order they got added, including removed ones.
+     */
+    private long[] entries = new long[INITIAL_CAPACITY];
+    private int end;
+    private int size;
+    /**
+     * Open addressing hash table of the indices in {@link #entries} plus one, zero marks free slots.
+     */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    static long pack(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS)) | ((y & COORDINATE_MASK) << COORDINATE_BITS)
+                | (z & COORDINATE_MASK);
+    }
+
+    static long pack(Vector3ic pos) {
+        return pack(pos.x(), pos.y(), pos.z());
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed << 1 >> (64 - COORDINATE_BITS));
+    }
+
+    static int unpackY(long packed) {
+        return (int) (packed << (64 - 2 * COORDINATE_BITS) >> (64 - COORDINATE_BITS));
+    }
+
+    static int unpackZ(long packed) {
+        return (int) (packed << (64 - COORDINATE_BITS) >> (64 - COORDINATE_BITS));
+    }
+
+    static Vector3i unpack(long packed, Vector3i dest) {
+        return dest.set(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+
+    /**
+     * @return true if the position was not part of the queue yet
+     */
+    boolean add(long pos) {
+        int slot = findSlot(pos);
+        if (table[slot] != 0) {
+            return false;
+        }
+        if (end == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[end] = pos;
+        table[slot] = ++end;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the position was part of the queue
+     */
+    boolean remove(long pos) {
+        int slot = findSlot(pos);
+        if (table[slot] == 0) {
+            return false;
+        }
+        entries[table[slot] - 1] = REMOVED;
+        table[slot] = 0;
+        size--;
+        // Move the following entries of the probe sequence, so that lookups don't stop at the freed slot
+        int mask = table.length - 1;
+        int free = slot;
+        int current = (slot + 1) & mask;
+        while (table[current] != 0) {
+            int home = hash(entries[table[current] - 1]) & mask;
+            if (((current - home) & mask) >= ((current - free) & mask)) {
+                table[free] = table[current];
+                table[current] = 0;
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the index after the last entry. Entries between 0 and this index can be read with {@link #get(int)}.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * @return the position at the given index, or a value for which {@link #isRemoved(long)} is true if the
+     *         position got removed again
+     */
+    long get(int index) {
+        return entries[index];
+    }
+
+    static boolean isRemoved(long entry) {
+        return entry == REMOVED;
+    }
+
+    /**
+     * @return the number of entries the queue holds before it has to grow
+     */
+    int capacity() {
+        return entries.length;
+    }
+
+    void clear() {
+        if (end == 0) {
+            return;
+        }
+        if (entries.length > INITIAL_CAPACITY && end * SHRINK_RATIO < entries.length) {
+            entries = new long[INITIAL_CAPACITY];
+            table = new int[INITIAL_CAPACITY * 2];
+        } else if (size * SPARSE_CLEAR_RATIO < table.length) {
+            clearUsedSlots();
+        } else {
+            Arrays.fill(table, 0);
+        }
+        end = 0;
+        size = 0;
+    }
+
+    private void clearUsedSlots() {
+        int mask = table.length - 1;
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != REMOVED) {
+                // the entry is in the table, so slots zeroed before must not end its probe sequence
+                int slot = hash(entries[i]) & mask;
+                while (table[slot] != i + 1) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = 0;
+            }
+        }
+    }
+
+    private int findSlot(long pos) {
+        int mask = table.length - 1;
+        int slot = hash(pos) & mask;
+        while (table[slot] != 0 && entries[table[slot] - 1] != pos) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != REMOVED) {
+                int slot = hash(entries[i]) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+        }
+    }
+
+    private static int hash(long pos) {
+        long h = pos * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -2,38 +2,48 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.propagation;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.terasology.engine.math.Side;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockRegion;
-import org.terasology.engine.world.block.BlockRegionc;
 import org.terasology.engine.world.chunks.Chunk;
 import org.terasology.engine.world.chunks.Chunks;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
 
 /**
  * Batch propagator that works on a set of changed blocks Works for a single given propagation ruleset
+ * <br><br>
+ * The queued positions are packed into longs and all temporary vectors and arrays are reused, so that relighting
+ * large areas doesn't create garbage.
  */
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
+    /* Iterating over an array doesn't create an iterator, unlike Side.getAllSides() */
+    private static final Side[] SIDES = Side.values();
 
     private PropagationRules rules;
     private PropagatorWorldView world;
     private int scale;
 
     /* Queues are stored in reverse order. Ie, strongest light is 0. */
-    private Set<Vector3ic>[] reduceQueues;
-    private Set<Vector3ic>[] increaseQueues;
-
-    private Map<Side, Vector3ic> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+    /* Takes the place of a queue while it gets processed */
+    private PositionQueue spareQueue = new PositionQueue();
+
+    private final Vector3ic[] chunkEdgeDeltas = new Vector3ic[SIDES.length];
+    /* The chunk positions of the blocks on each side of a chunk, as min x, y, z and max x, y, z */
+    private final int[][] chunkEdges = new int[SIDES.length][];
+
+    /* Reused by the processing methods, which don't call each other while they use them */
+    private final Vector3i currentPos = new Vector3i();
+    private final Vector3i adjPos = new Vector3i();
+    private final Vector3i worldPos = new Vector3i();
+    private final int[] edgeDepths = new int[maxEdgeArea()];
+    private final int[] adjEdgeDepths = new int[maxEdgeArea()];
 
     public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world) {
         this(rules, world, 1);
@@ -44,7 +54,7 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
         this.rules = rules;
         this.scale = scale;
 
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             Vector3i delta = new Vector3i(side.direction());
             if (delta.x < 0) {
                 delta.x += Chunks.SIZE_X;
@@ -61,14 +71,20 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             } else if (delta.z > 0) {
                 delta.z -= Chunks.SIZE_Z;
             }
-            chunkEdgeDeltas.put(side, delta);
+            chunkEdgeDeltas[side.ordinal()] = delta;
+
+            BlockRegion edgeRegion = new BlockRegion(0, 0, 0)
+                    .setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+            edgeRegion.face(side, edgeRegion);
+            chunkEdges[side.ordinal()] = new int[]{edgeRegion.minX(), edgeRegion.minY(), edgeRegion.minZ(),
+                    edgeRegion.maxX(), edgeRegion.maxY(), edgeRegion.maxZ()};
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -111,8 +127,7 @@ private void reviewChange(BlockChange blockChange) {
         }
 
         /* Process propagation out to other blocks */
-        Vector3i adjPos = new Vector3i();
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(),
                     side);
 
@@ -148,7 +163,7 @@ private void reviewChange(BlockChange blockChange) {
      * @param oldValue The value present before reset
      */
     private void purge(Vector3ic pos, byte oldValue) {
-        increaseQueues[rules.getMaxValue() - oldValue].remove(pos);
+        increaseQueues[rules.getMaxValue() - oldValue].remove(PositionQueue.pack(pos));
 
         /* Clear the value and re-propagate it if it's a positive value */
         Block block = world.getBlockAt(pos);
@@ -159,8 +174,7 @@ private void purge(Vector3ic pos, byte oldValue) {
             world.setValueAt(pos, NO_VALUE);
         }
 
-        Vector3i adjPos = new Vector3i();
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             /* Handle this value being reset to the default by updating sides as needed */
             byte expectedValue = rules.propagateValue(oldValue, side, block, scale);
             if (rules.canSpreadOutOf(block, side)) {
@@ -186,13 +200,18 @@ private void processReduction() {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
 
             while (!reduceQueues[depth].isEmpty()) {
-                Set<Vector3ic> toProcess = reduceQueues[depth];
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                PositionQueue toProcess = reduceQueues[depth];
+                reduceQueues[depth] = spareQueue;
 
                 /* This step will add any new reductions to to the `reduceQueues` set */
-                for (Vector3ic pos : toProcess) {
-                    purge(pos, oldValue);
+                for (int i = 0; i < toProcess.end(); i++) {
+                    long packedPos = toProcess.get(i);
+                    if (!PositionQueue.isRemoved(packedPos)) {
+                        purge(PositionQueue.unpack(packedPos, currentPos), oldValue);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             }
         }
     }
@@ -205,13 +224,18 @@ private void processIncrease() {
             byte value = (byte) (rules.getMaxValue() - depth);
 
             while (!increaseQueues[depth].isEmpty()) {
-                Set<Vector3ic> toProcess = increaseQueues[depth];
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                PositionQueue toProcess = increaseQueues[depth];
+                increaseQueues[depth] = spareQueue;
 
                 /* This step will add any new values to `increaseQueues` */
-                for (Vector3ic pos : toProcess) {
-                    push(pos, value);
+                for (int i = 0; i < toProcess.end(); i++) {
+                    long packedPos = toProcess.get(i);
+                    if (!PositionQueue.isRemoved(packedPos)) {
+                        push(PositionQueue.unpack(packedPos, currentPos), value);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             }
         }
 
@@ -228,8 +252,7 @@ private void processIncrease() {
      */
     private void push(Vector3ic pos, byte value) {
         Block block = world.getBlockAt(pos);
-        Vector3i adjPos = new Vector3i();
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             byte propagatedValue = rules.propagateValue(value, side, block, scale);
 
             if (rules.canSpreadOutOf(block, side)) {
@@ -268,7 +291,7 @@ private void increase(Vector3ic position, byte value) {
      */
     private void reduce(Vector3ic position, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[rules.getMaxValue() - oldValue].add(new Vector3i(position));
+            reduceQueues[rules.getMaxValue() - oldValue].add(PositionQueue.pack(position));
         }
     }
 
@@ -280,7 +303,7 @@ private void reduce(Vector3ic position, byte oldValue) {
      */
     private void queueSpreadValue(Vector3ic position, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(new Vector3i(position));
+            increaseQueues[rules.getMaxValue() - value].add(PositionQueue.pack(position));
         }
     }
 
@@ -288,31 +311,22 @@ private void queueSpreadValue(Vector3ic position, byte value) {
      * Clears all the queues and cleans up the object
      */
     private void cleanUp() {
-        for (Set<Vector3ic> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
 
     @Override
     public void propagateBetween(Chunk chunk, Chunk adjChunk, Side side, boolean propagateExternal) {
-        Function<Vector3ic, Integer> indexProvider = createIndexProvider(side);
+        int[] edge = chunkEdges[side.ordinal()];
+        Arrays.fill(edgeDepths, 0);
 
-        BlockRegion edgeRegion = new BlockRegion(0, 0, 0)
-                .setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
-        edgeRegion.face(side, edgeRegion);
-
-        int[] depth = new int[edgeRegion.volume()];
-
-        propagateSide(chunk, adjChunk, side, indexProvider, edgeRegion, depth);
-        propagateDepth(adjChunk, side, propagateExternal, indexProvider, edgeRegion, depth);
+        propagateSide(chunk, adjChunk, side, edge, edgeDepths);
+        propagateDepth(adjChunk, side, propagateExternal, edge, edgeDepths);
     }
 
-    private void propagateDepth(Chunk adjChunk, Side side, boolean propagateExternal,
-                                Function<Vector3ic, Integer> indexProvider,
-                                BlockRegion edgeRegion, int[] depths) {
-        Vector3i adjPos = new Vector3i();
-
-        int[] adjDepth = new int[depths.length];
+    private void propagateDepth(Chunk adjChunk, Side side, boolean propagateExternal, int[] edge, int[] depths) {
+        int[] adjDepth = adjEdgeDepths;
         int dimA = (side == Side.LEFT || side == Side.RIGHT) ? Chunks.SIZE_Y : Chunks.SIZE_X;
         int dimB = (side == Side.FRONT || side == Side.BACK) ? Chunks.SIZE_Y : Chunks.SIZE_Z;
         BatchPropagator.populateMinAdjacent2D(depths, adjDepth, dimA, dimB, !propagateExternal);
@@ -328,72 +342,84 @@ private void propagateDepth(Chunk adjChunk, Side side, boolean propagateExternal
             }
         }
 
-        for (Vector3ic pos : edgeRegion) {
-            int depthIndex = indexProvider.apply(pos);
-            int adjacentDepth = adjDepth[depthIndex];
-            for (int i = adjacentDepth; i < depths[depthIndex]; ++i) {
-                adjPos.set(side.direction());
-                adjPos.mul(i + 1);
-                adjPos.add(pos);
-                adjPos.add(chunkEdgeDeltas.get(side));
-                byte value = rules.getValue(adjChunk, adjPos);
-                if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos, new Vector3i()), value);
+        Vector3ic direction = side.direction();
+        Vector3ic edgeDelta = chunkEdgeDeltas[side.ordinal()];
+        for (int x = edge[0]; x <= edge[3]; x++) {
+            for (int y = edge[1]; y <= edge[4]; y++) {
+                for (int z = edge[2]; z <= edge[5]; z++) {
+                    int depthIndex = edgeIndex(side, x, y, z);
+                    int adjacentDepth = adjDepth[depthIndex];
+                    for (int i = adjacentDepth; i < depths[depthIndex]; ++i) {
+                        adjPos.set(direction).mul(i + 1).add(x, y, z).add(edgeDelta);
+                        byte value = rules.getValue(adjChunk, adjPos);
+                        if (value > 1) {
+                            queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos, worldPos), value);
+                        }
+                    }
                 }
             }
         }
     }
 
-    private void propagateSide(Chunk chunk, Chunk adjChunk, Side side, Function<Vector3ic, Integer> indexProvider,
-                               BlockRegionc edgeRegion, int[] depths) {
-        Vector3i adjPos = new Vector3i();
-        for (Vector3ic pos : edgeRegion) {
-            byte expectedValue = (byte) (rules.getValue(chunk, pos) - 1);
-            if (expectedValue < 1) {
-                continue;
-            }
+    private void propagateSide(Chunk chunk, Chunk adjChunk, Side side, int[] edge, int[] depths) {
+        Vector3ic edgeDelta = chunkEdgeDeltas[side.ordinal()];
+        for (int x = edge[0]; x <= edge[3]; x++) {
+            for (int y = edge[1]; y <= edge[4]; y++) {
+                for (int z = edge[2]; z <= edge[5]; z++) {
+                    byte expectedValue = (byte) (rules.getValue(chunk, x, y, z) - 1);
+                    if (expectedValue < 1) {
+                        continue;
+                    }
 
-            pos.add(chunkEdgeDeltas.get(side), adjPos);
-
-            int depthIndex = indexProvider.apply(pos);
-            int depth = 0;
-            Block lastBlock = chunk.getBlock(pos);
-            byte adjValue = rules.getValue(adjChunk, adjPos);
-            while (expectedValue > adjValue && adjValue != PropagatorWorldView.UNAVAILABLE && rules.canSpreadOutOf(lastBlock, side)) {
-                lastBlock = adjChunk.getBlock(adjPos);
-                if (rules.canSpreadInto(lastBlock, side.reverse())) {
-                    rules.setValue(adjChunk, adjPos, expectedValue);
-                    adjPos.add(side.direction());
-                    depth++;
-                    expectedValue--;
-                    adjValue = rules.getValue(adjChunk, adjPos);
-                } else {
-                    break;
+                    adjPos.set(x, y, z).add(edgeDelta);
+
+                    int depthIndex = edgeIndex(side, x, y, z);
+                    int depth = 0;
+                    Block lastBlock = chunk.getBlock(x, y, z);
+                    byte adjValue = rules.getValue(adjChunk, adjPos);
+                    while (expectedValue > adjValue && adjValue != PropagatorWorldView.UNAVAILABLE
+                            && rules.canSpreadOutOf(lastBlock, side)) {
+                        lastBlock = adjChunk.getBlock(adjPos);
+                        if (rules.canSpreadInto(lastBlock, side.reverse())) {
+                            rules.setValue(adjChunk, adjPos, expectedValue);
+                            adjPos.add(side.direction());
+                            depth++;
+                            expectedValue--;
+                            adjValue = rules.getValue(adjChunk, adjPos);
+                        } else {
+                            break;
+                        }
+                    }
+                    depths[depthIndex] = depth;
                 }
             }
-            depths[depthIndex] = depth;
         }
     }
 
     /**
-     * Get the index provider appropriate for that side
+     * Get the index of a position in the arrays with a value per block on the given side of a chunk
      *
-     * @param side The side to get the provider for
-     * @return The provider for that side
+     * @param side The side of the chunk
+     * @return The index of the position, ignoring the coordinate along the side's axis
      */
-    private Function<Vector3ic, Integer> createIndexProvider(Side side) {
+    private static int edgeIndex(Side side, int x, int y, int z) {
         switch (side) {
             case TOP:
             case BOTTOM:
-                return pos -> pos.x() + Chunks.SIZE_X * pos.z();
+                return x + Chunks.SIZE_X * z;
             case LEFT:
             case RIGHT:
-                return pos -> pos.y() + Chunks.SIZE_Y * pos.z();
+                return y + Chunks.SIZE_Y * z;
             default:
-                return pos -> pos.x() + Chunks.SIZE_X * pos.y();
+                return x + Chunks.SIZE_X * y;
         }
     }
 
+    private static int maxEdgeArea() {
+        return Math.max(Chunks.SIZE_X * Chunks.SIZE_Z, Math.max(Chunks.SIZE_Y * Chunks.SIZE_Z,
+                Chunks.SIZE_X * Chunks.SIZE_Y));
+    }
+
     @Override
     public void propagateFrom(Vector3ic pos, Block block) {
         queueSpreadValue(pos, rules.getFixedValue(block, pos));
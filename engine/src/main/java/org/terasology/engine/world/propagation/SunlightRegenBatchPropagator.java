@@ -2,7 +2,6 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.engine.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.terasology.engine.math.Side;
@@ -11,11 +10,11 @@
 import org.terasology.engine.world.chunks.Chunks;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
- *
+ * <br><br>
+ * Like {@link StandardBatchPropagator}, it queues packed positions and reuses its temporary vectors.
  */
 public class SunlightRegenBatchPropagator implements BatchPropagator {
 
@@ -24,8 +23,13 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3ic>[] reduceQueues;
-    private Set<Vector3ic>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    /* Reused by the processing methods, which don't call each other while they use them */
+    private final Vector3i currentPos = new Vector3i();
+    private final Vector3i columnPos = new Vector3i();
+    private final Vector3i adjPos = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
@@ -33,11 +37,11 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -69,7 +73,7 @@ private void reviewChangeToBottom(BlockChange blockChange) {
             byte existingValue = regenWorld.getValueAt(blockChangePosition);
             queueSpreadRegen(blockChangePosition, existingValue);
         } else if (comparison.isRestricting()) {
-            Vector3i adjPos = Side.BOTTOM.getAdjacentPos(blockChangePosition, new Vector3i());
+            Side.BOTTOM.getAdjacentPos(blockChangePosition, adjPos);
             byte existingValue = regenWorld.getValueAt(adjPos);
             reduce(adjPos, existingValue);
         }
@@ -79,7 +83,7 @@ private void reviewChangeToTop(BlockChange blockChange) {
         PropagationComparison comparison = regenRules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), Side.TOP);
         Vector3ic blockChangePosition = blockChange.getPosition();
         if (comparison.isPermitting()) {
-            Vector3i adjPos = Side.TOP.getAdjacentPos(blockChangePosition, new Vector3i());
+            Side.TOP.getAdjacentPos(blockChangePosition, adjPos);
             byte adjValue = regenWorld.getValueAt(adjPos);
             if (adjValue != PropagatorWorldView.UNAVAILABLE) {
                 queueSpreadRegen(adjPos, adjValue);
@@ -91,14 +95,19 @@ private void reviewChangeToTop(BlockChange blockChange) {
     }
 
     private void queueSpreadRegen(Vector3ic position, byte value) {
-        increaseQueues[value].add(position);
+        increaseQueues[value].add(PositionQueue.pack(position));
     }
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3ic> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
 
-            toProcess.forEach(this::purge);
+            for (int i = 0; i < toProcess.end(); i++) {
+                long packedPos = toProcess.get(i);
+                if (!PositionQueue.isRemoved(packedPos)) {
+                    purge(PositionQueue.unpack(packedPos, currentPos));
+                }
+            }
             toProcess.clear();
         }
     }
@@ -106,17 +115,17 @@ private void processRegenReduction() {
     private void purge(Vector3ic pos) {
         int expectedValue = regenWorld.getValueAt(pos);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            columnPos.set(pos);
             for (byte i = 0; i <= Chunks.MAX_SUNLIGHT_REGEN; ++i) {
-                if (regenWorld.getValueAt(position) == expectedValue) {
-                    regenWorld.setValueAt(position, i);
+                if (regenWorld.getValueAt(columnPos) == expectedValue) {
+                    regenWorld.setValueAt(columnPos, i);
                     if (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(columnPos, (byte) (expectedValue - Chunks.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
                 }
-                position.y--;
+                columnPos.y--;
                 if (expectedValue < Chunks.MAX_SUNLIGHT_REGEN) {
                     expectedValue++;
                 }
@@ -126,10 +135,13 @@ private void purge(Vector3ic pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3ic> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
 
-            for (Vector3ic pos : toProcess) {
-                push(pos, depth);
+            for (int i = 0; i < toProcess.end(); i++) {
+                long packedPos = toProcess.get(i);
+                if (!PositionQueue.isRemoved(packedPos)) {
+                    push(PositionQueue.unpack(packedPos, currentPos), depth);
+                }
             }
             toProcess.clear();
         }
@@ -138,22 +150,22 @@ private void processRegenIncrease() {
     private void push(Vector3ic pos, byte value) {
         byte regenValue = value;
         Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        columnPos.set(pos);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block, 1);
-            position.y -= 1;
-            byte adjValue = regenWorld.getValueAt(position);
+            columnPos.y -= 1;
+            byte adjValue = regenWorld.getValueAt(columnPos);
             if (adjValue < regenValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                block = regenWorld.getBlockAt(position);
+                block = regenWorld.getBlockAt(columnPos);
                 if (regenRules.canSpreadInto(block, Side.TOP)) {
-                    regenWorld.setValueAt(position, regenValue);
-                    reduceQueues[adjValue].remove(position);
+                    regenWorld.setValueAt(columnPos, regenValue);
+                    reduceQueues[adjValue].remove(PositionQueue.pack(columnPos));
                     byte sunlightValue = (byte) (regenValue - Chunks.SUNLIGHT_REGEN_THRESHOLD);
                     if (sunlightValue > 0) {
-                        byte prevValue = sunlightWorld.getValueAt(position);
+                        byte prevValue = sunlightWorld.getValueAt(columnPos);
                         if (prevValue < sunlightValue) {
-                            sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightWorld.setValueAt(columnPos, sunlightValue);
+                            sunlightPropagator.propagateFrom(columnPos, sunlightValue);
                         }
                     }
                 } else {
@@ -170,7 +182,7 @@ private void cleanUp() {
 
     private void reduce(Vector3ic position, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[oldValue].add(position);
+            reduceQueues[oldValue].add(PositionQueue.pack(position));
         }
     }
 
@@ -227,10 +239,11 @@ private void markForPropagation(Chunk toChunk, int[] depth, int[] startingRegen,
 
     private void propagateSweep(Chunk fromChunk, Chunk toChunk, int[] depth, int[] startingRegen) {
         Vector3i pos = new Vector3i();
+        Vector3i fromPos = new Vector3i();
         for (int z = 0; z < Chunks.SIZE_Z; ++z) {
             for (int x = 0; x < Chunks.SIZE_X; ++x) {
                 int depthIndex = x + Chunks.SIZE_X * z;
-                startingRegen[depthIndex] = regenRules.getValue(fromChunk, new Vector3i(x, 0, z));
+                startingRegen[depthIndex] = regenRules.getValue(fromChunk, fromPos.set(x, 0, z));
                 byte expectedValue = (byte) Math.min(startingRegen[depthIndex] + 1, Chunks.MAX_SUNLIGHT_REGEN);
                 Block fromBlock = fromChunk.getBlock(x, 0, z);
                 Block toBlock = toChunk.getBlock(x, Chunks.SIZE_Y - 1, z);
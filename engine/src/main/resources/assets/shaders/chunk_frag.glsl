@@ -66,6 +66,7 @@ varying vec4 vertexProjPos;
 varying vec3 sunVecView;
 
 varying vec3 normal;
+varying vec2 tileRepeat;
 
 varying float blockHint;
 varying float isUpside;
@@ -75,6 +76,9 @@ uniform sampler2D textureEffects;
 
 uniform float clip;
 
+// The part of a tile used by a block side, which leaves out a border of 1/128 of the tile on each side
+#define TILE_TEXTURE_SIZE (TEXTURE_OFFSET * 63.0 / 64.0)
+
 //inverse is not available in GLSL 1.20, so calculate it manually
 mat2 inverse2(mat2 m) {
     float det = m[0][0] * m[1][1] - m[1][0] * m[0][1];
@@ -90,7 +94,7 @@ void main() {
     }
 #endif
 
-    vec2 texCoord = gl_TexCoord[0].xy;
+    vec2 texCoord = gl_TexCoord[0].xy + fract(tileRepeat) * TILE_TEXTURE_SIZE;
 
     vec3 normalizedViewPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
@@ -104,7 +108,9 @@ void main() {
     // both view and UV coordinates to screen-space coordinated. The specific relationship between 
     // screen coordinates and view coordinates is irrelevant.
     mat2x3 screenToView = mat2x3(dFdx(vertexViewPos.xyz), dFdy(vertexViewPos.xyz));
-    mat2   screenToUv   = mat2  (dFdx(gl_TexCoord[0].xy), dFdy(gl_TexCoord[0].xy)) / TEXTURE_OFFSET;
+    // Derived from the texture coordinates without wrapping, so they don't jump where merged quads repeat their tile
+    vec2 unwrappedTexCoord = gl_TexCoord[0].xy + tileRepeat * TILE_TEXTURE_SIZE;
+    mat2   screenToUv   = mat2  (dFdx(unwrappedTexCoord), dFdy(unwrappedTexCoord)) / TEXTURE_OFFSET;
     mat2 uvToScreen = inverse2(screenToUv);
     mat2x3 uvToView = screenToView * uvToScreen;
 
@@ -14,6 +14,8 @@
  * limitations under the License.
  */
 
+#define LIGHT_VALUE_SCALE 32767.0
+
 #ifdef FEATURE_REFRACTIVE_PASS
 varying vec3 waterNormalViewSpace;
 #endif
@@ -98,6 +100,7 @@ uniform vec3 chunkPositionWorld;
 uniform bool animated;
 
 varying vec3 normal;
+varying vec2 tileRepeat;
 
 varying vec3 vertexWorldPos;
 varying vec4 vertexViewPos;
@@ -111,10 +114,15 @@ varying float blockHint;
 void main()
 {
 	gl_TexCoord[0] = gl_MultiTexCoord0;
+	// Quads merged by greedy meshing store how often their tile repeats in the integer part of the
+	// texture coordinates, the fractional part is the corner of the tile. Other quads have no integer part.
+	tileRepeat = floor(gl_TexCoord[0].xy);
+	gl_TexCoord[0].xy -= tileRepeat;
 	blockHint = int(gl_TexCoord[0].z);
 	/*int*/ float animationFrameCount = gl_TexCoord[0].w;
 
-    gl_TexCoord[1] = gl_MultiTexCoord1;
+    // The lighting values are stored as shorts, scaled to fill their range
+    gl_TexCoord[1] = gl_MultiTexCoord1 * vec4(vec3(1.0 / LIGHT_VALUE_SCALE), 1.0);
 
 	vertexViewPos = gl_ModelViewMatrix * gl_Vertex;
 	vertexWorldPos = gl_Vertex.xyz + chunkPositionWorld.xyz;